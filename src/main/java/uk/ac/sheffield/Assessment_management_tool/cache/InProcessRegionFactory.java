@@ -0,0 +1,135 @@
+package uk.ac.sheffield.Assessment_management_tool.cache;
+
+import org.hibernate.boot.spi.SessionFactoryOptions;
+import org.hibernate.cache.cfg.spi.DomainDataRegionBuildingContext;
+import org.hibernate.cache.cfg.spi.DomainDataRegionConfig;
+import org.hibernate.cache.spi.support.DomainDataStorageAccess;
+import org.hibernate.cache.spi.support.RegionFactoryTemplate;
+import org.hibernate.cache.spi.support.StorageAccess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.springframework.boot.convert.DurationStyle;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Hibernate second-level cache provider that keeps every region in this JVM.
+ *
+ * Entity, collection and query-result regions are LRU maps bounded by
+ * {@value #MAX_ENTRIES_SETTING} entries each (default 10000), and an entry is dropped
+ * once it is older than {@value #TTL_SETTING} (default 5m). Nothing tells this JVM
+ * about writes made by another replica, so the TTL is how long one may serve stale
+ * data. The update-timestamps region holds one entry per table and is never trimmed
+ * or expired: a missing timestamp would make Hibernate treat cached query results
+ * as current.
+ *
+ * Enabled with {@code hibernate.cache.region.factory_class}; see application.properties.
+ */
+public class InProcessRegionFactory extends RegionFactoryTemplate {
+    
+    public static final String MAX_ENTRIES_SETTING = "app.second-level-cache.max-entries";
+    public static final String TTL_SETTING = "app.second-level-cache.ttl";
+    
+    private int maxEntries = 10000;
+    private Duration ttl = Duration.ofMinutes(5);
+    
+    @Override
+    protected void prepareForUse(SessionFactoryOptions settings, Map<String, Object> configValues) {
+        Object configured = configValues.get(MAX_ENTRIES_SETTING);
+        if (configured != null) {
+            maxEntries = Integer.parseInt(configured.toString());
+        }
+        Object configuredTtl = configValues.get(TTL_SETTING);
+        if (configuredTtl != null) {
+            ttl = DurationStyle.detectAndParse(configuredTtl.toString());
+        }
+    }
+    
+    @Override
+    protected void releaseFromUse() {
+    }
+    
+    @Override
+    protected DomainDataStorageAccess createDomainDataStorageAccess(DomainDataRegionConfig regionConfig,
+                                                                    DomainDataRegionBuildingContext buildingContext) {
+        return new MapStorageAccess(maxEntries, ttl);
+    }
+    
+    @Override
+    protected StorageAccess createQueryResultsRegionStorageAccess(String regionName,
+                                                                  SessionFactoryImplementor sessionFactory) {
+        return new MapStorageAccess(maxEntries, ttl);
+    }
+    
+    @Override
+    protected StorageAccess createTimestampsRegionStorageAccess(String regionName,
+                                                                SessionFactoryImplementor sessionFactory) {
+        return new MapStorageAccess(Integer.MAX_VALUE, null);
+    }
+    
+    /**
+     * One region's entries in least-recently-used order, each with the time it was put
+     */
+    private static class MapStorageAccess implements DomainDataStorageAccess {
+        
+        private final Map<Object, Entry> entries;
+        private final long ttlNanos;
+        
+        /**
+         * @param ttl how long an entry is served for, or null to keep it until evicted
+         */
+        MapStorageAccess(int maxEntries, Duration ttl) {
+            this.ttlNanos = ttl == null ? Long.MAX_VALUE : ttl.toNanos();
+            this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Object, Entry> eldest) {
+                    return size() > maxEntries;
+                }
+            };
+        }
+        
+        @Override
+        public synchronized Object getFromCache(Object key, SharedSessionContractImplementor session) {
+            Entry entry = current(key);
+            return entry == null ? null : entry.value();
+        }
+        
+        @Override
+        public synchronized void putIntoCache(Object key, Object value, SharedSessionContractImplementor session) {
+            entries.put(key, new Entry(value, System.nanoTime()));
+        }
+        
+        @Override
+        public synchronized boolean contains(Object key) {
+            return current(key) != null;
+        }
+        
+        @Override
+        public synchronized void evictData() {
+            entries.clear();
+        }
+        
+        @Override
+        public synchronized void evictData(Object key) {
+            entries.remove(key);
+        }
+        
+        @Override
+        public void release() {
+            evictData();
+        }
+        
+        private Entry current(Object key) {
+            Entry entry = entries.get(key);
+            if (entry != null && System.nanoTime() - entry.putAt() >= ttlNanos) {
+                entries.remove(key);
+                return null;
+            }
+            return entry;
+        }
+        
+        private record Entry(Object value, long putAt) {}
+    }
+}
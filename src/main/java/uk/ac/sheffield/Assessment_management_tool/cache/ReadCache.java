@@ -0,0 +1,128 @@
+package uk.ac.sheffield.Assessment_management_tool.cache;
+
+import uk.ac.sheffield.Assessment_management_tool.dto.response.CacheStatsDto;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Bounded, expiring in-process cache for read-mostly lookups.
+ *
+ * Entries are kept in least-recently-used order and dropped once there are more
+ * than {@code maxSize} of them or they are older than {@code ttl}. Absent values
+ * (a loader returning null) are not cached.
+ *
+ * Loads run outside the lock. Any invalidation bumps a generation counter, and a
+ * load that started before it is returned to its caller but not stored, so a
+ * slow read cannot put back a row that a concurrent write just changed.
+ */
+public class ReadCache<K, V> {
+    
+    private final String name;
+    private final int maxSize;
+    private final long ttlNanos;
+    private final Map<K, Entry<V>> entries;
+    private final AtomicLong generation = new AtomicLong();
+    
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+    
+    public ReadCache(String name, int maxSize, Duration ttl) {
+        this.name = name;
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                if (size() > ReadCache.this.maxSize) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+    
+    /**
+     * Cached value for the key, loading and caching it on a miss
+     */
+    public V get(K key, Function<K, V> loader) {
+        long now = System.nanoTime();
+        long loadGeneration;
+        synchronized (entries) {
+            Entry<V> entry = entries.get(key);
+            if (entry != null) {
+                if (now - entry.loadedAt() < ttlNanos) {
+                    hits.increment();
+                    return entry.value();
+                }
+                entries.remove(key);
+                evictions.increment();
+            }
+            misses.increment();
+            loadGeneration = generation.get();
+        }
+        
+        V value = loader.apply(key);
+        if (value != null) {
+            synchronized (entries) {
+                if (generation.get() == loadGeneration) {
+                    entries.put(key, new Entry<>(value, now));
+                }
+            }
+        }
+        return value;
+    }
+    
+    public void invalidate(K key) {
+        synchronized (entries) {
+            generation.incrementAndGet();
+            if (entries.remove(key) != null) {
+                invalidations.increment();
+            }
+        }
+    }
+    
+    /**
+     * Drop every entry whose key matches
+     */
+    public void invalidateIf(Predicate<K> predicate) {
+        synchronized (entries) {
+            generation.incrementAndGet();
+            Iterator<K> keys = entries.keySet().iterator();
+            while (keys.hasNext()) {
+                if (predicate.test(keys.next())) {
+                    keys.remove();
+                    invalidations.increment();
+                }
+            }
+        }
+    }
+    
+    public void invalidateAll() {
+        synchronized (entries) {
+            generation.incrementAndGet();
+            invalidations.add(entries.size());
+            entries.clear();
+        }
+    }
+    
+    public CacheStatsDto stats() {
+        int size;
+        synchronized (entries) {
+            size = entries.size();
+        }
+        return new CacheStatsDto(name, size, maxSize, hits.sum(), misses.sum(),
+                evictions.sum(), invalidations.sum());
+    }
+    
+    private record Entry<V>(V value, long loadedAt) {}
+}
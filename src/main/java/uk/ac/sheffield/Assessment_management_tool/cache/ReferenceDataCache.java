@@ -0,0 +1,197 @@
+package uk.ac.sheffield.Assessment_management_tool.cache;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import uk.ac.sheffield.Assessment_management_tool.domain.entity.Assessment;
+import uk.ac.sheffield.Assessment_management_tool.domain.entity.Module;
+import uk.ac.sheffield.Assessment_management_tool.domain.entity.User;
+import uk.ac.sheffield.Assessment_management_tool.dto.response.CacheStatsDto;
+import uk.ac.sheffield.Assessment_management_tool.repository.AssessmentRepository;
+import uk.ac.sheffield.Assessment_management_tool.repository.ModuleRepository;
+import uk.ac.sheffield.Assessment_management_tool.repository.UserRepository;
+import uk.ac.sheffield.Assessment_management_tool.security.CustomUserDetails;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Read cache for users, modules, a user's role flags on an assessment and the
+ * signed-in principal that sessions resolve on each request.
+ *
+ * Values are detached copies: callers get their own instance and may change it
+ * freely, but must load through the repository when they mean to save. Services
+ * that write users, modules or role assignments evict here; evictions run both
+ * immediately and again once the surrounding transaction commits, so no other
+ * request can re-cache the pre-commit row in between.
+ */
+@Component
+public class ReferenceDataCache {
+    
+    private static final int ROLE_FLAGS = 6;
+    private static final int WORKFLOW_FLAGS = 2;
+    
+    private final UserRepository userRepository;
+    private final ModuleRepository moduleRepository;
+    private final AssessmentRepository assessmentRepository;
+    
+    private final ReadCache<UUID, User> usersById;
+    private final ReadCache<String, User> usersByEmail;
+    private final ReadCache<UUID, CustomUserDetails> principalsById;
+    private final ReadCache<UUID, Module> modulesById;
+    private final ReadCache<PermissionKey, boolean[]> roleFlags;
+    
+    public ReferenceDataCache(
+            UserRepository userRepository,
+            ModuleRepository moduleRepository,
+            AssessmentRepository assessmentRepository,
+            @Value("${app.cache.max-size:10000}") int maxSize,
+            @Value("${app.cache.ttl:10m}") Duration ttl) {
+        this.userRepository = userRepository;
+        this.moduleRepository = moduleRepository;
+        this.assessmentRepository = assessmentRepository;
+        this.usersById = new ReadCache<>("usersById", maxSize, ttl);
+        this.usersByEmail = new ReadCache<>("usersByEmail", maxSize, ttl);
+        this.principalsById = new ReadCache<>("principalsById", maxSize, ttl);
+        this.modulesById = new ReadCache<>("modulesById", maxSize, ttl);
+        this.roleFlags = new ReadCache<>("roleFlags", maxSize, ttl);
+    }
+    
+    public Optional<User> findUser(UUID id) {
+        User user = usersById.get(id, key -> userRepository.findById(key).map(ReferenceDataCache::copyOf).orElse(null));
+        return Optional.ofNullable(user).map(ReferenceDataCache::copyOf);
+    }
+    
+    public Optional<User> findUserByEmail(String email) {
+        User user = usersByEmail.get(email, key -> userRepository.findByEmail(key).map(ReferenceDataCache::copyOf).orElse(null));
+        return Optional.ofNullable(user).map(ReferenceDataCache::copyOf);
+    }
+    
+    /**
+     * The user as a principal, without password hash. Principals are immutable, so
+     * the cached instance itself is shared rather than copied.
+     */
+    public Optional<CustomUserDetails> findPrincipal(UUID userId) {
+        return Optional.ofNullable(principalsById.get(userId, this::loadPrincipal));
+    }
+    
+    public Optional<Module> findModule(UUID id) {
+        Module module = modulesById.get(id, key -> moduleRepository.findById(key).map(ReferenceDataCache::copyOf).orElse(null));
+        return Optional.ofNullable(module).map(ReferenceDataCache::copyOf);
+    }
+    
+    /**
+     * The columns of {@link AssessmentRepository#findRoleFlags} followed by those of
+     * {@link AssessmentRepository#findWorkflowFlags}, all false when the assessment is gone.
+     *
+     * Only the role flags are cached. Feedback and setter responses are not written
+     * through a service that evicts here, so whether they exist is read on every call.
+     */
+    public boolean[] findPermissionFlags(Assessment assessment, UUID userId) {
+        PermissionKey key = new PermissionKey(assessment.getModule().getId(), assessment.getId(), userId);
+        boolean[] roles = roleFlags.get(key, this::loadRoleFlags);
+        boolean[] workflow = toFlags(assessmentRepository.findWorkflowFlags(assessment.getId()), WORKFLOW_FLAGS);
+        
+        boolean[] flags = Arrays.copyOf(roles, ROLE_FLAGS + WORKFLOW_FLAGS);
+        System.arraycopy(workflow, 0, flags, ROLE_FLAGS, WORKFLOW_FLAGS);
+        return flags;
+    }
+    
+    public void evictUser(User user) {
+        evictNowAndOnCommit(() -> {
+            usersById.invalidate(user.getId());
+            usersByEmail.invalidate(user.getEmail());
+            principalsById.invalidate(user.getId());
+            roleFlags.invalidateIf(key -> key.userId().equals(user.getId()));
+        });
+    }
+    
+    /**
+     * Drop a module and every cached role flag that depends on its staff
+     */
+    public void evictModule(UUID moduleId) {
+        evictNowAndOnCommit(() -> {
+            modulesById.invalidate(moduleId);
+            roleFlags.invalidateIf(key -> key.moduleId().equals(moduleId));
+        });
+    }
+    
+    public void evictAssessmentRoles(UUID assessmentId) {
+        evictNowAndOnCommit(() -> roleFlags.invalidateIf(key -> key.assessmentId().equals(assessmentId)));
+    }
+    
+    /**
+     * For bulk writes such as CSV imports, where tracking individual keys is not worth it
+     */
+    public void evictAll() {
+        evictNowAndOnCommit(() -> {
+            usersById.invalidateAll();
+            usersByEmail.invalidateAll();
+            principalsById.invalidateAll();
+            modulesById.invalidateAll();
+            roleFlags.invalidateAll();
+        });
+    }
+    
+    public List<CacheStatsDto> stats() {
+        return List.of(usersById.stats(), usersByEmail.stats(), principalsById.stats(),
+                modulesById.stats(), roleFlags.stats());
+    }
+    
+    private CustomUserDetails loadPrincipal(UUID userId) {
+        return userRepository.findById(userId)
+                .map(user -> {
+                    CustomUserDetails principal = new CustomUserDetails(user);
+                    principal.eraseCredentials();
+                    return principal;
+                })
+                .orElse(null);
+    }
+    
+    private boolean[] loadRoleFlags(PermissionKey key) {
+        return toFlags(assessmentRepository.findRoleFlags(key.assessmentId(), key.userId()), ROLE_FLAGS);
+    }
+    
+    private static boolean[] toFlags(List<Object[]> rows, int columns) {
+        boolean[] flags = new boolean[columns];
+        if (!rows.isEmpty()) {
+            Object[] row = rows.get(0);
+            for (int i = 0; i < flags.length; i++) {
+                flags[i] = Boolean.TRUE.equals(row[i]);
+            }
+        }
+        return flags;
+    }
+    
+    private static void evictNowAndOnCommit(Runnable eviction) {
+        eviction.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    eviction.run();
+                }
+            });
+        }
+    }
+    
+    private static User copyOf(User user) {
+        User copy = new User(user.getName(), user.getEmail(), user.getPasswordHash(), user.getBaseType());
+        copy.setId(user.getId());
+        copy.setExamsOfficer(user.isExamsOfficer());
+        copy.setCreatedAt(user.getCreatedAt());
+        return copy;
+    }
+    
+    private static Module copyOf(Module module) {
+        Module copy = new Module(module.getCode(), module.getTitle());
+        copy.setId(module.getId());
+        return copy;
+    }
+    
+    private record PermissionKey(UUID moduleId, UUID assessmentId, UUID userId) {}
+}
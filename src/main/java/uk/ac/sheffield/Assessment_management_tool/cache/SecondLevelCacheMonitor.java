@@ -0,0 +1,55 @@
+package uk.ac.sheffield.Assessment_management_tool.cache;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+import uk.ac.sheffield.Assessment_management_tool.dto.response.CacheRegionStatsDto;
+import uk.ac.sheffield.Assessment_management_tool.dto.response.SecondLevelCacheStatsDto;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Reads Hibernate's statistics for the second-level and query caches.
+ * Needs hibernate.generate_statistics=true; counters are zero otherwise.
+ */
+@Component
+public class SecondLevelCacheMonitor {
+    
+    private final Statistics statistics;
+    
+    public SecondLevelCacheMonitor(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+    
+    public SecondLevelCacheStatsDto stats() {
+        List<CacheRegionStatsDto> regions = new ArrayList<>();
+        String[] regionNames = statistics.getSecondLevelCacheRegionNames();
+        Arrays.sort(regionNames);
+        for (String regionName : regionNames) {
+            CacheRegionStatistics region = statistics.getCacheRegionStatistics(regionName);
+            if (region != null) {
+                regions.add(new CacheRegionStatsDto(regionName,
+                        region.getHitCount(), region.getMissCount(), region.getPutCount()));
+            }
+        }
+        
+        SecondLevelCacheStatsDto dto = new SecondLevelCacheStatsDto();
+        dto.setRegions(regions);
+        dto.setQueryCacheHits(statistics.getQueryCacheHitCount());
+        dto.setQueryCacheMisses(statistics.getQueryCacheMissCount());
+        dto.setPrepareStatementCount(statistics.getPrepareStatementCount());
+        dto.setSessionOpenCount(statistics.getSessionOpenCount());
+        return dto;
+    }
+    
+    /**
+     * Zero every counter, e.g. before a load test
+     */
+    public void reset() {
+        statistics.clear();
+    }
+}
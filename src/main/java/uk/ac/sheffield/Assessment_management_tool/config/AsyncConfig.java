@@ -0,0 +1,87 @@
+package uk.ac.sheffield.Assessment_management_tool.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class AsyncConfig {
+    
+    /**
+     * Bounded executor for background CSV imports and password rotation jobs.
+     * Jobs beyond the queue capacity are rejected rather than piling up in memory.
+     */
+    @Bean(name = "csvImportExecutor")
+    public ThreadPoolTaskExecutor csvImportExecutor(
+            @Value("${app.import.pool-size:2}") int poolSize,
+            @Value("${app.import.queue-capacity:10}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("csv-import-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        return executor;
+    }
+    
+    /**
+     * Worker pool for BCrypt hashing during bulk imports.
+     * When the queue is full the submitting thread hashes itself, which throttles parsing.
+     */
+    @Bean(name = "passwordHashExecutor")
+    public ThreadPoolTaskExecutor passwordHashExecutor(
+            @Value("${app.security.hash-pool-size:0}") int poolSize) {
+        int threads = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(threads * 64);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setThreadNamePrefix("password-hash-");
+        executor.initialize();
+        return executor;
+    }
+    
+    /**
+     * Pool that verifies login passwords, so a login burst cannot take every core.
+     * A full queue rejects the login (answered with 429) instead of running it on the request thread.
+     */
+    @Bean(name = "loginHashExecutor")
+    public ThreadPoolTaskExecutor loginHashExecutor(
+            @Value("${app.security.login.pool-size:0}") int poolSize,
+            @Value("${app.security.login.queue-capacity:100}") int queueCapacity) {
+        int threads = poolSize > 0 ? poolSize : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setThreadNamePrefix("login-hash-");
+        executor.initialize();
+        return executor;
+    }
+    
+    /**
+     * CPU-bound pool for validate-only CSV runs, which check chunks of a file in parallel.
+     * When the queue is full the uploading thread checks the chunk itself, so a large
+     * file cannot queue more than a few chunks ahead of the workers.
+     */
+    @Bean(name = "csvValidationExecutor")
+    public ThreadPoolTaskExecutor csvValidationExecutor(
+            @Value("${app.import.validation-pool-size:0}") int poolSize) {
+        int threads = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(threads * 4);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setThreadNamePrefix("csv-validate-");
+        executor.initialize();
+        return executor;
+    }
+}
@@ -7,9 +7,12 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import uk.ac.sheffield.Assessment_management_tool.dto.request.AssessmentFilter;
 import uk.ac.sheffield.Assessment_management_tool.dto.request.CreateAssessmentRequest;
 import uk.ac.sheffield.Assessment_management_tool.dto.request.TransitionRequest;
 import uk.ac.sheffield.Assessment_management_tool.dto.response.AssessmentDto;
+import uk.ac.sheffield.Assessment_management_tool.dto.response.AssessmentStatsDto;
+import uk.ac.sheffield.Assessment_management_tool.dto.response.CursorPageDto;
 import uk.ac.sheffield.Assessment_management_tool.dto.response.TransitionDto;
 import uk.ac.sheffield.Assessment_management_tool.security.CustomUserDetails;
 import uk.ac.sheffield.Assessment_management_tool.service.AssessmentService;
@@ -28,9 +31,21 @@ public class AssessmentController {
     }
     
     @GetMapping("/assessments")
-    public ResponseEntity<List<AssessmentDto>> getAllAssessments() {
+    public ResponseEntity<CursorPageDto<AssessmentDto>> getAllAssessments(
+            AssessmentFilter filter,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
         UUID userId = getCurrentUserId();
-        return ResponseEntity.ok(assessmentService.getAllAssessmentsForUser(userId));
+        return ResponseEntity.ok(assessmentService.getAssessmentPageForUser(userId, filter, cursor, limit));
+    }
+    
+    /**
+     * Counts per state and type for dashboards, optionally for one module
+     */
+    @GetMapping("/assessments/stats")
+    public ResponseEntity<AssessmentStatsDto> getAssessmentStats(@RequestParam(required = false) UUID moduleId) {
+        UUID userId = getCurrentUserId();
+        return ResponseEntity.ok(assessmentService.getAssessmentStats(userId, moduleId));
     }
     
     @GetMapping("/assessments/{id}")
@@ -116,6 +131,6 @@ public class AssessmentController {
     private UUID getCurrentUserId() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         CustomUserDetails userDetails = (CustomUserDetails) authentication.getPrincipal();
-        return userDetails.getUser().getId();
+        return userDetails.getUserId();
     }
 }
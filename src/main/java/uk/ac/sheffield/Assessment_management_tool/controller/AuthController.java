@@ -1,37 +1,55 @@
 package uk.ac.sheffield.Assessment_management_tool.controller;
 
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.servlet.http.HttpSession;
 import jakarta.validation.Valid;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.web.context.HttpSessionSecurityContextRepository;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.web.bind.annotation.*;
 import uk.ac.sheffield.Assessment_management_tool.dto.request.LoginRequest;
+import uk.ac.sheffield.Assessment_management_tool.dto.request.RefreshTokenRequest;
+import uk.ac.sheffield.Assessment_management_tool.dto.response.AuthTokenDto;
 import uk.ac.sheffield.Assessment_management_tool.dto.response.UserDto;
 import uk.ac.sheffield.Assessment_management_tool.dto.response.UserProfileDto;
-import uk.ac.sheffield.Assessment_management_tool.mapper.EntityMapper;
+import uk.ac.sheffield.Assessment_management_tool.security.AccessTokenService;
 import uk.ac.sheffield.Assessment_management_tool.security.CustomUserDetails;
+import uk.ac.sheffield.Assessment_management_tool.security.CustomUserDetailsService;
+import uk.ac.sheffield.Assessment_management_tool.security.LoginAuthenticator;
+import uk.ac.sheffield.Assessment_management_tool.security.SessionPrincipalRepository;
+import uk.ac.sheffield.Assessment_management_tool.service.UserService;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
-import java.util.Map;
 import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/auth")
 public class AuthController {
     
-    private final AuthenticationManager authenticationManager;
+    private final LoginAuthenticator loginAuthenticator;
+    private final AccessTokenService accessTokenService;
+    private final CustomUserDetailsService userDetailsService;
+    private final SessionPrincipalRepository sessionPrincipalRepository;
+    private final UserService userService;
     
-    public AuthController(AuthenticationManager authenticationManager) {
-        this.authenticationManager = authenticationManager;
+    public AuthController(LoginAuthenticator loginAuthenticator, AccessTokenService accessTokenService,
+                          CustomUserDetailsService userDetailsService,
+                          SessionPrincipalRepository sessionPrincipalRepository, UserService userService) {
+        this.loginAuthenticator = loginAuthenticator;
+        this.accessTokenService = accessTokenService;
+        this.userDetailsService = userDetailsService;
+        this.sessionPrincipalRepository = sessionPrincipalRepository;
+        this.userService = userService;
     }
     
     @GetMapping("/csrf")
@@ -39,31 +57,63 @@ public class AuthController {
         return ResponseEntity.ok().build();
     }
     
+    /**
+     * Session mode stores the authentication in the HTTP session. Token mode
+     * creates no session and returns an access and refresh token instead.
+     * Answers 429 when the login verification pool is saturated.
+     */
     @PostMapping("/login")
-    public ResponseEntity<?> login(@Valid @RequestBody LoginRequest request, HttpServletRequest httpRequest) {
+    public ResponseEntity<?> login(@Valid @RequestBody LoginRequest request, HttpServletRequest httpRequest,
+                                   HttpServletResponse httpResponse) {
         try {
-            Authentication auth = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(request.getEmail(), request.getPassword()));
+            Authentication auth = loginAuthenticator.authenticate(request.getEmail(), request.getPassword());
+            CustomUserDetails userDetails = (CustomUserDetails) auth.getPrincipal();
+            
+            if (accessTokenService.isEnabled()) {
+                return ResponseEntity.ok(issueTokens(userDetails));
+            }
             
             SecurityContext context = SecurityContextHolder.getContext();
             context.setAuthentication(auth);
             
-            HttpSession session = httpRequest.getSession(true);
-            session.setAttribute(HttpSessionSecurityContextRepository.SPRING_SECURITY_CONTEXT_KEY, context);
-            
-            CustomUserDetails userDetails = (CustomUserDetails) auth.getPrincipal();
-            UserDto userDto = EntityMapper.toUserDto(userDetails.getUser());
-            List<String> roles = auth.getAuthorities().stream()
-                    .map(GrantedAuthority::getAuthority)
-                    .collect(Collectors.toList());
+            // A session from before login gets a new id, so its old id cannot be used to ride on this login
+            if (httpRequest.getSession(false) != null) {
+                httpRequest.changeSessionId();
+            }
+            sessionPrincipalRepository.saveContext(context, httpRequest, httpResponse);
             
-            return ResponseEntity.ok(new UserProfileDto(userDto, roles));
+            UserDto userDto = userService.getUserById(userDetails.getUserId());
+            return ResponseEntity.ok(new UserProfileDto(userDto, roleNames(auth.getAuthorities())));
+        } catch (TaskRejectedException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, "2")
+                    .body(Map.of("message", "Too many sign-ins in progress, please try again shortly"));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(Map.of("message", "Invalid email or password"));
         }
     }
     
+    /**
+     * Exchange a refresh token for a new token pair (token mode only). The user is
+     * re-read, so a change to their roles shows up in the new access token.
+     */
+    @PostMapping("/refresh")
+    public ResponseEntity<AuthTokenDto> refresh(@Valid @RequestBody RefreshTokenRequest request) {
+        if (!accessTokenService.isEnabled()) {
+            throw new IllegalStateException("Token authentication is not enabled");
+        }
+        
+        CustomUserDetails userDetails;
+        try {
+            userDetails = userDetailsService.loadUserById(
+                    accessTokenService.verifyRefreshToken(request.getRefreshToken()));
+        } catch (UsernameNotFoundException e) {
+            throw new BadCredentialsException("Invalid token");
+        }
+        return ResponseEntity.ok(issueTokens(userDetails));
+    }
+    
     @PostMapping("/logout")
     public ResponseEntity<Void> logout(HttpServletRequest request) {
         HttpSession session = request.getSession(false);
@@ -78,16 +128,27 @@ public class AuthController {
     public ResponseEntity<UserProfileDto> getCurrentUser() {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
         
-        if (auth == null || !auth.isAuthenticated() || auth.getPrincipal().equals("anonymousUser")) {
+        if (auth == null || !auth.isAuthenticated() || !(auth.getPrincipal() instanceof CustomUserDetails)) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
         
         CustomUserDetails userDetails = (CustomUserDetails) auth.getPrincipal();
-        UserDto userDto = EntityMapper.toUserDto(userDetails.getUser());
-        List<String> roles = auth.getAuthorities().stream()
+        UserDto userDto = userService.getUserById(userDetails.getUserId());
+        return ResponseEntity.ok(new UserProfileDto(userDto, roleNames(auth.getAuthorities())));
+    }
+    
+    private AuthTokenDto issueTokens(CustomUserDetails userDetails) {
+        return new AuthTokenDto(
+                userService.getUserById(userDetails.getUserId()),
+                roleNames(userDetails.getAuthorities()),
+                accessTokenService.issueAccessToken(userDetails),
+                accessTokenService.issueRefreshToken(userDetails),
+                accessTokenService.getAccessTtl().toSeconds());
+    }
+    
+    private static List<String> roleNames(Collection<? extends GrantedAuthority> authorities) {
+        return authorities.stream()
                 .map(GrantedAuthority::getAuthority)
                 .collect(Collectors.toList());
-        
-        return ResponseEntity.ok(new UserProfileDto(userDto, roles));
     }
 }
@@ -0,0 +1,56 @@
+package uk.ac.sheffield.Assessment_management_tool.controller;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import uk.ac.sheffield.Assessment_management_tool.cache.ReferenceDataCache;
+import uk.ac.sheffield.Assessment_management_tool.cache.SecondLevelCacheMonitor;
+import uk.ac.sheffield.Assessment_management_tool.dto.response.CacheStatsDto;
+import uk.ac.sheffield.Assessment_management_tool.dto.response.SecondLevelCacheStatsDto;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/admin/cache")
+public class CacheController {
+    
+    private final ReferenceDataCache referenceDataCache;
+    private final SecondLevelCacheMonitor secondLevelCacheMonitor;
+    
+    public CacheController(ReferenceDataCache referenceDataCache, SecondLevelCacheMonitor secondLevelCacheMonitor) {
+        this.referenceDataCache = referenceDataCache;
+        this.secondLevelCacheMonitor = secondLevelCacheMonitor;
+    }
+    
+    /**
+     * Hit, miss, eviction and invalidation counts for each read cache
+     */
+    @GetMapping("/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<CacheStatsDto>> getStats() {
+        return ResponseEntity.ok(referenceDataCache.stats());
+    }
+    
+    /**
+     * Hibernate second-level cache regions, query cache and statements per session
+     */
+    @GetMapping("/hibernate")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<SecondLevelCacheStatsDto> getHibernateStats() {
+        return ResponseEntity.ok(secondLevelCacheMonitor.stats());
+    }
+    
+    @DeleteMapping("/hibernate/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Void> resetHibernateStats() {
+        secondLevelCacheMonitor.reset();
+        return ResponseEntity.noContent().build();
+    }
+    
+    @DeleteMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Void> evictAll() {
+        referenceDataCache.evictAll();
+        return ResponseEntity.noContent().build();
+    }
+}
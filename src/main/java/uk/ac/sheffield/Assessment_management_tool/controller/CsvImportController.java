@@ -6,8 +6,13 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 import uk.ac.sheffield.Assessment_management_tool.domain.entity.CsvImportJob;
+import uk.ac.sheffield.Assessment_management_tool.domain.enums.ImportErrorCode;
+import uk.ac.sheffield.Assessment_management_tool.dto.response.ImportErrorDto;
+import uk.ac.sheffield.Assessment_management_tool.dto.response.PageDto;
 import uk.ac.sheffield.Assessment_management_tool.service.CsvImportService;
+import uk.ac.sheffield.Assessment_management_tool.service.CsvImportValidator;
 
+import java.net.URI;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -19,13 +24,21 @@ import java.util.UUID;
 public class CsvImportController {
     
     private final CsvImportService csvImportService;
+    private final CsvImportValidator csvImportValidator;
     
-    public CsvImportController(CsvImportService csvImportService) {
+    public CsvImportController(CsvImportService csvImportService, CsvImportValidator csvImportValidator) {
         this.csvImportService = csvImportService;
+        this.csvImportValidator = csvImportValidator;
     }
     
+    /**
+     * Import modules with assessments. With mode=validate the file is only checked
+     * and a summary of the errors is returned; nothing is written.
+     */
     @PostMapping("/modules")
-    public ResponseEntity<?> importModules(@RequestParam("file") MultipartFile file) {
+    public ResponseEntity<?> importModules(
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(defaultValue = "import") String mode) {
         if (file.isEmpty()) {
             return ResponseEntity.badRequest().body(createError("File is required"));
         }
@@ -34,15 +47,53 @@ public class CsvImportController {
             return ResponseEntity.badRequest().body(createError("File must be a CSV"));
         }
         
+        if ("validate".equalsIgnoreCase(mode)) {
+            try {
+                return ResponseEntity.ok(csvImportValidator.validateModulesWithAssessments(file));
+            } catch (Exception e) {
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                        .body(createError("Failed to validate modules: " + e.getMessage()));
+            }
+        }
+        if (!"import".equalsIgnoreCase(mode)) {
+            return ResponseEntity.badRequest().body(createError("Mode must be import or validate"));
+        }
+        
         try {
-            CsvImportJob job = csvImportService.importModulesWithAssessments(file);
-            return ResponseEntity.status(HttpStatus.CREATED).body(job);
+            CsvImportJob job = csvImportService.submitModulesWithAssessments(file);
+            return ResponseEntity.accepted()
+                    .location(URI.create("/api/admin/import/jobs/" + job.getId()))
+                    .body(job);
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(createError(e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(createError("Failed to import modules: " + e.getMessage()));
         }
     }
     
+    @PostMapping("/users")
+    public ResponseEntity<?> importUsers(@RequestParam("file") MultipartFile file) {
+        if (file.isEmpty()) {
+            return ResponseEntity.badRequest().body(createError("File is required"));
+        }
+        
+        if (!file.getOriginalFilename().endsWith(".csv")) {
+            return ResponseEntity.badRequest().body(createError("File must be a CSV"));
+        }
+        
+        try {
+            CsvImportJob job = csvImportService.importUsers(file);
+            return ResponseEntity.status(HttpStatus.CREATED).body(job);
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(createError(e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(createError("Failed to import users: " + e.getMessage()));
+        }
+    }
+    
     @GetMapping("/jobs")
     public ResponseEntity<List<CsvImportJob>> getAllImportJobs() {
         return ResponseEntity.ok(csvImportService.getAllImportJobs());
@@ -59,6 +110,38 @@ public class CsvImportController {
         }
     }
     
+    @GetMapping("/jobs/{id}/errors")
+    public ResponseEntity<?> getImportErrors(
+            @PathVariable UUID id,
+            @RequestParam(required = false) ImportErrorCode code,
+            @RequestParam(defaultValue = "0") int fromLine,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "100") int size) {
+        try {
+            PageDto<ImportErrorDto> errors = csvImportService.getImportErrors(id, code, fromLine, page, size);
+            return ResponseEntity.ok(errors);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(createError(e.getMessage()));
+        }
+    }
+    
+    @PostMapping("/jobs/{id}/resume")
+    public ResponseEntity<?> resumeImportJob(@PathVariable UUID id) {
+        try {
+            CsvImportJob job = csvImportService.resumeImportJob(id);
+            return ResponseEntity.accepted()
+                    .location(URI.create("/api/admin/import/jobs/" + job.getId()))
+                    .body(job);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(createError(e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(createError(e.getMessage()));
+        }
+    }
+    
     private Map<String, String> createError(String message) {
         Map<String, String> error = new HashMap<>();
         error.put("error", message);
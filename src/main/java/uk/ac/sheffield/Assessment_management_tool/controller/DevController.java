@@ -3,11 +3,11 @@ package uk.ac.sheffield.Assessment_management_tool.controller;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
-import uk.ac.sheffield.Assessment_management_tool.domain.entity.User;
-import uk.ac.sheffield.Assessment_management_tool.repository.UserRepository;
+import uk.ac.sheffield.Assessment_management_tool.domain.entity.PasswordRotationJob;
+import uk.ac.sheffield.Assessment_management_tool.dto.request.PasswordRotationRequest;
+import uk.ac.sheffield.Assessment_management_tool.service.PasswordRotationService;
 
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -15,11 +15,11 @@ import java.util.Map;
 public class DevController {
     
     private final PasswordEncoder passwordEncoder;
-    private final UserRepository userRepository;
+    private final PasswordRotationService passwordRotationService;
     
-    public DevController(PasswordEncoder passwordEncoder, UserRepository userRepository) {
+    public DevController(PasswordEncoder passwordEncoder, PasswordRotationService passwordRotationService) {
         this.passwordEncoder = passwordEncoder;
-        this.userRepository = userRepository;
+        this.passwordRotationService = passwordRotationService;
     }
     
     @GetMapping("/hash")
@@ -31,23 +31,21 @@ public class DevController {
         return ResponseEntity.ok(response);
     }
     
+    /**
+     * Queues a password rotation job over every user; poll
+     * /api/admin/password-rotations/{jobId} for progress
+     */
     @PostMapping("/reset-all-passwords")
     public ResponseEntity<Map<String, Object>> resetAllPasswords(@RequestParam(defaultValue = "admin123") String password) {
-        String newHash = passwordEncoder.encode(password);
-        List<User> allUsers = userRepository.findAll();
-        
-        for (User user : allUsers) {
-            user.setPasswordHash(newHash);
-        }
-        
-        userRepository.saveAll(allUsers);
+        PasswordRotationRequest request = new PasswordRotationRequest();
+        request.setPassword(password);
+        PasswordRotationJob job = passwordRotationService.startRotation(request, null);
         
         Map<String, Object> response = new HashMap<>();
-        response.put("message", "All user passwords have been reset");
+        response.put("message", "Password reset for all users has been queued");
         response.put("password", password);
-        response.put("usersUpdated", allUsers.size());
-        response.put("newHash", newHash);
+        response.put("jobId", job.getId());
         
-        return ResponseEntity.ok(response);
+        return ResponseEntity.accepted().body(response);
     }
 }
@@ -9,10 +9,10 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 import uk.ac.sheffield.Assessment_management_tool.dto.request.CreateModuleRequest;
 import uk.ac.sheffield.Assessment_management_tool.dto.response.ModuleDto;
+import uk.ac.sheffield.Assessment_management_tool.dto.response.PageDto;
 import uk.ac.sheffield.Assessment_management_tool.security.CustomUserDetails;
 import uk.ac.sheffield.Assessment_management_tool.service.ModuleService;
 
-import java.util.List;
 import java.util.UUID;
 
 @RestController
@@ -26,18 +26,21 @@ public class ModuleController {
     }
     
     @GetMapping("/modules")
-    public ResponseEntity<List<ModuleDto>> getModules(
+    public ResponseEntity<PageDto<ModuleDto>> getModules(
             @RequestParam(required = false) String search,
-            @RequestParam(required = false) String year) {
+            @RequestParam(required = false) String year,
+            @RequestParam(defaultValue = "false") boolean mine,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) {
         
         UUID currentUserId = null;
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
         
         if (auth != null && auth.isAuthenticated() && auth.getPrincipal() instanceof CustomUserDetails) {
-            currentUserId = ((CustomUserDetails) auth.getPrincipal()).getUser().getId();
+            currentUserId = ((CustomUserDetails) auth.getPrincipal()).getUserId();
         }
         
-        return ResponseEntity.ok(moduleService.searchModules(search, year, currentUserId));
+        return ResponseEntity.ok(moduleService.searchModules(search, year, mine, currentUserId, page, size));
     }
     
     @GetMapping("/modules/{id}")
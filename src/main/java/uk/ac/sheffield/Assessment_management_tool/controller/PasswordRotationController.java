@@ -0,0 +1,54 @@
+package uk.ac.sheffield.Assessment_management_tool.controller;
+
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.*;
+import uk.ac.sheffield.Assessment_management_tool.domain.entity.PasswordRotationJob;
+import uk.ac.sheffield.Assessment_management_tool.dto.request.PasswordRotationRequest;
+import uk.ac.sheffield.Assessment_management_tool.security.CustomUserDetails;
+import uk.ac.sheffield.Assessment_management_tool.service.PasswordRotationService;
+
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/admin/password-rotations")
+@PreAuthorize("hasRole('ADMIN')")
+public class PasswordRotationController {
+    
+    private final PasswordRotationService passwordRotationService;
+    
+    public PasswordRotationController(PasswordRotationService passwordRotationService) {
+        this.passwordRotationService = passwordRotationService;
+    }
+    
+    /**
+     * Start a background password reset for the users matching the filter.
+     * Poll the returned job for progress.
+     */
+    @PostMapping
+    public ResponseEntity<PasswordRotationJob> startRotation(@Valid @RequestBody PasswordRotationRequest request) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(passwordRotationService.startRotation(request, getCurrentUserId()));
+    }
+    
+    @GetMapping
+    public ResponseEntity<List<PasswordRotationJob>> getJobs() {
+        return ResponseEntity.ok(passwordRotationService.getJobs());
+    }
+    
+    @GetMapping("/{id}")
+    public ResponseEntity<PasswordRotationJob> getJob(@PathVariable UUID id) {
+        return ResponseEntity.ok(passwordRotationService.getJob(id));
+    }
+    
+    private UUID getCurrentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        CustomUserDetails userDetails = (CustomUserDetails) authentication.getPrincipal();
+        return userDetails.getUserId();
+    }
+}
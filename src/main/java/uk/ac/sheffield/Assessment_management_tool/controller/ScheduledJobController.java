@@ -0,0 +1,30 @@
+package uk.ac.sheffield.Assessment_management_tool.controller;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import uk.ac.sheffield.Assessment_management_tool.dto.response.JobLockStatsDto;
+import uk.ac.sheffield.Assessment_management_tool.scheduled.JobLockManager;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/admin/scheduled-jobs")
+public class ScheduledJobController {
+    
+    private final JobLockManager jobLockManager;
+    
+    public ScheduledJobController(JobLockManager jobLockManager) {
+        this.jobLockManager = jobLockManager;
+    }
+    
+    /**
+     * Who holds each job's lease, plus lock acquisition latency and hold time on
+     * the node that answers
+     */
+    @GetMapping("/locks")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<JobLockStatsDto>> getLocks() {
+        return ResponseEntity.ok(jobLockManager.stats());
+    }
+}
@@ -0,0 +1,28 @@
+package uk.ac.sheffield.Assessment_management_tool.controller;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import uk.ac.sheffield.Assessment_management_tool.dto.response.PasswordHashStatsDto;
+import uk.ac.sheffield.Assessment_management_tool.security.LoginAuthenticator;
+
+@RestController
+@RequestMapping("/api/admin/security")
+public class SecurityStatsController {
+    
+    private final LoginAuthenticator loginAuthenticator;
+    
+    public SecurityStatsController(LoginAuthenticator loginAuthenticator) {
+        this.loginAuthenticator = loginAuthenticator;
+    }
+    
+    /**
+     * Login verification pool, rejections and password hash latency histograms on
+     * the node that answers
+     */
+    @GetMapping("/password-hashing")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<PasswordHashStatsDto> getPasswordHashingStats() {
+        return ResponseEntity.ok(loginAuthenticator.stats());
+    }
+}
@@ -0,0 +1,66 @@
+package uk.ac.sheffield.Assessment_management_tool.controller;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import uk.ac.sheffield.Assessment_management_tool.dto.request.TransitionAuditFilter;
+import uk.ac.sheffield.Assessment_management_tool.dto.response.CursorPageDto;
+import uk.ac.sheffield.Assessment_management_tool.dto.response.TransitionDto;
+import uk.ac.sheffield.Assessment_management_tool.service.TransitionAuditService;
+
+@RestController
+@RequestMapping("/api/admin/transitions")
+@PreAuthorize("hasRole('ADMIN') or hasRole('EXAMS_OFFICER')")
+public class TransitionAuditController {
+    
+    private final TransitionAuditService transitionAuditService;
+    
+    public TransitionAuditController(TransitionAuditService transitionAuditService) {
+        this.transitionAuditService = transitionAuditService;
+    }
+    
+    /**
+     * Transition audit log, newest first, filtered by date range, user and module
+     */
+    @GetMapping
+    public ResponseEntity<CursorPageDto<TransitionDto>> getTransitions(
+            TransitionAuditFilter filter,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(transitionAuditService.getTransitionPage(filter, cursor, limit));
+    }
+    
+    /**
+     * The whole filtered log as a download, format=csv (default) or format=ndjson.
+     * Rows are written as they are read, so the response starts immediately and
+     * any size of export runs in constant memory.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportTransitions(
+            TransitionAuditFilter filter,
+            @RequestParam(defaultValue = "csv") String format) {
+        // Check up front: once streaming starts, errors can no longer become a 400
+        transitionAuditService.validate(filter);
+        
+        StreamingResponseBody body;
+        MediaType mediaType;
+        if ("csv".equalsIgnoreCase(format)) {
+            body = out -> transitionAuditService.exportCsv(filter, out);
+            mediaType = new MediaType("text", "csv");
+        } else if ("ndjson".equalsIgnoreCase(format)) {
+            body = out -> transitionAuditService.exportNdjson(filter, out);
+            mediaType = MediaType.APPLICATION_NDJSON;
+        } else {
+            throw new IllegalArgumentException("Format must be csv or ndjson");
+        }
+        
+        return ResponseEntity.ok()
+                .contentType(mediaType)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"transitions." + format.toLowerCase() + "\"")
+                .body(body);
+    }
+}
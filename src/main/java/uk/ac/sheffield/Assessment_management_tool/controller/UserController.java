@@ -6,9 +6,12 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import uk.ac.sheffield.Assessment_management_tool.domain.enums.UserBaseType;
 import uk.ac.sheffield.Assessment_management_tool.dto.request.CreateUserRequest;
 import uk.ac.sheffield.Assessment_management_tool.dto.response.CreateUserResponse;
+import uk.ac.sheffield.Assessment_management_tool.dto.response.CursorPageDto;
 import uk.ac.sheffield.Assessment_management_tool.dto.response.UserDto;
+import uk.ac.sheffield.Assessment_management_tool.dto.response.UserSummaryDto;
 import uk.ac.sheffield.Assessment_management_tool.security.CustomUserDetails;
 import uk.ac.sheffield.Assessment_management_tool.service.UserService;
 
@@ -31,6 +34,20 @@ public class UserController {
         return ResponseEntity.ok(userService.getAllUsers());
     }
     
+    /**
+     * Paged, prefix-searchable directory for admin listings and role pickers.
+     * {@code q} matches the start of a user's name or email, ignoring case.
+     */
+    @GetMapping("/directory")
+    public ResponseEntity<CursorPageDto<UserSummaryDto>> getDirectory(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) UserBaseType baseType,
+            @RequestParam(required = false) Boolean examsOfficer,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(userService.getDirectoryPage(q, baseType, examsOfficer, cursor, limit));
+    }
+    
     @GetMapping("/{id}")
     public ResponseEntity<UserDto> getUserById(@PathVariable UUID id) {
         return ResponseEntity.ok(userService.getUserById(id));
@@ -50,7 +67,7 @@ public class UserController {
     @PatchMapping("/{id}/toggle-exams-officer")
     public ResponseEntity<UserDto> toggleExamsOfficer(@PathVariable UUID id, Authentication authentication) {
         CustomUserDetails currentUser = (CustomUserDetails) authentication.getPrincipal();
-        UUID currentUserId = currentUser.getUser().getId();
+        UUID currentUserId = currentUser.getUserId();
         return ResponseEntity.ok(userService.toggleExamsOfficer(id, currentUserId));
     }
 }
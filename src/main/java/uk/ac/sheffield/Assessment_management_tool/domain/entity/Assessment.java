@@ -7,6 +7,7 @@ import uk.ac.sheffield.Assessment_management_tool.domain.enums.AssessmentState;
 import uk.ac.sheffield.Assessment_management_tool.domain.enums.AssessmentType;
 
 import java.time.LocalDate;
+import java.time.OffsetDateTime;
 import java.util.UUID;
 
 @Entity
@@ -48,9 +49,19 @@ public class Assessment {
     @Column(name = "file_url")
     private String fileUrl;
     
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private OffsetDateTime createdAt;
+    
     @Version
     private Long version;
     
+    @PrePersist
+    protected void onCreate() {
+        if (createdAt == null) {
+            createdAt = OffsetDateTime.now();
+        }
+    }
+    
     public Assessment() {
         this.currentState = AssessmentState.DRAFT;
     }
@@ -141,4 +152,12 @@ public class Assessment {
     public void setFileUrl(String fileUrl) {
         this.fileUrl = fileUrl;
     }
+    
+    public OffsetDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(OffsetDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
 }
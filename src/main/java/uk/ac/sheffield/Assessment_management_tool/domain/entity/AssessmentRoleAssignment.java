@@ -2,11 +2,15 @@ package uk.ac.sheffield.Assessment_management_tool.domain.entity;
 
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import uk.ac.sheffield.Assessment_management_tool.domain.enums.AssessmentRole;
 
 import java.util.UUID;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_ONLY)
 @Table(
     name = "assessment_role",
     uniqueConstraints = @UniqueConstraint(columnNames = {"assessment_id", "user_id", "role"})
@@ -0,0 +1,38 @@
+package uk.ac.sheffield.Assessment_management_tool.domain.entity;
+
+import jakarta.persistence.*;
+
+/**
+ * How many of a module's assessments of one type are in one state.
+ * Maintained by AssessmentStateCounter; never written through this entity.
+ */
+@Entity
+@Table(name = "assessment_state_count")
+public class AssessmentStateCount {
+    
+    @EmbeddedId
+    private AssessmentStateCountId id;
+    
+    @Column(name = "assessment_count", nullable = false)
+    private long assessmentCount;
+    
+    // Constructors
+    public AssessmentStateCount() {}
+    
+    // Getters and Setters
+    public AssessmentStateCountId getId() {
+        return id;
+    }
+    
+    public void setId(AssessmentStateCountId id) {
+        this.id = id;
+    }
+    
+    public long getAssessmentCount() {
+        return assessmentCount;
+    }
+    
+    public void setAssessmentCount(long assessmentCount) {
+        this.assessmentCount = assessmentCount;
+    }
+}
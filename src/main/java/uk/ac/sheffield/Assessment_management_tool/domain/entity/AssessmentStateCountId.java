@@ -0,0 +1,74 @@
+package uk.ac.sheffield.Assessment_management_tool.domain.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import uk.ac.sheffield.Assessment_management_tool.domain.enums.AssessmentState;
+import uk.ac.sheffield.Assessment_management_tool.domain.enums.AssessmentType;
+
+import java.io.Serializable;
+import java.util.Objects;
+import java.util.UUID;
+
+@Embeddable
+public class AssessmentStateCountId implements Serializable {
+    
+    @Column(name = "module_id", nullable = false)
+    private UUID moduleId;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "type", nullable = false, length = 20)
+    private AssessmentType type;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "current_state", nullable = false, length = 50)
+    private AssessmentState state;
+    
+    // Constructors
+    public AssessmentStateCountId() {}
+    
+    public AssessmentStateCountId(UUID moduleId, AssessmentType type, AssessmentState state) {
+        this.moduleId = moduleId;
+        this.type = type;
+        this.state = state;
+    }
+    
+    // Getters and Setters
+    public UUID getModuleId() {
+        return moduleId;
+    }
+    
+    public void setModuleId(UUID moduleId) {
+        this.moduleId = moduleId;
+    }
+    
+    public AssessmentType getType() {
+        return type;
+    }
+    
+    public void setType(AssessmentType type) {
+        this.type = type;
+    }
+    
+    public AssessmentState getState() {
+        return state;
+    }
+    
+    public void setState(AssessmentState state) {
+        this.state = state;
+    }
+    
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        AssessmentStateCountId that = (AssessmentStateCountId) o;
+        return Objects.equals(moduleId, that.moduleId) && type == that.type && state == that.state;
+    }
+    
+    @Override
+    public int hashCode() {
+        return Objects.hash(moduleId, type, state);
+    }
+}
@@ -0,0 +1,97 @@
+package uk.ac.sheffield.Assessment_management_tool.domain.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import uk.ac.sheffield.Assessment_management_tool.domain.enums.ImportErrorCode;
+
+import java.util.UUID;
+
+@Entity
+@Table(name = "csv_import_error")
+public class CsvImportError {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+    
+    @NotNull
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "job_id", nullable = false)
+    private CsvImportJob job;
+    
+    @Column(name = "line_number", nullable = false)
+    private int lineNumber;
+    
+    @Column(name = "column_name", length = 100)
+    private String columnName;
+    
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 40)
+    private ImportErrorCode code;
+    
+    @NotNull
+    @Column(nullable = false, length = 1000)
+    private String message;
+    
+    // Constructors
+    public CsvImportError() {}
+    
+    public CsvImportError(CsvImportJob job, int lineNumber, String columnName,
+                          ImportErrorCode code, String message) {
+        this.job = job;
+        this.lineNumber = lineNumber;
+        this.columnName = columnName;
+        this.code = code;
+        this.message = message;
+    }
+    
+    // Getters and Setters
+    public UUID getId() {
+        return id;
+    }
+    
+    public void setId(UUID id) {
+        this.id = id;
+    }
+    
+    public CsvImportJob getJob() {
+        return job;
+    }
+    
+    public void setJob(CsvImportJob job) {
+        this.job = job;
+    }
+    
+    public int getLineNumber() {
+        return lineNumber;
+    }
+    
+    public void setLineNumber(int lineNumber) {
+        this.lineNumber = lineNumber;
+    }
+    
+    public String getColumnName() {
+        return columnName;
+    }
+    
+    public void setColumnName(String columnName) {
+        this.columnName = columnName;
+    }
+    
+    public ImportErrorCode getCode() {
+        return code;
+    }
+    
+    public void setCode(ImportErrorCode code) {
+        this.code = code;
+    }
+    
+    public String getMessage() {
+        return message;
+    }
+    
+    public void setMessage(String message) {
+        this.message = message;
+    }
+}
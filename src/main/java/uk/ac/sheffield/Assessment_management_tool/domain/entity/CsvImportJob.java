@@ -32,6 +32,30 @@ public class CsvImportJob {
     @Column(columnDefinition = "TEXT")
     private String errors;
     
+    @Column(name = "processed_lines", nullable = false)
+    private int processedLines = 0;
+    
+    @Column(name = "module_count", nullable = false)
+    private int moduleCount = 0;
+    
+    @Column(name = "assessment_count", nullable = false)
+    private int assessmentCount = 0;
+    
+    @Column(name = "error_count", nullable = false)
+    private int errorCount = 0;
+    
+    @Column(name = "checkpoint_offset", nullable = false)
+    private long checkpointOffset = 0;
+    
+    @Column(name = "started_at")
+    private OffsetDateTime startedAt;
+    
+    @Column(name = "finished_at")
+    private OffsetDateTime finishedAt;
+    
+    @Column(name = "heartbeat_at")
+    private OffsetDateTime heartbeatAt;
+    
     @PrePersist
     protected void onCreate() {
         createdAt = OffsetDateTime.now();
@@ -88,4 +112,68 @@ public class CsvImportJob {
     public void setErrors(String errors) {
         this.errors = errors;
     }
+    
+    public int getProcessedLines() {
+        return processedLines;
+    }
+    
+    public void setProcessedLines(int processedLines) {
+        this.processedLines = processedLines;
+    }
+    
+    public int getModuleCount() {
+        return moduleCount;
+    }
+    
+    public void setModuleCount(int moduleCount) {
+        this.moduleCount = moduleCount;
+    }
+    
+    public int getAssessmentCount() {
+        return assessmentCount;
+    }
+    
+    public void setAssessmentCount(int assessmentCount) {
+        this.assessmentCount = assessmentCount;
+    }
+    
+    public int getErrorCount() {
+        return errorCount;
+    }
+    
+    public void setErrorCount(int errorCount) {
+        this.errorCount = errorCount;
+    }
+    
+    public long getCheckpointOffset() {
+        return checkpointOffset;
+    }
+    
+    public void setCheckpointOffset(long checkpointOffset) {
+        this.checkpointOffset = checkpointOffset;
+    }
+    
+    public OffsetDateTime getStartedAt() {
+        return startedAt;
+    }
+    
+    public void setStartedAt(OffsetDateTime startedAt) {
+        this.startedAt = startedAt;
+    }
+    
+    public OffsetDateTime getFinishedAt() {
+        return finishedAt;
+    }
+    
+    public void setFinishedAt(OffsetDateTime finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+    
+    public OffsetDateTime getHeartbeatAt() {
+        return heartbeatAt;
+    }
+    
+    public void setHeartbeatAt(OffsetDateTime heartbeatAt) {
+        this.heartbeatAt = heartbeatAt;
+    }
 }
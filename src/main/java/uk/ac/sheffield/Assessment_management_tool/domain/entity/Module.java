@@ -2,10 +2,14 @@ package uk.ac.sheffield.Assessment_management_tool.domain.entity;
 
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.UUID;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Table(
     name = "module",
     uniqueConstraints = @UniqueConstraint(columnNames = {"code"})
@@ -0,0 +1,188 @@
+package uk.ac.sheffield.Assessment_management_tool.domain.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import uk.ac.sheffield.Assessment_management_tool.domain.enums.ImportJobStatus;
+import uk.ac.sheffield.Assessment_management_tool.domain.enums.UserBaseType;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * A bulk password reset over the users matching a filter, run in the background
+ */
+@Entity
+@Table(name = "password_rotation_job")
+public class PasswordRotationJob {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+    
+    @NotNull
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private OffsetDateTime createdAt;
+    
+    @Column(name = "requested_by")
+    private UUID requestedBy;
+    
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ImportJobStatus status;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "base_type")
+    private UserBaseType baseType;
+    
+    @Column(name = "module_id")
+    private UUID moduleId;
+    
+    @Column(name = "email_count")
+    private Integer emailCount;
+    
+    @Column(name = "shared_password", nullable = false)
+    private boolean sharedPassword = false;
+    
+    @Column(name = "total_users", nullable = false)
+    private int totalUsers = 0;
+    
+    @Column(name = "processed_users", nullable = false)
+    private int processedUsers = 0;
+    
+    @Column(name = "updated_users", nullable = false)
+    private int updatedUsers = 0;
+    
+    @Column(length = 1000)
+    private String message;
+    
+    @Column(name = "started_at")
+    private OffsetDateTime startedAt;
+    
+    @Column(name = "finished_at")
+    private OffsetDateTime finishedAt;
+    
+    @PrePersist
+    protected void onCreate() {
+        createdAt = OffsetDateTime.now();
+        if (status == null) {
+            status = ImportJobStatus.PENDING;
+        }
+    }
+    
+    // Constructors
+    public PasswordRotationJob() {}
+    
+    // Getters and Setters
+    public UUID getId() {
+        return id;
+    }
+    
+    public void setId(UUID id) {
+        this.id = id;
+    }
+    
+    public OffsetDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(OffsetDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+    
+    public UUID getRequestedBy() {
+        return requestedBy;
+    }
+    
+    public void setRequestedBy(UUID requestedBy) {
+        this.requestedBy = requestedBy;
+    }
+    
+    public ImportJobStatus getStatus() {
+        return status;
+    }
+    
+    public void setStatus(ImportJobStatus status) {
+        this.status = status;
+    }
+    
+    public UserBaseType getBaseType() {
+        return baseType;
+    }
+    
+    public void setBaseType(UserBaseType baseType) {
+        this.baseType = baseType;
+    }
+    
+    public UUID getModuleId() {
+        return moduleId;
+    }
+    
+    public void setModuleId(UUID moduleId) {
+        this.moduleId = moduleId;
+    }
+    
+    public Integer getEmailCount() {
+        return emailCount;
+    }
+    
+    public void setEmailCount(Integer emailCount) {
+        this.emailCount = emailCount;
+    }
+    
+    public boolean isSharedPassword() {
+        return sharedPassword;
+    }
+    
+    public void setSharedPassword(boolean sharedPassword) {
+        this.sharedPassword = sharedPassword;
+    }
+    
+    public int getTotalUsers() {
+        return totalUsers;
+    }
+    
+    public void setTotalUsers(int totalUsers) {
+        this.totalUsers = totalUsers;
+    }
+    
+    public int getProcessedUsers() {
+        return processedUsers;
+    }
+    
+    public void setProcessedUsers(int processedUsers) {
+        this.processedUsers = processedUsers;
+    }
+    
+    public int getUpdatedUsers() {
+        return updatedUsers;
+    }
+    
+    public void setUpdatedUsers(int updatedUsers) {
+        this.updatedUsers = updatedUsers;
+    }
+    
+    public String getMessage() {
+        return message;
+    }
+    
+    public void setMessage(String message) {
+        this.message = message;
+    }
+    
+    public OffsetDateTime getStartedAt() {
+        return startedAt;
+    }
+    
+    public void setStartedAt(OffsetDateTime startedAt) {
+        this.startedAt = startedAt;
+    }
+    
+    public OffsetDateTime getFinishedAt() {
+        return finishedAt;
+    }
+    
+    public void setFinishedAt(OffsetDateTime finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+}
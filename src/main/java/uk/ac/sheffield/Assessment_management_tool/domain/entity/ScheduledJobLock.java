@@ -0,0 +1,89 @@
+package uk.ac.sheffield.Assessment_management_tool.domain.entity;
+
+import jakarta.persistence.*;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Lease on a scheduled job. A node may run the job while {@code leaseUntil} is in
+ * the future and {@code fencingToken} is still the one it acquired.
+ */
+@Entity
+@Table(name = "scheduled_job_lock")
+public class ScheduledJobLock {
+    
+    @Id
+    @Column(name = "job_name", length = 100)
+    private String jobName;
+    
+    @Column(name = "owner")
+    private String owner;
+    
+    @Column(name = "fencing_token", nullable = false)
+    private long fencingToken;
+    
+    @Column(name = "acquired_at")
+    private OffsetDateTime acquiredAt;
+    
+    @Column(name = "heartbeat_at")
+    private OffsetDateTime heartbeatAt;
+    
+    @Column(name = "lease_until")
+    private OffsetDateTime leaseUntil;
+    
+    // Constructors
+    public ScheduledJobLock() {}
+    
+    public ScheduledJobLock(String jobName) {
+        this.jobName = jobName;
+    }
+    
+    // Getters and Setters
+    public String getJobName() {
+        return jobName;
+    }
+    
+    public void setJobName(String jobName) {
+        this.jobName = jobName;
+    }
+    
+    public String getOwner() {
+        return owner;
+    }
+    
+    public void setOwner(String owner) {
+        this.owner = owner;
+    }
+    
+    public long getFencingToken() {
+        return fencingToken;
+    }
+    
+    public void setFencingToken(long fencingToken) {
+        this.fencingToken = fencingToken;
+    }
+    
+    public OffsetDateTime getAcquiredAt() {
+        return acquiredAt;
+    }
+    
+    public void setAcquiredAt(OffsetDateTime acquiredAt) {
+        this.acquiredAt = acquiredAt;
+    }
+    
+    public OffsetDateTime getHeartbeatAt() {
+        return heartbeatAt;
+    }
+    
+    public void setHeartbeatAt(OffsetDateTime heartbeatAt) {
+        this.heartbeatAt = heartbeatAt;
+    }
+    
+    public OffsetDateTime getLeaseUntil() {
+        return leaseUntil;
+    }
+    
+    public void setLeaseUntil(OffsetDateTime leaseUntil) {
+        this.leaseUntil = leaseUntil;
+    }
+}
@@ -0,0 +1,63 @@
+package uk.ac.sheffield.Assessment_management_tool.domain.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+
+/**
+ * How far a scheduled job has got. The watermark is the last date the job has
+ * fully processed; the next run picks up from the day after it.
+ */
+@Entity
+@Table(name = "scheduled_job_state")
+public class ScheduledJobState {
+    
+    @Id
+    @Column(name = "job_name", length = 100)
+    private String jobName;
+    
+    @Column(name = "watermark")
+    private LocalDate watermark;
+    
+    @Column(name = "updated_at", nullable = false)
+    private OffsetDateTime updatedAt;
+    
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        updatedAt = OffsetDateTime.now();
+    }
+    
+    // Constructors
+    public ScheduledJobState() {}
+    
+    public ScheduledJobState(String jobName) {
+        this.jobName = jobName;
+    }
+    
+    // Getters and Setters
+    public String getJobName() {
+        return jobName;
+    }
+    
+    public void setJobName(String jobName) {
+        this.jobName = jobName;
+    }
+    
+    public LocalDate getWatermark() {
+        return watermark;
+    }
+    
+    public void setWatermark(LocalDate watermark) {
+        this.watermark = watermark;
+    }
+    
+    public OffsetDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+    
+    public void setUpdatedAt(OffsetDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
@@ -0,0 +1,15 @@
+package uk.ac.sheffield.Assessment_management_tool.domain.enums;
+
+public enum ImportErrorCode {
+    INSUFFICIENT_COLUMNS,
+    MISSING_VALUE,
+    INVALID_VALUE,
+    INVALID_ASSESSMENT_TYPE,
+    INVALID_DATE,
+    USER_NOT_FOUND,
+    AMBIGUOUS_USER,
+    MODULE_NOT_FOUND,
+    ALREADY_EXISTS,
+    DUPLICATE_IN_FILE,
+    UNEXPECTED_ERROR
+}
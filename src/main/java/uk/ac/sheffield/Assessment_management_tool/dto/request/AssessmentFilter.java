@@ -0,0 +1,70 @@
+package uk.ac.sheffield.Assessment_management_tool.dto.request;
+
+import org.springframework.format.annotation.DateTimeFormat;
+import uk.ac.sheffield.Assessment_management_tool.domain.enums.AssessmentState;
+import uk.ac.sheffield.Assessment_management_tool.domain.enums.AssessmentType;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Optional filters for listing assessments, bound from query parameters
+ */
+public class AssessmentFilter {
+    
+    private AssessmentType type;
+    
+    private AssessmentState currentState;
+    
+    private UUID moduleId;
+    
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate examDateFrom;
+    
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate examDateTo;
+    
+    // Constructors
+    public AssessmentFilter() {}
+    
+    // Getters and Setters
+    public AssessmentType getType() {
+        return type;
+    }
+    
+    public void setType(AssessmentType type) {
+        this.type = type;
+    }
+    
+    public AssessmentState getCurrentState() {
+        return currentState;
+    }
+    
+    public void setCurrentState(AssessmentState currentState) {
+        this.currentState = currentState;
+    }
+    
+    public UUID getModuleId() {
+        return moduleId;
+    }
+    
+    public void setModuleId(UUID moduleId) {
+        this.moduleId = moduleId;
+    }
+    
+    public LocalDate getExamDateFrom() {
+        return examDateFrom;
+    }
+    
+    public void setExamDateFrom(LocalDate examDateFrom) {
+        this.examDateFrom = examDateFrom;
+    }
+    
+    public LocalDate getExamDateTo() {
+        return examDateTo;
+    }
+    
+    public void setExamDateTo(LocalDate examDateTo) {
+        this.examDateTo = examDateTo;
+    }
+}
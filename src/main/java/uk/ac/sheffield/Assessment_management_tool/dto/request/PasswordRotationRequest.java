@@ -0,0 +1,62 @@
+package uk.ac.sheffield.Assessment_management_tool.dto.request;
+
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.Size;
+import uk.ac.sheffield.Assessment_management_tool.domain.enums.UserBaseType;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Which users a bulk password reset covers. Filters combine; none means every user.
+ * Without a {@code password}, each user gets their own generated one, which is
+ * only allowed when a {@code PasswordResetNotifier} is configured to deliver it.
+ */
+public class PasswordRotationRequest {
+    
+    private UserBaseType baseType;
+    
+    private UUID moduleId;
+    
+    @Size(max = 1000, message = "At most 1000 emails per job")
+    private List<@Email String> emails;
+    
+    @Size(min = 8, message = "Password must be at least 8 characters")
+    private String password;
+    
+    // Constructors
+    public PasswordRotationRequest() {}
+    
+    // Getters and Setters
+    public UserBaseType getBaseType() {
+        return baseType;
+    }
+    
+    public void setBaseType(UserBaseType baseType) {
+        this.baseType = baseType;
+    }
+    
+    public UUID getModuleId() {
+        return moduleId;
+    }
+    
+    public void setModuleId(UUID moduleId) {
+        this.moduleId = moduleId;
+    }
+    
+    public List<String> getEmails() {
+        return emails;
+    }
+    
+    public void setEmails(List<String> emails) {
+        this.emails = emails;
+    }
+    
+    public String getPassword() {
+        return password;
+    }
+    
+    public void setPassword(String password) {
+        this.password = password;
+    }
+}
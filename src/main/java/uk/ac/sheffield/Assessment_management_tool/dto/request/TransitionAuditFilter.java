@@ -0,0 +1,58 @@
+package uk.ac.sheffield.Assessment_management_tool.dto.request;
+
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Optional filters for the transition audit log, bound from query parameters
+ */
+public class TransitionAuditFilter {
+    
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private OffsetDateTime from;
+    
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private OffsetDateTime to;
+    
+    private UUID userId;
+    
+    private UUID moduleId;
+    
+    // Constructors
+    public TransitionAuditFilter() {}
+    
+    // Getters and Setters
+    public OffsetDateTime getFrom() {
+        return from;
+    }
+    
+    public void setFrom(OffsetDateTime from) {
+        this.from = from;
+    }
+    
+    public OffsetDateTime getTo() {
+        return to;
+    }
+    
+    public void setTo(OffsetDateTime to) {
+        this.to = to;
+    }
+    
+    public UUID getUserId() {
+        return userId;
+    }
+    
+    public void setUserId(UUID userId) {
+        this.userId = userId;
+    }
+    
+    public UUID getModuleId() {
+        return moduleId;
+    }
+    
+    public void setModuleId(UUID moduleId) {
+        this.moduleId = moduleId;
+    }
+}
@@ -0,0 +1,53 @@
+package uk.ac.sheffield.Assessment_management_tool.dto.response;
+
+import uk.ac.sheffield.Assessment_management_tool.domain.enums.AssessmentState;
+import uk.ac.sheffield.Assessment_management_tool.domain.enums.AssessmentType;
+
+import java.util.Map;
+
+/**
+ * Assessment counts for dashboards. States and types with no assessments are left out.
+ */
+public class AssessmentStatsDto {
+    
+    private long total;
+    private Map<AssessmentState, Long> byState;
+    private Map<AssessmentType, Long> byType;
+    private Map<AssessmentType, Map<AssessmentState, Long>> byTypeAndState;
+    
+    // Constructors
+    public AssessmentStatsDto() {}
+    
+    // Getters and Setters
+    public long getTotal() {
+        return total;
+    }
+    
+    public void setTotal(long total) {
+        this.total = total;
+    }
+    
+    public Map<AssessmentState, Long> getByState() {
+        return byState;
+    }
+    
+    public void setByState(Map<AssessmentState, Long> byState) {
+        this.byState = byState;
+    }
+    
+    public Map<AssessmentType, Long> getByType() {
+        return byType;
+    }
+    
+    public void setByType(Map<AssessmentType, Long> byType) {
+        this.byType = byType;
+    }
+    
+    public Map<AssessmentType, Map<AssessmentState, Long>> getByTypeAndState() {
+        return byTypeAndState;
+    }
+    
+    public void setByTypeAndState(Map<AssessmentType, Map<AssessmentState, Long>> byTypeAndState) {
+        this.byTypeAndState = byTypeAndState;
+    }
+}
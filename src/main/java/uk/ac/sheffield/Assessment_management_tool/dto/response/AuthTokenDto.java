@@ -0,0 +1,80 @@
+package uk.ac.sheffield.Assessment_management_tool.dto.response;
+
+import java.util.List;
+
+/**
+ * Login or refresh result in token mode: the user's profile, as for session
+ * logins, plus a bearer access token and the refresh token to renew it
+ */
+public class AuthTokenDto {
+    
+    private UserDto user;
+    private List<String> roles;
+    private String accessToken;
+    private String refreshToken;
+    private String tokenType = "Bearer";
+    private long expiresIn;
+    
+    // Constructors
+    public AuthTokenDto() {}
+    
+    public AuthTokenDto(UserDto user, List<String> roles, String accessToken, String refreshToken, long expiresIn) {
+        this.user = user;
+        this.roles = roles;
+        this.accessToken = accessToken;
+        this.refreshToken = refreshToken;
+        this.expiresIn = expiresIn;
+    }
+    
+    // Getters and Setters
+    public UserDto getUser() {
+        return user;
+    }
+    
+    public void setUser(UserDto user) {
+        this.user = user;
+    }
+    
+    public List<String> getRoles() {
+        return roles;
+    }
+    
+    public void setRoles(List<String> roles) {
+        this.roles = roles;
+    }
+    
+    public String getAccessToken() {
+        return accessToken;
+    }
+    
+    public void setAccessToken(String accessToken) {
+        this.accessToken = accessToken;
+    }
+    
+    public String getRefreshToken() {
+        return refreshToken;
+    }
+    
+    public void setRefreshToken(String refreshToken) {
+        this.refreshToken = refreshToken;
+    }
+    
+    public String getTokenType() {
+        return tokenType;
+    }
+    
+    public void setTokenType(String tokenType) {
+        this.tokenType = tokenType;
+    }
+    
+    /**
+     * Seconds until the access token expires
+     */
+    public long getExpiresIn() {
+        return expiresIn;
+    }
+    
+    public void setExpiresIn(long expiresIn) {
+        this.expiresIn = expiresIn;
+    }
+}
@@ -0,0 +1,47 @@
+package uk.ac.sheffield.Assessment_management_tool.dto.response;
+
+import uk.ac.sheffield.Assessment_management_tool.domain.enums.ImportErrorCode;
+
+public class ImportErrorDto {
+    
+    private int lineNumber;
+    private String column;
+    private ImportErrorCode code;
+    private String message;
+    
+    // Constructors
+    public ImportErrorDto() {}
+    
+    // Getters and Setters
+    public int getLineNumber() {
+        return lineNumber;
+    }
+    
+    public void setLineNumber(int lineNumber) {
+        this.lineNumber = lineNumber;
+    }
+    
+    public String getColumn() {
+        return column;
+    }
+    
+    public void setColumn(String column) {
+        this.column = column;
+    }
+    
+    public ImportErrorCode getCode() {
+        return code;
+    }
+    
+    public void setCode(ImportErrorCode code) {
+        this.code = code;
+    }
+    
+    public String getMessage() {
+        return message;
+    }
+    
+    public void setMessage(String message) {
+        this.message = message;
+    }
+}
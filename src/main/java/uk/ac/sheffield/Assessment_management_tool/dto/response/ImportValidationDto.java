@@ -0,0 +1,68 @@
+package uk.ac.sheffield.Assessment_management_tool.dto.response;
+
+import uk.ac.sheffield.Assessment_management_tool.domain.enums.ImportErrorCode;
+
+import java.util.List;
+import java.util.Map;
+
+public class ImportValidationDto {
+    
+    private boolean valid;
+    private int totalLines;
+    private int invalidLines;
+    private int errorCount;
+    private Map<ImportErrorCode, Integer> errorsByCode;
+    private List<ImportErrorDto> sampleErrors;
+    
+    // Constructors
+    public ImportValidationDto() {}
+    
+    // Getters and Setters
+    public boolean isValid() {
+        return valid;
+    }
+    
+    public void setValid(boolean valid) {
+        this.valid = valid;
+    }
+    
+    public int getTotalLines() {
+        return totalLines;
+    }
+    
+    public void setTotalLines(int totalLines) {
+        this.totalLines = totalLines;
+    }
+    
+    public int getInvalidLines() {
+        return invalidLines;
+    }
+    
+    public void setInvalidLines(int invalidLines) {
+        this.invalidLines = invalidLines;
+    }
+    
+    public int getErrorCount() {
+        return errorCount;
+    }
+    
+    public void setErrorCount(int errorCount) {
+        this.errorCount = errorCount;
+    }
+    
+    public Map<ImportErrorCode, Integer> getErrorsByCode() {
+        return errorsByCode;
+    }
+    
+    public void setErrorsByCode(Map<ImportErrorCode, Integer> errorsByCode) {
+        this.errorsByCode = errorsByCode;
+    }
+    
+    public List<ImportErrorDto> getSampleErrors() {
+        return sampleErrors;
+    }
+    
+    public void setSampleErrors(List<ImportErrorDto> sampleErrors) {
+        this.sampleErrors = sampleErrors;
+    }
+}
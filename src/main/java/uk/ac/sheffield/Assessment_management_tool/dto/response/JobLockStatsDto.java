@@ -0,0 +1,140 @@
+package uk.ac.sheffield.Assessment_management_tool.dto.response;
+
+import java.time.OffsetDateTime;
+
+/**
+ * A scheduled job's lease as stored in the database, with this node's lock timings
+ */
+public class JobLockStatsDto {
+    
+    private String jobName;
+    private String owner;
+    private long fencingToken;
+    private OffsetDateTime heartbeatAt;
+    private OffsetDateTime leaseUntil;
+    private long attempts;
+    private long acquisitions;
+    private long skipped;
+    private long leasesLost;
+    private double avgAcquireMillis;
+    private double maxAcquireMillis;
+    private double avgHoldMillis;
+    private double maxHoldMillis;
+    private double lastHoldMillis;
+    
+    // Constructors
+    public JobLockStatsDto() {}
+    
+    // Getters and Setters
+    public String getJobName() {
+        return jobName;
+    }
+    
+    public void setJobName(String jobName) {
+        this.jobName = jobName;
+    }
+    
+    public String getOwner() {
+        return owner;
+    }
+    
+    public void setOwner(String owner) {
+        this.owner = owner;
+    }
+    
+    public long getFencingToken() {
+        return fencingToken;
+    }
+    
+    public void setFencingToken(long fencingToken) {
+        this.fencingToken = fencingToken;
+    }
+    
+    public OffsetDateTime getHeartbeatAt() {
+        return heartbeatAt;
+    }
+    
+    public void setHeartbeatAt(OffsetDateTime heartbeatAt) {
+        this.heartbeatAt = heartbeatAt;
+    }
+    
+    public OffsetDateTime getLeaseUntil() {
+        return leaseUntil;
+    }
+    
+    public void setLeaseUntil(OffsetDateTime leaseUntil) {
+        this.leaseUntil = leaseUntil;
+    }
+    
+    public long getAttempts() {
+        return attempts;
+    }
+    
+    public void setAttempts(long attempts) {
+        this.attempts = attempts;
+    }
+    
+    public long getAcquisitions() {
+        return acquisitions;
+    }
+    
+    public void setAcquisitions(long acquisitions) {
+        this.acquisitions = acquisitions;
+    }
+    
+    public long getSkipped() {
+        return skipped;
+    }
+    
+    public void setSkipped(long skipped) {
+        this.skipped = skipped;
+    }
+    
+    public long getLeasesLost() {
+        return leasesLost;
+    }
+    
+    public void setLeasesLost(long leasesLost) {
+        this.leasesLost = leasesLost;
+    }
+    
+    public double getAvgAcquireMillis() {
+        return avgAcquireMillis;
+    }
+    
+    public void setAvgAcquireMillis(double avgAcquireMillis) {
+        this.avgAcquireMillis = avgAcquireMillis;
+    }
+    
+    public double getMaxAcquireMillis() {
+        return maxAcquireMillis;
+    }
+    
+    public void setMaxAcquireMillis(double maxAcquireMillis) {
+        this.maxAcquireMillis = maxAcquireMillis;
+    }
+    
+    public double getAvgHoldMillis() {
+        return avgHoldMillis;
+    }
+    
+    public void setAvgHoldMillis(double avgHoldMillis) {
+        this.avgHoldMillis = avgHoldMillis;
+    }
+    
+    public double getMaxHoldMillis() {
+        return maxHoldMillis;
+    }
+    
+    public void setMaxHoldMillis(double maxHoldMillis) {
+        this.maxHoldMillis = maxHoldMillis;
+    }
+    
+    public double getLastHoldMillis() {
+        return lastHoldMillis;
+    }
+    
+    public void setLastHoldMillis(double lastHoldMillis) {
+        this.lastHoldMillis = lastHoldMillis;
+    }
+}
@@ -0,0 +1,69 @@
+package uk.ac.sheffield.Assessment_management_tool.dto.response;
+
+import java.util.Map;
+
+/**
+ * Latency distribution of one operation since startup. Bucket counts are not
+ * cumulative: each sample is counted once, under the first bound it is below.
+ */
+public class LatencyHistogramDto {
+    
+    private String name;
+    private long count;
+    private double avgMillis;
+    private double maxMillis;
+    private Map<String, Long> buckets;
+    
+    // Constructors
+    public LatencyHistogramDto() {}
+    
+    public LatencyHistogramDto(String name, long count, double avgMillis, double maxMillis,
+                               Map<String, Long> buckets) {
+        this.name = name;
+        this.count = count;
+        this.avgMillis = avgMillis;
+        this.maxMillis = maxMillis;
+        this.buckets = buckets;
+    }
+    
+    // Getters and Setters
+    public String getName() {
+        return name;
+    }
+    
+    public void setName(String name) {
+        this.name = name;
+    }
+    
+    public long getCount() {
+        return count;
+    }
+    
+    public void setCount(long count) {
+        this.count = count;
+    }
+    
+    public double getAvgMillis() {
+        return avgMillis;
+    }
+    
+    public void setAvgMillis(double avgMillis) {
+        this.avgMillis = avgMillis;
+    }
+    
+    public double getMaxMillis() {
+        return maxMillis;
+    }
+    
+    public void setMaxMillis(double maxMillis) {
+        this.maxMillis = maxMillis;
+    }
+    
+    public Map<String, Long> getBuckets() {
+        return buckets;
+    }
+    
+    public void setBuckets(Map<String, Long> buckets) {
+        this.buckets = buckets;
+    }
+}
@@ -0,0 +1,96 @@
+package uk.ac.sheffield.Assessment_management_tool.dto.response;
+
+import java.util.List;
+
+/**
+ * Password hashing on this node: the login verification pool, how often it turned
+ * logins away, and hash latencies
+ */
+public class PasswordHashStatsDto {
+    
+    private int bcryptStrength;
+    private int poolSize;
+    private int activeThreads;
+    private int queued;
+    private int queueCapacity;
+    private long rejected;
+    private long timedOut;
+    private long rehashed;
+    private List<LatencyHistogramDto> latencies;
+    
+    // Constructors
+    public PasswordHashStatsDto() {}
+    
+    // Getters and Setters
+    public int getBcryptStrength() {
+        return bcryptStrength;
+    }
+    
+    public void setBcryptStrength(int bcryptStrength) {
+        this.bcryptStrength = bcryptStrength;
+    }
+    
+    public int getPoolSize() {
+        return poolSize;
+    }
+    
+    public void setPoolSize(int poolSize) {
+        this.poolSize = poolSize;
+    }
+    
+    public int getActiveThreads() {
+        return activeThreads;
+    }
+    
+    public void setActiveThreads(int activeThreads) {
+        this.activeThreads = activeThreads;
+    }
+    
+    public int getQueued() {
+        return queued;
+    }
+    
+    public void setQueued(int queued) {
+        this.queued = queued;
+    }
+    
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+    
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+    
+    public long getRejected() {
+        return rejected;
+    }
+    
+    public void setRejected(long rejected) {
+        this.rejected = rejected;
+    }
+    
+    public long getTimedOut() {
+        return timedOut;
+    }
+    
+    public void setTimedOut(long timedOut) {
+        this.timedOut = timedOut;
+    }
+    
+    public long getRehashed() {
+        return rehashed;
+    }
+    
+    public void setRehashed(long rehashed) {
+        this.rehashed = rehashed;
+    }
+    
+    public List<LatencyHistogramDto> getLatencies() {
+        return latencies;
+    }
+    
+    public void setLatencies(List<LatencyHistogramDto> latencies) {
+        this.latencies = latencies;
+    }
+}
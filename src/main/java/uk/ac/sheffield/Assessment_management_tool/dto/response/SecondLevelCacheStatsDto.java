@@ -0,0 +1,66 @@
+package uk.ac.sheffield.Assessment_management_tool.dto.response;
+
+import java.util.List;
+
+/**
+ * Hibernate second-level and query cache counters
+ */
+public class SecondLevelCacheStatsDto {
+    
+    private List<CacheRegionStatsDto> regions;
+    private long queryCacheHits;
+    private long queryCacheMisses;
+    private long prepareStatementCount;
+    private long sessionOpenCount;
+    
+    // Constructors
+    public SecondLevelCacheStatsDto() {}
+    
+    // Getters and Setters
+    public List<CacheRegionStatsDto> getRegions() {
+        return regions;
+    }
+    
+    public void setRegions(List<CacheRegionStatsDto> regions) {
+        this.regions = regions;
+    }
+    
+    public long getQueryCacheHits() {
+        return queryCacheHits;
+    }
+    
+    public void setQueryCacheHits(long queryCacheHits) {
+        this.queryCacheHits = queryCacheHits;
+    }
+    
+    public long getQueryCacheMisses() {
+        return queryCacheMisses;
+    }
+    
+    public void setQueryCacheMisses(long queryCacheMisses) {
+        this.queryCacheMisses = queryCacheMisses;
+    }
+    
+    public long getPrepareStatementCount() {
+        return prepareStatementCount;
+    }
+    
+    public void setPrepareStatementCount(long prepareStatementCount) {
+        this.prepareStatementCount = prepareStatementCount;
+    }
+    
+    public long getSessionOpenCount() {
+        return sessionOpenCount;
+    }
+    
+    public void setSessionOpenCount(long sessionOpenCount) {
+        this.sessionOpenCount = sessionOpenCount;
+    }
+    
+    /**
+     * Average SQL statements prepared per session since statistics were last cleared
+     */
+    public double getStatementsPerSession() {
+        return sessionOpenCount == 0 ? 0 : (double) prepareStatementCount / sessionOpenCount;
+    }
+}
@@ -0,0 +1,59 @@
+package uk.ac.sheffield.Assessment_management_tool.dto.response;
+
+import uk.ac.sheffield.Assessment_management_tool.domain.enums.UserBaseType;
+
+import java.util.UUID;
+
+/**
+ * Just enough of a user for directory listings and pickers
+ */
+public class UserSummaryDto {
+    
+    private UUID id;
+    private String name;
+    private String email;
+    private UserBaseType baseType;
+    
+    // Constructors
+    public UserSummaryDto() {}
+    
+    public UserSummaryDto(UUID id, String name, String email, UserBaseType baseType) {
+        this.id = id;
+        this.name = name;
+        this.email = email;
+        this.baseType = baseType;
+    }
+    
+    // Getters and Setters
+    public UUID getId() {
+        return id;
+    }
+    
+    public void setId(UUID id) {
+        this.id = id;
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public void setName(String name) {
+        this.name = name;
+    }
+    
+    public String getEmail() {
+        return email;
+    }
+    
+    public void setEmail(String email) {
+        this.email = email;
+    }
+    
+    public UserBaseType getBaseType() {
+        return baseType;
+    }
+    
+    public void setBaseType(UserBaseType baseType) {
+        this.baseType = baseType;
+    }
+}
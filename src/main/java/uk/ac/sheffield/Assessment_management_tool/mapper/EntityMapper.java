@@ -105,4 +105,15 @@ public class EntityMapper {
         dto.setCreatedAt(response.getCreatedAt());
         return dto;
     }
+    
+    public static ImportErrorDto toImportErrorDto(CsvImportError error) {
+        if (error == null) return null;
+        
+        ImportErrorDto dto = new ImportErrorDto();
+        dto.setLineNumber(error.getLineNumber());
+        dto.setColumn(error.getColumnName());
+        dto.setCode(error.getCode());
+        dto.setMessage(error.getMessage());
+        return dto;
+    }
 }
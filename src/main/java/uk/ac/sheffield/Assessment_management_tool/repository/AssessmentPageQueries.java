@@ -0,0 +1,30 @@
+package uk.ac.sheffield.Assessment_management_tool.repository;
+
+import uk.ac.sheffield.Assessment_management_tool.domain.entity.Assessment;
+import uk.ac.sheffield.Assessment_management_tool.domain.enums.AssessmentState;
+import uk.ac.sheffield.Assessment_management_tool.domain.enums.AssessmentType;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Keyset pages of assessments, newest first on (createdAt, id).
+ *
+ * Only the filters actually given become predicates, so each combination gets a
+ * plan that can use its index instead of one catch-all plan full of IS NULL checks.
+ * Null filters are ignored.
+ */
+public interface AssessmentPageQueries {
+    
+    /**
+     * Up to {@code limit} assessments that come after the ({@code afterCreatedAt},
+     * {@code afterId}) cursor (from the start when null). With a {@code userId}, only assessments in modules where the
+     * user holds a staff role or that they are assigned to directly are returned;
+     * EXISTS keeps each row once. The module is fetched for DTO mapping.
+     */
+    List<Assessment> findPage(UUID userId, AssessmentType type, AssessmentState state, UUID moduleId,
+                              LocalDate examDateFrom, LocalDate examDateTo,
+                              OffsetDateTime afterCreatedAt, UUID afterId, int limit);
+}
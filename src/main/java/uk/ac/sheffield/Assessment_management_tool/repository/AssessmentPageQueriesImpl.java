@@ -0,0 +1,75 @@
+package uk.ac.sheffield.Assessment_management_tool.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import uk.ac.sheffield.Assessment_management_tool.domain.entity.Assessment;
+import uk.ac.sheffield.Assessment_management_tool.domain.enums.AssessmentState;
+import uk.ac.sheffield.Assessment_management_tool.domain.enums.AssessmentType;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * JPQL built from the filters that are present; see {@link AssessmentPageQueries}
+ */
+public class AssessmentPageQueriesImpl implements AssessmentPageQueries {
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Override
+    public List<Assessment> findPage(UUID userId, AssessmentType type, AssessmentState state, UUID moduleId,
+                                     LocalDate examDateFrom, LocalDate examDateTo,
+                                     OffsetDateTime afterCreatedAt, UUID afterId, int limit) {
+        List<String> conditions = new ArrayList<>();
+        Map<String, Object> parameters = new HashMap<>();
+        if (afterCreatedAt != null) {
+            // The redundant <= bound lets the database range-scan the (..., created_at, id) indexes
+            conditions.add("a.createdAt <= :afterCreatedAt AND " +
+                    "(a.createdAt < :afterCreatedAt OR a.id < :afterId)");
+            parameters.put("afterCreatedAt", afterCreatedAt);
+            parameters.put("afterId", afterId);
+        }
+        if (type != null) {
+            conditions.add("a.type = :type");
+            parameters.put("type", type);
+        }
+        if (state != null) {
+            conditions.add("a.currentState = :state");
+            parameters.put("state", state);
+        }
+        if (moduleId != null) {
+            conditions.add("m.id = :moduleId");
+            parameters.put("moduleId", moduleId);
+        }
+        if (examDateFrom != null) {
+            conditions.add("a.examDate >= :examDateFrom");
+            parameters.put("examDateFrom", examDateFrom);
+        }
+        if (examDateTo != null) {
+            conditions.add("a.examDate <= :examDateTo");
+            parameters.put("examDateTo", examDateTo);
+        }
+        if (userId != null) {
+            conditions.add("(EXISTS (SELECT 1 FROM ModuleStaffRole s WHERE s.module = m AND s.user.id = :userId) OR " +
+                    "EXISTS (SELECT 1 FROM AssessmentRoleAssignment r WHERE r.assessment = a AND r.user.id = :userId))");
+            parameters.put("userId", userId);
+        }
+        
+        StringBuilder jpql = new StringBuilder("SELECT a FROM Assessment a JOIN FETCH a.module m");
+        if (!conditions.isEmpty()) {
+            jpql.append(" WHERE ").append(String.join(" AND ", conditions));
+        }
+        jpql.append(" ORDER BY a.createdAt DESC, a.id DESC");
+        
+        TypedQuery<Assessment> query = entityManager.createQuery(jpql.toString(), Assessment.class);
+        parameters.forEach(query::setParameter);
+        return query.setMaxResults(limit).getResultList();
+    }
+}
@@ -1,6 +1,7 @@
 package uk.ac.sheffield.Assessment_management_tool.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -9,11 +10,12 @@ import uk.ac.sheffield.Assessment_management_tool.domain.enums.AssessmentState;
 import uk.ac.sheffield.Assessment_management_tool.domain.enums.AssessmentType;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
 @Repository
-public interface AssessmentRepository extends JpaRepository<Assessment, UUID> {
+public interface AssessmentRepository extends JpaRepository<Assessment, UUID>, AssessmentPageQueries {
     
     List<Assessment> findByModuleId(UUID moduleId);
     
@@ -26,4 +28,85 @@ public interface AssessmentRepository extends JpaRepository<Assessment, UUID> {
     
     @Query("SELECT a FROM Assessment a WHERE a.type = 'EXAM' AND a.examDate <= :date AND a.currentState < :state")
     List<Assessment> findExamsToAutoProgress(@Param("date") LocalDate date, @Param("state") AssessmentState state);
+    
+    /**
+     * Distinct exam dates after {@code after} up to {@code upTo} that still have exams
+     * in {@code state}, earliest first. Both bounds are required, so the query is always
+     * a range scan on idx_assessment_type_state_exam_date.
+     */
+    @Query("SELECT DISTINCT a.examDate FROM Assessment a WHERE a.type = 'EXAM' AND a.currentState = :state " +
+           "AND a.examDate > :after AND a.examDate <= :upTo " +
+           "ORDER BY a.examDate")
+    List<LocalDate> findExamDatesInState(@Param("state") AssessmentState state,
+                                         @Param("after") LocalDate after,
+                                         @Param("upTo") LocalDate upTo);
+    
+    /**
+     * Lock the next chunk of exams in {@code state} dated between {@code from} and
+     * {@code to}, lowest id first. The row locks keep a concurrent transition from
+     * changing them before the caller's bulk update commits.
+     */
+    @Query(value = "SELECT id FROM assessment WHERE type = 'EXAM' AND current_state = :state " +
+                   "AND exam_date BETWEEN :from AND :to ORDER BY id LIMIT :limit FOR UPDATE",
+           nativeQuery = true)
+    List<UUID> lockExamsInState(@Param("state") String state,
+                                @Param("from") LocalDate from,
+                                @Param("to") LocalDate to,
+                                @Param("limit") int limit);
+    
+    /**
+     * Move the given assessments from one state to another in one statement.
+     * Bumps the version by hand, as bulk updates bypass Hibernate's optimistic locking,
+     * so anyone holding an older copy fails on save instead of overwriting the change.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Assessment a SET a.currentState = :to, a.version = a.version + 1 " +
+           "WHERE a.id IN :ids AND a.currentState = :from")
+    int updateStates(@Param("ids") Collection<UUID> ids,
+                     @Param("from") AssessmentState from,
+                     @Param("to") AssessmentState to);
+    
+    /**
+     * How many of the given assessments belong to each module: [module id, count]
+     */
+    @Query("SELECT a.module.id, COUNT(a) FROM Assessment a WHERE a.id IN :ids GROUP BY a.module.id")
+    List<Object[]> countByModule(@Param("ids") Collection<UUID> ids);
+    
+    /**
+     * Totals per type and state, [type, state, count], of the assessments a user is
+     * assigned to directly in modules where they hold no staff role. Together with
+     * the staff-module counters this gives the same visibility as
+     * {@link AssessmentPageQueries#findPage}.
+     */
+    @Query("SELECT a.type, a.currentState, COUNT(a) FROM Assessment a WHERE " +
+           "(:moduleId IS NULL OR a.module.id = :moduleId) AND " +
+           "EXISTS (SELECT 1 FROM AssessmentRoleAssignment r WHERE r.assessment = a AND r.user.id = :userId) AND " +
+           "NOT EXISTS (SELECT 1 FROM ModuleStaffRole s WHERE s.module = a.module AND s.user.id = :userId) " +
+           "GROUP BY a.type, a.currentState")
+    List<Object[]> countAssignedOutsideStaffModules(@Param("moduleId") UUID moduleId, @Param("userId") UUID userId);
+    
+    /**
+     * A user's roles on an assessment and its module, in one round trip. Columns, in
+     * order: setter, checker, module lead, module staff, moderator, module external
+     * examiner.
+     */
+    @Query("SELECT " +
+           "CASE WHEN EXISTS (SELECT 1 FROM AssessmentRoleAssignment r WHERE r.assessment = a AND r.user.id = :userId AND r.role = 'SETTER') THEN true ELSE false END, " +
+           "CASE WHEN EXISTS (SELECT 1 FROM AssessmentRoleAssignment r WHERE r.assessment = a AND r.user.id = :userId AND r.role = 'CHECKER') THEN true ELSE false END, " +
+           "CASE WHEN EXISTS (SELECT 1 FROM ModuleStaffRole s WHERE s.module = a.module AND s.user.id = :userId AND s.role = 'MODULE_LEAD') THEN true ELSE false END, " +
+           "CASE WHEN EXISTS (SELECT 1 FROM ModuleStaffRole s WHERE s.module = a.module AND s.user.id = :userId AND s.role = 'STAFF') THEN true ELSE false END, " +
+           "CASE WHEN EXISTS (SELECT 1 FROM ModuleStaffRole s WHERE s.module = a.module AND s.user.id = :userId AND s.role = 'MODERATOR') THEN true ELSE false END, " +
+           "CASE WHEN EXISTS (SELECT 1 FROM ModuleExternalExaminer e WHERE e.module = a.module AND e.user.id = :userId) THEN true ELSE false END " +
+           "FROM Assessment a WHERE a.id = :assessmentId")
+    List<Object[]> findRoleFlags(@Param("assessmentId") UUID assessmentId, @Param("userId") UUID userId);
+    
+    /**
+     * Workflow documents recorded for an assessment. Columns, in order: external
+     * feedback exists, setter response exists.
+     */
+    @Query("SELECT " +
+           "CASE WHEN EXISTS (SELECT 1 FROM ExternalExaminerFeedback f WHERE f.assessment = a) THEN true ELSE false END, " +
+           "CASE WHEN EXISTS (SELECT 1 FROM SetterResponse sr WHERE sr.assessment = a) THEN true ELSE false END " +
+           "FROM Assessment a WHERE a.id = :assessmentId")
+    List<Object[]> findWorkflowFlags(@Param("assessmentId") UUID assessmentId);
 }
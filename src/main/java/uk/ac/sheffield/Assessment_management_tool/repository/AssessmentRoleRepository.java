@@ -1,6 +1,9 @@
 package uk.ac.sheffield.Assessment_management_tool.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 import uk.ac.sheffield.Assessment_management_tool.domain.entity.Assessment;
 import uk.ac.sheffield.Assessment_management_tool.domain.entity.AssessmentRoleAssignment;
@@ -14,16 +17,20 @@ import java.util.UUID;
 @Repository
 public interface AssessmentRoleRepository extends JpaRepository<AssessmentRoleAssignment, UUID> {
     
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<AssessmentRoleAssignment> findByAssessment(Assessment assessment);
     
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<AssessmentRoleAssignment> findByAssessmentId(UUID assessmentId);
     
     List<AssessmentRoleAssignment> findByUser(User user);
     
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<AssessmentRoleAssignment> findByUserId(UUID userId);
     
     List<AssessmentRoleAssignment> findByAssessmentAndRole(Assessment assessment, AssessmentRole role);
     
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<AssessmentRoleAssignment> findByAssessmentAndUser(Assessment assessment, User user);
     
     Optional<AssessmentRoleAssignment> findByAssessmentAndUserAndRole(Assessment assessment, User user, AssessmentRole role);
@@ -0,0 +1,89 @@
+package uk.ac.sheffield.Assessment_management_tool.repository;
+
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import uk.ac.sheffield.Assessment_management_tool.domain.entity.AssessmentStateCount;
+import uk.ac.sheffield.Assessment_management_tool.domain.entity.AssessmentStateCountId;
+import uk.ac.sheffield.Assessment_management_tool.domain.enums.AssessmentState;
+import uk.ac.sheffield.Assessment_management_tool.domain.enums.AssessmentType;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Native statements name their table as a query space, so Hibernate does not
+ * drop the whole second-level cache each time a counter moves.
+ */
+@Repository
+public interface AssessmentStateCountRepository extends JpaRepository<AssessmentStateCount, AssessmentStateCountId> {
+    
+    /**
+     * Add {@code delta} to one counter. Returns 0 when the counter row does not exist yet.
+     */
+    @Modifying
+    @Query("UPDATE AssessmentStateCount c SET c.assessmentCount = c.assessmentCount + :delta " +
+           "WHERE c.id.moduleId = :moduleId AND c.id.type = :type AND c.id.state = :state")
+    int addToCount(@Param("moduleId") UUID moduleId,
+                   @Param("type") AssessmentType type,
+                   @Param("state") AssessmentState state,
+                   @Param("delta") long delta);
+    
+    /**
+     * Create a counter row. Returns 0 when another transaction created it first.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "assessment_state_count"))
+    @Query(value = "INSERT INTO assessment_state_count (module_id, type, current_state, assessment_count) " +
+                   "VALUES (:moduleId, :type, :state, :count) ON CONFLICT DO NOTHING",
+           nativeQuery = true)
+    int insertCount(@Param("moduleId") UUID moduleId,
+                    @Param("type") String type,
+                    @Param("state") String state,
+                    @Param("count") long count);
+    
+    /**
+     * Totals per type and state: [type, state, count]. With a {@code moduleId} only
+     * that module is counted; with a {@code userId} only modules where the user
+     * holds a staff role. Reads one row per module, type and state in use.
+     */
+    @Query("SELECT c.id.type, c.id.state, SUM(c.assessmentCount) FROM AssessmentStateCount c WHERE " +
+           "(:moduleId IS NULL OR c.id.moduleId = :moduleId) AND " +
+           "(:userId IS NULL OR EXISTS (SELECT 1 FROM ModuleStaffRole s WHERE s.module.id = c.id.moduleId AND s.user.id = :userId)) " +
+           "GROUP BY c.id.type, c.id.state")
+    List<Object[]> sumByTypeAndState(@Param("moduleId") UUID moduleId, @Param("userId") UUID userId);
+    
+    /**
+     * Reset every existing counter that disagrees with the assessment table.
+     * Returns the number of counters repaired.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "assessment_state_count"))
+    @Query(value = "UPDATE assessment_state_count c SET assessment_count = " +
+                   "(SELECT COUNT(*) FROM assessment a WHERE a.module_id = c.module_id " +
+                   "AND a.type = c.type AND a.current_state = c.current_state) " +
+                   "WHERE assessment_count <> (SELECT COUNT(*) FROM assessment a WHERE a.module_id = c.module_id " +
+                   "AND a.type = c.type AND a.current_state = c.current_state)",
+           nativeQuery = true)
+    int repairCounts();
+    
+    /**
+     * Create counters for module, type and state combinations that have
+     * assessments but no counter row. Returns the number created.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "assessment_state_count"))
+    @Query(value = "INSERT INTO assessment_state_count (module_id, type, current_state, assessment_count) " +
+                   "SELECT a.module_id, a.type, a.current_state, COUNT(*) FROM assessment a " +
+                   "WHERE NOT EXISTS (SELECT 1 FROM assessment_state_count c WHERE c.module_id = a.module_id " +
+                   "AND c.type = a.type AND c.current_state = a.current_state) " +
+                   "GROUP BY a.module_id, a.type, a.current_state " +
+                   "ON CONFLICT DO NOTHING",
+           nativeQuery = true)
+    int insertMissingCounts();
+}
@@ -0,0 +1,33 @@
+package uk.ac.sheffield.Assessment_management_tool.repository;
+
+import uk.ac.sheffield.Assessment_management_tool.domain.entity.AssessmentTransition;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Audit log queries over assessment transitions, newest first by (at, id).
+ *
+ * Only the filters actually given become predicates, so the database plans each
+ * combination on its own instead of one catch-all plan full of IS NULL checks.
+ * Null filters are ignored.
+ */
+public interface AssessmentTransitionAuditQueries {
+    
+    /**
+     * Up to {@code limit} transitions strictly after the keyset position
+     * ({@code afterAt}, {@code afterId}) in newest-first order; from the newest
+     * when {@code afterAt} is null
+     */
+    List<AssessmentTransition> findAuditPage(OffsetDateTime from, OffsetDateTime to, UUID userId, UUID moduleId,
+                                             OffsetDateTime afterAt, UUID afterId, int limit);
+    
+    /**
+     * Every matching transition, read from the database {@code fetchSize} rows at a time.
+     * Must be consumed and closed inside a transaction.
+     */
+    Stream<AssessmentTransition> streamAudit(OffsetDateTime from, OffsetDateTime to, UUID userId, UUID moduleId,
+                                             int fetchSize);
+}
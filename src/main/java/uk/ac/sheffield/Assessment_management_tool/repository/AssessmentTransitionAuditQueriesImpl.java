@@ -0,0 +1,87 @@
+package uk.ac.sheffield.Assessment_management_tool.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.jpa.HibernateHints;
+import uk.ac.sheffield.Assessment_management_tool.domain.entity.AssessmentTransition;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * JPQL built from the filters that are present; see {@link AssessmentTransitionAuditQueries}
+ */
+public class AssessmentTransitionAuditQueriesImpl implements AssessmentTransitionAuditQueries {
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Override
+    public List<AssessmentTransition> findAuditPage(OffsetDateTime from, OffsetDateTime to, UUID userId,
+                                                    UUID moduleId, OffsetDateTime afterAt, UUID afterId,
+                                                    int limit) {
+        List<String> conditions = new ArrayList<>();
+        Map<String, Object> parameters = new HashMap<>();
+        addFilters(from, to, userId, moduleId, conditions, parameters);
+        if (afterAt != null) {
+            conditions.add("(t.at < :afterAt OR (t.at = :afterAt AND t.id < :afterId))");
+            parameters.put("afterAt", afterAt);
+            parameters.put("afterId", afterId);
+        }
+        
+        return createQuery(conditions, parameters)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+    
+    @Override
+    public Stream<AssessmentTransition> streamAudit(OffsetDateTime from, OffsetDateTime to, UUID userId,
+                                                    UUID moduleId, int fetchSize) {
+        List<String> conditions = new ArrayList<>();
+        Map<String, Object> parameters = new HashMap<>();
+        addFilters(from, to, userId, moduleId, conditions, parameters);
+        
+        return createQuery(conditions, parameters)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+    
+    private static void addFilters(OffsetDateTime from, OffsetDateTime to, UUID userId, UUID moduleId,
+                                   List<String> conditions, Map<String, Object> parameters) {
+        if (from != null) {
+            conditions.add("t.at >= :from");
+            parameters.put("from", from);
+        }
+        if (to != null) {
+            conditions.add("t.at <= :to");
+            parameters.put("to", to);
+        }
+        if (userId != null) {
+            conditions.add("t.byUser.id = :userId");
+            parameters.put("userId", userId);
+        }
+        if (moduleId != null) {
+            conditions.add("t.assessment.module.id = :moduleId");
+            parameters.put("moduleId", moduleId);
+        }
+    }
+    
+    private TypedQuery<AssessmentTransition> createQuery(List<String> conditions, Map<String, Object> parameters) {
+        StringBuilder jpql = new StringBuilder("SELECT t FROM AssessmentTransition t");
+        if (!conditions.isEmpty()) {
+            jpql.append(" WHERE ").append(String.join(" AND ", conditions));
+        }
+        jpql.append(" ORDER BY t.at DESC, t.id DESC");
+        
+        TypedQuery<AssessmentTransition> query = entityManager.createQuery(jpql.toString(), AssessmentTransition.class);
+        parameters.forEach(query::setParameter);
+        return query;
+    }
+}
@@ -0,0 +1,19 @@
+package uk.ac.sheffield.Assessment_management_tool.repository;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import uk.ac.sheffield.Assessment_management_tool.domain.entity.CsvImportError;
+import uk.ac.sheffield.Assessment_management_tool.domain.enums.ImportErrorCode;
+
+import java.util.UUID;
+
+@Repository
+public interface CsvImportErrorRepository extends JpaRepository<CsvImportError, UUID> {
+    
+    Page<CsvImportError> findByJobIdAndLineNumberGreaterThanEqual(UUID jobId, int fromLine, Pageable pageable);
+    
+    Page<CsvImportError> findByJobIdAndCodeAndLineNumberGreaterThanEqual(
+            UUID jobId, ImportErrorCode code, int fromLine, Pageable pageable);
+}
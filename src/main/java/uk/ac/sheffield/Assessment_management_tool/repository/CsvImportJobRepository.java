@@ -1,10 +1,15 @@
 package uk.ac.sheffield.Assessment_management_tool.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import uk.ac.sheffield.Assessment_management_tool.domain.entity.CsvImportJob;
 import uk.ac.sheffield.Assessment_management_tool.domain.enums.ImportJobStatus;
 
+import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.UUID;
 
@@ -14,4 +19,26 @@ public interface CsvImportJobRepository extends JpaRepository<CsvImportJob, UUID
     List<CsvImportJob> findByStatusOrderByCreatedAtDesc(ImportJobStatus status);
     
     List<CsvImportJob> findAllByOrderByCreatedAtDesc();
+    
+    /**
+     * Put a stopped job back in the queue. Returns 0 unless the job is FAILED, PENDING,
+     * or RUNNING without a heartbeat since {@code staleBefore} (its node died part way),
+     * so a job that is still making progress or has completed is never queued again.
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE CsvImportJob j SET j.status = 'PENDING', j.finishedAt = NULL " +
+           "WHERE j.id = :id AND (j.status IN ('FAILED', 'PENDING') OR " +
+           "(j.status = 'RUNNING' AND COALESCE(j.heartbeatAt, j.startedAt, j.createdAt) < :staleBefore))")
+    int claimForResume(@Param("id") UUID id, @Param("staleBefore") OffsetDateTime staleBefore);
+    
+    /**
+     * Start a queued job. Returns 0 when it is no longer PENDING, i.e. a worker on
+     * this or another node has already picked it up.
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE CsvImportJob j SET j.status = 'RUNNING', j.finishedAt = NULL, j.heartbeatAt = :now " +
+           "WHERE j.id = :id AND j.status = 'PENDING'")
+    int claimForRun(@Param("id") UUID id, @Param("now") OffsetDateTime now);
 }
@@ -1,22 +1,75 @@
 package uk.ac.sheffield.Assessment_management_tool.repository;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import uk.ac.sheffield.Assessment_management_tool.domain.entity.Module;
+import uk.ac.sheffield.Assessment_management_tool.domain.enums.ModuleRole;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 @Repository
-public interface ModuleRepository extends JpaRepository<Module, UUID> {
+public interface ModuleRepository extends JpaRepository<Module, UUID>, ModuleSearchQueries {
     
     Optional<Module> findByCode(String code);
     
+    List<Module> findByCodeIn(Collection<String> codes);
+    
+    /**
+     * Ids of the modules a listing may show. Null filters are ignored. With a
+     * {@code userId}, only modules where the user holds a staff role; with a year
+     * range, only modules with an exam dated inside it. Used to scope the in-memory
+     * search on databases without pg_trgm.
+     */
+    @Query("SELECT m.id FROM Module m WHERE " +
+           "(:userId IS NULL OR " +
+           "EXISTS (SELECT 1 FROM ModuleStaffRole s WHERE s.module = m AND s.user.id = :userId)) AND " +
+           "(:yearStart IS NULL OR " +
+           "EXISTS (SELECT 1 FROM Assessment a WHERE a.module = m AND a.examDate >= :yearStart AND a.examDate < :yearEnd))")
+    List<UUID> findIdsInScope(@Param("userId") UUID userId,
+                              @Param("yearStart") LocalDate yearStart,
+                              @Param("yearEnd") LocalDate yearEnd);
+    
+    /**
+     * One page of the modules a listing may show, with the same filters as {@link #findIdsInScope}
+     */
     @Query("SELECT m FROM Module m WHERE " +
-           "LOWER(m.code) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-           "LOWER(m.title) LIKE LOWER(CONCAT('%', :search, '%'))")
-    List<Module> searchModules(@Param("search") String search);
+           "(:userId IS NULL OR " +
+           "EXISTS (SELECT 1 FROM ModuleStaffRole s WHERE s.module = m AND s.user.id = :userId)) AND " +
+           "(:yearStart IS NULL OR " +
+           "EXISTS (SELECT 1 FROM Assessment a WHERE a.module = m AND a.examDate >= :yearStart AND a.examDate < :yearEnd))")
+    Page<Module> findInScope(@Param("userId") UUID userId,
+                             @Param("yearStart") LocalDate yearStart,
+                             @Param("yearEnd") LocalDate yearEnd,
+                             Pageable pageable);
+    
+    /**
+     * Listing counts for the given modules in one grouped statement: staff (excluding
+     * external examiners), assessments, and the given user's role if they have one.
+     */
+    @Query("SELECT m.id AS moduleId, " +
+           "COUNT(CASE WHEN u.baseType <> 'EXTERNAL_EXAMINER' THEN s.id END) AS staffCount, " +
+           "(SELECT COUNT(a) FROM Assessment a WHERE a.module.id = m.id) AS assessmentCount, " +
+           "MIN(CASE WHEN u.id = :userId THEN s.role END) AS userRole " +
+           "FROM Module m LEFT JOIN ModuleStaffRole s ON s.module = m LEFT JOIN s.user u " +
+           "WHERE m.id IN :moduleIds " +
+           "GROUP BY m.id")
+    List<ModuleSummary> findSummaries(@Param("moduleIds") Collection<UUID> moduleIds, @Param("userId") UUID userId);
+    
+    interface ModuleSummary {
+        UUID getModuleId();
+        
+        long getStaffCount();
+        
+        long getAssessmentCount();
+        
+        ModuleRole getUserRole();
+    }
 }
@@ -0,0 +1,24 @@
+package uk.ac.sheffield.Assessment_management_tool.repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Ranked, paged module search. PostgreSQL only: the ILIKE and similarity ({@code %})
+ * predicates are served by the pg_trgm GIN indexes from db/migration/postgresql.
+ * Only the scope filters actually given become predicates; null filters are ignored.
+ */
+public interface ModuleSearchQueries {
+    
+    /**
+     * One page of the ids of modules matching {@code query}, best first, with the total
+     * number of matches. Exact and prefix matches on code rank above the rest. With a
+     * {@code userId}, only modules where the user holds a staff role; with a year range,
+     * only modules with an exam dated inside it.
+     */
+    RankedPage searchRanked(String query, UUID userId, LocalDate yearStart, LocalDate yearEnd,
+                            int offset, int limit);
+    
+    record RankedPage(List<UUID> ids, long total) {}
+}
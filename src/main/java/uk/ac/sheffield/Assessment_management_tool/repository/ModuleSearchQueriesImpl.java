@@ -0,0 +1,74 @@
+package uk.ac.sheffield.Assessment_management_tool.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Native SQL built from the filters that are present; see {@link ModuleSearchQueries}
+ */
+public class ModuleSearchQueriesImpl implements ModuleSearchQueries {
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Override
+    @SuppressWarnings("unchecked")
+    public RankedPage searchRanked(String query, UUID userId, LocalDate yearStart, LocalDate yearEnd,
+                                   int offset, int limit) {
+        List<String> conditions = new ArrayList<>();
+        Map<String, Object> parameters = new HashMap<>();
+        String escaped = escapeLike(query);
+        conditions.add("(m.code ILIKE :pattern OR m.title ILIKE :pattern OR m.title % :query)");
+        parameters.put("query", query);
+        parameters.put("pattern", "%" + escaped + "%");
+        if (userId != null) {
+            conditions.add("EXISTS (SELECT 1 FROM module_staff_role s WHERE s.module_id = m.id AND s.user_id = :userId)");
+            parameters.put("userId", userId);
+        }
+        if (yearStart != null) {
+            conditions.add("EXISTS (SELECT 1 FROM assessment a WHERE a.module_id = m.id " +
+                    "AND a.exam_date >= :yearStart AND a.exam_date < :yearEnd)");
+            parameters.put("yearStart", yearStart);
+            parameters.put("yearEnd", yearEnd);
+        }
+        String where = " FROM module m WHERE " + String.join(" AND ", conditions);
+        
+        // The window count is taken before LIMIT, so each row also carries the total
+        parameters.put("prefix", escaped + "%");
+        Query page = entityManager.createNativeQuery("SELECT m.id, COUNT(*) OVER () AS total" + where +
+                " ORDER BY (CASE WHEN LOWER(m.code) = LOWER(:query) THEN 3 " +
+                "WHEN m.code ILIKE :prefix THEN 2 ELSE 0 END) + " +
+                "GREATEST(similarity(m.code, :query), similarity(m.title, :query)) DESC, m.code");
+        parameters.forEach(page::setParameter);
+        List<Object[]> rows = page.setFirstResult(offset).setMaxResults(limit).getResultList();
+        
+        List<UUID> ids = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            ids.add((UUID) row[0]);
+        }
+        if (!rows.isEmpty()) {
+            return new RankedPage(ids, ((Number) rows.get(0)[1]).longValue());
+        }
+        if (offset == 0) {
+            return new RankedPage(ids, 0);
+        }
+        
+        // Past the last page there are no rows to carry the total
+        parameters.remove("prefix");
+        Query count = entityManager.createNativeQuery("SELECT COUNT(*)" + where);
+        parameters.forEach(count::setParameter);
+        return new RankedPage(ids, ((Number) count.getSingleResult()).longValue());
+    }
+    
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
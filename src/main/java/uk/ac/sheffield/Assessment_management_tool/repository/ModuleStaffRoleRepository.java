@@ -1,12 +1,18 @@
 package uk.ac.sheffield.Assessment_management_tool.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import uk.ac.sheffield.Assessment_management_tool.domain.entity.Module;
 import uk.ac.sheffield.Assessment_management_tool.domain.entity.ModuleStaffRole;
 import uk.ac.sheffield.Assessment_management_tool.domain.entity.User;
 import uk.ac.sheffield.Assessment_management_tool.domain.enums.ModuleRole;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -16,14 +22,17 @@ public interface ModuleStaffRoleRepository extends JpaRepository<ModuleStaffRole
     
     List<ModuleStaffRole> findByModule(Module module);
     
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<ModuleStaffRole> findByModuleId(UUID moduleId);
     
     List<ModuleStaffRole> findByUser(User user);
     
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<ModuleStaffRole> findByUserId(UUID userId);
     
     List<ModuleStaffRole> findByModuleAndUser(Module module, User user);
     
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<ModuleStaffRole> findByModuleAndRole(Module module, ModuleRole role);
     
     Optional<ModuleStaffRole> findByModuleAndUserAndRole(Module module, User user, ModuleRole role);
@@ -31,4 +40,14 @@ public interface ModuleStaffRoleRepository extends JpaRepository<ModuleStaffRole
     boolean existsByModuleAndUserAndRole(Module module, User user, ModuleRole role);
     
     void deleteByModuleAndUserAndRole(Module module, User user, ModuleRole role);
+    
+    @Query("SELECT r.module.id, r.user.id, r.role FROM ModuleStaffRole r WHERE r.module.id IN :moduleIds")
+    List<Object[]> findRoleTuplesByModuleIds(@Param("moduleIds") Collection<UUID> moduleIds);
+    
+    /**
+     * External examiners attached to any of the given modules, with their users loaded
+     */
+    @Query("SELECT r FROM ModuleStaffRole r JOIN FETCH r.user u " +
+           "WHERE r.module.id IN :moduleIds AND u.baseType = 'EXTERNAL_EXAMINER'")
+    List<ModuleStaffRole> findExternalExaminersByModuleIds(@Param("moduleIds") Collection<UUID> moduleIds);
 }
@@ -0,0 +1,14 @@
+package uk.ac.sheffield.Assessment_management_tool.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import uk.ac.sheffield.Assessment_management_tool.domain.entity.PasswordRotationJob;
+
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface PasswordRotationJobRepository extends JpaRepository<PasswordRotationJob, UUID> {
+    
+    List<PasswordRotationJob> findAllByOrderByCreatedAtDesc();
+}
@@ -0,0 +1,43 @@
+package uk.ac.sheffield.Assessment_management_tool.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import uk.ac.sheffield.Assessment_management_tool.domain.entity.ScheduledJobLock;
+
+import java.time.OffsetDateTime;
+
+@Repository
+public interface ScheduledJobLockRepository extends JpaRepository<ScheduledJobLock, String> {
+    
+    /**
+     * Take the lease if it is free or has lapsed. Returns 1 when this call got it.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE ScheduledJobLock l SET l.owner = :owner, l.fencingToken = l.fencingToken + 1, " +
+           "l.acquiredAt = :now, l.heartbeatAt = :now, l.leaseUntil = :leaseUntil " +
+           "WHERE l.jobName = :jobName AND (l.leaseUntil IS NULL OR l.leaseUntil < :now)")
+    int acquire(@Param("jobName") String jobName,
+                @Param("owner") String owner,
+                @Param("now") OffsetDateTime now,
+                @Param("leaseUntil") OffsetDateTime leaseUntil);
+    
+    /**
+     * Extend the lease, provided it has not lapsed and no one has taken it since.
+     * Returns 0 when the lease is lost.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE ScheduledJobLock l SET l.heartbeatAt = :now, l.leaseUntil = :leaseUntil " +
+           "WHERE l.jobName = :jobName AND l.fencingToken = :token AND l.leaseUntil >= :now")
+    int renew(@Param("jobName") String jobName,
+              @Param("token") long token,
+              @Param("now") OffsetDateTime now,
+              @Param("leaseUntil") OffsetDateTime leaseUntil);
+    
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE ScheduledJobLock l SET l.owner = NULL, l.leaseUntil = NULL " +
+           "WHERE l.jobName = :jobName AND l.fencingToken = :token")
+    int release(@Param("jobName") String jobName, @Param("token") long token);
+}
@@ -0,0 +1,9 @@
+package uk.ac.sheffield.Assessment_management_tool.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import uk.ac.sheffield.Assessment_management_tool.domain.entity.ScheduledJobState;
+
+@Repository
+public interface ScheduledJobStateRepository extends JpaRepository<ScheduledJobState, String> {
+}
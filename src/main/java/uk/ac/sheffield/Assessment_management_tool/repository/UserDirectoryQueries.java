@@ -0,0 +1,24 @@
+package uk.ac.sheffield.Assessment_management_tool.repository;
+
+import uk.ac.sheffield.Assessment_management_tool.domain.enums.UserBaseType;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * User directory lookups for listings and typeahead pickers, in case-insensitive
+ * name order. Only the filters actually given become predicates; null filters are
+ * ignored.
+ */
+public interface UserDirectoryQueries {
+    
+    /**
+     * Up to {@code limit} users whose lower-cased name or email starts with
+     * {@code prefix}, as (id, name, email, baseType, lower-cased name) rows ordered
+     * by lower-cased name then id, strictly after the keyset position
+     * ({@code afterName}, {@code afterId}); from the start when {@code afterName} is null.
+     * {@code prefix} must already be lower-cased.
+     */
+    List<Object[]> findDirectoryPage(String prefix, UserBaseType baseType, Boolean examsOfficer,
+                                     String afterName, UUID afterId, int limit);
+}
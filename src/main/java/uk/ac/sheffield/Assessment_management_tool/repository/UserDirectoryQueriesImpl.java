@@ -0,0 +1,62 @@
+package uk.ac.sheffield.Assessment_management_tool.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import uk.ac.sheffield.Assessment_management_tool.domain.enums.UserBaseType;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * JPQL built from the filters that are present; see {@link UserDirectoryQueries}
+ */
+public class UserDirectoryQueriesImpl implements UserDirectoryQueries {
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Override
+    public List<Object[]> findDirectoryPage(String prefix, UserBaseType baseType, Boolean examsOfficer,
+                                            String afterName, UUID afterId, int limit) {
+        List<String> conditions = new ArrayList<>();
+        Map<String, Object> parameters = new HashMap<>();
+        if (prefix != null) {
+            conditions.add("(LOWER(u.name) LIKE :prefix ESCAPE '\\' OR LOWER(u.email) LIKE :prefix ESCAPE '\\')");
+            parameters.put("prefix", escapeLike(prefix) + "%");
+        }
+        if (baseType != null) {
+            conditions.add("u.baseType = :baseType");
+            parameters.put("baseType", baseType);
+        }
+        if (examsOfficer != null) {
+            conditions.add("u.isExamsOfficer = :examsOfficer");
+            parameters.put("examsOfficer", examsOfficer);
+        }
+        if (afterName != null) {
+            // The redundant >= bound lets the database range-scan (LOWER(name), id)
+            conditions.add("LOWER(u.name) >= :afterName AND " +
+                    "(LOWER(u.name) > :afterName OR u.id > :afterId)");
+            parameters.put("afterName", afterName);
+            parameters.put("afterId", afterId);
+        }
+        
+        StringBuilder jpql = new StringBuilder(
+                "SELECT u.id, u.name, u.email, u.baseType, LOWER(u.name) FROM User u");
+        if (!conditions.isEmpty()) {
+            jpql.append(" WHERE ").append(String.join(" AND ", conditions));
+        }
+        jpql.append(" ORDER BY LOWER(u.name), u.id");
+        
+        TypedQuery<Object[]> query = entityManager.createQuery(jpql.toString(), Object[].class);
+        parameters.forEach(query::setParameter);
+        return query.setMaxResults(limit).getResultList();
+    }
+    
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
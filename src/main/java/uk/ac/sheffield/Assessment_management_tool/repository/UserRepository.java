@@ -1,18 +1,28 @@
 package uk.ac.sheffield.Assessment_management_tool.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import uk.ac.sheffield.Assessment_management_tool.domain.entity.User;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, UUID> {
+public interface UserRepository extends JpaRepository<User, UUID>,
+        UserRotationQueries, UserDirectoryQueries {
     
     Optional<User> findByEmail(String email);
     
     Optional<User> findByName(String name);
     
+    List<User> findByNameIn(Collection<String> names);
+    
     boolean existsByEmail(String email);
+    
+    @Query("SELECT u.email FROM User u WHERE u.email IN :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
 }
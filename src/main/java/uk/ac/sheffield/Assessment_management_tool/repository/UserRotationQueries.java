@@ -0,0 +1,33 @@
+package uk.ac.sheffield.Assessment_management_tool.repository;
+
+import uk.ac.sheffield.Assessment_management_tool.domain.enums.UserBaseType;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Queries for bulk password rotation.
+ *
+ * Users are selected by base type, by module (staff or external examiner on it)
+ * and by email; null filters are ignored and only the given ones become
+ * predicates. Ids are read in keyset pages, so the user table is never loaded whole.
+ */
+public interface UserRotationQueries {
+    
+    long countForRotation(UserBaseType baseType, UUID moduleId, Collection<String> emails);
+    
+    /**
+     * Up to {@code limit} matching users with an id greater than {@code afterId}, in
+     * id order, as (id, email) rows; from the start when {@code afterId} is null
+     */
+    List<Object[]> findRotationPage(UserBaseType baseType, UUID moduleId, Collection<String> emails,
+                                  UUID afterId, int limit);
+    
+    /**
+     * Set each user's password hash with one {@code UPDATE ... WHERE id IN (...)}.
+     * Returns the number of rows updated.
+     */
+    int updatePasswordHashes(Map<UUID, String> hashesById);
+}
@@ -0,0 +1,99 @@
+package uk.ac.sheffield.Assessment_management_tool.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import jakarta.persistence.TypedQuery;
+import uk.ac.sheffield.Assessment_management_tool.domain.enums.UserBaseType;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * JPQL built from the filters that are present; see {@link UserRotationQueries}
+ */
+public class UserRotationQueriesImpl implements UserRotationQueries {
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Override
+    public long countForRotation(UserBaseType baseType, UUID moduleId, Collection<String> emails) {
+        List<String> conditions = new ArrayList<>();
+        Map<String, Object> parameters = new HashMap<>();
+        addFilters(baseType, moduleId, emails, conditions, parameters);
+        
+        TypedQuery<Long> query = entityManager.createQuery(
+                "SELECT COUNT(u) FROM User u" + where(conditions), Long.class);
+        parameters.forEach(query::setParameter);
+        return query.getSingleResult();
+    }
+    
+    @Override
+    public List<Object[]> findRotationPage(UserBaseType baseType, UUID moduleId, Collection<String> emails,
+                                           UUID afterId, int limit) {
+        List<String> conditions = new ArrayList<>();
+        Map<String, Object> parameters = new HashMap<>();
+        addFilters(baseType, moduleId, emails, conditions, parameters);
+        if (afterId != null) {
+            conditions.add("u.id > :afterId");
+            parameters.put("afterId", afterId);
+        }
+        
+        TypedQuery<Object[]> query = entityManager.createQuery(
+                "SELECT u.id, u.email FROM User u" + where(conditions) + " ORDER BY u.id", Object[].class);
+        parameters.forEach(query::setParameter);
+        return query.setMaxResults(limit).getResultList();
+    }
+    
+    /**
+     * Each row gets its own hash through a CASE on the id, so a chunk is still one statement
+     */
+    @Override
+    public int updatePasswordHashes(Map<UUID, String> hashesById) {
+        if (hashesById.isEmpty()) {
+            return 0;
+        }
+        
+        StringBuilder jpql = new StringBuilder("UPDATE User u SET u.passwordHash = CASE u.id");
+        Map<String, Object> parameters = new HashMap<>();
+        int i = 0;
+        for (Map.Entry<UUID, String> entry : hashesById.entrySet()) {
+            jpql.append(" WHEN :id").append(i).append(" THEN :hash").append(i);
+            parameters.put("id" + i, entry.getKey());
+            parameters.put("hash" + i, entry.getValue());
+            i++;
+        }
+        jpql.append(" ELSE u.passwordHash END WHERE u.id IN :ids");
+        parameters.put("ids", hashesById.keySet());
+        
+        Query update = entityManager.createQuery(jpql.toString());
+        parameters.forEach(update::setParameter);
+        return update.executeUpdate();
+    }
+    
+    private static void addFilters(UserBaseType baseType, UUID moduleId, Collection<String> emails,
+                                   List<String> conditions, Map<String, Object> parameters) {
+        if (baseType != null) {
+            conditions.add("u.baseType = :baseType");
+            parameters.put("baseType", baseType);
+        }
+        if (moduleId != null) {
+            conditions.add("(EXISTS (SELECT 1 FROM ModuleStaffRole s WHERE s.module.id = :moduleId AND s.user = u) OR " +
+                    "EXISTS (SELECT 1 FROM ModuleExternalExaminer e WHERE e.module.id = :moduleId AND e.user = u))");
+            parameters.put("moduleId", moduleId);
+        }
+        if (emails != null && !emails.isEmpty()) {
+            conditions.add("u.email IN :emails");
+            parameters.put("emails", emails);
+        }
+    }
+    
+    private static String where(List<String> conditions) {
+        return conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions);
+    }
+}
@@ -0,0 +1,55 @@
+package uk.ac.sheffield.Assessment_management_tool.scheduled;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import uk.ac.sheffield.Assessment_management_tool.service.AssessmentStateCounter;
+
+/**
+ * Nightly check of assessment_state_count against the assessment table.
+ *
+ * The counters are adjusted in the same transaction as each create or
+ * transition, so they should never drift; this repairs them if a write
+ * bypassed {@link AssessmentStateCounter} or rows were changed by hand.
+ */
+@Component
+public class AssessmentStateCountReconciler {
+    
+    private static final Logger logger = LoggerFactory.getLogger(AssessmentStateCountReconciler.class);
+    
+    static final String JOB_NAME = "assessment-state-count-reconcile";
+    
+    private final AssessmentStateCounter assessmentStateCounter;
+    private final JobLockManager jobLockManager;
+    private final TransactionTemplate transactionTemplate;
+    
+    public AssessmentStateCountReconciler(
+            AssessmentStateCounter assessmentStateCounter,
+            JobLockManager jobLockManager,
+            PlatformTransactionManager transactionManager) {
+        this.assessmentStateCounter = assessmentStateCounter;
+        this.jobLockManager = jobLockManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+    
+    /**
+     * Runs daily at 03:30 Europe/London, after exam auto-progress
+     */
+    @Scheduled(cron = "0 30 3 * * *", zone = "Europe/London")
+    public void reconcile() {
+        jobLockManager.runExclusively(JOB_NAME, lease -> {
+            Integer repaired = transactionTemplate.execute(status -> {
+                jobLockManager.fence(lease);
+                return assessmentStateCounter.reconcile();
+            });
+            if (repaired != null && repaired > 0) {
+                logger.warn("Repaired {} assessment state counters that had drifted", repaired);
+            } else {
+                logger.info("Assessment state counters match the assessment table");
+            }
+        });
+    }
+}
@@ -2,97 +2,169 @@ package uk.ac.sheffield.Assessment_management_tool.scheduled;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
-import uk.ac.sheffield.Assessment_management_tool.domain.entity.Assessment;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import uk.ac.sheffield.Assessment_management_tool.domain.entity.AssessmentTransition;
+import uk.ac.sheffield.Assessment_management_tool.domain.entity.ScheduledJobState;
 import uk.ac.sheffield.Assessment_management_tool.domain.enums.AssessmentState;
 import uk.ac.sheffield.Assessment_management_tool.domain.enums.AssessmentType;
 import uk.ac.sheffield.Assessment_management_tool.repository.AssessmentRepository;
 import uk.ac.sheffield.Assessment_management_tool.repository.AssessmentTransitionRepository;
+import uk.ac.sheffield.Assessment_management_tool.repository.ScheduledJobStateRepository;
+import uk.ac.sheffield.Assessment_management_tool.service.AssessmentStateCounter;
 
-import java.time.DayOfWeek;
 import java.time.LocalDate;
+import java.time.ZoneId;
 import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
 
+/**
+ * Moves printed exams to EXAM_TAKEN once their exam date has passed.
+ *
+ * Progress is tracked as a watermark in scheduled_job_state: the last exam date
+ * fully handled. Each chunk and watermark update is fenced by the job's lease
+ * (see {@link JobLockManager}), so replicas never work on the same rows.
+ *
+ * Work is done in chunks of {@code app.scheduling.auto-progress.chunk-size} exams,
+ * each in its own transaction: lock the chunk's rows, insert their transitions as
+ * one JDBC batch, then move them all with a single UPDATE and adjust the state
+ * counters per module. A failure only rolls back the chunk it happened in.
+ */
 @Component
 public class ExamAutoProgressScheduler {
     
     private static final Logger logger = LoggerFactory.getLogger(ExamAutoProgressScheduler.class);
     
+    static final String JOB_NAME = "exam-auto-progress";
+    private static final ZoneId ZONE = ZoneId.of("Europe/London");
+    private static final AssessmentState FROM_STATE = AssessmentState.SENT_TO_PRINTING;
+    private static final AssessmentState TO_STATE = AssessmentState.EXAM_TAKEN;
+    // Lower bound for the first run, before any watermark is stored; earlier than any exam
+    static final LocalDate NO_WATERMARK = LocalDate.of(1900, 1, 1);
+    
     private final AssessmentRepository assessmentRepository;
     private final AssessmentTransitionRepository transitionRepository;
+    private final ScheduledJobStateRepository jobStateRepository;
+    private final JobLockManager jobLockManager;
+    private final AssessmentStateCounter assessmentStateCounter;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
     
     public ExamAutoProgressScheduler(
             AssessmentRepository assessmentRepository,
-            AssessmentTransitionRepository transitionRepository) {
+            AssessmentTransitionRepository transitionRepository,
+            ScheduledJobStateRepository jobStateRepository,
+            JobLockManager jobLockManager,
+            AssessmentStateCounter assessmentStateCounter,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.scheduling.auto-progress.chunk-size:500}") int chunkSize) {
         this.assessmentRepository = assessmentRepository;
         this.transitionRepository = transitionRepository;
+        this.jobStateRepository = jobStateRepository;
+        this.jobLockManager = jobLockManager;
+        this.assessmentStateCounter = assessmentStateCounter;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
     }
     
     /**
      * Auto-progress exams to EXAM_TAKEN state
      * Runs daily at 02:00 Europe/London
+     *
+     * Catches up from the stored watermark to yesterday, so runs missed while no
+     * node was up (or over a long weekend) are made good by the next one. Each
+     * exam date is progressed and then recorded, so a run that dies part way
+     * resumes from the last date it finished; redoing a date is a no-op.
+     *
+     * Only the node holding the job's lease runs it; the others skip this run.
      */
     @Scheduled(cron = "0 0 2 * * *", zone = "Europe/London")
-    @Transactional
     public void autoProgressExams() {
-        logger.info("Running exam auto-progress job");
-        
-        LocalDate today = LocalDate.now();
-        LocalDate checkDate = getLastWorkingDay(today);
-        
-        // Find exams that should be progressed
-        List<Assessment> examsToProgress = assessmentRepository.findByTypeAndExamDate(
-            AssessmentType.EXAM, checkDate
-        );
+        jobLockManager.runExclusively(JOB_NAME, this::runAutoProgress);
+    }
+    
+    private void runAutoProgress(JobLease lease) {
+        LocalDate upTo = LocalDate.now(ZONE).minusDays(1);
+        LocalDate watermark = jobStateRepository.findById(JOB_NAME)
+                .map(ScheduledJobState::getWatermark)
+                .orElse(NO_WATERMARK);
+        logger.info("Running exam auto-progress job for exams after {} up to {}", watermark, upTo);
         
         int progressedCount = 0;
-        
-        for (Assessment assessment : examsToProgress) {
-            if (assessment.getCurrentState() == AssessmentState.SENT_TO_PRINTING) {
-                // Create transition
-                AssessmentTransition transition = new AssessmentTransition();
-                transition.setAssessment(assessment);
-                transition.setFromState(assessment.getCurrentState());
-                transition.setToState(AssessmentState.EXAM_TAKEN);
-                transition.setByUser(null); // System action
-                transition.setByDisplayName("System (Auto-progress)");
-                transition.setNote("Automatically progressed after exam date");
-                transition.setOverride(false);
-                transition.setReversion(false);
-                
-                transitionRepository.save(transition);
-                
-                // Update assessment
-                assessment.setCurrentState(AssessmentState.EXAM_TAKEN);
-                assessmentRepository.save(assessment);
-                
-                progressedCount++;
-                logger.info("Auto-progressed exam assessment {} to EXAM_TAKEN", assessment.getId());
-            }
+        for (LocalDate examDate : assessmentRepository.findExamDatesInState(FROM_STATE, watermark, upTo)) {
+            progressedCount += progressExams(lease, examDate, examDate);
+            advanceWatermark(lease, examDate);
         }
+        advanceWatermark(lease, upTo);
         
         logger.info("Exam auto-progress job completed. Progressed {} assessments", progressedCount);
     }
     
     /**
-     * Get the last working day (previous day, skipping weekends)
+     * Progress every printed exam dated between {@code from} and {@code to}, chunk by chunk
      */
-    private LocalDate getLastWorkingDay(LocalDate date) {
-        LocalDate yesterday = date.minusDays(1);
+    int progressExams(JobLease lease, LocalDate from, LocalDate to) {
+        int total = 0;
+        int progressed;
+        do {
+            progressed = transactionTemplate.execute(status -> progressChunk(lease, from, to));
+            total += progressed;
+        } while (progressed == chunkSize);
+        return total;
+    }
+    
+    private int progressChunk(JobLease lease, LocalDate from, LocalDate to) {
+        jobLockManager.fence(lease);
+        List<UUID> ids = assessmentRepository.lockExamsInState(FROM_STATE.name(), from, to, chunkSize);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        
+        // References only: the transitions need the foreign key, not the assessment rows
+        transitionRepository.saveAll(ids.stream()
+                .map(this::systemTransition)
+                .collect(Collectors.toList()));
         
-        // If yesterday is Saturday, go back to Friday
-        if (yesterday.getDayOfWeek() == DayOfWeek.SATURDAY) {
-            return yesterday.minusDays(1);
+        int updated = assessmentRepository.updateStates(ids, FROM_STATE, TO_STATE);
+        if (updated != ids.size()) {
+            // Cannot happen while the rows are locked; roll back rather than leave stray transitions
+            throw new IllegalStateException("Expected to progress " + ids.size() + " exams but updated " + updated);
         }
         
-        // If yesterday is Sunday, go back to Friday
-        if (yesterday.getDayOfWeek() == DayOfWeek.SUNDAY) {
-            return yesterday.minusDays(2);
+        for (Object[] row : assessmentRepository.countByModule(ids)) {
+            assessmentStateCounter.moved((UUID) row[0], AssessmentType.EXAM, FROM_STATE, TO_STATE, (Long) row[1]);
         }
         
-        return yesterday;
+        logger.info("Auto-progressed {} exam assessments to {}", updated, TO_STATE);
+        return updated;
+    }
+    
+    /**
+     * Record that every exam up to {@code date} has been handled. Never moves backwards.
+     */
+    private void advanceWatermark(JobLease lease, LocalDate date) {
+        transactionTemplate.executeWithoutResult(status -> {
+            jobLockManager.fence(lease);
+            ScheduledJobState state = jobStateRepository.findById(JOB_NAME)
+                    .orElseGet(() -> new ScheduledJobState(JOB_NAME));
+            if (state.getWatermark() == null || date.isAfter(state.getWatermark())) {
+                state.setWatermark(date);
+                jobStateRepository.save(state);
+            }
+        });
+    }
+    
+    private AssessmentTransition systemTransition(UUID assessmentId) {
+        AssessmentTransition transition = new AssessmentTransition(
+                assessmentRepository.getReferenceById(assessmentId), FROM_STATE, TO_STATE,
+                null, "System (Auto-progress)"); // System action
+        transition.setNote("Automatically progressed after exam date");
+        transition.setOverride(false);
+        transition.setReversion(false);
+        return transition;
     }
 }
@@ -0,0 +1,39 @@
+package uk.ac.sheffield.Assessment_management_tool.scheduled;
+
+/**
+ * A lease held by this node on one scheduled job, from {@link JobLockManager}.
+ *
+ * The fencing token identifies this holding of the lease. Jobs pass the lease to
+ * {@link JobLockManager#fence(JobLease)} at the start of each transaction that
+ * writes, so the write commits only while the token is still current.
+ */
+public class JobLease {
+    
+    private final String jobName;
+    private final long fencingToken;
+    private volatile boolean lost;
+    
+    JobLease(String jobName, long fencingToken) {
+        this.jobName = jobName;
+        this.fencingToken = fencingToken;
+    }
+    
+    public String getJobName() {
+        return jobName;
+    }
+    
+    public long getFencingToken() {
+        return fencingToken;
+    }
+    
+    /**
+     * True once a heartbeat or fence check found that the lease had lapsed or been taken
+     */
+    public boolean isLost() {
+        return lost;
+    }
+    
+    void markLost() {
+        lost = true;
+    }
+}
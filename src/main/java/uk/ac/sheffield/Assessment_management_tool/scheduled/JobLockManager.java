@@ -0,0 +1,212 @@
+package uk.ac.sheffield.Assessment_management_tool.scheduled;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import uk.ac.sheffield.Assessment_management_tool.domain.entity.ScheduledJobLock;
+import uk.ac.sheffield.Assessment_management_tool.dto.response.JobLockStatsDto;
+import uk.ac.sheffield.Assessment_management_tool.repository.ScheduledJobLockRepository;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Makes sure each scheduled job runs on one node at a time when several
+ * replicas share the database.
+ *
+ * Each job has a row in scheduled_job_lock. A node takes the lease with a
+ * conditional UPDATE that only succeeds when the lease is free or has lapsed,
+ * bumping the fencing token as it does. While the job runs, a heartbeat extends
+ * the lease every third of {@code app.scheduling.lock.lease}; if the node
+ * stalls for longer than the lease, another node may take over. Jobs guard
+ * their writes with {@link #fence(JobLease)}, so a node that has lost the lease
+ * cannot commit over the new holder's work.
+ *
+ * Lease times come from each node's clock, so nodes are expected to keep their
+ * clocks in sync to well within the lease length.
+ */
+@Component
+public class JobLockManager {
+    
+    private static final Logger logger = LoggerFactory.getLogger(JobLockManager.class);
+    
+    private final ScheduledJobLockRepository lockRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolTaskScheduler heartbeatScheduler;
+    private final String nodeId;
+    private final Duration leaseDuration;
+    private final Map<String, JobLockMetrics> metrics = new ConcurrentHashMap<>();
+    
+    public JobLockManager(
+            ScheduledJobLockRepository lockRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.scheduling.lock.node-id:}") String nodeId,
+            @Value("${app.scheduling.lock.lease:5m}") Duration leaseDuration) {
+        this.lockRepository = lockRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.nodeId = nodeId.isBlank() ? defaultNodeId() : nodeId;
+        this.leaseDuration = leaseDuration;
+        
+        // Not the shared @Scheduled thread: heartbeats must keep going while a job occupies it
+        this.heartbeatScheduler = new ThreadPoolTaskScheduler();
+        this.heartbeatScheduler.setPoolSize(1);
+        this.heartbeatScheduler.setThreadNamePrefix("job-lock-heartbeat-");
+        this.heartbeatScheduler.setDaemon(true);
+        this.heartbeatScheduler.initialize();
+    }
+    
+    /**
+     * Run the job if this node can take its lease, and skip it otherwise.
+     * Returns whether the job ran here.
+     */
+    public boolean runExclusively(String jobName, Consumer<JobLease> job) {
+        JobLockMetrics jobMetrics = metrics(jobName);
+        long started = System.nanoTime();
+        Optional<JobLease> acquired = tryAcquire(jobName);
+        jobMetrics.recordAcquisition(System.nanoTime() - started, acquired.isPresent());
+        if (acquired.isEmpty()) {
+            logger.info("Skipping job {}: another node holds its lease", jobName);
+            return false;
+        }
+        
+        JobLease lease = acquired.get();
+        logger.debug("Node {} holds job {} with fencing token {}", nodeId, jobName, lease.getFencingToken());
+        Duration interval = leaseDuration.dividedBy(3);
+        ScheduledFuture<?> heartbeat = heartbeatScheduler.scheduleAtFixedRate(() -> heartbeat(lease), interval);
+        long heldFrom = System.nanoTime();
+        try {
+            job.accept(lease);
+        } finally {
+            heartbeat.cancel(false);
+            boolean lost = lease.isLost();
+            release(lease);
+            jobMetrics.recordHold(System.nanoTime() - heldFrom, lost);
+        }
+        return true;
+    }
+    
+    /**
+     * Check the lease is still ours and extend it, as part of the caller's transaction.
+     * Call first thing in any transaction a job commits its work in: the row lock
+     * taken here keeps other nodes from acquiring until the transaction ends, and
+     * a lapsed or taken-over lease throws so the work rolls back.
+     */
+    public void fence(JobLease lease) {
+        OffsetDateTime now = OffsetDateTime.now();
+        if (lockRepository.renew(lease.getJobName(), lease.getFencingToken(), now, now.plus(leaseDuration)) == 0) {
+            lease.markLost();
+            throw new IllegalStateException("Lease on job " + lease.getJobName()
+                    + " (fencing token " + lease.getFencingToken() + ") has been lost");
+        }
+    }
+    
+    /**
+     * Lease state from the database alongside this node's acquisition and hold times
+     */
+    public List<JobLockStatsDto> stats() {
+        Map<String, ScheduledJobLock> locks = lockRepository.findAll().stream()
+                .collect(Collectors.toMap(ScheduledJobLock::getJobName, Function.identity()));
+        TreeSet<String> jobNames = new TreeSet<>(locks.keySet());
+        jobNames.addAll(metrics.keySet());
+        return jobNames.stream()
+                .map(jobName -> metrics(jobName).toDto(jobName, locks.get(jobName)))
+                .collect(Collectors.toList());
+    }
+    
+    public String getNodeId() {
+        return nodeId;
+    }
+    
+    @PreDestroy
+    void shutdown() {
+        heartbeatScheduler.shutdown();
+    }
+    
+    private Optional<JobLease> tryAcquire(String jobName) {
+        ensureLockRow(jobName);
+        OffsetDateTime now = OffsetDateTime.now();
+        Long token = transactionTemplate.execute(status -> {
+            if (lockRepository.acquire(jobName, nodeId, now, now.plus(leaseDuration)) == 0) {
+                return null;
+            }
+            return lockRepository.findById(jobName).map(ScheduledJobLock::getFencingToken).orElseThrow();
+        });
+        return Optional.ofNullable(token).map(t -> new JobLease(jobName, t));
+    }
+    
+    /**
+     * Jobs seeded by migrations already have a row; insert one for any other job.
+     * Two nodes may race to insert it, and the loser's duplicate key is harmless.
+     */
+    private void ensureLockRow(String jobName) {
+        if (lockRepository.existsById(jobName)) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> lockRepository.save(new ScheduledJobLock(jobName)));
+        } catch (DataIntegrityViolationException e) {
+            logger.debug("Lock row for job {} was created by another node", jobName);
+        }
+    }
+    
+    private void heartbeat(JobLease lease) {
+        if (lease.isLost()) {
+            return;
+        }
+        try {
+            OffsetDateTime now = OffsetDateTime.now();
+            Integer renewed = transactionTemplate.execute(status -> lockRepository.renew(
+                    lease.getJobName(), lease.getFencingToken(), now, now.plus(leaseDuration)));
+            if (renewed == null || renewed == 0) {
+                lease.markLost();
+                logger.warn("Lost lease on job {} (fencing token {})", lease.getJobName(), lease.getFencingToken());
+            }
+        } catch (RuntimeException e) {
+            // Keep the lease: the fence check before each write decides whether it is still ours
+            logger.warn("Heartbeat for job {} failed", lease.getJobName(), e);
+        }
+    }
+    
+    private void release(JobLease lease) {
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    lockRepository.release(lease.getJobName(), lease.getFencingToken()));
+        } catch (RuntimeException e) {
+            // The lease simply runs out
+            logger.warn("Could not release lease on job {}", lease.getJobName(), e);
+        }
+    }
+    
+    private JobLockMetrics metrics(String jobName) {
+        return metrics.computeIfAbsent(jobName, name -> new JobLockMetrics());
+    }
+    
+    private static String defaultNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            host = "unknown-host";
+        }
+        return host + ":" + ProcessHandle.current().pid();
+    }
+}
@@ -0,0 +1,72 @@
+package uk.ac.sheffield.Assessment_management_tool.scheduled;
+
+import uk.ac.sheffield.Assessment_management_tool.domain.entity.ScheduledJobLock;
+import uk.ac.sheffield.Assessment_management_tool.dto.response.JobLockStatsDto;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters for one job's lock on this node: how long taking the lease took and
+ * how long it was then held
+ */
+class JobLockMetrics {
+    
+    private final LongAdder attempts = new LongAdder();
+    private final LongAdder acquisitions = new LongAdder();
+    private final LongAdder holds = new LongAdder();
+    private final LongAdder leasesLost = new LongAdder();
+    private final LongAdder acquireNanos = new LongAdder();
+    private final AtomicLong maxAcquireNanos = new AtomicLong();
+    private final LongAdder holdNanos = new LongAdder();
+    private final AtomicLong maxHoldNanos = new AtomicLong();
+    private final AtomicLong lastHoldNanos = new AtomicLong();
+    
+    void recordAcquisition(long nanos, boolean acquired) {
+        attempts.increment();
+        if (acquired) {
+            acquisitions.increment();
+        }
+        acquireNanos.add(nanos);
+        maxAcquireNanos.accumulateAndGet(nanos, Math::max);
+    }
+    
+    void recordHold(long nanos, boolean lost) {
+        holds.increment();
+        if (lost) {
+            leasesLost.increment();
+        }
+        holdNanos.add(nanos);
+        maxHoldNanos.accumulateAndGet(nanos, Math::max);
+        lastHoldNanos.set(nanos);
+    }
+    
+    JobLockStatsDto toDto(String jobName, ScheduledJobLock lock) {
+        JobLockStatsDto dto = new JobLockStatsDto();
+        dto.setJobName(jobName);
+        if (lock != null) {
+            dto.setOwner(lock.getOwner());
+            dto.setFencingToken(lock.getFencingToken());
+            dto.setHeartbeatAt(lock.getHeartbeatAt());
+            dto.setLeaseUntil(lock.getLeaseUntil());
+        }
+        
+        long attemptCount = attempts.sum();
+        long acquiredCount = acquisitions.sum();
+        dto.setAttempts(attemptCount);
+        dto.setAcquisitions(acquiredCount);
+        dto.setSkipped(attemptCount - acquiredCount);
+        dto.setLeasesLost(leasesLost.sum());
+        dto.setAvgAcquireMillis(attemptCount == 0 ? 0 : millis(acquireNanos.sum()) / attemptCount);
+        dto.setMaxAcquireMillis(millis(maxAcquireNanos.get()));
+        long holdCount = holds.sum();
+        dto.setAvgHoldMillis(holdCount == 0 ? 0 : millis(holdNanos.sum()) / holdCount);
+        dto.setMaxHoldMillis(millis(maxHoldNanos.get()));
+        dto.setLastHoldMillis(millis(lastHoldNanos.get()));
+        return dto;
+    }
+    
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
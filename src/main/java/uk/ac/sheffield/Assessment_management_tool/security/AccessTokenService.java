@@ -0,0 +1,179 @@
+package uk.ac.sheffield.Assessment_management_tool.security;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.stereotype.Component;
+import uk.ac.sheffield.Assessment_management_tool.domain.enums.UserBaseType;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Issues and verifies the signed tokens used when {@code app.security.auth-mode=token}.
+ *
+ * Tokens are compact JWTs signed with HMAC-SHA256 under {@code app.security.token.secret}.
+ * Access tokens carry everything {@link CustomUserDetails} needs, so verifying one
+ * needs no database access. Refresh tokens carry only the user id and are exchanged
+ * at /api/auth/refresh, which re-reads the user so role changes are picked up.
+ */
+@Component
+public class AccessTokenService {
+    
+    static final String ACCESS = "access";
+    static final String REFRESH = "refresh";
+    
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+    // Only HS256 is accepted, so the header is fixed rather than parsed
+    private static final String HEADER = ENCODER.encodeToString(
+            "{\"alg\":\"HS256\",\"typ\":\"JWT\"}".getBytes(StandardCharsets.UTF_8));
+    private static final int MIN_SECRET_BYTES = 32;
+    
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final SecretKeySpec key;
+    private final Duration accessTtl;
+    private final Duration refreshTtl;
+    private final Clock clock = Clock.systemUTC();
+    
+    public AccessTokenService(
+            ObjectMapper objectMapper,
+            @Value("${app.security.auth-mode:session}") String authMode,
+            @Value("${app.security.token.secret:}") String secret,
+            @Value("${app.security.token.access-ttl:15m}") Duration accessTtl,
+            @Value("${app.security.token.refresh-ttl:8h}") Duration refreshTtl) {
+        byte[] secretBytes = secret.getBytes(StandardCharsets.UTF_8);
+        this.enabled = "token".equalsIgnoreCase(authMode);
+        if (enabled && secretBytes.length < MIN_SECRET_BYTES) {
+            throw new IllegalStateException("app.security.token.secret must be at least "
+                    + MIN_SECRET_BYTES + " bytes when app.security.auth-mode=token");
+        }
+        this.objectMapper = objectMapper;
+        this.key = secretBytes.length == 0 ? null : new SecretKeySpec(secretBytes, ALGORITHM);
+        this.accessTtl = accessTtl;
+        this.refreshTtl = refreshTtl;
+    }
+    
+    /**
+     * Whether the application runs stateless, authenticating with these tokens instead of sessions
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    public String issueAccessToken(CustomUserDetails user) {
+        ObjectNode claims = baseClaims(user.getUserId(), ACCESS, accessTtl);
+        claims.put("email", user.getUsername());
+        claims.put("name", user.getName());
+        claims.put("bt", user.getBaseType().name());
+        claims.put("eo", user.isExamsOfficer());
+        return sign(claims);
+    }
+    
+    public String issueRefreshToken(CustomUserDetails user) {
+        return sign(baseClaims(user.getUserId(), REFRESH, refreshTtl));
+    }
+    
+    public Duration getAccessTtl() {
+        return accessTtl;
+    }
+    
+    /**
+     * The principal an access token was issued for.
+     * Throws BadCredentialsException if the token is malformed, forged or expired.
+     */
+    public CustomUserDetails verifyAccessToken(String token) {
+        JsonNode claims = verify(token, ACCESS);
+        try {
+            return new CustomUserDetails(UUID.fromString(claims.path("sub").asText()),
+                    claims.path("email").asText(), claims.path("name").asText(null),
+                    UserBaseType.valueOf(claims.path("bt").asText()), claims.path("eo").asBoolean(), null);
+        } catch (IllegalArgumentException e) {
+            throw new BadCredentialsException("Invalid token");
+        }
+    }
+    
+    /**
+     * The user id a refresh token was issued for
+     */
+    public UUID verifyRefreshToken(String token) {
+        JsonNode claims = verify(token, REFRESH);
+        try {
+            return UUID.fromString(claims.path("sub").asText());
+        } catch (IllegalArgumentException e) {
+            throw new BadCredentialsException("Invalid token");
+        }
+    }
+    
+    private ObjectNode baseClaims(UUID userId, String type, Duration ttl) {
+        long now = clock.instant().getEpochSecond();
+        ObjectNode claims = objectMapper.createObjectNode();
+        claims.put("sub", userId.toString());
+        claims.put("typ", type);
+        claims.put("iat", now);
+        claims.put("exp", now + ttl.toSeconds());
+        return claims;
+    }
+    
+    private String sign(ObjectNode claims) {
+        try {
+            String signingInput = HEADER + "." + ENCODER.encodeToString(objectMapper.writeValueAsBytes(claims));
+            return signingInput + "." + ENCODER.encodeToString(mac(signingInput));
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not write token claims", e);
+        }
+    }
+    
+    private JsonNode verify(String token, String expectedType) {
+        String[] parts = token.split("\\.");
+        if (parts.length != 3 || !HEADER.equals(parts[0])) {
+            throw new BadCredentialsException("Invalid token");
+        }
+        
+        byte[] signature;
+        JsonNode claims;
+        try {
+            signature = DECODER.decode(parts[2]);
+            claims = objectMapper.readTree(DECODER.decode(parts[1]));
+        } catch (IllegalArgumentException | IOException e) {
+            throw new BadCredentialsException("Invalid token");
+        }
+        
+        // Constant-time comparison, so timing does not reveal how much of a forged signature matched
+        if (!MessageDigest.isEqual(mac(parts[0] + "." + parts[1]), signature)) {
+            throw new BadCredentialsException("Invalid token");
+        }
+        if (!expectedType.equals(claims.path("typ").asText())) {
+            throw new BadCredentialsException("Wrong token type");
+        }
+        if (claims.path("exp").asLong(0) <= clock.instant().getEpochSecond()) {
+            throw new BadCredentialsException("Token expired");
+        }
+        return claims;
+    }
+    
+    private byte[] mac(String signingInput) {
+        if (key == null) {
+            throw new IllegalStateException("app.security.token.secret is not set");
+        }
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac.doFinal(signingInput.getBytes(StandardCharsets.US_ASCII));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 unavailable", e);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package uk.ac.sheffield.Assessment_management_tool.security;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * BCrypt encoder that times every hash and asks for a rehash whenever a stored
+ * hash's cost differs from the configured one, in either direction. Lowering the
+ * cost therefore also takes effect, one successful login at a time.
+ */
+public class AdaptiveBCryptPasswordEncoder extends BCryptPasswordEncoder {
+    
+    private static final Pattern BCRYPT_COST = Pattern.compile("\\A\\$2[aby]?\\$(\\d\\d)\\$");
+    
+    private final int strength;
+    private final PasswordHashMetrics metrics;
+    
+    public AdaptiveBCryptPasswordEncoder(int strength, PasswordHashMetrics metrics) {
+        super(strength);
+        this.strength = strength;
+        this.metrics = metrics;
+    }
+    
+    @Override
+    public String encode(CharSequence rawPassword) {
+        long start = System.nanoTime();
+        try {
+            return super.encode(rawPassword);
+        } finally {
+            metrics.recordEncode(System.nanoTime() - start);
+        }
+    }
+    
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        long start = System.nanoTime();
+        try {
+            return super.matches(rawPassword, encodedPassword);
+        } finally {
+            metrics.recordVerify(System.nanoTime() - start);
+        }
+    }
+    
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        if (encodedPassword == null) {
+            return false;
+        }
+        Matcher matcher = BCRYPT_COST.matcher(encodedPassword);
+        return matcher.find() && Integer.parseInt(matcher.group(1)) != strength;
+    }
+}
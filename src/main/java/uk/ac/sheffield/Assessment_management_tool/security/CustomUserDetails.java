@@ -1,35 +1,75 @@
 package uk.ac.sheffield.Assessment_management_tool.security;
 
+import org.springframework.security.core.CredentialsContainer;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import uk.ac.sheffield.Assessment_management_tool.domain.entity.User;
 import uk.ac.sheffield.Assessment_management_tool.domain.enums.UserBaseType;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
 import java.util.Collection;
 import java.util.List;
+import java.util.UUID;
 
-public class CustomUserDetails implements UserDetails {
+/**
+ * The authenticated user: who they are and what their roles are, without a
+ * reference to the {@link User} entity. Built from the user row at login, or
+ * from the claims of a verified access token.
+ *
+ * Instances built from a user row also carry a credentials version, a digest of
+ * the password hash. Sessions remember it at login and are ended once it no
+ * longer matches, i.e. after the password has changed.
+ */
+public class CustomUserDetails implements UserDetails, CredentialsContainer {
     
-    private final User user;
+    private final UUID userId;
+    private final String email;
+    private final String name;
+    private final UserBaseType baseType;
+    private final boolean examsOfficer;
+    private final String credentialsVersion;
+    private final List<GrantedAuthority> authorities;
+    private String passwordHash;
     
     public CustomUserDetails(User user) {
-        this.user = user;
+        this(user.getId(), user.getEmail(), user.getName(), user.getBaseType(), user.isExamsOfficer(),
+                user.getPasswordHash());
+    }
+    
+    public CustomUserDetails(UUID userId, String email, String name, UserBaseType baseType,
+                             boolean examsOfficer, String passwordHash) {
+        this.userId = userId;
+        this.email = email;
+        this.name = name;
+        this.baseType = baseType;
+        this.examsOfficer = examsOfficer;
+        this.passwordHash = passwordHash;
+        this.credentialsVersion = passwordHash == null ? null : versionOf(passwordHash);
+        this.authorities = buildAuthorities(baseType, examsOfficer);
     }
     
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+    
+    private static List<GrantedAuthority> buildAuthorities(UserBaseType baseType, boolean examsOfficer) {
         List<GrantedAuthority> authorities = new ArrayList<>();
         
         // Add role based on base type
-        switch (user.getBaseType()) {
+        switch (baseType) {
             case TEACHING_SUPPORT:
                 authorities.add(new SimpleGrantedAuthority("ROLE_ADMIN"));
                 break;
             case ACADEMIC:
                 authorities.add(new SimpleGrantedAuthority("ROLE_ACADEMIC"));
-                if (user.isExamsOfficer()) {
+                if (examsOfficer) {
                     authorities.add(new SimpleGrantedAuthority("ROLE_EXAMS_OFFICER"));
                 }
                 break;
@@ -38,17 +78,26 @@ public class CustomUserDetails implements UserDetails {
                 break;
         }
         
-        return authorities;
+        return List.copyOf(authorities);
+    }
+    
+    private static String versionOf(String passwordHash) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(passwordHash.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(digest, 12));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
     }
     
     @Override
     public String getPassword() {
-        return user.getPasswordHash();
+        return passwordHash;
     }
     
     @Override
     public String getUsername() {
-        return user.getEmail();
+        return email;
     }
     
     @Override
@@ -71,7 +120,34 @@ public class CustomUserDetails implements UserDetails {
         return true;
     }
     
-    public User getUser() {
-        return user;
+    /**
+     * Drop the password hash once authentication is done, so it is not kept in the session
+     */
+    @Override
+    public void eraseCredentials() {
+        passwordHash = null;
+    }
+    
+    public UUID getUserId() {
+        return userId;
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public UserBaseType getBaseType() {
+        return baseType;
+    }
+    
+    public boolean isExamsOfficer() {
+        return examsOfficer;
+    }
+    
+    /**
+     * Digest of the password hash this principal was built from; null for principals read from a token
+     */
+    public String getCredentialsVersion() {
+        return credentialsVersion;
     }
 }
@@ -1,26 +1,57 @@
 package uk.ac.sheffield.Assessment_management_tool.security;
 
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import uk.ac.sheffield.Assessment_management_tool.cache.ReferenceDataCache;
 import uk.ac.sheffield.Assessment_management_tool.domain.entity.User;
-import uk.ac.sheffield.Assessment_management_tool.repository.UserRepository;
+import uk.ac.sheffield.Assessment_management_tool.service.UserService;
+
+import java.util.UUID;
 
 @Service
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
     
-    private final UserRepository userRepository;
+    private final ReferenceDataCache referenceDataCache;
+    private final UserService userService;
+    private final PasswordHashMetrics passwordHashMetrics;
     
-    public CustomUserDetailsService(UserRepository userRepository) {
-        this.userRepository = userRepository;
+    public CustomUserDetailsService(ReferenceDataCache referenceDataCache, UserService userService,
+                                    PasswordHashMetrics passwordHashMetrics) {
+        this.referenceDataCache = referenceDataCache;
+        this.userService = userService;
+        this.passwordHashMetrics = passwordHashMetrics;
     }
     
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-        User user = userRepository.findByEmail(email)
+        User user = referenceDataCache.findUserByEmail(email)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found: " + email));
         
         return new CustomUserDetails(user);
     }
+    
+    /**
+     * Current details for a user already identified, e.g. by a refresh token.
+     * The result carries no password hash.
+     */
+    public CustomUserDetails loadUserById(UUID userId) throws UsernameNotFoundException {
+        return referenceDataCache.findPrincipal(userId)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found: " + userId));
+    }
+    
+    /**
+     * Called after a successful login whose stored hash was made at a different
+     * BCrypt cost; {@code newPasswordHash} is the same password at the configured cost
+     */
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPasswordHash) {
+        CustomUserDetails details = (CustomUserDetails) user;
+        userService.updatePasswordHash(details.getUserId(), newPasswordHash);
+        passwordHashMetrics.recordRehashed();
+        return new CustomUserDetails(details.getUserId(), details.getUsername(), details.getName(),
+                details.getBaseType(), details.isExamsOfficer(), newPasswordHash);
+    }
 }
@@ -0,0 +1,61 @@
+package uk.ac.sheffield.Assessment_management_tool.security;
+
+import uk.ac.sheffield.Assessment_management_tool.dto.response.LatencyHistogramDto;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fixed-bucket latency histogram, cheap enough to record on every hash
+ */
+class LatencyHistogram {
+    
+    /**
+     * Upper bounds of the buckets in milliseconds; a last, unbounded bucket catches the rest
+     */
+    private static final long[] BOUNDS_MILLIS = {1, 5, 10, 25, 50, 100, 250, 500, 1000, 2500, 5000};
+    
+    private final String name;
+    private final LongAdder[] buckets = new LongAdder[BOUNDS_MILLIS.length + 1];
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+    
+    LatencyHistogram(String name) {
+        this.name = name;
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+    
+    void record(long nanos) {
+        long millis = nanos / 1_000_000;
+        int bucket = 0;
+        while (bucket < BOUNDS_MILLIS.length && millis >= BOUNDS_MILLIS[bucket]) {
+            bucket++;
+        }
+        buckets[bucket].increment();
+        count.increment();
+        totalNanos.add(nanos);
+        maxNanos.accumulateAndGet(nanos, Math::max);
+    }
+    
+    LatencyHistogramDto toDto() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (int i = 0; i < BOUNDS_MILLIS.length; i++) {
+            counts.put("<" + BOUNDS_MILLIS[i] + "ms", buckets[i].sum());
+        }
+        counts.put(">=" + BOUNDS_MILLIS[BOUNDS_MILLIS.length - 1] + "ms", buckets[BOUNDS_MILLIS.length].sum());
+        
+        long samples = count.sum();
+        return new LatencyHistogramDto(name, samples,
+                samples == 0 ? 0 : millis(totalNanos.sum()) / samples,
+                millis(maxNanos.get()), counts);
+    }
+    
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
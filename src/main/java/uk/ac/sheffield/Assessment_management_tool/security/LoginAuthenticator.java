@@ -0,0 +1,91 @@
+package uk.ac.sheffield.Assessment_management_tool.security;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+import uk.ac.sheffield.Assessment_management_tool.dto.response.PasswordHashStatsDto;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Checks login credentials on the bounded {@code loginHashExecutor} rather than
+ * on the request thread, so a burst of logins can use at most that pool's cores.
+ *
+ * A login that finds the queue full, or is not verified within
+ * {@code app.security.login.max-wait}, fails with {@link TaskRejectedException};
+ * callers answer 429 so clients back off and retry.
+ */
+@Component
+public class LoginAuthenticator {
+    
+    private final AuthenticationManager authenticationManager;
+    private final ThreadPoolTaskExecutor loginHashExecutor;
+    private final PasswordHashMetrics metrics;
+    private final int bcryptStrength;
+    private final long maxWaitNanos;
+    
+    public LoginAuthenticator(
+            AuthenticationManager authenticationManager,
+            @Qualifier("loginHashExecutor") ThreadPoolTaskExecutor loginHashExecutor,
+            PasswordHashMetrics metrics,
+            @Value("${app.security.bcrypt-strength:10}") int bcryptStrength,
+            @Value("${app.security.login.max-wait:5s}") Duration maxWait) {
+        this.authenticationManager = authenticationManager;
+        this.loginHashExecutor = loginHashExecutor;
+        this.metrics = metrics;
+        this.bcryptStrength = bcryptStrength;
+        this.maxWaitNanos = maxWait.toNanos();
+    }
+    
+    /**
+     * Authenticate an email and password, blocking until verified.
+     * Failed credentials surface as the usual {@code AuthenticationException}.
+     */
+    public Authentication authenticate(String email, String password) {
+        long submittedAt = System.nanoTime();
+        Future<Authentication> result;
+        try {
+            result = loginHashExecutor.submit(() -> {
+                metrics.recordLoginQueueWait(System.nanoTime() - submittedAt);
+                return authenticationManager.authenticate(
+                        UsernamePasswordAuthenticationToken.unauthenticated(email, password));
+            });
+        } catch (TaskRejectedException e) {
+            metrics.recordRejected();
+            throw e;
+        }
+        
+        try {
+            return result.get(maxWaitNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            // Still queued: never runs. Already hashing: finishes, and the result is dropped
+            result.cancel(false);
+            metrics.recordTimedOut();
+            throw new TaskRejectedException("Login was not verified in time");
+        } catch (InterruptedException e) {
+            result.cancel(false);
+            Thread.currentThread().interrupt();
+            throw new TaskRejectedException("Interrupted while waiting for login verification", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Login verification failed", e.getCause());
+        } finally {
+            metrics.recordLogin(System.nanoTime() - submittedAt);
+        }
+    }
+    
+    public PasswordHashStatsDto stats() {
+        return metrics.toDto(bcryptStrength, loginHashExecutor);
+    }
+}
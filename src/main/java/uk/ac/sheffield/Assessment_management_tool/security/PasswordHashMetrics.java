@@ -0,0 +1,79 @@
+package uk.ac.sheffield.Assessment_management_tool.security;
+
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import uk.ac.sheffield.Assessment_management_tool.dto.response.PasswordHashStatsDto;
+
+import java.util.List;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters and latency histograms for password hashing on this node
+ */
+@Component
+public class PasswordHashMetrics {
+    
+    private final LatencyHistogram verify = new LatencyHistogram("verify");
+    private final LatencyHistogram encode = new LatencyHistogram("encode");
+    private final LatencyHistogram loginQueueWait = new LatencyHistogram("loginQueueWait");
+    private final LatencyHistogram login = new LatencyHistogram("login");
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+    private final LongAdder rehashed = new LongAdder();
+    
+    /**
+     * One BCrypt comparison, wherever it ran
+     */
+    void recordVerify(long nanos) {
+        verify.record(nanos);
+    }
+    
+    /**
+     * One BCrypt hash of a new password, wherever it ran
+     */
+    void recordEncode(long nanos) {
+        encode.record(nanos);
+    }
+    
+    /**
+     * Time a login spent queued before a verification thread picked it up
+     */
+    void recordLoginQueueWait(long nanos) {
+        loginQueueWait.record(nanos);
+    }
+    
+    /**
+     * Time the request thread waited for a login to be verified, queueing included
+     */
+    void recordLogin(long nanos) {
+        login.record(nanos);
+    }
+    
+    void recordRejected() {
+        rejected.increment();
+    }
+    
+    void recordTimedOut() {
+        timedOut.increment();
+    }
+    
+    void recordRehashed() {
+        rehashed.increment();
+    }
+    
+    PasswordHashStatsDto toDto(int bcryptStrength, ThreadPoolTaskExecutor loginExecutor) {
+        PasswordHashStatsDto dto = new PasswordHashStatsDto();
+        dto.setBcryptStrength(bcryptStrength);
+        ThreadPoolExecutor pool = loginExecutor.getThreadPoolExecutor();
+        dto.setPoolSize(pool.getMaximumPoolSize());
+        dto.setActiveThreads(pool.getActiveCount());
+        dto.setQueued(pool.getQueue().size());
+        dto.setQueueCapacity(loginExecutor.getQueueCapacity());
+        dto.setRejected(rejected.sum());
+        dto.setTimedOut(timedOut.sum());
+        dto.setRehashed(rehashed.sum());
+        dto.setLatencies(List.of(verify.toDto(), encode.toDto(), loginQueueWait.toDto(), login.toDto()));
+        return dto;
+    }
+}
@@ -1,5 +1,6 @@
 package uk.ac.sheffield.Assessment_management_tool.security;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -7,9 +8,12 @@ import org.springframework.security.config.annotation.authentication.configurati
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.context.DelegatingSecurityContextRepository;
+import org.springframework.security.web.context.RequestAttributeSecurityContextRepository;
 import org.springframework.security.web.csrf.CookieCsrfTokenRepository;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
@@ -23,9 +27,14 @@ import java.util.List;
 @EnableMethodSecurity(prePostEnabled = true)
 public class SecurityConfig {
     
+    /**
+     * BCrypt at the configured cost. Stored hashes at another cost are rehashed on
+     * the user's next successful login (see {@link CustomUserDetailsService#updatePassword}).
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${app.security.bcrypt-strength:10}") int strength,
+                                           PasswordHashMetrics passwordHashMetrics) {
+        return new AdaptiveBCryptPasswordEncoder(strength, passwordHashMetrics);
     }
     
     @Bean
@@ -34,7 +43,8 @@ public class SecurityConfig {
     }
     
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain filterChain(HttpSecurity http, AccessTokenService accessTokenService,
+                                           SessionPrincipalRepository sessionPrincipalRepository) throws Exception {
         http
             .cors(cors -> cors.configurationSource(corsConfigurationSource()))
             .csrf(csrf -> csrf
@@ -45,7 +55,7 @@ public class SecurityConfig {
             )
             .authorizeHttpRequests(auth -> auth
                 // Public endpoints
-                .requestMatchers("/api/auth/login", "/api/auth/logout", "/api/auth/csrf").permitAll()
+                .requestMatchers("/api/auth/login", "/api/auth/logout", "/api/auth/csrf", "/api/auth/refresh").permitAll()
                 .requestMatchers("/swagger-ui/**", "/api-docs/**", "/v3/api-docs/**").permitAll()
                 .requestMatchers("/error").permitAll()
                 
@@ -67,10 +77,6 @@ public class SecurityConfig {
                 // All other endpoints require authentication
                 .anyRequest().authenticated()
             )
-            .sessionManagement(session -> session
-                .maximumSessions(1)
-                .maxSessionsPreventsLogin(false)
-            )
             .logout(logout -> logout
                 .logoutUrl("/api/auth/logout")
                 .logoutSuccessUrl("/")
@@ -78,6 +84,27 @@ public class SecurityConfig {
                 .deleteCookies("JSESSIONID")
             );
         
+        if (accessTokenService.isEnabled()) {
+            // Stateless: every request carries a signed access token, no session is created or read
+            http
+                .sessionManagement(session -> session
+                    .sessionCreationPolicy(SessionCreationPolicy.STATELESS)
+                )
+                .addFilterBefore(new TokenAuthenticationFilter(accessTokenService),
+                        UsernamePasswordAuthenticationFilter.class);
+        } else {
+            // The session keeps only the user id; the principal is resolved through the principal cache
+            http
+                .securityContext(context -> context
+                    .securityContextRepository(new DelegatingSecurityContextRepository(
+                            sessionPrincipalRepository, new RequestAttributeSecurityContextRepository()))
+                )
+                .sessionManagement(session -> session
+                    .maximumSessions(1)
+                    .maxSessionsPreventsLogin(false)
+                );
+        }
+        
         return http.build();
     }
     
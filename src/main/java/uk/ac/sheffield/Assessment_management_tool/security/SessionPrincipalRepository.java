@@ -0,0 +1,128 @@
+package uk.ac.sheffield.Assessment_management_tool.security;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.DeferredSecurityContext;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.context.HttpRequestResponseHolder;
+import org.springframework.security.web.context.SecurityContextRepository;
+import org.springframework.stereotype.Component;
+import uk.ac.sheffield.Assessment_management_tool.cache.ReferenceDataCache;
+
+import java.io.Serializable;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Keeps the signed-in user in the HTTP session as just their id and credentials
+ * version, instead of a serialised principal.
+ *
+ * Each request resolves the id through the principal cache in
+ * {@link ReferenceDataCache}, which {@code UserService} evicts on every write, so
+ * role changes apply from the user's next request. A session whose version no
+ * longer matches the user's (their password has changed) or whose user is gone
+ * is ended.
+ */
+@Component
+public class SessionPrincipalRepository implements SecurityContextRepository {
+    
+    static final String SESSION_ATTRIBUTE = SessionPrincipalRepository.class.getName() + ".PRINCIPAL";
+    
+    private final ReferenceDataCache referenceDataCache;
+    
+    public SessionPrincipalRepository(ReferenceDataCache referenceDataCache) {
+        this.referenceDataCache = referenceDataCache;
+    }
+    
+    @Override
+    @Deprecated
+    public SecurityContext loadContext(HttpRequestResponseHolder requestResponseHolder) {
+        return readContext(requestResponseHolder.getRequest());
+    }
+    
+    @Override
+    public DeferredSecurityContext loadDeferredContext(HttpServletRequest request) {
+        return new LazyContext(request);
+    }
+    
+    @Override
+    public void saveContext(SecurityContext context, HttpServletRequest request, HttpServletResponse response) {
+        Authentication authentication = context.getAuthentication();
+        if (authentication == null || authentication instanceof AnonymousAuthenticationToken
+                || !(authentication.getPrincipal() instanceof CustomUserDetails principal)) {
+            HttpSession session = request.getSession(false);
+            if (session != null) {
+                session.removeAttribute(SESSION_ATTRIBUTE);
+            }
+            return;
+        }
+        
+        SessionPrincipal stored = new SessionPrincipal(principal.getUserId(), principal.getCredentialsVersion());
+        HttpSession session = request.getSession(true);
+        // Only write on change, so containers that replicate sessions do not resend them every request
+        if (!stored.equals(session.getAttribute(SESSION_ATTRIBUTE))) {
+            session.setAttribute(SESSION_ATTRIBUTE, stored);
+        }
+    }
+    
+    @Override
+    public boolean containsContext(HttpServletRequest request) {
+        HttpSession session = request.getSession(false);
+        return session != null && session.getAttribute(SESSION_ATTRIBUTE) != null;
+    }
+    
+    private SecurityContext readContext(HttpServletRequest request) {
+        SecurityContext context = SecurityContextHolder.createEmptyContext();
+        HttpSession session = request.getSession(false);
+        if (session == null || !(session.getAttribute(SESSION_ATTRIBUTE) instanceof SessionPrincipal stored)) {
+            return context;
+        }
+        
+        Optional<CustomUserDetails> principal = referenceDataCache.findPrincipal(stored.userId());
+        if (principal.isEmpty() || !Objects.equals(principal.get().getCredentialsVersion(), stored.credentialsVersion())) {
+            session.invalidate();
+            return context;
+        }
+        
+        context.setAuthentication(UsernamePasswordAuthenticationToken.authenticated(
+                principal.get(), null, principal.get().getAuthorities()));
+        return context;
+    }
+    
+    /**
+     * What the session holds for a signed-in user
+     */
+    record SessionPrincipal(UUID userId, String credentialsVersion) implements Serializable {}
+    
+    /**
+     * Resolves the principal on first use, so requests that never ask for it skip the lookup
+     */
+    private class LazyContext implements DeferredSecurityContext {
+        
+        private final HttpServletRequest request;
+        private SecurityContext context;
+        
+        LazyContext(HttpServletRequest request) {
+            this.request = request;
+        }
+        
+        @Override
+        public SecurityContext get() {
+            if (context == null) {
+                context = readContext(request);
+            }
+            return context;
+        }
+        
+        @Override
+        public boolean isGenerated() {
+            return get().getAuthentication() == null;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package uk.ac.sheffield.Assessment_management_tool.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.context.RequestAttributeSecurityContextRepository;
+import org.springframework.security.web.context.SecurityContextRepository;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Authenticates requests carrying {@code Authorization: Bearer <access token>}.
+ * The principal comes straight from the token's claims; nothing is loaded.
+ *
+ * A request with a bad or expired token is answered with 401 here, so clients
+ * know to refresh. Requests without a bearer token pass through unauthenticated.
+ */
+public class TokenAuthenticationFilter extends OncePerRequestFilter {
+    
+    private static final String BEARER = "Bearer ";
+    
+    private final AccessTokenService accessTokenService;
+    private final SecurityContextRepository securityContextRepository = new RequestAttributeSecurityContextRepository();
+    
+    public TokenAuthenticationFilter(AccessTokenService accessTokenService) {
+        this.accessTokenService = accessTokenService;
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (header == null || !header.regionMatches(true, 0, BEARER, 0, BEARER.length())) {
+            chain.doFilter(request, response);
+            return;
+        }
+        
+        CustomUserDetails principal;
+        try {
+            principal = accessTokenService.verifyAccessToken(header.substring(BEARER.length()).trim());
+        } catch (AuthenticationException e) {
+            SecurityContextHolder.clearContext();
+            response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+            response.setHeader(HttpHeaders.WWW_AUTHENTICATE, "Bearer error=\"invalid_token\"");
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write("{\"error\":\"Unauthorized\",\"message\":\"" + e.getMessage() + "\"}");
+            return;
+        }
+        
+        SecurityContext context = SecurityContextHolder.createEmptyContext();
+        context.setAuthentication(UsernamePasswordAuthenticationToken.authenticated(
+                principal, null, principal.getAuthorities()));
+        SecurityContextHolder.setContext(context);
+        // Kept on the request (not a session) so async dispatches, e.g. streamed downloads, stay authenticated
+        securityContextRepository.saveContext(context, request, response);
+        chain.doFilter(request, response);
+    }
+}
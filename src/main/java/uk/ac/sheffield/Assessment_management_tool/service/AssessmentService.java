@@ -2,6 +2,7 @@ package uk.ac.sheffield.Assessment_management_tool.service;
 
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import uk.ac.sheffield.Assessment_management_tool.cache.ReferenceDataCache;
 import uk.ac.sheffield.Assessment_management_tool.domain.entity.Assessment;
 import uk.ac.sheffield.Assessment_management_tool.domain.entity.AssessmentRoleAssignment;
 import uk.ac.sheffield.Assessment_management_tool.domain.entity.AssessmentTransition;
@@ -11,9 +12,12 @@ import uk.ac.sheffield.Assessment_management_tool.domain.entity.User;
 import uk.ac.sheffield.Assessment_management_tool.domain.enums.AssessmentState;
 import uk.ac.sheffield.Assessment_management_tool.domain.enums.AssessmentType;
 import uk.ac.sheffield.Assessment_management_tool.domain.enums.ModuleRole;
+import uk.ac.sheffield.Assessment_management_tool.dto.request.AssessmentFilter;
 import uk.ac.sheffield.Assessment_management_tool.dto.request.CreateAssessmentRequest;
 import uk.ac.sheffield.Assessment_management_tool.dto.request.TransitionRequest;
 import uk.ac.sheffield.Assessment_management_tool.dto.response.AssessmentDto;
+import uk.ac.sheffield.Assessment_management_tool.dto.response.AssessmentStatsDto;
+import uk.ac.sheffield.Assessment_management_tool.dto.response.CursorPageDto;
 import uk.ac.sheffield.Assessment_management_tool.dto.response.TransitionDto;
 import uk.ac.sheffield.Assessment_management_tool.mapper.EntityMapper;
 import uk.ac.sheffield.Assessment_management_tool.repository.AssessmentRepository;
@@ -23,7 +27,11 @@ import uk.ac.sheffield.Assessment_management_tool.repository.ModuleRepository;
 import uk.ac.sheffield.Assessment_management_tool.repository.ModuleStaffRoleRepository;
 import uk.ac.sheffield.Assessment_management_tool.repository.UserRepository;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.List;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -32,6 +40,8 @@ import java.util.stream.Collectors;
 @Transactional
 public class AssessmentService {
     
+    private static final int MAX_PAGE_SIZE = 200;
+    
     private final AssessmentRepository assessmentRepository;
     private final ModuleRepository moduleRepository;
     private final UserRepository userRepository;
@@ -39,6 +49,8 @@ public class AssessmentService {
     private final AssessmentRoleRepository assessmentRoleRepository;
     private final ModuleStaffRoleRepository moduleStaffRoleRepository;
     private final TransitionService transitionService;
+    private final ReferenceDataCache referenceDataCache;
+    private final AssessmentStateCounter assessmentStateCounter;
     
     public AssessmentService(
             AssessmentRepository assessmentRepository,
@@ -47,7 +59,9 @@ public class AssessmentService {
             AssessmentTransitionRepository transitionRepository,
             AssessmentRoleRepository assessmentRoleRepository,
             ModuleStaffRoleRepository moduleStaffRoleRepository,
-            TransitionService transitionService) {
+            TransitionService transitionService,
+            ReferenceDataCache referenceDataCache,
+            AssessmentStateCounter assessmentStateCounter) {
         this.assessmentRepository = assessmentRepository;
         this.moduleRepository = moduleRepository;
         this.userRepository = userRepository;
@@ -55,6 +69,8 @@ public class AssessmentService {
         this.assessmentRoleRepository = assessmentRoleRepository;
         this.moduleStaffRoleRepository = moduleStaffRoleRepository;
         this.transitionService = transitionService;
+        this.referenceDataCache = referenceDataCache;
+        this.assessmentStateCounter = assessmentStateCounter;
     }
     
     public AssessmentDto createAssessment(UUID moduleId, CreateAssessmentRequest request) {
@@ -70,6 +86,7 @@ public class AssessmentService {
         assessment = assessmentRepository.save(assessment);
         
         autoAssignModerator(assessment, module);
+        assessmentStateCounter.created(assessment);
         return EntityMapper.toAssessmentDto(assessment);
     }
     
@@ -82,12 +99,15 @@ public class AssessmentService {
         Assessment assessment = assessmentRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Assessment not found"));
         
-        User user = userRepository.findById(userId)
+        User user = referenceDataCache.findUser(userId)
                 .orElseThrow(() -> new IllegalArgumentException("User not found"));
         
+        // One query covers the user's roles and every transition check below
+        PermissionContext context = transitionService.permissionContext(user, assessment);
+        
         AssessmentDto dto = EntityMapper.toAssessmentDto(assessment);
-        dto.setRoles(getUserRolesForAssessment(assessment, user));
-        dto.setAllowedTargets(transitionService.allowedTargets(user, assessment));
+        dto.setRoles(getUserRolesForAssessment(context));
+        dto.setAllowedTargets(transitionService.allowedTargets(context));
         
         return dto;
     }
@@ -99,41 +119,60 @@ public class AssessmentService {
     }
     
     /**
-     * Get all assessments that the user can see:
+     * Get one page of the assessments that the user can see:
      * - Assessments in modules where user is staff
      * - Assessments where user is assigned as SETTER or CHECKER
      * - All assessments if user is admin
+     * 
+     * Pages are newest first, keyset-paginated on (createdAt, id), so each page costs
+     * the same however deep the caller goes. The cursor is opaque to clients.
      */
-    public List<AssessmentDto> getAllAssessmentsForUser(UUID userId) {
-        User user = userRepository.findById(userId)
+    public CursorPageDto<AssessmentDto> getAssessmentPageForUser(UUID userId, AssessmentFilter filter,
+                                                                 String cursor, int limit) {
+        User user = referenceDataCache.findUser(userId)
                 .orElseThrow(() -> new IllegalArgumentException("User not found"));
         
-        if (user.getBaseType() == uk.ac.sheffield.Assessment_management_tool.domain.enums.UserBaseType.TEACHING_SUPPORT) {
-            return assessmentRepository.findAll().stream()
-                    .map(EntityMapper::toAssessmentDto)
-                    .collect(Collectors.toList());
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        UUID visibleTo = user.getBaseType() == uk.ac.sheffield.Assessment_management_tool.domain.enums.UserBaseType.TEACHING_SUPPORT
+                ? null : userId;
+        
+        Cursor after = decodeCursor(cursor);
+        
+        // Fetch one extra row to learn whether there is a next page
+        List<Assessment> rows = assessmentRepository.findPage(visibleTo,
+                filter.getType(), filter.getCurrentState(), filter.getModuleId(),
+                filter.getExamDateFrom(), filter.getExamDateTo(),
+                after == null ? null : after.createdAt(), after == null ? null : after.id(), pageSize + 1);
+        
+        String nextCursor = null;
+        if (rows.size() > pageSize) {
+            rows = rows.subList(0, pageSize);
+            Assessment last = rows.get(pageSize - 1);
+            nextCursor = encodeCursor(last.getCreatedAt(), last.getId());
         }
         
-        List<Assessment> assessments = getAssessmentsForNonAdmin(userId);
-        return assessments.stream()
+        return new CursorPageDto<>(rows.stream()
                 .map(EntityMapper::toAssessmentDto)
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()), nextCursor);
     }
     
     public AssessmentDto progressAssessment(UUID assessmentId, UUID userId, TransitionRequest request) {
         Assessment assessment = assessmentRepository.findById(assessmentId)
                 .orElseThrow(() -> new IllegalArgumentException("Assessment not found"));
         
-        User user = userRepository.findById(userId)
+        User user = referenceDataCache.findUser(userId)
                 .orElseThrow(() -> new IllegalArgumentException("User not found"));
         
         if (!transitionService.canProgress(user, assessment, request.getTargetState())) {
             throw new IllegalStateException("Not permitted to make this transition");
         }
         
+        AssessmentState fromState = assessment.getCurrentState();
         createTransition(assessment, user, request, false);
         assessment.setCurrentState(request.getTargetState());
-        return EntityMapper.toAssessmentDto(assessmentRepository.save(assessment));
+        assessment = assessmentRepository.save(assessment);
+        assessmentStateCounter.moved(assessment, fromState, request.getTargetState());
+        return EntityMapper.toAssessmentDto(assessment);
     }
     
     public AssessmentDto overrideTransition(UUID assessmentId, UUID userId, TransitionRequest request) {
@@ -143,9 +182,26 @@ public class AssessmentService {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new IllegalArgumentException("User not found"));
         
+        AssessmentState fromState = assessment.getCurrentState();
         createTransition(assessment, user, request, true);
         assessment.setCurrentState(request.getTargetState());
-        return EntityMapper.toAssessmentDto(assessmentRepository.save(assessment));
+        assessment = assessmentRepository.save(assessment);
+        assessmentStateCounter.moved(assessment, fromState, request.getTargetState());
+        return EntityMapper.toAssessmentDto(assessment);
+    }
+    
+    /**
+     * Assessment counts per state and type, read from the maintained counters.
+     * Admins see every module (or the one asked for); other users count what
+     * {@link #getAssessmentPageForUser} would list for them.
+     */
+    public AssessmentStatsDto getAssessmentStats(UUID userId, UUID moduleId) {
+        User user = referenceDataCache.findUser(userId)
+                .orElseThrow(() -> new IllegalArgumentException("User not found"));
+        
+        UUID visibleTo = user.getBaseType() == uk.ac.sheffield.Assessment_management_tool.domain.enums.UserBaseType.TEACHING_SUPPORT
+                ? null : userId;
+        return assessmentStateCounter.stats(moduleId, visibleTo);
     }
     
     public List<TransitionDto> getAssessmentTransitions(UUID assessmentId) {
@@ -182,6 +238,7 @@ public class AssessmentService {
         }
         
         assessmentRoleRepository.save(new AssessmentRoleAssignment(assessment, user, role));
+        referenceDataCache.evictAssessmentRoles(assessmentId);
     }
     
     /**
@@ -200,6 +257,7 @@ public class AssessmentService {
                 .orElseThrow(() -> new IllegalArgumentException("Role not found"));
         
         assessmentRoleRepository.delete(roleToRemove);
+        referenceDataCache.evictAssessmentRoles(assessmentId);
     }
     
     /**
@@ -244,34 +302,37 @@ public class AssessmentService {
         }
     }
     
-    private List<String> getUserRolesForAssessment(Assessment assessment, User user) {
-        List<String> roles = assessmentRoleRepository.findByAssessmentAndUser(assessment, user).stream()
-                .map(r -> r.getRole().name())
-                .collect(Collectors.toList());
+    private List<String> getUserRolesForAssessment(PermissionContext context) {
+        List<String> roles = new ArrayList<>();
+        if (context.isSetter()) {
+            roles.add(uk.ac.sheffield.Assessment_management_tool.domain.enums.AssessmentRole.SETTER.name());
+        }
+        if (context.isChecker()) {
+            roles.add(uk.ac.sheffield.Assessment_management_tool.domain.enums.AssessmentRole.CHECKER.name());
+        }
         
-        if (roles.isEmpty() && user.getBaseType() == uk.ac.sheffield.Assessment_management_tool.domain.enums.UserBaseType.TEACHING_SUPPORT) {
+        if (roles.isEmpty() && context.getUser().getBaseType() == uk.ac.sheffield.Assessment_management_tool.domain.enums.UserBaseType.TEACHING_SUPPORT) {
             roles.add("ADMIN");
         }
         
         return roles;
     }
     
-    private List<Assessment> getAssessmentsForNonAdmin(UUID userId) {
-        List<UUID> userModuleIds = moduleStaffRoleRepository.findByUserId(userId).stream()
-                .map(role -> role.getModule().getId())
-                .collect(Collectors.toList());
-        
-        List<Assessment> moduleAssessments = userModuleIds.stream()
-                .flatMap(moduleId -> assessmentRepository.findByModuleId(moduleId).stream())
-                .collect(Collectors.toList());
-        
-        List<Assessment> roleAssessments = assessmentRoleRepository.findByUserId(userId).stream()
-                .map(AssessmentRoleAssignment::getAssessment)
-                .collect(Collectors.toList());
-        
-        List<Assessment> combined = new java.util.ArrayList<>(moduleAssessments);
-        roleAssessments.forEach(a -> { if (!combined.contains(a)) combined.add(a); });
-        return combined;
+    private static String encodeCursor(OffsetDateTime createdAt, UUID id) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((createdAt + "|" + id).getBytes(StandardCharsets.UTF_8));
+    }
+    
+    private static Cursor decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|", 2);
+            return new Cursor(OffsetDateTime.parse(parts[0]), UUID.fromString(parts[1]));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
     }
     
     private void createTransition(Assessment assessment, User user, TransitionRequest request, boolean isOverride) {
@@ -286,4 +347,6 @@ public class AssessmentService {
         transition.setReversion(false);
         transitionRepository.save(transition);
     }
+    
+    private record Cursor(OffsetDateTime createdAt, UUID id) {}
 }
@@ -0,0 +1,134 @@
+package uk.ac.sheffield.Assessment_management_tool.service;
+
+import org.springframework.stereotype.Component;
+import uk.ac.sheffield.Assessment_management_tool.domain.entity.Assessment;
+import uk.ac.sheffield.Assessment_management_tool.domain.enums.AssessmentState;
+import uk.ac.sheffield.Assessment_management_tool.domain.enums.AssessmentType;
+import uk.ac.sheffield.Assessment_management_tool.dto.response.AssessmentStatsDto;
+import uk.ac.sheffield.Assessment_management_tool.repository.AssessmentRepository;
+import uk.ac.sheffield.Assessment_management_tool.repository.AssessmentStateCountRepository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps assessment_state_count in step with the assessment table.
+ *
+ * Every write that creates an assessment or changes its state must go through
+ * here in the same transaction. Counter rows stay locked until that transaction
+ * ends, so callers should touch them late. {@link #reconcile()} repairs any
+ * counter that has drifted, e.g. after a write that bypassed this class.
+ */
+@Component
+public class AssessmentStateCounter {
+    
+    private final AssessmentStateCountRepository countRepository;
+    private final AssessmentRepository assessmentRepository;
+    
+    public AssessmentStateCounter(AssessmentStateCountRepository countRepository,
+                                  AssessmentRepository assessmentRepository) {
+        this.countRepository = countRepository;
+        this.assessmentRepository = assessmentRepository;
+    }
+    
+    public void created(Assessment assessment) {
+        adjust(assessment.getModule().getId(), assessment.getType(), assessment.getCurrentState(), 1);
+    }
+    
+    /**
+     * Count a batch of new assessments with one statement per module, type and state
+     */
+    public void created(Collection<Assessment> assessments) {
+        Map<List<Object>, Long> tally = assessments.stream()
+                .collect(Collectors.groupingBy(
+                        a -> List.of(a.getModule().getId(), a.getType(), a.getCurrentState()),
+                        Collectors.counting()));
+        tally.forEach((key, count) ->
+                adjust((UUID) key.get(0), (AssessmentType) key.get(1), (AssessmentState) key.get(2), count));
+    }
+    
+    public void moved(Assessment assessment, AssessmentState from, AssessmentState to) {
+        moved(assessment.getModule().getId(), assessment.getType(), from, to, 1);
+    }
+    
+    /**
+     * Move {@code count} assessments of one module and type between two states.
+     * The lower state is always updated first, so two opposite moves in the same
+     * module lock the rows in the same order and cannot deadlock.
+     */
+    public void moved(UUID moduleId, AssessmentType type, AssessmentState from, AssessmentState to, long count) {
+        if (from == to || count == 0) {
+            return;
+        }
+        if (from.compareTo(to) < 0) {
+            adjust(moduleId, type, from, -count);
+            adjust(moduleId, type, to, count);
+        } else {
+            adjust(moduleId, type, to, count);
+            adjust(moduleId, type, from, -count);
+        }
+    }
+    
+    /**
+     * Totals per state and type, counting the same assessments as the assessment list.
+     * With a {@code userId}, that is every assessment in modules where the user holds
+     * a staff role, read from the counters, plus those they are assigned to directly
+     * in other modules, counted from the assessments (a handful per user).
+     */
+    public AssessmentStatsDto stats(UUID moduleId, UUID userId) {
+        Map<AssessmentState, Long> byState = new EnumMap<>(AssessmentState.class);
+        Map<AssessmentType, Long> byType = new EnumMap<>(AssessmentType.class);
+        Map<AssessmentType, Map<AssessmentState, Long>> byTypeAndState = new EnumMap<>(AssessmentType.class);
+        long total = 0;
+        
+        List<Object[]> rows = new ArrayList<>(countRepository.sumByTypeAndState(moduleId, userId));
+        if (userId != null) {
+            rows.addAll(assessmentRepository.countAssignedOutsideStaffModules(moduleId, userId));
+        }
+        for (Object[] row : rows) {
+            AssessmentType type = (AssessmentType) row[0];
+            AssessmentState state = (AssessmentState) row[1];
+            long count = ((Number) row[2]).longValue();
+            if (count == 0) {
+                continue;
+            }
+            byState.merge(state, count, Long::sum);
+            byType.merge(type, count, Long::sum);
+            byTypeAndState.computeIfAbsent(type, t -> new EnumMap<>(AssessmentState.class))
+                    .merge(state, count, Long::sum);
+            total += count;
+        }
+        
+        AssessmentStatsDto dto = new AssessmentStatsDto();
+        dto.setTotal(total);
+        dto.setByState(byState);
+        dto.setByType(byType);
+        dto.setByTypeAndState(byTypeAndState);
+        return dto;
+    }
+    
+    /**
+     * Recount from the assessment table and fix any counter that disagrees.
+     * Returns the number of counters repaired or created.
+     */
+    public int reconcile() {
+        return countRepository.repairCounts() + countRepository.insertMissingCounts();
+    }
+    
+    private void adjust(UUID moduleId, AssessmentType type, AssessmentState state, long delta) {
+        Objects.requireNonNull(moduleId, "moduleId");
+        if (countRepository.addToCount(moduleId, type, state, delta) > 0) {
+            return;
+        }
+        // First assessment with this module, type and state; another transaction may be creating the row too
+        if (countRepository.insertCount(moduleId, type.name(), state.name(), delta) == 0) {
+            countRepository.addToCount(moduleId, type, state, delta);
+        }
+    }
+}
@@ -0,0 +1,493 @@
+package uk.ac.sheffield.Assessment_management_tool.service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import uk.ac.sheffield.Assessment_management_tool.cache.ReferenceDataCache;
+import uk.ac.sheffield.Assessment_management_tool.domain.entity.Assessment;
+import uk.ac.sheffield.Assessment_management_tool.domain.entity.CsvImportJob;
+import uk.ac.sheffield.Assessment_management_tool.domain.entity.Module;
+import uk.ac.sheffield.Assessment_management_tool.domain.entity.ModuleStaffRole;
+import uk.ac.sheffield.Assessment_management_tool.domain.entity.User;
+import uk.ac.sheffield.Assessment_management_tool.domain.enums.AssessmentState;
+import uk.ac.sheffield.Assessment_management_tool.domain.enums.ImportErrorCode;
+import uk.ac.sheffield.Assessment_management_tool.domain.enums.ImportJobStatus;
+import uk.ac.sheffield.Assessment_management_tool.domain.enums.ModuleRole;
+import uk.ac.sheffield.Assessment_management_tool.repository.AssessmentRepository;
+import uk.ac.sheffield.Assessment_management_tool.repository.CsvImportErrorRepository;
+import uk.ac.sheffield.Assessment_management_tool.repository.CsvImportJobRepository;
+import uk.ac.sheffield.Assessment_management_tool.repository.ModuleRepository;
+import uk.ac.sheffield.Assessment_management_tool.repository.ModuleStaffRoleRepository;
+import uk.ac.sheffield.Assessment_management_tool.repository.UserRepository;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Runs modules-with-assessments imports on the background import executor.
+ *
+ * The spooled file is streamed record by record and each chunk of lines is
+ * committed in its own transaction together with the job's progress counters,
+ * so other sessions see the job move through RUNNING while it works.
+ *
+ * Inserts are flushed every {@code app.import.flush-interval} records so
+ * Hibernate can send them as ordered JDBC batches (see hibernate.jdbc.batch_size).
+ * Lines are validated by {@link ModuleCsvRow}. Modules, staff and existing role
+ * assignments are resolved from {@link ModuleImportLookups}, loaded in a pre-pass
+ * over the file.
+ *
+ * Row-level errors go to csv_import_error through an {@link ImportErrorBuffer}
+ * and are committed with the chunk they belong to.
+ *
+ * Each chunk commit also stores a checkpoint (last line and character offset
+ * in the spooled file). A job that stops part way keeps its spooled file and
+ * can be resumed from that checkpoint.
+ */
+@Component
+public class CsvImportJobRunner {
+    
+    private static final Logger logger = LoggerFactory.getLogger(CsvImportJobRunner.class);
+    
+    private final UserRepository userRepository;
+    private final ModuleRepository moduleRepository;
+    private final AssessmentRepository assessmentRepository;
+    private final ModuleStaffRoleRepository moduleStaffRoleRepository;
+    private final CsvImportJobRepository importJobRepository;
+    private final CsvImportErrorRepository importErrorRepository;
+    private final ModuleSearchIndex moduleSearchIndex;
+    private final ReferenceDataCache referenceDataCache;
+    private final AssessmentStateCounter assessmentStateCounter;
+    private final TaskExecutor importExecutor;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final int flushInterval;
+    private final Set<UUID> activeJobs = ConcurrentHashMap.newKeySet();
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    public CsvImportJobRunner(
+            UserRepository userRepository,
+            ModuleRepository moduleRepository,
+            AssessmentRepository assessmentRepository,
+            ModuleStaffRoleRepository moduleStaffRoleRepository,
+            CsvImportJobRepository importJobRepository,
+            CsvImportErrorRepository importErrorRepository,
+            ModuleSearchIndex moduleSearchIndex,
+            ReferenceDataCache referenceDataCache,
+            AssessmentStateCounter assessmentStateCounter,
+            @Qualifier("csvImportExecutor") TaskExecutor importExecutor,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.import.chunk-size:500}") int chunkSize,
+            @Value("${app.import.flush-interval:50}") int flushInterval) {
+        this.userRepository = userRepository;
+        this.moduleRepository = moduleRepository;
+        this.assessmentRepository = assessmentRepository;
+        this.moduleStaffRoleRepository = moduleStaffRoleRepository;
+        this.importJobRepository = importJobRepository;
+        this.importErrorRepository = importErrorRepository;
+        this.moduleSearchIndex = moduleSearchIndex;
+        this.referenceDataCache = referenceDataCache;
+        this.assessmentStateCounter = assessmentStateCounter;
+        this.importExecutor = importExecutor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.flushInterval = flushInterval;
+    }
+    
+    /**
+     * Hand a spooled file to the import executor.
+     * Throws {@link org.springframework.core.task.TaskRejectedException} when the queue is full,
+     * and IllegalStateException when the job is already queued or running on this node.
+     */
+    public void submit(UUID jobId, Path spoolFile) {
+        if (!activeJobs.add(jobId)) {
+            throw new IllegalStateException("Import job is already queued or running");
+        }
+        try {
+            importExecutor.execute(() -> run(jobId, spoolFile));
+        } catch (RuntimeException e) {
+            activeJobs.remove(jobId);
+            throw e;
+        }
+    }
+    
+    /**
+     * Whether a job is queued or running on this node
+     */
+    public boolean isActive(UUID jobId) {
+        return activeJobs.contains(jobId);
+    }
+    
+    /**
+     * Import modules with assessments from CSV file
+     *
+     * CSV Format (no header row):
+     * Column A: Module code (required)
+     * Column B: Module title (required)
+     * Column C: Module lead name (required) - will be assigned MODULE_LEAD role
+     * Column D: Moderators (optional) - comma-separated list of names, can be blank. Will be assigned MODERATOR role
+     * Column E+: Assessment pairs - type,title,type,title,... (each pair is optional)
+     *
+     * Example: COM1001,Introduction to Software Engineering,Phil McMinn,"Kirill Bogdanov, Tahsin Khan, Donghwan Shin",cw,Programming Assignment,cw,Requirements Specification
+     * Example with no moderator: COM4507,Software and Hardware Verification,Georg Struth,,exam,Final Exam
+     *
+     * Assessment types: EXAM, CW, or TEST (TEST is treated as CW)
+     *
+     * Note: Moderators are optional and can be left blank. This allows modules to be set up early
+     * and moderators assigned later. If moderators are provided but not found in the system,
+     * a warning will be logged but the import will continue.
+     */
+    void run(UUID jobId, Path spoolFile) {
+        ImportProgress progress = new ImportProgress(jobId,
+                new ImportErrorBuffer(importErrorRepository, entityManager, jobId, flushInterval));
+        boolean fileConsumed = false;
+        
+        try {
+            boolean claimed = Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+                // Only one worker moves the job out of PENDING, even if it was queued twice
+                if (importJobRepository.claimForRun(jobId, OffsetDateTime.now()) == 0) {
+                    return false;
+                }
+                CsvImportJob job = loadJob(jobId);
+                if (job.getStartedAt() == null) {
+                    job.setStartedAt(OffsetDateTime.now());
+                    importJobRepository.save(job);
+                }
+                progress.resumeFrom(job);
+                return true;
+            }));
+            if (!claimed) {
+                logger.info("CSV import job {} has already been started, skipping", jobId);
+                return;
+            }
+            
+            if (progress.lineNumber > 0) {
+                logger.info("Resuming CSV import job {} after line {}", jobId, progress.lineNumber);
+            }
+            
+            ModuleImportLookups lookups = loadLookups(spoolFile, progress);
+            
+            try (CSVParser csvParser = openModulesCsv(spoolFile, progress.checkpointOffset, progress.lineNumber)) {
+                List<CSVRecord> chunk = new ArrayList<>(chunkSize);
+                for (CSVRecord record : csvParser) {
+                    if (chunk.size() >= chunkSize) {
+                        // The next chunk starts at this record, so that is where a resume picks up
+                        importChunk(chunk, record.getCharacterPosition(), false, lookups, progress);
+                        chunk.clear();
+                    }
+                    chunk.add(record);
+                }
+                
+                if (chunk.isEmpty()) {
+                    finish(progress, null);
+                } else {
+                    importChunk(chunk, progress.checkpointOffset, true, lookups, progress);
+                }
+                fileConsumed = true;
+            }
+        } catch (Exception e) {
+            logger.error("CSV import job {} failed after line {}", jobId, progress.lineNumber, e);
+            finish(progress, "Import stopped after line " + progress.lineNumber + ": " + e.getMessage() +
+                    ". Resume the job to continue from this point.");
+        } finally {
+            activeJobs.remove(jobId);
+            moduleSearchIndex.invalidate();
+            referenceDataCache.evictAll();
+            // Keep the spooled file while there is something left to resume
+            if (fileConsumed) {
+                try {
+                    Files.deleteIfExists(spoolFile);
+                } catch (IOException e) {
+                    logger.warn("Could not delete spooled import file {}", spoolFile);
+                }
+            }
+        }
+    }
+    
+    /**
+     * Pre-pass over the spooled file: collect the distinct module codes and staff
+     * names it references and bulk-load them with a handful of IN queries.
+     */
+    private ModuleImportLookups loadLookups(Path spoolFile, ImportProgress progress) throws IOException {
+        Set<String> moduleCodes = new LinkedHashSet<>();
+        Set<String> staffNames = new LinkedHashSet<>();
+        
+        try (CSVParser csvParser = openModulesCsv(spoolFile, progress.checkpointOffset, progress.lineNumber)) {
+            for (CSVRecord record : csvParser) {
+                if (record.size() < 2) {
+                    continue;
+                }
+                if (!record.get(0).isEmpty()) {
+                    moduleCodes.add(record.get(0).toUpperCase());
+                }
+                ModuleCsvRow.collectStaffNames(record, staffNames);
+            }
+        }
+        
+        ModuleImportLookups lookups = new ModuleImportLookups();
+        transactionTemplate.executeWithoutResult(status -> {
+            for (List<String> codes : ModuleImportLookups.partition(moduleCodes)) {
+                lookups.addModules(moduleRepository.findByCodeIn(codes));
+            }
+            for (List<String> names : ModuleImportLookups.partition(staffNames)) {
+                lookups.addUsers(userRepository.findByNameIn(names));
+            }
+            
+            List<UUID> moduleIds = moduleCodes.stream()
+                    .map(lookups::findModule)
+                    .flatMap(Optional::stream)
+                    .map(Module::getId)
+                    .collect(Collectors.toList());
+            for (List<UUID> ids : ModuleImportLookups.partition(moduleIds)) {
+                for (Object[] row : moduleStaffRoleRepository.findRoleTuplesByModuleIds(ids)) {
+                    lookups.addStaffRole((UUID) row[0], (UUID) row[1], (ModuleRole) row[2]);
+                }
+            }
+        });
+        return lookups;
+    }
+    
+    /**
+     * Open the spooled file positioned at a checkpoint, without re-reading earlier records
+     */
+    private CSVParser openModulesCsv(Path spoolFile, long characterOffset, long recordsBefore) throws IOException {
+        Reader reader = Files.newBufferedReader(spoolFile, StandardCharsets.UTF_8);
+        long remaining = characterOffset;
+        while (remaining > 0) {
+            long skipped = reader.skip(remaining);
+            if (skipped <= 0) {
+                break;
+            }
+            remaining -= skipped;
+        }
+        return new CSVParser(reader, CSVFormat.DEFAULT
+                .builder()
+                .setSkipHeaderRecord(false) // No header in the file
+                .setTrim(true)
+                .build(), characterOffset, recordsBefore + 1);
+    }
+    
+    /**
+     * Import one chunk and checkpoint it in the same transaction. If the chunk fails,
+     * nothing from it is committed and the in-memory totals go back to the last checkpoint.
+     * The final chunk also records the job's outcome, so a finished file is never re-imported.
+     */
+    private void importChunk(List<CSVRecord> chunk, long nextOffset, boolean lastChunk,
+                             ModuleImportLookups lookups, ImportProgress progress) {
+        ImportProgress.Snapshot checkpoint = progress.snapshot();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                List<Assessment> created = new ArrayList<>();
+                int sinceFlush = 0;
+                for (CSVRecord record : chunk) {
+                    progress.lineNumber++;
+                    importModuleRecord(record, lookups, progress, created);
+                    
+                    // Push pending inserts out as JDBC batches and keep the persistence context small
+                    if (++sinceFlush >= flushInterval) {
+                        entityManager.flush();
+                        entityManager.clear();
+                        sinceFlush = 0;
+                    }
+                }
+                
+                assessmentStateCounter.created(created);
+                progress.errors.flush();
+                progress.checkpointOffset = nextOffset;
+                CsvImportJob job = loadJob(progress.jobId);
+                progress.applyTo(job);
+                // Lets a resume tell this worker apart from one whose node has died
+                job.setHeartbeatAt(OffsetDateTime.now());
+                if (lastChunk) {
+                    applyOutcome(job, progress, null);
+                }
+                importJobRepository.save(job);
+            });
+        } catch (RuntimeException e) {
+            progress.restore(checkpoint);
+            throw e;
+        }
+    }
+    
+    private void importModuleRecord(CSVRecord record, ModuleImportLookups lookups, ImportProgress progress,
+                                    List<Assessment> created) {
+        int lineNumber = progress.lineNumber;
+        
+        try {
+            ModuleCsvRow row = ModuleCsvRow.parse(record, lineNumber, lookups, progress.errors);
+            if (row == null) {
+                return;
+            }
+            
+            // Check if module already exists
+            Optional<Module> existingModule = lookups.findModule(row.getCode());
+            
+            Module module;
+            if (existingModule.isPresent()) {
+                module = existingModule.get();
+                // Update module title if different
+                if (!module.getTitle().equals(row.getTitle())) {
+                    module.setTitle(row.getTitle());
+                    module = moduleRepository.save(module);
+                    lookups.putModule(module);
+                }
+            } else {
+                // Create new module
+                module = new Module();
+                module.setCode(row.getCode());
+                module.setTitle(row.getTitle());
+                module = moduleRepository.save(module);
+                lookups.putModule(module);
+                progress.moduleCount++;
+            }
+            
+            User lead = row.getLead();
+            if (lead == null) {
+                return; // Skip staff and assessments if lead not found
+            }
+            
+            // Assign module lead, if not already assigned
+            if (!lookups.hasStaffRole(module, lead, ModuleRole.MODULE_LEAD)) {
+                moduleStaffRoleRepository.save(new ModuleStaffRole(module, lead, ModuleRole.MODULE_LEAD));
+                lookups.addStaffRole(module.getId(), lead.getId(), ModuleRole.MODULE_LEAD);
+            }
+            
+            // Assign moderators
+            for (User moderator : row.getModerators()) {
+                // Don't add if same as module lead, or if already assigned
+                if (!moderator.getId().equals(lead.getId()) &&
+                    !lookups.hasStaffRole(module, moderator, ModuleRole.MODERATOR)) {
+                    moduleStaffRoleRepository.save(new ModuleStaffRole(module, moderator, ModuleRole.MODERATOR));
+                    lookups.addStaffRole(module.getId(), moderator.getId(), ModuleRole.MODERATOR);
+                }
+            }
+            
+            // Create assessments
+            for (ModuleCsvRow.AssessmentSpec spec : row.getAssessments()) {
+                Assessment assessment = new Assessment();
+                assessment.setModule(module);
+                assessment.setTitle(spec.title());
+                assessment.setType(spec.type());
+                assessment.setCurrentState(AssessmentState.DRAFT);
+                // Exam date can be set later by admin
+                
+                created.add(assessmentRepository.save(assessment));
+                progress.assessmentCount++;
+            }
+            
+        } catch (Exception e) {
+            progress.errors.add(lineNumber, null, ImportErrorCode.UNEXPECTED_ERROR, e.getMessage());
+        }
+    }
+    
+    private void finish(ImportProgress progress, String failure) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                CsvImportJob job = loadJob(progress.jobId);
+                progress.applyTo(job);
+                applyOutcome(job, progress, failure);
+                importJobRepository.save(job);
+            });
+        } catch (Exception e) {
+            logger.error("Could not record final status for CSV import job {}", progress.jobId, e);
+        }
+    }
+    
+    private void applyOutcome(CsvImportJob job, ImportProgress progress, String failure) {
+        job.setFinishedAt(OffsetDateTime.now());
+        
+        if (failure != null) {
+            job.setStatus(ImportJobStatus.FAILED);
+            job.setErrors(failure);
+        } else if (progress.errorCount() == 0) {
+            job.setStatus(ImportJobStatus.COMPLETED);
+            job.setErrors("Successfully imported " + progress.moduleCount + " modules and " +
+                    progress.assessmentCount + " assessments");
+        } else {
+            job.setStatus(ImportJobStatus.FAILED);
+            job.setErrors("Imported " + progress.moduleCount + " modules and " + progress.assessmentCount +
+                    " assessments with " + progress.errorCount() + " errors");
+        }
+    }
+    
+    private CsvImportJob loadJob(UUID jobId) {
+        return importJobRepository.findById(jobId)
+                .orElseThrow(() -> new IllegalArgumentException("Import job not found: " + jobId));
+    }
+    
+    /**
+     * Running totals for one import, carried across chunk transactions.
+     * Seeded from the job's last checkpoint when a job is resumed.
+     */
+    private static class ImportProgress {
+        private final UUID jobId;
+        private final ImportErrorBuffer errors;
+        private int lineNumber = 0;
+        private long checkpointOffset = 0;
+        private int moduleCount = 0;
+        private int assessmentCount = 0;
+        
+        private ImportProgress(UUID jobId, ImportErrorBuffer errors) {
+            this.jobId = jobId;
+            this.errors = errors;
+        }
+        
+        private void resumeFrom(CsvImportJob job) {
+            lineNumber = job.getProcessedLines();
+            checkpointOffset = job.getCheckpointOffset();
+            moduleCount = job.getModuleCount();
+            assessmentCount = job.getAssessmentCount();
+            errors.reset(job.getErrorCount());
+        }
+        
+        private void applyTo(CsvImportJob job) {
+            job.setProcessedLines(lineNumber);
+            job.setCheckpointOffset(checkpointOffset);
+            job.setModuleCount(moduleCount);
+            job.setAssessmentCount(assessmentCount);
+            job.setErrorCount(errorCount());
+        }
+        
+        private int errorCount() {
+            return errors.count();
+        }
+        
+        private Snapshot snapshot() {
+            return new Snapshot(lineNumber, checkpointOffset, moduleCount, assessmentCount, errors.count());
+        }
+        
+        private void restore(Snapshot snapshot) {
+            lineNumber = snapshot.lineNumber();
+            checkpointOffset = snapshot.checkpointOffset();
+            moduleCount = snapshot.moduleCount();
+            assessmentCount = snapshot.assessmentCount();
+            errors.reset(snapshot.errorCount());
+        }
+        
+        private record Snapshot(int lineNumber, long checkpointOffset, int moduleCount,
+                                int assessmentCount, int errorCount) {}
+    }
+}
@@ -1,281 +1,224 @@
 package uk.ac.sheffield.Assessment_management_tool.service;
 
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVParser;
 import org.apache.commons.csv.CSVRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.multipart.MultipartFile;
+import uk.ac.sheffield.Assessment_management_tool.cache.ReferenceDataCache;
 import uk.ac.sheffield.Assessment_management_tool.domain.entity.Assessment;
+import uk.ac.sheffield.Assessment_management_tool.domain.entity.CsvImportError;
 import uk.ac.sheffield.Assessment_management_tool.domain.entity.CsvImportJob;
 import uk.ac.sheffield.Assessment_management_tool.domain.entity.Module;
-import uk.ac.sheffield.Assessment_management_tool.domain.entity.ModuleStaffRole;
 import uk.ac.sheffield.Assessment_management_tool.domain.entity.User;
 import uk.ac.sheffield.Assessment_management_tool.domain.enums.*;
+import uk.ac.sheffield.Assessment_management_tool.dto.response.ImportErrorDto;
+import uk.ac.sheffield.Assessment_management_tool.dto.response.PageDto;
+import uk.ac.sheffield.Assessment_management_tool.mapper.EntityMapper;
 import uk.ac.sheffield.Assessment_management_tool.repository.AssessmentRepository;
+import uk.ac.sheffield.Assessment_management_tool.repository.CsvImportErrorRepository;
 import uk.ac.sheffield.Assessment_management_tool.repository.CsvImportJobRepository;
 import uk.ac.sheffield.Assessment_management_tool.repository.ModuleRepository;
-import uk.ac.sheffield.Assessment_management_tool.repository.ModuleStaffRoleRepository;
 import uk.ac.sheffield.Assessment_management_tool.repository.UserRepository;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.security.SecureRandom;
+import java.time.Duration;
 import java.time.LocalDate;
+import java.time.OffsetDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
 public class CsvImportService {
     
+    private static final Logger logger = LoggerFactory.getLogger(CsvImportService.class);
+    
     private final UserRepository userRepository;
     private final ModuleRepository moduleRepository;
     private final AssessmentRepository assessmentRepository;
-    private final ModuleStaffRoleRepository moduleStaffRoleRepository;
     private final CsvImportJobRepository importJobRepository;
+    private final CsvImportErrorRepository importErrorRepository;
     private final PasswordEncoder passwordEncoder;
+    private final ObjectProvider<PasswordResetNotifier> resetNotifier;
+    private final CsvImportJobRunner jobRunner;
+    private final ModuleSearchIndex moduleSearchIndex;
+    private final ReferenceDataCache referenceDataCache;
+    private final AssessmentStateCounter assessmentStateCounter;
+    private final Executor passwordHashExecutor;
+    private final Path spoolDir;
+    private final int userBatchSize;
+    private final Duration staleAfter;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
     
     private static final String CHARACTERS = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789!@#$%^&*";
     private static final SecureRandom RANDOM = new SecureRandom();
+    private static final int MAX_ERROR_PAGE_SIZE = 500;
     
     public CsvImportService(
             UserRepository userRepository,
             ModuleRepository moduleRepository,
             AssessmentRepository assessmentRepository,
-            ModuleStaffRoleRepository moduleStaffRoleRepository,
             CsvImportJobRepository importJobRepository,
-            PasswordEncoder passwordEncoder) {
+            CsvImportErrorRepository importErrorRepository,
+            PasswordEncoder passwordEncoder,
+            ObjectProvider<PasswordResetNotifier> resetNotifier,
+            CsvImportJobRunner jobRunner,
+            ModuleSearchIndex moduleSearchIndex,
+            ReferenceDataCache referenceDataCache,
+            AssessmentStateCounter assessmentStateCounter,
+            @Qualifier("passwordHashExecutor") Executor passwordHashExecutor,
+            @Value("${app.import.spool-dir:${java.io.tmpdir}/assessment-imports}") String spoolDir,
+            @Value("${app.import.chunk-size:500}") int userBatchSize,
+            @Value("${app.import.stale-after:10m}") Duration staleAfter) {
         this.userRepository = userRepository;
         this.moduleRepository = moduleRepository;
         this.assessmentRepository = assessmentRepository;
-        this.moduleStaffRoleRepository = moduleStaffRoleRepository;
         this.importJobRepository = importJobRepository;
+        this.importErrorRepository = importErrorRepository;
         this.passwordEncoder = passwordEncoder;
+        this.resetNotifier = resetNotifier;
+        this.jobRunner = jobRunner;
+        this.moduleSearchIndex = moduleSearchIndex;
+        this.referenceDataCache = referenceDataCache;
+        this.assessmentStateCounter = assessmentStateCounter;
+        this.passwordHashExecutor = passwordHashExecutor;
+        this.spoolDir = Paths.get(spoolDir);
+        this.userBatchSize = userBatchSize;
+        this.staleAfter = staleAfter;
     }
     
     /**
-     * Import modules with assessments from CSV file
-     * 
-     * CSV Format (no header row):
-     * Column A: Module code (required)
-     * Column B: Module title (required)
-     * Column C: Module lead name (required) - will be assigned MODULE_LEAD role
-     * Column D: Moderators (optional) - comma-separated list of names, can be blank. Will be assigned MODERATOR role
-     * Column E+: Assessment pairs - type,title,type,title,... (each pair is optional)
+     * Queue a modules-with-assessments import to run in the background.
      * 
-     * Example: COM1001,Introduction to Software Engineering,Phil McMinn,"Kirill Bogdanov, Tahsin Khan, Donghwan Shin",cw,Programming Assignment,cw,Requirements Specification
-     * Example with no moderator: COM4507,Software and Hardware Verification,Georg Struth,,exam,Final Exam
-     * 
-     * Assessment types: EXAM, CW, or TEST (TEST is treated as CW)
-     * 
-     * Note: Moderators are optional and can be left blank. This allows modules to be set up early 
-     * and moderators assigned later. If moderators are provided but not found in the system, 
-     * a warning will be logged but the import will continue.
+     * The upload is spooled to disk and a PENDING job is committed before the
+     * work is handed to the import executor, so callers can poll the job while
+     * it runs. See {@link CsvImportJobRunner} for the CSV format.
      */
-    public CsvImportJob importModulesWithAssessments(MultipartFile file) {
-        CsvImportJob job = new CsvImportJob(file.getOriginalFilename());
-        job.setStatus(ImportJobStatus.RUNNING);
-        job = importJobRepository.save(job);
-        
-        List<String> errors = new ArrayList<>();
-        int moduleCount = 0;
-        int assessmentCount = 0;
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public CsvImportJob submitModulesWithAssessments(MultipartFile file) {
+        CsvImportJob job = importJobRepository.save(new CsvImportJob(file.getOriginalFilename()));
         
-        try (Reader reader = new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8);
-             CSVParser csvParser = new CSVParser(reader, CSVFormat.DEFAULT
-                     .builder()
-                     .setSkipHeaderRecord(false) // No header in the file
-                     .setTrim(true)
-                     .build())) {
-            
-            int lineNumber = 0;
-            
-            for (CSVRecord record : csvParser) {
-                lineNumber++;
-                try {
-                    if (record.size() < 2) {
-                        errors.add("Line " + lineNumber + ": Insufficient columns");
-                        continue;
-                    }
-                    
-                    String moduleCode = record.get(0);
-                    String moduleTitle = record.get(1);
-                    String moduleLead = record.size() > 2 ? record.get(2) : "";
-                    String moderatorsStr = record.size() > 3 ? record.get(3) : "";
-                    
-                    // Validate required fields
-                    if (moduleCode == null || moduleCode.trim().isEmpty()) {
-                        errors.add("Line " + lineNumber + ": Module code is required");
-                        continue;
-                    }
-                    if (moduleTitle == null || moduleTitle.trim().isEmpty()) {
-                        errors.add("Line " + lineNumber + ": Module title is required");
-                        continue;
-                    }
-                    if (moduleLead == null || moduleLead.trim().isEmpty()) {
-                        errors.add("Line " + lineNumber + ": Module lead is required");
-                        continue;
-                    }
-                    
-                    // Check if module already exists
-                    Optional<Module> existingModule = moduleRepository.findByCode(
-                            moduleCode.trim().toUpperCase());
-                    
-                    Module module;
-                    if (existingModule.isPresent()) {
-                        module = existingModule.get();
-                        // Update module title if different
-                        if (!module.getTitle().equals(moduleTitle.trim())) {
-                            module.setTitle(moduleTitle.trim());
-                            moduleRepository.save(module);
-                        }
-                    } else {
-                        // Create new module
-                        module = new Module();
-                        module.setCode(moduleCode.trim().toUpperCase());
-                        module.setTitle(moduleTitle.trim());
-                        module = moduleRepository.save(module);
-                        moduleCount++;
-                    }
-                    
-                    // Assign module lead (mandatory)
-                    Optional<User> moduleLeadUser = userRepository.findByName(moduleLead.trim());
-                    if (moduleLeadUser.isPresent()) {
-                        // Check if already assigned
-                        if (!moduleStaffRoleRepository.existsByModuleAndUserAndRole(
-                                module, moduleLeadUser.get(), ModuleRole.MODULE_LEAD)) {
-                            ModuleStaffRole leadRole = new ModuleStaffRole(
-                                module, moduleLeadUser.get(), ModuleRole.MODULE_LEAD);
-                            moduleStaffRoleRepository.save(leadRole);
-                        }
-                    } else {
-                        errors.add("Line " + lineNumber + ": Module lead '" + moduleLead.trim() + "' not found");
-                        continue; // Skip this module if lead not found
-                    }
-                    
-                    // Assign module moderators (optional, can be multiple comma-separated)
-                    if (moderatorsStr != null && !moderatorsStr.trim().isEmpty()) {
-                        // Split moderator names by comma
-                        String[] moderatorNames = moderatorsStr.split(",");
-                        boolean foundAnyModerator = false;
-                        
-                        for (String moderatorName : moderatorNames) {
-                            String trimmedName = moderatorName.trim();
-                            if (!trimmedName.isEmpty()) {
-                                Optional<User> moderatorUser = userRepository.findByName(trimmedName);
-                                if (moderatorUser.isPresent()) {
-                                    foundAnyModerator = true;
-                                    // Don't add if same as module lead
-                                    if (!moderatorUser.get().getId().equals(moduleLeadUser.get().getId())) {
-                                        // Check if already assigned
-                                        if (!moduleStaffRoleRepository.existsByModuleAndUserAndRole(
-                                                module, moderatorUser.get(), ModuleRole.MODERATOR)) {
-                                            ModuleStaffRole moderatorRole = new ModuleStaffRole(
-                                                module, moderatorUser.get(), ModuleRole.MODERATOR);
-                                            moduleStaffRoleRepository.save(moderatorRole);
-                                        }
-                                    }
-                                } else {
-                                    errors.add("Line " + lineNumber + ": Moderator '" + trimmedName + "' not found");
-                                }
-                            }
-                        }
-                        
-                        // Only warn if none of the moderators were found
-                        if (!foundAnyModerator && moderatorNames.length > 0) {
-                            errors.add("Line " + lineNumber + ": None of the specified moderators were found");
-                        }
-                    }
-                    
-                    // Parse assessments (starting from column 4, pairs of type and title)
-                    int assessmentsInLine = 0;
-                    for (int i = 4; i < record.size() - 1; i += 2) {
-                        String typeStr = record.get(i);
-                        String assessmentTitle = record.get(i + 1);
-                        
-                        // Skip empty pairs
-                        if ((typeStr == null || typeStr.trim().isEmpty()) && 
-                            (assessmentTitle == null || assessmentTitle.trim().isEmpty())) {
-                            continue;
-                        }
-                        
-                        if (typeStr == null || typeStr.trim().isEmpty()) {
-                            errors.add("Line " + lineNumber + ", Assessment " + (assessmentsInLine + 1) + ": Type is required");
-                            continue;
-                        }
-                        
-                        if (assessmentTitle == null || assessmentTitle.trim().isEmpty()) {
-                            errors.add("Line " + lineNumber + ", Assessment " + (assessmentsInLine + 1) + ": Title is required");
-                            continue;
-                        }
-                        
-                        // Parse assessment type (support TEST as alias for CW)
-                        AssessmentType type;
-                        String normalizedType = typeStr.trim().toUpperCase();
-                        if ("TEST".equals(normalizedType)) {
-                            normalizedType = "CW"; // TEST is treated as coursework
-                        }
-                        
-                        try {
-                            type = AssessmentType.valueOf(normalizedType);
-                        } catch (IllegalArgumentException e) {
-                            errors.add("Line " + lineNumber + ", Assessment " + (assessmentsInLine + 1) + 
-                                    ": Invalid type '" + typeStr + "'. Must be EXAM, CW, or TEST");
-                            continue;
-                        }
-                        
-                        // Create assessment
-                        Assessment assessment = new Assessment();
-                        assessment.setModule(module);
-                        assessment.setTitle(assessmentTitle.trim());
-                        assessment.setType(type);
-                        assessment.setCurrentState(AssessmentState.DRAFT);
-                        // Exam date can be set later by admin
-                        
-                        assessmentRepository.save(assessment);
-                        assessmentCount++;
-                        assessmentsInLine++;
-                    }
-                    
-                } catch (Exception e) {
-                    errors.add("Line " + lineNumber + ": " + e.getMessage());
-                }
-            }
-            
-            if (errors.isEmpty()) {
-                job.setStatus(ImportJobStatus.COMPLETED);
-                job.setErrors("Successfully imported " + moduleCount + " modules and " + assessmentCount + " assessments");
-            } else {
-                job.setStatus(ImportJobStatus.FAILED);
-                job.setErrors("Imported " + moduleCount + " modules and " + assessmentCount + 
-                        " assessments. Errors:\n" + String.join("\n", errors));
+        Path spoolFile;
+        try {
+            Files.createDirectories(spoolDir);
+            spoolFile = spoolFileFor(job.getId());
+            try (InputStream in = file.getInputStream()) {
+                Files.copy(in, spoolFile, StandardCopyOption.REPLACE_EXISTING);
             }
-            
-        } catch (Exception e) {
-            job.setStatus(ImportJobStatus.FAILED);
-            job.setErrors("Failed to parse CSV: " + e.getMessage());
+        } catch (IOException e) {
+            return failJob(job, "Failed to store uploaded file: " + e.getMessage());
         }
         
-        return importJobRepository.save(job);
+        try {
+            jobRunner.submit(job.getId(), spoolFile);
+        } catch (TaskRejectedException e) {
+            deleteQuietly(spoolFile);
+            failJob(job, "Import queue is full");
+            throw new IllegalStateException("Import queue is full, please try again later");
+        }
+        
+        return job;
+    }
+    
+    /**
+     * Re-queue a modules import that stopped part way. The runner picks up from the
+     * job's last committed checkpoint, so lines that were already imported are not
+     * read or written again. A job still marked RUNNING can be resumed once it has
+     * gone {@code app.import.stale-after} without committing a chunk.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public CsvImportJob resumeImportJob(UUID id) {
+        CsvImportJob job = getImportJobById(id);
+        
+        if (job.getStatus() == ImportJobStatus.COMPLETED) {
+            throw new IllegalStateException("Import job has already completed");
+        }
+        
+        Path spoolFile = spoolFileFor(id);
+        if (!Files.exists(spoolFile)) {
+            throw new IllegalStateException("Import job cannot be resumed, its uploaded file is no longer available");
+        }
+        
+        // The conditional update holds across nodes; a job claimed twice from PENDING
+        // is still only run once, because the runner claims it again to start it
+        OffsetDateTime staleBefore = OffsetDateTime.now().minus(staleAfter);
+        if (jobRunner.isActive(id) || importJobRepository.claimForResume(id, staleBefore) == 0) {
+            throw new IllegalStateException("Import job is already queued or running");
+        }
+        job = getImportJobById(id);
+        
+        try {
+            jobRunner.submit(id, spoolFile);
+        } catch (TaskRejectedException e) {
+            failJob(job, "Import queue is full");
+            throw new IllegalStateException("Import queue is full, please try again later");
+        }
+        
+        return job;
     }
     
     /**
      * Import users from CSV file
      * Expected format: name,email,baseType,isExamsOfficer
      * Example: John Doe,john.doe@sheffield.ac.uk,ACADEMIC,false
+     * 
+     * Rows are parsed and validated on the calling thread in batches. Each batch is
+     * checked against existing users with one bulk email lookup, its BCrypt hashes are
+     * fanned out to the password hash pool, and it is written while the next batch
+     * is being parsed.
+     * 
+     * Every imported user gets a generated password, which is handed to the
+     * {@link PasswordResetNotifier} once the import has committed. Without a notifier
+     * the import is rejected, as nobody could be told their password.
      */
     public CsvImportJob importUsers(MultipartFile file) {
+        PasswordResetNotifier notifier = resetNotifier.getIfAvailable();
+        if (notifier == null) {
+            throw new IllegalStateException("Users cannot be imported: generated passwords cannot be delivered to users");
+        }
+        
         CsvImportJob job = new CsvImportJob(file.getOriginalFilename());
         job.setStatus(ImportJobStatus.RUNNING);
         job = importJobRepository.save(job);
         
-        List<String> errors = new ArrayList<>();
+        ImportErrorBuffer errors = newErrorBuffer(job);
         int successCount = 0;
         
         try (Reader reader = new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8);
@@ -288,78 +231,45 @@ public class CsvImportService {
                      .build())) {
             
             int lineNumber = 1; // Start at 1 (header is 0)
+            Set<String> emailsInFile = new HashSet<>();
+            List<PendingUser> batch = new ArrayList<>();
+            List<PendingUser> hashing = new ArrayList<>();
             
             for (CSVRecord record : csvParser) {
                 lineNumber++;
                 try {
-                    String name = record.get("name");
-                    String email = record.get("email");
-                    String baseTypeStr = record.get("baseType");
-                    String isExamsOfficerStr = record.get("isExamsOfficer");
-                    
-                    // Validate required fields
-                    if (name == null || name.trim().isEmpty()) {
-                        errors.add("Line " + lineNumber + ": Name is required");
-                        continue;
-                    }
-                    if (email == null || email.trim().isEmpty()) {
-                        errors.add("Line " + lineNumber + ": Email is required");
-                        continue;
-                    }
-                    if (baseTypeStr == null || baseTypeStr.trim().isEmpty()) {
-                        errors.add("Line " + lineNumber + ": Base type is required");
-                        continue;
-                    }
-                    
-                    // Check if user already exists
-                    if (userRepository.findByEmail(email.trim()).isPresent()) {
-                        errors.add("Line " + lineNumber + ": User with email " + email + " already exists");
+                    PendingUser pending = parseUserRecord(record, lineNumber, errors);
+                    if (pending == null) {
                         continue;
                     }
-                    
-                    // Parse base type
-                    UserBaseType baseType;
-                    try {
-                        baseType = UserBaseType.valueOf(baseTypeStr.trim().toUpperCase());
-                    } catch (IllegalArgumentException e) {
-                        errors.add("Line " + lineNumber + ": Invalid base type '" + baseTypeStr + "'. Must be ACADEMIC, TEACHING_SUPPORT, or EXTERNAL_EXAMINER");
+                    if (!emailsInFile.add(pending.email)) {
+                        errors.add(lineNumber, "email", ImportErrorCode.DUPLICATE_IN_FILE,
+                                "Email " + pending.email + " appears more than once in the file");
                         continue;
                     }
-                    
-                    // Parse isExamsOfficer
-                    boolean isExamsOfficer = false;
-                    if (isExamsOfficerStr != null && !isExamsOfficerStr.trim().isEmpty()) {
-                        isExamsOfficer = Boolean.parseBoolean(isExamsOfficerStr.trim());
-                    }
-                    
-                    // Generate random password
-                    String generatedPassword = generateRandomPassword(12);
-                    
-                    // Create user
-                    User user = new User();
-                    user.setName(name.trim());
-                    user.setEmail(email.trim().toLowerCase());
-                    user.setPasswordHash(passwordEncoder.encode(generatedPassword));
-                    user.setBaseType(baseType);
-                    user.setExamsOfficer(isExamsOfficer);
-                    
-                    userRepository.save(user);
-                    successCount++;
-                    
-                    // Log the generated password (in real app, send via email)
-                    System.out.println("Created user: " + email + " with password: " + generatedPassword);
-                    
+                    batch.add(pending);
                 } catch (Exception e) {
-                    errors.add("Line " + lineNumber + ": " + e.getMessage());
+                    errors.add(lineNumber, null, ImportErrorCode.UNEXPECTED_ERROR, e.getMessage());
+                }
+                
+                if (batch.size() >= userBatchSize) {
+                    List<PendingUser> hashed = hashing;
+                    hashing = startHashing(batch, errors);
+                    successCount += writeUsers(hashed, errors, notifier);
+                    batch = new ArrayList<>();
                 }
             }
             
-            if (errors.isEmpty()) {
+            List<PendingUser> lastBatch = startHashing(batch, errors);
+            successCount += writeUsers(hashing, errors, notifier);
+            successCount += writeUsers(lastBatch, errors, notifier);
+            
+            if (errors.count() == 0) {
                 job.setStatus(ImportJobStatus.COMPLETED);
                 job.setErrors("Successfully imported " + successCount + " users");
             } else {
                 job.setStatus(ImportJobStatus.FAILED);
-                job.setErrors("Imported " + successCount + " users. Errors:\n" + String.join("\n", errors));
+                job.setErrors("Imported " + successCount + " users with " + errors.count() + " errors");
             }
             
         } catch (Exception e) {
@@ -367,7 +277,7 @@ public class CsvImportService {
             job.setErrors("Failed to parse CSV: " + e.getMessage());
         }
         
-        return importJobRepository.save(job);
+        return completeJob(job, errors);
     }
     
     /**
@@ -380,7 +290,7 @@ public class CsvImportService {
         job.setStatus(ImportJobStatus.RUNNING);
         job = importJobRepository.save(job);
         
-        List<String> errors = new ArrayList<>();
+        ImportErrorBuffer errors = newErrorBuffer(job);
         int successCount = 0;
         
         try (Reader reader = new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8);
@@ -402,17 +312,17 @@ public class CsvImportService {
                     
                     // Validate required fields
                     if (code == null || code.trim().isEmpty()) {
-                        errors.add("Line " + lineNumber + ": Module code is required");
+                        errors.add(lineNumber, "code", ImportErrorCode.MISSING_VALUE, "Module code is required");
                         continue;
                     }
                     if (title == null || title.trim().isEmpty()) {
-                        errors.add("Line " + lineNumber + ": Module title is required");
+                        errors.add(lineNumber, "title", ImportErrorCode.MISSING_VALUE, "Module title is required");
                         continue;
                     }
                     
                     // Check if module already exists
                     if (moduleRepository.findByCode(code.trim()).isPresent()) {
-                        errors.add("Line " + lineNumber + ": Module " + code + " already exists");
+                        errors.add(lineNumber, "code", ImportErrorCode.ALREADY_EXISTS, "Module " + code + " already exists");
                         continue;
                     }
                     
@@ -425,16 +335,16 @@ public class CsvImportService {
                     successCount++;
                     
                 } catch (Exception e) {
-                    errors.add("Line " + lineNumber + ": " + e.getMessage());
+                    errors.add(lineNumber, null, ImportErrorCode.UNEXPECTED_ERROR, e.getMessage());
                 }
             }
             
-            if (errors.isEmpty()) {
+            if (errors.count() == 0) {
                 job.setStatus(ImportJobStatus.COMPLETED);
                 job.setErrors("Successfully imported " + successCount + " modules");
             } else {
                 job.setStatus(ImportJobStatus.FAILED);
-                job.setErrors("Imported " + successCount + " modules. Errors:\n" + String.join("\n", errors));
+                job.setErrors("Imported " + successCount + " modules with " + errors.count() + " errors");
             }
             
         } catch (Exception e) {
@@ -442,7 +352,8 @@ public class CsvImportService {
             job.setErrors("Failed to parse CSV: " + e.getMessage());
         }
         
-        return importJobRepository.save(job);
+        moduleSearchIndex.invalidate();
+        return completeJob(job, errors);
     }
     
     /**
@@ -455,8 +366,9 @@ public class CsvImportService {
         job.setStatus(ImportJobStatus.RUNNING);
         job = importJobRepository.save(job);
         
-        List<String> errors = new ArrayList<>();
+        ImportErrorBuffer errors = newErrorBuffer(job);
         int successCount = 0;
+        List<Assessment> created = new ArrayList<>();
         
         try (Reader reader = new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8);
              CSVParser csvParser = new CSVParser(reader, CSVFormat.DEFAULT
@@ -480,15 +392,15 @@ public class CsvImportService {
                     
                     // Validate required fields
                     if (moduleCode == null || moduleCode.trim().isEmpty()) {
-                        errors.add("Line " + lineNumber + ": Module code is required");
+                        errors.add(lineNumber, "moduleCode", ImportErrorCode.MISSING_VALUE, "Module code is required");
                         continue;
                     }
                     if (title == null || title.trim().isEmpty()) {
-                        errors.add("Line " + lineNumber + ": Assessment title is required");
+                        errors.add(lineNumber, "title", ImportErrorCode.MISSING_VALUE, "Assessment title is required");
                         continue;
                     }
                     if (typeStr == null || typeStr.trim().isEmpty()) {
-                        errors.add("Line " + lineNumber + ": Assessment type is required");
+                        errors.add(lineNumber, "type", ImportErrorCode.MISSING_VALUE, "Assessment type is required");
                         continue;
                     }
                     
@@ -496,7 +408,7 @@ public class CsvImportService {
                     Optional<Module> moduleOpt = moduleRepository.findByCode(
                             moduleCode.trim().toUpperCase());
                     if (moduleOpt.isEmpty()) {
-                        errors.add("Line " + lineNumber + ": Module " + moduleCode + " not found");
+                        errors.add(lineNumber, "moduleCode", ImportErrorCode.MODULE_NOT_FOUND, "Module " + moduleCode + " not found");
                         continue;
                     }
                     
@@ -505,7 +417,8 @@ public class CsvImportService {
                     try {
                         type = AssessmentType.valueOf(typeStr.trim().toUpperCase());
                     } catch (IllegalArgumentException e) {
-                        errors.add("Line " + lineNumber + ": Invalid assessment type '" + typeStr + "'. Must be EXAM or CW");
+                        errors.add(lineNumber, "type", ImportErrorCode.INVALID_ASSESSMENT_TYPE,
+                                "Invalid assessment type '" + typeStr + "'. Must be EXAM or CW");
                         continue;
                     }
                     
@@ -515,11 +428,13 @@ public class CsvImportService {
                         try {
                             examDate = LocalDate.parse(examDateStr.trim(), dateFormatter);
                         } catch (Exception e) {
-                            errors.add("Line " + lineNumber + ": Invalid date format '" + examDateStr + "'. Use yyyy-MM-dd");
+                            errors.add(lineNumber, "examDate", ImportErrorCode.INVALID_DATE,
+                                    "Invalid date format '" + examDateStr + "'. Use yyyy-MM-dd");
                             continue;
                         }
                     } else if (type == AssessmentType.EXAM) {
-                        errors.add("Line " + lineNumber + ": Exam date is required for EXAM assessments");
+                        errors.add(lineNumber, "examDate", ImportErrorCode.MISSING_VALUE,
+                                "Exam date is required for EXAM assessments");
                         continue;
                     }
                     
@@ -531,20 +446,20 @@ public class CsvImportService {
                     assessment.setExamDate(examDate);
                     assessment.setCurrentState(AssessmentState.DRAFT);
                     
-                    assessmentRepository.save(assessment);
+                    created.add(assessmentRepository.save(assessment));
                     successCount++;
                     
                 } catch (Exception e) {
-                    errors.add("Line " + lineNumber + ": " + e.getMessage());
+                    errors.add(lineNumber, null, ImportErrorCode.UNEXPECTED_ERROR, e.getMessage());
                 }
             }
             
-            if (errors.isEmpty()) {
+            if (errors.count() == 0) {
                 job.setStatus(ImportJobStatus.COMPLETED);
                 job.setErrors("Successfully imported " + successCount + " assessments");
             } else {
                 job.setStatus(ImportJobStatus.FAILED);
-                job.setErrors("Imported " + successCount + " assessments. Errors:\n" + String.join("\n", errors));
+                job.setErrors("Imported " + successCount + " assessments with " + errors.count() + " errors");
             }
             
         } catch (Exception e) {
@@ -552,7 +467,8 @@ public class CsvImportService {
             job.setErrors("Failed to parse CSV: " + e.getMessage());
         }
         
-        return importJobRepository.save(job);
+        assessmentStateCounter.created(created);
+        return completeJob(job, errors);
     }
     
     /**
@@ -570,6 +486,189 @@ public class CsvImportService {
                 .orElseThrow(() -> new IllegalArgumentException("Import job not found: " + id));
     }
     
+    /**
+     * Page through the row-level errors recorded for an import job, in line order.
+     * Optionally filtered by error code and a starting line.
+     */
+    @Transactional(readOnly = true)
+    public PageDto<ImportErrorDto> getImportErrors(UUID jobId, ImportErrorCode code, int fromLine, int page, int size) {
+        if (!importJobRepository.existsById(jobId)) {
+            throw new IllegalArgumentException("Import job not found: " + jobId);
+        }
+        
+        PageRequest pageRequest = PageRequest.of(Math.max(page, 0), Math.max(1, Math.min(size, MAX_ERROR_PAGE_SIZE)),
+                Sort.by("lineNumber", "id"));
+        Page<CsvImportError> errors = code == null
+                ? importErrorRepository.findByJobIdAndLineNumberGreaterThanEqual(jobId, fromLine, pageRequest)
+                : importErrorRepository.findByJobIdAndCodeAndLineNumberGreaterThanEqual(jobId, code, fromLine, pageRequest);
+        
+        return new PageDto<>(
+                errors.getContent().stream().map(EntityMapper::toImportErrorDto).collect(Collectors.toList()),
+                errors.getNumber(), errors.getSize(), errors.getTotalElements(), errors.getTotalPages());
+    }
+    
+    /**
+     * Validate one user row. Returns null (after recording the error) if the row is invalid.
+     */
+    private PendingUser parseUserRecord(CSVRecord record, int lineNumber, ImportErrorBuffer errors) {
+        String name = record.get("name");
+        String email = record.get("email");
+        String baseTypeStr = record.get("baseType");
+        String isExamsOfficerStr = record.get("isExamsOfficer");
+        
+        // Validate required fields
+        if (name == null || name.trim().isEmpty()) {
+            errors.add(lineNumber, "name", ImportErrorCode.MISSING_VALUE, "Name is required");
+            return null;
+        }
+        if (email == null || email.trim().isEmpty()) {
+            errors.add(lineNumber, "email", ImportErrorCode.MISSING_VALUE, "Email is required");
+            return null;
+        }
+        if (baseTypeStr == null || baseTypeStr.trim().isEmpty()) {
+            errors.add(lineNumber, "baseType", ImportErrorCode.MISSING_VALUE, "Base type is required");
+            return null;
+        }
+        
+        // Parse base type
+        UserBaseType baseType;
+        try {
+            baseType = UserBaseType.valueOf(baseTypeStr.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            errors.add(lineNumber, "baseType", ImportErrorCode.INVALID_VALUE,
+                    "Invalid base type '" + baseTypeStr + "'. Must be ACADEMIC, TEACHING_SUPPORT, or EXTERNAL_EXAMINER");
+            return null;
+        }
+        
+        // Parse isExamsOfficer
+        boolean isExamsOfficer = false;
+        if (isExamsOfficerStr != null && !isExamsOfficerStr.trim().isEmpty()) {
+            isExamsOfficer = Boolean.parseBoolean(isExamsOfficerStr.trim());
+        }
+        
+        return new PendingUser(lineNumber, name.trim(), email.trim().toLowerCase(), baseType, isExamsOfficer);
+    }
+    
+    /**
+     * Drop users that already exist (one bulk lookup for the batch) and start
+     * hashing generated passwords for the rest on the password hash pool.
+     */
+    private List<PendingUser> startHashing(List<PendingUser> batch, ImportErrorBuffer errors) {
+        if (batch.isEmpty()) {
+            return batch;
+        }
+        
+        Set<String> existingEmails = new HashSet<>(userRepository.findExistingEmails(
+                batch.stream().map(p -> p.email).collect(Collectors.toList())));
+        
+        List<PendingUser> accepted = new ArrayList<>(batch.size());
+        for (PendingUser pending : batch) {
+            if (existingEmails.contains(pending.email)) {
+                errors.add(pending.lineNumber, "email", ImportErrorCode.ALREADY_EXISTS,
+                        "User with email " + pending.email + " already exists");
+                continue;
+            }
+            pending.password = generateRandomPassword(12);
+            String password = pending.password;
+            pending.passwordHash = CompletableFuture.supplyAsync(
+                    () -> passwordEncoder.encode(password), passwordHashExecutor);
+            accepted.add(pending);
+        }
+        return accepted;
+    }
+    
+    /**
+     * Wait for a batch's hashes and persist it as one JDBC batch. The batch's passwords
+     * are sent once the transaction commits, so no one is sent a password that was rolled back.
+     */
+    private int writeUsers(List<PendingUser> batch, ImportErrorBuffer errors, PasswordResetNotifier notifier) {
+        List<User> users = new ArrayList<>(batch.size());
+        List<PendingUser> written = new ArrayList<>(batch.size());
+        for (PendingUser pending : batch) {
+            try {
+                User user = new User();
+                user.setName(pending.name);
+                user.setEmail(pending.email);
+                user.setPasswordHash(pending.passwordHash.join());
+                user.setBaseType(pending.baseType);
+                user.setExamsOfficer(pending.isExamsOfficer);
+                users.add(user);
+                written.add(pending);
+            } catch (CompletionException e) {
+                errors.add(pending.lineNumber, null, ImportErrorCode.UNEXPECTED_ERROR, e.getCause().getMessage());
+            }
+        }
+        if (users.isEmpty()) {
+            return 0;
+        }
+        
+        userRepository.saveAll(users);
+        entityManager.flush();
+        entityManager.clear();
+        
+        List<GeneratedPassword> passwords = new ArrayList<>(users.size());
+        for (int i = 0; i < users.size(); i++) {
+            passwords.add(new GeneratedPassword(users.get(i).getId(), written.get(i).email, written.get(i).password));
+            written.get(i).password = null;
+        }
+        Runnable delivery = () -> notifyUsers(notifier, passwords);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    delivery.run();
+                }
+            });
+        } else {
+            delivery.run();
+        }
+        return users.size();
+    }
+    
+    private void notifyUsers(PasswordResetNotifier notifier, List<GeneratedPassword> passwords) {
+        for (GeneratedPassword generated : passwords) {
+            try {
+                notifier.passwordReset(generated.userId(), generated.email(), generated.password());
+            } catch (Exception e) {
+                logger.warn("Could not send the new password to user {}", generated.userId(), e);
+            }
+        }
+    }
+    
+    private ImportErrorBuffer newErrorBuffer(CsvImportJob job) {
+        return new ImportErrorBuffer(importErrorRepository, entityManager, job.getId(), userBatchSize);
+    }
+    
+    /**
+     * Write any buffered errors and save the job's final state and error count
+     */
+    private CsvImportJob completeJob(CsvImportJob job, ImportErrorBuffer errors) {
+        errors.flush();
+        referenceDataCache.evictAll();
+        job.setErrorCount(errors.count());
+        job.setFinishedAt(OffsetDateTime.now());
+        return importJobRepository.save(job);
+    }
+    
+    private CsvImportJob failJob(CsvImportJob job, String message) {
+        job.setStatus(ImportJobStatus.FAILED);
+        job.setErrors(message);
+        job.setFinishedAt(OffsetDateTime.now());
+        return importJobRepository.save(job);
+    }
+    
+    private Path spoolFileFor(UUID jobId) {
+        return spoolDir.resolve(jobId + ".csv");
+    }
+    
+    private void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ignored) {
+            // Spool directory is temporary storage
+        }
+    }
+    
     /**
      * Generate a random secure password
      */
@@ -580,4 +679,30 @@ public class CsvImportService {
         }
         return password.toString();
     }
+    
+    /**
+     * A written user's generated password, held only until it has been delivered
+     */
+    private record GeneratedPassword(UUID userId, String email, String password) {}
+    
+    /**
+     * A validated user row waiting for its password hash
+     */
+    private static class PendingUser {
+        private final int lineNumber;
+        private final String name;
+        private final String email;
+        private final UserBaseType baseType;
+        private final boolean isExamsOfficer;
+        private String password;
+        private CompletableFuture<String> passwordHash;
+        
+        private PendingUser(int lineNumber, String name, String email, UserBaseType baseType, boolean isExamsOfficer) {
+            this.lineNumber = lineNumber;
+            this.name = name;
+            this.email = email;
+            this.baseType = baseType;
+            this.isExamsOfficer = isExamsOfficer;
+        }
+    }
 }
@@ -0,0 +1,153 @@
+package uk.ac.sheffield.Assessment_management_tool.service;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.multipart.MultipartFile;
+import uk.ac.sheffield.Assessment_management_tool.domain.enums.ImportErrorCode;
+import uk.ac.sheffield.Assessment_management_tool.dto.response.ImportErrorDto;
+import uk.ac.sheffield.Assessment_management_tool.dto.response.ImportValidationDto;
+import uk.ac.sheffield.Assessment_management_tool.repository.UserRepository;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Validate-only run of a modules-with-assessments import.
+ *
+ * Staff named in the file are loaded once with bulk IN queries, then the lines
+ * are checked in parallel chunks against that in-memory snapshot using the same
+ * rules as the import ({@link ModuleCsvRow}). Nothing is written.
+ */
+@Service
+@Transactional(readOnly = true)
+public class CsvImportValidator {
+    
+    private static final int SAMPLE_SIZE = 50;
+    
+    private final UserRepository userRepository;
+    private final Executor validationExecutor;
+    private final int chunkSize;
+    
+    public CsvImportValidator(
+            UserRepository userRepository,
+            @Qualifier("csvValidationExecutor") Executor validationExecutor,
+            @Value("${app.import.chunk-size:500}") int chunkSize) {
+        this.userRepository = userRepository;
+        this.validationExecutor = validationExecutor;
+        this.chunkSize = chunkSize;
+    }
+    
+    public ImportValidationDto validateModulesWithAssessments(MultipartFile file) throws IOException {
+        List<CSVRecord> records;
+        try (Reader reader = new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8);
+             CSVParser csvParser = new CSVParser(reader, CSVFormat.DEFAULT
+                     .builder()
+                     .setSkipHeaderRecord(false) // No header in the file
+                     .setTrim(true)
+                     .build())) {
+            records = csvParser.getRecords();
+        }
+        
+        Set<String> staffNames = new LinkedHashSet<>();
+        records.forEach(record -> ModuleCsvRow.collectStaffNames(record, staffNames));
+        ModuleImportLookups lookups = new ModuleImportLookups();
+        for (List<String> names : ModuleImportLookups.partition(staffNames)) {
+            lookups.addUsers(userRepository.findByNameIn(names));
+        }
+        
+        // Lookups are read-only from here on, so chunks can share them
+        List<CompletableFuture<ChunkResult>> chunks = new ArrayList<>();
+        for (int start = 0; start < records.size(); start += chunkSize) {
+            int firstLine = start + 1;
+            List<CSVRecord> chunk = records.subList(start, Math.min(start + chunkSize, records.size()));
+            chunks.add(CompletableFuture.supplyAsync(
+                    () -> validateChunk(chunk, firstLine, lookups), validationExecutor));
+        }
+        
+        // Merge in file order so the sample holds the earliest errors
+        ChunkResult total = new ChunkResult();
+        for (CompletableFuture<ChunkResult> chunk : chunks) {
+            total.merge(chunk.join());
+        }
+        
+        ImportValidationDto dto = new ImportValidationDto();
+        dto.setTotalLines(records.size());
+        dto.setInvalidLines(total.invalidLines);
+        dto.setErrorCount(total.errorCount);
+        dto.setErrorsByCode(total.errorsByCode);
+        dto.setSampleErrors(total.sample);
+        dto.setValid(total.errorCount == 0);
+        return dto;
+    }
+    
+    private ChunkResult validateChunk(List<CSVRecord> chunk, int firstLine, ModuleImportLookups lookups) {
+        ChunkResult result = new ChunkResult();
+        int lineNumber = firstLine;
+        for (CSVRecord record : chunk) {
+            try {
+                ModuleCsvRow.parse(record, lineNumber, lookups, result);
+            } catch (Exception e) {
+                result.add(lineNumber, null, ImportErrorCode.UNEXPECTED_ERROR, e.getMessage());
+            }
+            lineNumber++;
+        }
+        return result;
+    }
+    
+    /**
+     * Error counts and the first few errors for one chunk of lines
+     */
+    private static class ChunkResult implements ImportErrorSink {
+        private final Map<ImportErrorCode, Integer> errorsByCode = new EnumMap<>(ImportErrorCode.class);
+        private final List<ImportErrorDto> sample = new ArrayList<>();
+        private int errorCount = 0;
+        private int invalidLines = 0;
+        private int lastInvalidLine = 0;
+        
+        @Override
+        public void add(int lineNumber, String column, ImportErrorCode code, String message) {
+            errorsByCode.merge(code, 1, Integer::sum);
+            errorCount++;
+            // Lines are checked in order, so a new line number means a new invalid line
+            if (lineNumber != lastInvalidLine) {
+                invalidLines++;
+                lastInvalidLine = lineNumber;
+            }
+            if (sample.size() < SAMPLE_SIZE) {
+                ImportErrorDto error = new ImportErrorDto();
+                error.setLineNumber(lineNumber);
+                error.setColumn(column);
+                error.setCode(code);
+                error.setMessage(message);
+                sample.add(error);
+            }
+        }
+        
+        private void merge(ChunkResult other) {
+            other.errorsByCode.forEach((code, count) -> errorsByCode.merge(code, count, Integer::sum));
+            errorCount += other.errorCount;
+            invalidLines += other.invalidLines;
+            for (ImportErrorDto error : other.sample) {
+                if (sample.size() >= SAMPLE_SIZE) {
+                    break;
+                }
+                sample.add(error);
+            }
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package uk.ac.sheffield.Assessment_management_tool.service;
+
+import jakarta.persistence.EntityManager;
+import uk.ac.sheffield.Assessment_management_tool.domain.entity.CsvImportError;
+import uk.ac.sheffield.Assessment_management_tool.domain.entity.CsvImportJob;
+import uk.ac.sheffield.Assessment_management_tool.domain.enums.ImportErrorCode;
+import uk.ac.sheffield.Assessment_management_tool.repository.CsvImportErrorRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Collects row-level errors for one import job and writes them to csv_import_error
+ * in batches, so only the current batch is held in memory however bad the file is.
+ *
+ * Writes join the caller's transaction; call {@link #flush()} before it commits.
+ */
+class ImportErrorBuffer implements ImportErrorSink {
+    
+    private static final int MAX_MESSAGE_LENGTH = 1000;
+    
+    private final CsvImportErrorRepository errorRepository;
+    private final EntityManager entityManager;
+    private final UUID jobId;
+    private final int batchSize;
+    private final List<CsvImportError> pending = new ArrayList<>();
+    private int count = 0;
+    
+    ImportErrorBuffer(CsvImportErrorRepository errorRepository, EntityManager entityManager,
+                      UUID jobId, int batchSize) {
+        this.errorRepository = errorRepository;
+        this.entityManager = entityManager;
+        this.jobId = jobId;
+        this.batchSize = batchSize;
+    }
+    
+    @Override
+    public void add(int lineNumber, String column, ImportErrorCode code, String message) {
+        if (message == null) {
+            message = code.name();
+        } else if (message.length() > MAX_MESSAGE_LENGTH) {
+            message = message.substring(0, MAX_MESSAGE_LENGTH);
+        }
+        pending.add(new CsvImportError(null, lineNumber, column, code, message));
+        count++;
+        
+        if (pending.size() >= batchSize) {
+            flush();
+        }
+    }
+    
+    void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        // Reference is resolved per batch because callers clear the persistence context
+        CsvImportJob job = entityManager.getReference(CsvImportJob.class, jobId);
+        pending.forEach(error -> error.setJob(job));
+        errorRepository.saveAll(pending);
+        pending.clear();
+    }
+    
+    /**
+     * Total errors recorded for the job, including batches already written
+     */
+    int count() {
+        return count;
+    }
+    
+    /**
+     * Drop unwritten errors and set the running total, e.g. after a rolled-back chunk
+     */
+    void reset(int count) {
+        pending.clear();
+        this.count = count;
+    }
+}
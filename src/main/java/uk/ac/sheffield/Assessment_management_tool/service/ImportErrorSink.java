@@ -0,0 +1,11 @@
+package uk.ac.sheffield.Assessment_management_tool.service;
+
+import uk.ac.sheffield.Assessment_management_tool.domain.enums.ImportErrorCode;
+
+/**
+ * Receives row-level errors found while reading an import file
+ */
+interface ImportErrorSink {
+    
+    void add(int lineNumber, String column, ImportErrorCode code, String message);
+}
@@ -0,0 +1,204 @@
+package uk.ac.sheffield.Assessment_management_tool.service;
+
+import org.apache.commons.csv.CSVRecord;
+import uk.ac.sheffield.Assessment_management_tool.domain.entity.User;
+import uk.ac.sheffield.Assessment_management_tool.domain.enums.AssessmentType;
+import uk.ac.sheffield.Assessment_management_tool.domain.enums.ImportErrorCode;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * One line of a modules-with-assessments file after validation.
+ *
+ * Parsing does not touch the database: staff are resolved against
+ * {@link ModuleImportLookups}, so the same checks serve both the import
+ * and validate-only runs.
+ */
+class ModuleCsvRow {
+    
+    private final String code;
+    private final String title;
+    private final User lead;
+    private final List<User> moderators = new ArrayList<>();
+    private final List<AssessmentSpec> assessments = new ArrayList<>();
+    
+    private ModuleCsvRow(String code, String title, User lead) {
+        this.code = code;
+        this.title = title;
+        this.lead = lead;
+    }
+    
+    String getCode() {
+        return code;
+    }
+    
+    String getTitle() {
+        return title;
+    }
+    
+    /**
+     * The module lead, or null if the lead could not be resolved. The module itself
+     * is still imported in that case, but no staff or assessments are attached.
+     */
+    User getLead() {
+        return lead;
+    }
+    
+    List<User> getModerators() {
+        return moderators;
+    }
+    
+    List<AssessmentSpec> getAssessments() {
+        return assessments;
+    }
+    
+    /**
+     * Add the staff names referenced by a line (lead and moderators) to {@code names}
+     */
+    static void collectStaffNames(CSVRecord record, Set<String> names) {
+        if (record.size() > 2 && !record.get(2).isEmpty()) {
+            names.add(record.get(2));
+        }
+        if (record.size() > 3) {
+            for (String moderatorName : record.get(3).split(",")) {
+                if (!moderatorName.trim().isEmpty()) {
+                    names.add(moderatorName.trim());
+                }
+            }
+        }
+    }
+    
+    /**
+     * Validate a line. Returns null if the line cannot be imported at all; other
+     * problems are reported to {@code errors} and the offending parts left out.
+     */
+    static ModuleCsvRow parse(CSVRecord record, int lineNumber, ModuleImportLookups lookups, ImportErrorSink errors) {
+        if (record.size() < 2) {
+            errors.add(lineNumber, null, ImportErrorCode.INSUFFICIENT_COLUMNS, "Insufficient columns");
+            return null;
+        }
+        
+        String moduleCode = record.get(0);
+        String moduleTitle = record.get(1);
+        String moduleLead = record.size() > 2 ? record.get(2) : "";
+        String moderatorsStr = record.size() > 3 ? record.get(3) : "";
+        
+        // Validate required fields
+        if (moduleCode == null || moduleCode.trim().isEmpty()) {
+            errors.add(lineNumber, "A", ImportErrorCode.MISSING_VALUE, "Module code is required");
+            return null;
+        }
+        if (moduleTitle == null || moduleTitle.trim().isEmpty()) {
+            errors.add(lineNumber, "B", ImportErrorCode.MISSING_VALUE, "Module title is required");
+            return null;
+        }
+        if (moduleLead == null || moduleLead.trim().isEmpty()) {
+            errors.add(lineNumber, "C", ImportErrorCode.MISSING_VALUE, "Module lead is required");
+            return null;
+        }
+        
+        String code = moduleCode.trim().toUpperCase();
+        String title = moduleTitle.trim();
+        
+        // Resolve module lead (mandatory)
+        if (lookups.isAmbiguous(moduleLead.trim())) {
+            errors.add(lineNumber, "C", ImportErrorCode.AMBIGUOUS_USER,
+                    "Multiple users named '" + moduleLead.trim() + "'");
+            return new ModuleCsvRow(code, title, null);
+        }
+        Optional<User> moduleLeadUser = lookups.findUser(moduleLead.trim());
+        if (moduleLeadUser.isEmpty()) {
+            errors.add(lineNumber, "C", ImportErrorCode.USER_NOT_FOUND,
+                    "Module lead '" + moduleLead.trim() + "' not found");
+            return new ModuleCsvRow(code, title, null); // Skip staff and assessments if lead not found
+        }
+        ModuleCsvRow row = new ModuleCsvRow(code, title, moduleLeadUser.get());
+        
+        // Resolve module moderators (optional, can be multiple comma-separated)
+        if (moderatorsStr != null && !moderatorsStr.trim().isEmpty()) {
+            // Split moderator names by comma
+            String[] moderatorNames = moderatorsStr.split(",");
+            boolean foundAnyModerator = false;
+            
+            for (String moderatorName : moderatorNames) {
+                String trimmedName = moderatorName.trim();
+                if (lookups.isAmbiguous(trimmedName)) {
+                    errors.add(lineNumber, "D", ImportErrorCode.AMBIGUOUS_USER,
+                            "Multiple users named '" + trimmedName + "'");
+                } else if (!trimmedName.isEmpty()) {
+                    Optional<User> moderatorUser = lookups.findUser(trimmedName);
+                    if (moderatorUser.isPresent()) {
+                        foundAnyModerator = true;
+                        row.moderators.add(moderatorUser.get());
+                    } else {
+                        errors.add(lineNumber, "D", ImportErrorCode.USER_NOT_FOUND,
+                                "Moderator '" + trimmedName + "' not found");
+                    }
+                }
+            }
+            
+            // Only warn if none of the moderators were found
+            if (!foundAnyModerator && moderatorNames.length > 0) {
+                errors.add(lineNumber, "D", ImportErrorCode.USER_NOT_FOUND,
+                        "None of the specified moderators were found");
+            }
+        }
+        
+        // Parse assessments (starting from column 4, pairs of type and title)
+        for (int i = 4; i < record.size() - 1; i += 2) {
+            String typeStr = record.get(i);
+            String assessmentTitle = record.get(i + 1);
+            int assessmentNumber = row.assessments.size() + 1;
+            
+            // Skip empty pairs
+            if ((typeStr == null || typeStr.trim().isEmpty()) &&
+                (assessmentTitle == null || assessmentTitle.trim().isEmpty())) {
+                continue;
+            }
+            
+            if (typeStr == null || typeStr.trim().isEmpty()) {
+                errors.add(lineNumber, columnName(i), ImportErrorCode.MISSING_VALUE,
+                        "Assessment " + assessmentNumber + ": Type is required");
+                continue;
+            }
+            
+            if (assessmentTitle == null || assessmentTitle.trim().isEmpty()) {
+                errors.add(lineNumber, columnName(i + 1), ImportErrorCode.MISSING_VALUE,
+                        "Assessment " + assessmentNumber + ": Title is required");
+                continue;
+            }
+            
+            // Parse assessment type (support TEST as alias for CW)
+            String normalizedType = typeStr.trim().toUpperCase();
+            if ("TEST".equals(normalizedType)) {
+                normalizedType = "CW"; // TEST is treated as coursework
+            }
+            
+            try {
+                row.assessments.add(new AssessmentSpec(AssessmentType.valueOf(normalizedType), assessmentTitle.trim()));
+            } catch (IllegalArgumentException e) {
+                errors.add(lineNumber, columnName(i), ImportErrorCode.INVALID_ASSESSMENT_TYPE,
+                        "Assessment " + assessmentNumber + ": Invalid type '" + typeStr +
+                        "'. Must be EXAM, CW, or TEST");
+            }
+        }
+        
+        return row;
+    }
+    
+    /**
+     * Spreadsheet-style column name for a zero-based index (0 = A, 26 = AA)
+     */
+    private static String columnName(int index) {
+        StringBuilder name = new StringBuilder();
+        for (int i = index + 1; i > 0; i = (i - 1) / 26) {
+            name.insert(0, (char) ('A' + (i - 1) % 26));
+        }
+        return name.toString();
+    }
+    
+    record AssessmentSpec(AssessmentType type, String title) {}
+}
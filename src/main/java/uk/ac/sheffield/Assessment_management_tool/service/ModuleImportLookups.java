@@ -0,0 +1,91 @@
+package uk.ac.sheffield.Assessment_management_tool.service;
+
+import uk.ac.sheffield.Assessment_management_tool.domain.entity.Module;
+import uk.ac.sheffield.Assessment_management_tool.domain.entity.User;
+import uk.ac.sheffield.Assessment_management_tool.domain.enums.ModuleRole;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * In-memory lookup tables for one modules-with-assessments import.
+ *
+ * Modules, staff and existing module_staff_role tuples referenced by the file
+ * are bulk-loaded once up front, so rows resolve against these maps instead
+ * of querying the database per line.
+ */
+class ModuleImportLookups {
+    
+    /**
+     * Maximum values bound into one IN query
+     */
+    static final int LOOKUP_BATCH_SIZE = 1000;
+    
+    private final Map<String, Module> modulesByCode = new HashMap<>();
+    private final Map<String, User> usersByName = new HashMap<>();
+    private final Set<String> ambiguousNames = new HashSet<>();
+    private final Set<StaffRoleKey> staffRoles = new HashSet<>();
+    
+    void addModules(List<Module> modules) {
+        modules.forEach(this::putModule);
+    }
+    
+    void addUsers(List<User> users) {
+        for (User user : users) {
+            if (usersByName.putIfAbsent(user.getName(), user) != null) {
+                ambiguousNames.add(user.getName());
+            }
+        }
+    }
+    
+    void addStaffRole(UUID moduleId, UUID userId, ModuleRole role) {
+        staffRoles.add(new StaffRoleKey(moduleId, userId, role));
+    }
+    
+    Optional<Module> findModule(String code) {
+        return Optional.ofNullable(modulesByCode.get(code));
+    }
+    
+    void putModule(Module module) {
+        modulesByCode.put(module.getCode(), module);
+    }
+    
+    boolean isAmbiguous(String name) {
+        return ambiguousNames.contains(name);
+    }
+    
+    /**
+     * Find a user by exact name. Names shared by several users cannot be resolved.
+     */
+    Optional<User> findUser(String name) {
+        if (ambiguousNames.contains(name)) {
+            throw new IllegalArgumentException("Multiple users named '" + name + "'");
+        }
+        return Optional.ofNullable(usersByName.get(name));
+    }
+    
+    boolean hasStaffRole(Module module, User user, ModuleRole role) {
+        return staffRoles.contains(new StaffRoleKey(module.getId(), user.getId(), role));
+    }
+    
+    /**
+     * Split values into IN-query sized batches
+     */
+    static <T> List<List<T>> partition(Collection<T> values) {
+        List<T> all = new ArrayList<>(values);
+        List<List<T>> batches = new ArrayList<>();
+        for (int i = 0; i < all.size(); i += LOOKUP_BATCH_SIZE) {
+            batches.add(all.subList(i, Math.min(i + LOOKUP_BATCH_SIZE, all.size())));
+        }
+        return batches;
+    }
+    
+    private record StaffRoleKey(UUID moduleId, UUID userId, ModuleRole role) {}
+}
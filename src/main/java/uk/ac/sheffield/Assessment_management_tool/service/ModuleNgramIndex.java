@@ -0,0 +1,133 @@
+package uk.ac.sheffield.Assessment_management_tool.service;
+
+import uk.ac.sheffield.Assessment_management_tool.domain.entity.Module;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Immutable in-memory trigram index over module code and title.
+ *
+ * Used where pg_trgm is not available (H2). Trigrams, similarity and ranking
+ * follow pg_trgm and {@code ModuleSearchQueriesImpl}, so both backends
+ * return the same matches in the same order.
+ */
+class ModuleNgramIndex {
+    
+    /**
+     * pg_trgm's default similarity threshold for the {@code %} operator
+     */
+    static final double SIMILARITY_THRESHOLD = 0.3;
+    
+    private final List<Entry> entries = new ArrayList<>();
+    private final Map<String, List<Entry>> postings = new HashMap<>();
+    
+    ModuleNgramIndex(Collection<Module> modules) {
+        for (Module module : modules) {
+            Entry entry = new Entry(module.getId(), module.getCode(),
+                    module.getCode().toLowerCase(Locale.ROOT), module.getTitle().toLowerCase(Locale.ROOT),
+                    trigrams(module.getCode()), trigrams(module.getTitle()));
+            entries.add(entry);
+            Set<String> grams = new HashSet<>(entry.codeGrams());
+            grams.addAll(entry.titleGrams());
+            for (String gram : grams) {
+                postings.computeIfAbsent(gram, g -> new ArrayList<>()).add(entry);
+            }
+        }
+    }
+    
+    /**
+     * Ids of modules whose code or title contains the query, or whose title is
+     * similar to it, best first
+     */
+    List<UUID> rank(String query) {
+        String needle = query.toLowerCase(Locale.ROOT);
+        Set<String> queryGrams = trigrams(query);
+        
+        List<Scored> matches = new ArrayList<>();
+        for (Entry entry : candidates(needle, queryGrams)) {
+            double titleSimilarity = similarity(queryGrams, entry.titleGrams());
+            boolean contains = entry.code().contains(needle) || entry.title().contains(needle);
+            if (!contains && titleSimilarity < SIMILARITY_THRESHOLD) {
+                continue;
+            }
+            
+            int boost = entry.code().equals(needle) ? 3 : entry.code().startsWith(needle) ? 2 : 0;
+            double score = boost + Math.max(similarity(queryGrams, entry.codeGrams()), titleSimilarity);
+            matches.add(new Scored(entry, score));
+        }
+        
+        matches.sort(Comparator.comparingDouble(Scored::score).reversed()
+                .thenComparing(scored -> scored.entry().originalCode()));
+        return matches.stream().map(scored -> scored.entry().id()).collect(Collectors.toList());
+    }
+    
+    /**
+     * Entries sharing at least one trigram with the query. Any substring match
+     * shares the leading trigram of each query word of three or more characters;
+     * shorter queries have no such word and fall back to a scan.
+     */
+    private Collection<Entry> candidates(String needle, Set<String> queryGrams) {
+        boolean hasLongWord = false;
+        for (String word : needle.split("[^\\p{Alnum}]+")) {
+            hasLongWord |= word.length() >= 3;
+        }
+        if (!hasLongWord) {
+            return entries;
+        }
+        
+        // Identity set: entries are unique per module and hashing their trigram sets is wasted work
+        Set<Entry> candidates = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (String gram : queryGrams) {
+            candidates.addAll(postings.getOrDefault(gram, List.of()));
+        }
+        return candidates;
+    }
+    
+    /**
+     * Trigrams as pg_trgm builds them: lower-cased alphanumeric words, each
+     * padded with two spaces in front and one behind
+     */
+    static Set<String> trigrams(String text) {
+        Set<String> grams = new HashSet<>();
+        for (String word : text.toLowerCase(Locale.ROOT).split("[^\\p{Alnum}]+")) {
+            if (word.isEmpty()) {
+                continue;
+            }
+            String padded = "  " + word + " ";
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                grams.add(padded.substring(i, i + 3));
+            }
+        }
+        return grams;
+    }
+    
+    private static double similarity(Set<String> a, Set<String> b) {
+        if (a.isEmpty() || b.isEmpty()) {
+            return 0;
+        }
+        int shared = 0;
+        for (String gram : a) {
+            if (b.contains(gram)) {
+                shared++;
+            }
+        }
+        return (double) shared / (a.size() + b.size() - shared);
+    }
+    
+    private record Entry(UUID id, String originalCode, String code, String title,
+                         Set<String> codeGrams, Set<String> titleGrams) {}
+    
+    private record Scored(Entry entry, double score) {}
+}
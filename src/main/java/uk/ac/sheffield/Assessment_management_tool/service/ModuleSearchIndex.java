@@ -0,0 +1,117 @@
+package uk.ac.sheffield.Assessment_management_tool.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import uk.ac.sheffield.Assessment_management_tool.repository.ModuleRepository;
+import uk.ac.sheffield.Assessment_management_tool.repository.ModuleSearchQueries.RankedPage;
+
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Ranked module search.
+ *
+ * On PostgreSQL the search, its scope and paging all run in one query against the
+ * pg_trgm indexes. Elsewhere (H2) it runs against a {@link ModuleNgramIndex} built
+ * from the module table on first use and rebuilt after {@link #invalidate()}.
+ */
+@Component
+class ModuleSearchIndex {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ModuleSearchIndex.class);
+    
+    private final ModuleRepository moduleRepository;
+    private final boolean trigramSupported;
+    private final AtomicLong generation = new AtomicLong();
+    private volatile ModuleNgramIndex ngramIndex;
+    
+    ModuleSearchIndex(ModuleRepository moduleRepository, DataSource dataSource) {
+        this.moduleRepository = moduleRepository;
+        this.trigramSupported = "PostgreSQL".equals(databaseProductName(dataSource));
+        logger.info("Module search uses {}", trigramSupported ? "pg_trgm indexes" : "in-memory trigram index");
+    }
+    
+    /**
+     * One page of the ids of modules matching the query, best first, and the total
+     * number of matches. Null scope filters are ignored; see {@link ModuleRepository#findIdsInScope}.
+     */
+    RankedPage search(String query, UUID userId, LocalDate yearStart, LocalDate yearEnd, int offset, int limit) {
+        String trimmed = query.trim();
+        if (trigramSupported) {
+            return moduleRepository.searchRanked(trimmed, userId, yearStart, yearEnd, offset, limit);
+        }
+        
+        List<UUID> ranked = ngramIndex().rank(trimmed);
+        if (userId != null || yearStart != null) {
+            Set<UUID> inScope = new HashSet<>(moduleRepository.findIdsInScope(userId, yearStart, yearEnd));
+            ranked = ranked.stream().filter(inScope::contains).collect(Collectors.toList());
+        }
+        int from = Math.min(offset, ranked.size());
+        return new RankedPage(List.copyOf(ranked.subList(from, Math.min(from + limit, ranked.size()))),
+                ranked.size());
+    }
+    
+    /**
+     * Drop the in-memory index once the current transaction commits, so the next
+     * search sees modules created, renamed or deleted by it
+     */
+    void invalidate() {
+        if (trigramSupported) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    discard();
+                }
+            });
+        } else {
+            discard();
+        }
+    }
+    
+    private void discard() {
+        generation.incrementAndGet();
+        ngramIndex = null;
+    }
+    
+    private ModuleNgramIndex ngramIndex() {
+        ModuleNgramIndex index = ngramIndex;
+        if (index == null) {
+            synchronized (this) {
+                index = ngramIndex;
+                if (index == null) {
+                    // An invalidation during the rebuild means it may have read stale rows
+                    long built = generation.get();
+                    index = new ModuleNgramIndex(moduleRepository.findAll());
+                    if (generation.get() == built) {
+                        ngramIndex = index;
+                    }
+                }
+            }
+        }
+        return index;
+    }
+    
+    private static String databaseProductName(DataSource dataSource) {
+        try {
+            return JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+        } catch (MetaDataAccessException e) {
+            logger.warn("Could not determine database type, using in-memory module search", e);
+            return null;
+        }
+    }
+}
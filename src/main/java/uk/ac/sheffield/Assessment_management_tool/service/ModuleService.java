@@ -1,7 +1,11 @@
 package uk.ac.sheffield.Assessment_management_tool.service;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import uk.ac.sheffield.Assessment_management_tool.cache.ReferenceDataCache;
 import uk.ac.sheffield.Assessment_management_tool.domain.entity.Module;
 import uk.ac.sheffield.Assessment_management_tool.domain.entity.ModuleStaffRole;
 import uk.ac.sheffield.Assessment_management_tool.domain.entity.User;
@@ -10,34 +14,49 @@ import uk.ac.sheffield.Assessment_management_tool.domain.enums.UserBaseType;
 import uk.ac.sheffield.Assessment_management_tool.dto.request.CreateModuleRequest;
 import uk.ac.sheffield.Assessment_management_tool.dto.response.ModuleDto;
 import uk.ac.sheffield.Assessment_management_tool.dto.response.ModuleStaffDto;
+import uk.ac.sheffield.Assessment_management_tool.dto.response.PageDto;
 import uk.ac.sheffield.Assessment_management_tool.dto.response.UserDto;
 import uk.ac.sheffield.Assessment_management_tool.mapper.EntityMapper;
-import uk.ac.sheffield.Assessment_management_tool.repository.AssessmentRepository;
 import uk.ac.sheffield.Assessment_management_tool.repository.ModuleRepository;
+import uk.ac.sheffield.Assessment_management_tool.repository.ModuleSearchQueries.RankedPage;
 import uk.ac.sheffield.Assessment_management_tool.repository.ModuleStaffRoleRepository;
 import uk.ac.sheffield.Assessment_management_tool.repository.UserRepository;
 
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 @Service
 @Transactional
 public class ModuleService {
     
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final Pattern ACADEMIC_YEAR = Pattern.compile("(\\d{4})(?:[/-](?:\\d{2}|\\d{4}))?");
+    
     private final ModuleRepository moduleRepository;
     private final ModuleStaffRoleRepository moduleStaffRoleRepository;
     private final UserRepository userRepository;
-    private final AssessmentRepository assessmentRepository;
+    private final ModuleSearchIndex moduleSearchIndex;
+    private final ReferenceDataCache referenceDataCache;
     
     public ModuleService(ModuleRepository moduleRepository, 
                         ModuleStaffRoleRepository moduleStaffRoleRepository,
                         UserRepository userRepository,
-                        AssessmentRepository assessmentRepository) {
+                        ModuleSearchIndex moduleSearchIndex,
+                        ReferenceDataCache referenceDataCache) {
         this.moduleRepository = moduleRepository;
         this.moduleStaffRoleRepository = moduleStaffRoleRepository;
         this.userRepository = userRepository;
-        this.assessmentRepository = assessmentRepository;
+        this.moduleSearchIndex = moduleSearchIndex;
+        this.referenceDataCache = referenceDataCache;
     }
     
     public ModuleDto createModule(CreateModuleRequest request) {
@@ -47,13 +66,14 @@ public class ModuleService {
         
         Module module = new Module(request.getCode(), request.getTitle());
         module = moduleRepository.save(module);
+        moduleSearchIndex.invalidate();
         
         assignStaffToModule(module, request);
         return EntityMapper.toModuleDto(module);
     }
     
     public ModuleDto getModuleById(UUID id) {
-        Module module = moduleRepository.findById(id)
+        Module module = referenceDataCache.findModule(id)
                 .orElseThrow(() -> new IllegalArgumentException("Module not found"));
         
         ModuleDto dto = EntityMapper.toModuleDto(module);
@@ -74,22 +94,44 @@ public class ModuleService {
     }
     
     public List<ModuleDto> getAllModules() {
-        return moduleRepository.findAll().stream()
-                .map(this::enrichModuleDto)
-                .collect(Collectors.toList());
+        return toListingDtos(moduleRepository.findAll(), null);
     }
     
-    public List<ModuleDto> searchModules(String search, String year, UUID currentUserId) {
-        List<Module> modules = search == null ? 
-                moduleRepository.findAll() : moduleRepository.searchModules(search);
+    /**
+     * One page of the module listing. With a search, modules are ranked and paged by
+     * {@link ModuleSearchIndex}; without one they are ordered by code. Academics
+     * and external examiners only see their own modules. {@code year} is an
+     * academic year such as {@code 2024/25} and keeps modules with an exam in it.
+     * With {@code mine}, everyone only sees the modules where they hold a staff role.
+     */
+    @Transactional(readOnly = true)
+    public PageDto<ModuleDto> searchModules(String search, String year, boolean mine, UUID currentUserId,
+                                            int page, int size) {
+        page = Math.max(page, 0);
+        size = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        
+        UUID scopeUserId = mine && currentUserId != null ? currentUserId : scopeUserId(currentUserId);
+        LocalDate yearStart = year == null || year.isBlank() ? null : academicYearStart(year.trim());
+        LocalDate yearEnd = yearStart == null ? null : yearStart.plusYears(1);
         
-        if (currentUserId != null) {
-            modules = filterModulesForUser(modules, currentUserId);
+        if (search == null || search.isBlank()) {
+            Page<Module> modules = moduleRepository.findInScope(scopeUserId, yearStart, yearEnd,
+                    PageRequest.of(page, size, Sort.by("code")));
+            return new PageDto<>(toListingDtos(modules.getContent(), currentUserId),
+                    page, size, modules.getTotalElements(), modules.getTotalPages());
         }
         
-        return modules.stream()
-                .map(module -> enrichModuleDtoForUser(module, currentUserId))
+        int offset = (int) Math.min((long) page * size, Integer.MAX_VALUE);
+        RankedPage ranked = moduleSearchIndex.search(search, scopeUserId, yearStart, yearEnd, offset, size);
+        Map<UUID, Module> modulesById = moduleRepository.findAllById(ranked.ids()).stream()
+                .collect(Collectors.toMap(Module::getId, Function.identity()));
+        List<Module> modules = ranked.ids().stream()
+                .map(modulesById::get)
+                .filter(Objects::nonNull)
                 .collect(Collectors.toList());
+        
+        int totalPages = (int) ((ranked.total() + size - 1) / size);
+        return new PageDto<>(toListingDtos(modules, currentUserId), page, size, ranked.total(), totalPages);
     }
     
     public ModuleDto updateModule(UUID id, CreateModuleRequest request) {
@@ -99,6 +141,8 @@ public class ModuleService {
         module.setCode(request.getCode());
         module.setTitle(request.getTitle());
         module = moduleRepository.save(module);
+        moduleSearchIndex.invalidate();
+        referenceDataCache.evictModule(id);
         
         moduleStaffRoleRepository.deleteAll(moduleStaffRoleRepository.findByModuleId(id));
         assignStaffToModule(module, request);
@@ -112,6 +156,8 @@ public class ModuleService {
         
         moduleStaffRoleRepository.deleteAll(moduleStaffRoleRepository.findByModuleId(id));
         moduleRepository.delete(module);
+        moduleSearchIndex.invalidate();
+        referenceDataCache.evictModule(id);
     }
     
     public void addExternalExaminer(UUID moduleId, UUID userId) {
@@ -126,6 +172,7 @@ public class ModuleService {
         }
         
         moduleStaffRoleRepository.save(new ModuleStaffRole(module, user, ModuleRole.STAFF));
+        referenceDataCache.evictModule(moduleId);
     }
     
     public void removeExternalExaminer(UUID moduleId, UUID userId) {
@@ -137,6 +184,7 @@ public class ModuleService {
         
         moduleStaffRoleRepository.deleteAll(
                 moduleStaffRoleRepository.findByModuleAndUser(module, user));
+        referenceDataCache.evictModule(moduleId);
     }
     
     private void assignStaffToModule(Module module, CreateModuleRequest request) {
@@ -163,49 +211,63 @@ public class ModuleService {
         }
     }
     
-    private ModuleDto enrichModuleDto(Module module) {
-        ModuleDto dto = EntityMapper.toModuleDto(module);
-        List<ModuleStaffRole> staffRoles = moduleStaffRoleRepository.findByModuleId(module.getId());
-        
-        dto.setStaffCount((int) staffRoles.stream()
-                .filter(sr -> sr.getUser().getBaseType() != UserBaseType.EXTERNAL_EXAMINER)
-                .count());
-        dto.setAssessmentCount(assessmentRepository.findByModuleId(module.getId()).size());
-        dto.setExternalExaminers(staffRoles.stream()
-                .filter(sr -> sr.getUser().getBaseType() == UserBaseType.EXTERNAL_EXAMINER)
-                .map(sr -> EntityMapper.toUserDto(sr.getUser()))
-                .collect(Collectors.toList()));
-        
-        return dto;
-    }
-    
-    private ModuleDto enrichModuleDtoForUser(Module module, UUID userId) {
-        ModuleDto dto = enrichModuleDto(module);
-        
-        if (userId != null) {
-            moduleStaffRoleRepository.findByModuleId(module.getId()).stream()
-                    .filter(sr -> sr.getUser().getId().equals(userId))
-                    .findFirst()
-                    .ifPresent(sr -> dto.setUserRole(sr.getRole().name()));
+    /**
+     * Build listing DTOs with two queries in total, however many modules there are:
+     * one grouped query for the counts and the user's role, one for external examiners.
+     */
+    private List<ModuleDto> toListingDtos(List<Module> modules, UUID userId) {
+        if (modules.isEmpty()) {
+            return new ArrayList<>();
         }
         
-        return dto;
+        List<UUID> moduleIds = modules.stream().map(Module::getId).collect(Collectors.toList());
+        Map<UUID, ModuleRepository.ModuleSummary> summaries = moduleRepository.findSummaries(moduleIds, userId).stream()
+                .collect(Collectors.toMap(ModuleRepository.ModuleSummary::getModuleId, Function.identity()));
+        Map<UUID, List<UserDto>> externalExaminers = moduleStaffRoleRepository.findExternalExaminersByModuleIds(moduleIds).stream()
+                .collect(Collectors.groupingBy(sr -> sr.getModule().getId(),
+                        Collectors.mapping(sr -> EntityMapper.toUserDto(sr.getUser()), Collectors.toList())));
+        
+        return modules.stream()
+                .map(module -> {
+                    ModuleDto dto = EntityMapper.toModuleDto(module);
+                    ModuleRepository.ModuleSummary summary = summaries.get(module.getId());
+                    if (summary != null) {
+                        dto.setStaffCount((int) summary.getStaffCount());
+                        dto.setAssessmentCount((int) summary.getAssessmentCount());
+                        if (userId != null && summary.getUserRole() != null) {
+                            dto.setUserRole(summary.getUserRole().name());
+                        }
+                    }
+                    dto.setExternalExaminers(externalExaminers.getOrDefault(module.getId(), new ArrayList<>()));
+                    return dto;
+                })
+                .collect(Collectors.toList());
     }
     
-    private List<Module> filterModulesForUser(List<Module> modules, UUID userId) {
-        User user = userRepository.findById(userId).orElse(null);
-        if (user == null) return modules;
+    /**
+     * The user id to restrict a listing to, or null when the user sees every module
+     */
+    private UUID scopeUserId(UUID userId) {
+        if (userId == null) return null;
+        User user = referenceDataCache.findUser(userId).orElse(null);
+        if (user == null) return null;
         
         UserBaseType baseType = user.getBaseType();
         if (baseType == UserBaseType.ACADEMIC || baseType == UserBaseType.EXTERNAL_EXAMINER) {
-            List<UUID> userModuleIds = moduleStaffRoleRepository.findByUserId(userId).stream()
-                    .map(role -> role.getModule().getId())
-                    .collect(Collectors.toList());
-            return modules.stream()
-                    .filter(module -> userModuleIds.contains(module.getId()))
-                    .collect(Collectors.toList());
+            return userId;
         }
-        
-        return modules;
+        return null;
+    }
+    
+    /**
+     * First day of an academic year given as 2024/25, 2024-25, 2024/2025 or 2024.
+     * Academic years run from 1 September.
+     */
+    private static LocalDate academicYearStart(String year) {
+        Matcher matcher = ACADEMIC_YEAR.matcher(year);
+        if (!matcher.matches()) {
+            throw new IllegalArgumentException("Invalid academic year: " + year);
+        }
+        return LocalDate.of(Integer.parseInt(matcher.group(1)), Month.SEPTEMBER, 1);
     }
 }
@@ -0,0 +1,18 @@
+package uk.ac.sheffield.Assessment_management_tool.service;
+
+import java.util.UUID;
+
+/**
+ * Delivers a generated password to the user it was set for, e.g. by email.
+ *
+ * Bulk password resets only generate passwords when a bean of this type exists;
+ * without one a reset must give a password to share. Implementations must never
+ * log or store the password.
+ */
+public interface PasswordResetNotifier {
+    
+    /**
+     * Called after the new password hash has been committed
+     */
+    void passwordReset(UUID userId, String email, String temporaryPassword);
+}
@@ -0,0 +1,240 @@
+package uk.ac.sheffield.Assessment_management_tool.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import uk.ac.sheffield.Assessment_management_tool.cache.ReferenceDataCache;
+import uk.ac.sheffield.Assessment_management_tool.domain.entity.PasswordRotationJob;
+import uk.ac.sheffield.Assessment_management_tool.domain.enums.ImportJobStatus;
+import uk.ac.sheffield.Assessment_management_tool.domain.enums.UserBaseType;
+import uk.ac.sheffield.Assessment_management_tool.repository.PasswordRotationJobRepository;
+import uk.ac.sheffield.Assessment_management_tool.repository.UserRepository;
+
+import java.security.SecureRandom;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+/**
+ * Runs bulk password resets on the background job executor.
+ *
+ * Matching users are read as keyset pages of (id, email), never the whole
+ * table. Each page's passwords are hashed in parallel on the password hash pool
+ * while the previous page is written, and each page is written with one
+ * {@code UPDATE ... WHERE id IN (...)} in its own transaction together with the
+ * job's progress counters. Generated passwords are handed to the
+ * {@link PasswordResetNotifier} once their chunk has committed, and are never
+ * logged or stored.
+ */
+@Component
+public class PasswordRotationJobRunner {
+    
+    private static final Logger logger = LoggerFactory.getLogger(PasswordRotationJobRunner.class);
+    private static final String CHARACTERS = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789!@#$%^&*";
+    private static final SecureRandom RANDOM = new SecureRandom();
+    
+    private final UserRepository userRepository;
+    private final PasswordRotationJobRepository jobRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final ReferenceDataCache referenceDataCache;
+    private final ObjectProvider<PasswordResetNotifier> resetNotifier;
+    private final TaskExecutor jobExecutor;
+    private final Executor passwordHashExecutor;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    
+    public PasswordRotationJobRunner(
+            UserRepository userRepository,
+            PasswordRotationJobRepository jobRepository,
+            PasswordEncoder passwordEncoder,
+            ReferenceDataCache referenceDataCache,
+            ObjectProvider<PasswordResetNotifier> resetNotifier,
+            @Qualifier("csvImportExecutor") TaskExecutor jobExecutor,
+            @Qualifier("passwordHashExecutor") Executor passwordHashExecutor,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.security.password-rotation.chunk-size:200}") int chunkSize) {
+        this.userRepository = userRepository;
+        this.jobRepository = jobRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.referenceDataCache = referenceDataCache;
+        this.resetNotifier = resetNotifier;
+        this.jobExecutor = jobExecutor;
+        this.passwordHashExecutor = passwordHashExecutor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+    }
+    
+    /**
+     * Whether passwords can be generated per user, i.e. there is a way to tell users theirs
+     */
+    public boolean canDeliverGeneratedPasswords() {
+        return resetNotifier.getIfAvailable() != null;
+    }
+    
+    /**
+     * Hand a job to the background executor.
+     * Throws {@link org.springframework.core.task.TaskRejectedException} when the queue is full.
+     */
+    public void submit(UUID jobId, Selection selection) {
+        jobExecutor.execute(() -> run(jobId, selection));
+    }
+    
+    void run(UUID jobId, Selection selection) {
+        Progress progress = new Progress();
+        try {
+            if (selection.password() == null && !canDeliverGeneratedPasswords()) {
+                // Checked before any write so nobody is left with a password they were never sent
+                throw new IllegalStateException("No password reset notifier is configured");
+            }
+            transactionTemplate.executeWithoutResult(status -> {
+                PasswordRotationJob job = loadJob(jobId);
+                job.setStatus(ImportJobStatus.RUNNING);
+                job.setStartedAt(OffsetDateTime.now());
+                job.setTotalUsers((int) userRepository.countForRotation(
+                        selection.baseType(), selection.moduleId(), selection.emails()));
+                jobRepository.save(job);
+            });
+            
+            List<PendingUser> hashing = startHashing(readPage(selection, null), selection);
+            while (!hashing.isEmpty()) {
+                UUID lastId = hashing.get(hashing.size() - 1).id();
+                // Hash the next page while this one is written
+                List<PendingUser> next = startHashing(readPage(selection, lastId), selection);
+                writeChunk(jobId, hashing, selection, progress);
+                hashing = next;
+            }
+            
+            finish(jobId, progress, null);
+        } catch (Exception e) {
+            logger.error("Password rotation job {} failed after {} users", jobId, progress.processed, e);
+            finish(jobId, progress, "Stopped after " + progress.processed + " users: " + e.getMessage());
+        } finally {
+            referenceDataCache.evictAll();
+        }
+    }
+    
+    private List<Object[]> readPage(Selection selection, UUID afterId) {
+        return transactionTemplate.execute(status -> userRepository.findRotationPage(
+                selection.baseType(), selection.moduleId(), selection.emails(), afterId, chunkSize));
+    }
+    
+    private List<PendingUser> startHashing(List<Object[]> rows, Selection selection) {
+        List<PendingUser> pending = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            String password = selection.password() != null ? selection.password() : generateRandomPassword(12);
+            pending.add(new PendingUser((UUID) row[0], (String) row[1], password,
+                    CompletableFuture.supplyAsync(() -> passwordEncoder.encode(password), passwordHashExecutor)));
+        }
+        return pending;
+    }
+    
+    /**
+     * Wait for a chunk's hashes, write them as one statement and checkpoint the job's counters
+     */
+    private void writeChunk(UUID jobId, List<PendingUser> chunk, Selection selection, Progress progress) {
+        Map<UUID, String> hashes = new LinkedHashMap<>();
+        for (PendingUser pending : chunk) {
+            try {
+                hashes.put(pending.id(), pending.passwordHash().join());
+            } catch (CompletionException e) {
+                logger.warn("Could not hash a new password for user {}", pending.id(), e.getCause());
+            }
+        }
+        
+        int updated = transactionTemplate.execute(status -> {
+            int rows = userRepository.updatePasswordHashes(hashes);
+            PasswordRotationJob job = loadJob(jobId);
+            job.setProcessedUsers(progress.processed + chunk.size());
+            job.setUpdatedUsers(progress.updated + rows);
+            jobRepository.save(job);
+            // Cached users carry the old hash and would still accept the old password
+            referenceDataCache.evictAll();
+            return rows;
+        });
+        progress.processed += chunk.size();
+        progress.updated += updated;
+        
+        if (selection.password() == null) {
+            notifyUsers(chunk, hashes);
+        }
+    }
+    
+    private void notifyUsers(List<PendingUser> chunk, Map<UUID, String> hashes) {
+        PasswordResetNotifier notifier = resetNotifier.getObject();
+        for (PendingUser pending : chunk) {
+            if (!hashes.containsKey(pending.id())) {
+                continue;
+            }
+            try {
+                notifier.passwordReset(pending.id(), pending.email(), pending.password());
+            } catch (Exception e) {
+                logger.warn("Could not send the new password to user {}", pending.id(), e);
+            }
+        }
+    }
+    
+    private void finish(UUID jobId, Progress progress, String failure) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                PasswordRotationJob job = loadJob(jobId);
+                job.setProcessedUsers(progress.processed);
+                job.setUpdatedUsers(progress.updated);
+                job.setFinishedAt(OffsetDateTime.now());
+                if (failure != null) {
+                    job.setStatus(ImportJobStatus.FAILED);
+                    job.setMessage(failure.length() > 1000 ? failure.substring(0, 1000) : failure);
+                } else if (progress.updated < progress.processed) {
+                    job.setStatus(ImportJobStatus.FAILED);
+                    job.setMessage("Reset " + progress.updated + " of " + progress.processed + " passwords");
+                } else {
+                    job.setStatus(ImportJobStatus.COMPLETED);
+                    job.setMessage("Reset " + progress.updated + " passwords");
+                }
+                jobRepository.save(job);
+            });
+        } catch (Exception e) {
+            logger.error("Could not record final status for password rotation job {}", jobId, e);
+        }
+    }
+    
+    private PasswordRotationJob loadJob(UUID jobId) {
+        return jobRepository.findById(jobId)
+                .orElseThrow(() -> new IllegalArgumentException("Password rotation job not found: " + jobId));
+    }
+    
+    private String generateRandomPassword(int length) {
+        StringBuilder password = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            password.append(CHARACTERS.charAt(RANDOM.nextInt(CHARACTERS.length())));
+        }
+        return password.toString();
+    }
+    
+    /**
+     * The users a job covers, and the password to give them (null: one generated per user)
+     */
+    public record Selection(UserBaseType baseType, UUID moduleId, List<String> emails, String password) {}
+    
+    private record PendingUser(UUID id, String email, String password, CompletableFuture<String> passwordHash) {}
+    
+    /**
+     * Totals committed so far, carried across chunk transactions
+     */
+    private static class Progress {
+        private int processed = 0;
+        private int updated = 0;
+    }
+}
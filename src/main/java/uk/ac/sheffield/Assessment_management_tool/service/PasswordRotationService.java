@@ -0,0 +1,83 @@
+package uk.ac.sheffield.Assessment_management_tool.service;
+
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import uk.ac.sheffield.Assessment_management_tool.domain.entity.PasswordRotationJob;
+import uk.ac.sheffield.Assessment_management_tool.domain.enums.ImportJobStatus;
+import uk.ac.sheffield.Assessment_management_tool.dto.request.PasswordRotationRequest;
+import uk.ac.sheffield.Assessment_management_tool.repository.ModuleRepository;
+import uk.ac.sheffield.Assessment_management_tool.repository.PasswordRotationJobRepository;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+@Service
+@Transactional
+public class PasswordRotationService {
+    
+    private final PasswordRotationJobRepository jobRepository;
+    private final ModuleRepository moduleRepository;
+    private final PasswordRotationJobRunner jobRunner;
+    
+    public PasswordRotationService(PasswordRotationJobRepository jobRepository, ModuleRepository moduleRepository,
+                                   PasswordRotationJobRunner jobRunner) {
+        this.jobRepository = jobRepository;
+        this.moduleRepository = moduleRepository;
+        this.jobRunner = jobRunner;
+    }
+    
+    /**
+     * Record a bulk password reset and queue it. The job is committed before it is
+     * queued, so the runner always finds it; progress is read back with {@link #getJob}.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public PasswordRotationJob startRotation(PasswordRotationRequest request, UUID requestedBy) {
+        if (request.getModuleId() != null && !moduleRepository.existsById(request.getModuleId())) {
+            throw new IllegalArgumentException("Module not found");
+        }
+        if (request.getPassword() == null && !jobRunner.canDeliverGeneratedPasswords()) {
+            throw new IllegalArgumentException(
+                    "A password is required: generated passwords cannot be delivered to users");
+        }
+        List<String> emails = request.getEmails() == null || request.getEmails().isEmpty() ? null
+                : request.getEmails().stream()
+                        .map(String::trim)
+                        .distinct()
+                        .collect(Collectors.toList());
+        
+        PasswordRotationJob job = new PasswordRotationJob();
+        job.setRequestedBy(requestedBy);
+        job.setBaseType(request.getBaseType());
+        job.setModuleId(request.getModuleId());
+        job.setEmailCount(emails == null ? null : emails.size());
+        job.setSharedPassword(request.getPassword() != null);
+        job = jobRepository.save(job);
+        
+        try {
+            jobRunner.submit(job.getId(), new PasswordRotationJobRunner.Selection(
+                    request.getBaseType(), request.getModuleId(), emails, request.getPassword()));
+        } catch (TaskRejectedException e) {
+            job.setStatus(ImportJobStatus.FAILED);
+            job.setMessage("Job queue is full");
+            job.setFinishedAt(OffsetDateTime.now());
+            jobRepository.save(job);
+            throw new IllegalStateException("Job queue is full, please try again later");
+        }
+        return job;
+    }
+    
+    @Transactional(readOnly = true)
+    public PasswordRotationJob getJob(UUID id) {
+        return jobRepository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Password rotation job not found"));
+    }
+    
+    @Transactional(readOnly = true)
+    public List<PasswordRotationJob> getJobs() {
+        return jobRepository.findAllByOrderByCreatedAtDesc();
+    }
+}
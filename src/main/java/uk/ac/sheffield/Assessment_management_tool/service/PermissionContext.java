@@ -0,0 +1,87 @@
+package uk.ac.sheffield.Assessment_management_tool.service;
+
+import uk.ac.sheffield.Assessment_management_tool.domain.entity.Assessment;
+import uk.ac.sheffield.Assessment_management_tool.domain.entity.User;
+
+/**
+ * A user's roles on one assessment and its module, plus the feedback/response
+ * flags the workflow depends on. Loaded once by
+ * {@link TransitionService#permissionContext(User, Assessment)} and reused for
+ * every permission check in the same request.
+ */
+public class PermissionContext {
+    
+    private final User user;
+    private final Assessment assessment;
+    private final boolean setter;
+    private final boolean checker;
+    private final boolean moduleLead;
+    private final boolean moduleStaff;
+    private final boolean moderator;
+    private final boolean moduleExternalExaminer;
+    private final boolean externalFeedbackSubmitted;
+    private final boolean setterResponseSubmitted;
+    
+    PermissionContext(User user, Assessment assessment, boolean[] flags) {
+        this.user = user;
+        this.assessment = assessment;
+        this.setter = flags[0];
+        this.checker = flags[1];
+        this.moduleLead = flags[2];
+        this.moduleStaff = flags[3];
+        this.moderator = flags[4];
+        this.moduleExternalExaminer = flags[5];
+        this.externalFeedbackSubmitted = flags[6];
+        this.setterResponseSubmitted = flags[7];
+    }
+    
+    public User getUser() {
+        return user;
+    }
+    
+    public Assessment getAssessment() {
+        return assessment;
+    }
+    
+    public boolean isSetter() {
+        return setter;
+    }
+    
+    public boolean isChecker() {
+        return checker;
+    }
+    
+    public boolean isModuleLead() {
+        return moduleLead;
+    }
+    
+    /**
+     * Has the STAFF role on the module (not lead or moderator)
+     */
+    public boolean isModuleStaff() {
+        return moduleStaff;
+    }
+    
+    public boolean isModerator() {
+        return moderator;
+    }
+    
+    /**
+     * Has any role on the module
+     */
+    public boolean hasModuleRole() {
+        return moduleLead || moduleStaff || moderator;
+    }
+    
+    public boolean isModuleExternalExaminer() {
+        return moduleExternalExaminer;
+    }
+    
+    public boolean isExternalFeedbackSubmitted() {
+        return externalFeedbackSubmitted;
+    }
+    
+    public boolean isSetterResponseSubmitted() {
+        return setterResponseSubmitted;
+    }
+}
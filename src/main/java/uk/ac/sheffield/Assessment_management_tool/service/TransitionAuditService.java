@@ -0,0 +1,170 @@
+package uk.ac.sheffield.Assessment_management_tool.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVPrinter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import uk.ac.sheffield.Assessment_management_tool.domain.entity.AssessmentTransition;
+import uk.ac.sheffield.Assessment_management_tool.dto.request.TransitionAuditFilter;
+import uk.ac.sheffield.Assessment_management_tool.dto.response.CursorPageDto;
+import uk.ac.sheffield.Assessment_management_tool.dto.response.TransitionDto;
+import uk.ac.sheffield.Assessment_management_tool.mapper.EntityMapper;
+import uk.ac.sheffield.Assessment_management_tool.repository.AssessmentTransitionRepository;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Read access to the transition audit log: keyset-paginated pages for the UI
+ * and streamed CSV / NDJSON exports for offline analysis.
+ *
+ * Exports hold one database cursor open for the whole download and clear the
+ * persistence context every {@code app.audit.export-fetch-size} rows, so memory
+ * use does not grow with the size of the export.
+ */
+@Service
+@Transactional(readOnly = true)
+public class TransitionAuditService {
+    
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final String[] CSV_HEADER = {
+            "id", "at", "assessmentId", "fromState", "toState", "byUserId", "byDisplayName",
+            "override", "reversion", "revertedTransitionId", "note"
+    };
+    
+    private final AssessmentTransitionRepository transitionRepository;
+    private final ObjectMapper objectMapper;
+    private final int exportFetchSize;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    public TransitionAuditService(
+            AssessmentTransitionRepository transitionRepository,
+            ObjectMapper objectMapper,
+            @Value("${app.audit.export-fetch-size:500}") int exportFetchSize) {
+        this.transitionRepository = transitionRepository;
+        this.objectMapper = objectMapper;
+        this.exportFetchSize = exportFetchSize;
+    }
+    
+    /**
+     * One page of matching transitions, newest first. The cursor is opaque to clients.
+     */
+    public CursorPageDto<TransitionDto> getTransitionPage(TransitionAuditFilter filter, String cursor, int limit) {
+        validate(filter);
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        Cursor after = decodeCursor(cursor);
+        
+        // Fetch one extra row to learn whether there is a next page
+        List<AssessmentTransition> rows = transitionRepository.findAuditPage(
+                filter.getFrom(), filter.getTo(), filter.getUserId(), filter.getModuleId(),
+                after == null ? null : after.at(), after == null ? null : after.id(), pageSize + 1);
+        
+        String nextCursor = null;
+        if (rows.size() > pageSize) {
+            rows = rows.subList(0, pageSize);
+            AssessmentTransition last = rows.get(pageSize - 1);
+            nextCursor = encodeCursor(last.getAt(), last.getId());
+        }
+        
+        return new CursorPageDto<>(rows.stream()
+                .map(EntityMapper::toTransitionDto)
+                .collect(Collectors.toList()), nextCursor);
+    }
+    
+    /**
+     * Throws IllegalArgumentException for filters that cannot match anything sensible
+     */
+    public void validate(TransitionAuditFilter filter) {
+        if (filter.getFrom() != null && filter.getTo() != null && filter.getFrom().isAfter(filter.getTo())) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+    }
+    
+    public void exportCsv(TransitionAuditFilter filter, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        CSVPrinter printer = new CSVPrinter(writer, CSVFormat.DEFAULT.builder().setHeader(CSV_HEADER).build());
+        forEachTransition(filter, dto -> {
+            try {
+                printer.printRecord(dto.getId(), dto.getAt(), dto.getAssessmentId(), dto.getFromState(),
+                        dto.getToState(), dto.getByUserId(), dto.getByDisplayName(), dto.isOverride(),
+                        dto.isReversion(), dto.getRevertedTransitionId(), dto.getNote());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        printer.flush();
+    }
+    
+    /**
+     * One JSON object per line, in the same shape as the paged endpoint's items
+     */
+    public void exportNdjson(TransitionAuditFilter filter, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        forEachTransition(filter, dto -> {
+            try {
+                writer.write(objectMapper.writeValueAsString(dto));
+                writer.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        writer.flush();
+    }
+    
+    private void forEachTransition(TransitionAuditFilter filter, Consumer<TransitionDto> sink) throws IOException {
+        validate(filter);
+        try (Stream<AssessmentTransition> transitions = transitionRepository.streamAudit(
+                filter.getFrom(), filter.getTo(), filter.getUserId(), filter.getModuleId(), exportFetchSize)) {
+            Iterator<AssessmentTransition> iterator = transitions.iterator();
+            int sinceClear = 0;
+            while (iterator.hasNext()) {
+                sink.accept(EntityMapper.toTransitionDto(iterator.next()));
+                // Drop the rows (and assessment/user proxies) written so far
+                if (++sinceClear >= exportFetchSize) {
+                    entityManager.clear();
+                    sinceClear = 0;
+                }
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+    
+    private static String encodeCursor(OffsetDateTime at, UUID id) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((at + "|" + id).getBytes(StandardCharsets.UTF_8));
+    }
+    
+    private static Cursor decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|", 2);
+            return new Cursor(OffsetDateTime.parse(parts[0]), UUID.fromString(parts[1]));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+    
+    private record Cursor(OffsetDateTime at, UUID id) {}
+}
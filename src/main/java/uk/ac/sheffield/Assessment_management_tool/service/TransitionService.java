@@ -1,32 +1,35 @@
 package uk.ac.sheffield.Assessment_management_tool.service;
 
 import org.springframework.stereotype.Service;
+import uk.ac.sheffield.Assessment_management_tool.cache.ReferenceDataCache;
 import uk.ac.sheffield.Assessment_management_tool.domain.entity.*;
 import uk.ac.sheffield.Assessment_management_tool.domain.enums.*;
-import uk.ac.sheffield.Assessment_management_tool.repository.*;
 
 import java.util.*;
 
 @Service
 public class TransitionService {
     
-    private final AssessmentRoleRepository assessmentRoleRepository;
-    private final ModuleStaffRoleRepository moduleStaffRoleRepository;
-    private final ExternalExaminerFeedbackRepository externalFeedbackRepository;
-    private final SetterResponseRepository setterResponseRepository;
-    private final ModuleExternalExaminerRepository moduleExternalExaminerRepository;
+    /**
+     * Workflow graph per assessment type: current state -> states it may move to.
+     * Built once; validity checks are EnumSet (bitset) lookups with no allocation.
+     */
+    private static final Map<AssessmentType, Map<AssessmentState, Set<AssessmentState>>> TRANSITIONS =
+            buildTransitionTable();
+    
+    private final ReferenceDataCache referenceDataCache;
     
-    public TransitionService(
-            AssessmentRoleRepository assessmentRoleRepository,
-            ModuleStaffRoleRepository moduleStaffRoleRepository,
-            ExternalExaminerFeedbackRepository externalFeedbackRepository,
-            SetterResponseRepository setterResponseRepository,
-            ModuleExternalExaminerRepository moduleExternalExaminerRepository) {
-        this.assessmentRoleRepository = assessmentRoleRepository;
-        this.moduleStaffRoleRepository = moduleStaffRoleRepository;
-        this.externalFeedbackRepository = externalFeedbackRepository;
-        this.setterResponseRepository = setterResponseRepository;
-        this.moduleExternalExaminerRepository = moduleExternalExaminerRepository;
+    public TransitionService(ReferenceDataCache referenceDataCache) {
+        this.referenceDataCache = referenceDataCache;
+    }
+    
+    /**
+     * Load a user's roles (cached) and the workflow flags (always fresh) for an
+     * assessment. Build one per request and pass it to the checks below instead of
+     * the user/assessment pair.
+     */
+    public PermissionContext permissionContext(User user, Assessment assessment) {
+        return new PermissionContext(user, assessment, referenceDataCache.findPermissionFlags(assessment, user.getId()));
     }
     
     /**
@@ -42,8 +45,24 @@ public class TransitionService {
             return true;
         }
         
-        AssessmentState current = assessment.getCurrentState();
-        AssessmentType type = assessment.getType();
+        return canProgress(permissionContext(user, assessment), target);
+    }
+    
+    /**
+     * Check if the context's user can progress its assessment to a target state
+     */
+    public boolean canProgress(PermissionContext context, AssessmentState target) {
+        if (context == null || target == null) {
+            return false;
+        }
+        
+        // Admin and Exams Officer can override (handled separately)
+        if (isAdminOrExamsOfficer(context.getUser())) {
+            return true;
+        }
+        
+        AssessmentState current = context.getAssessment().getCurrentState();
+        AssessmentType type = context.getAssessment().getType();
         
         // Check if transition is valid for this assessment type
         if (!isValidTransition(current, target, type)) {
@@ -51,7 +70,7 @@ public class TransitionService {
         }
         
         // Check role-based permissions
-        return hasPermissionForTransition(user, assessment, current, target);
+        return hasPermissionForTransition(context, current, target);
     }
     
     /**
@@ -62,16 +81,31 @@ public class TransitionService {
             return Collections.emptyList();
         }
         
+        if (isAdminOrExamsOfficer(user)) {
+            return new ArrayList<>(getPossibleNextStates(assessment.getCurrentState(), assessment.getType()));
+        }
+        
+        return allowedTargets(permissionContext(user, assessment));
+    }
+    
+    /**
+     * Get allowed target states for the context's user and assessment
+     */
+    public List<AssessmentState> allowedTargets(PermissionContext context) {
+        if (context == null) {
+            return Collections.emptyList();
+        }
+        
         List<AssessmentState> targets = new ArrayList<>();
-        AssessmentState current = assessment.getCurrentState();
-        AssessmentType type = assessment.getType();
+        AssessmentState current = context.getAssessment().getCurrentState();
+        AssessmentType type = context.getAssessment().getType();
         
         // Get possible next states based on type
-        List<AssessmentState> possibleStates = getPossibleNextStates(current, type);
+        Set<AssessmentState> possibleStates = getPossibleNextStates(current, type);
         
         // Filter by permissions
         for (AssessmentState target : possibleStates) {
-            if (canProgress(user, assessment, target)) {
+            if (canProgress(context, target)) {
                 targets.add(target);
             }
         }
@@ -88,29 +122,25 @@ public class TransitionService {
             return false;
         }
         
-        // Cannot be module staff (lead or staff)
-        List<ModuleStaffRole> staffRoles = moduleStaffRoleRepository.findByModuleAndUser(
-            assessment.getModule(), user
-        );
-        
-        for (ModuleStaffRole role : staffRoles) {
-            if (role.getRole() == ModuleRole.MODULE_LEAD || role.getRole() == ModuleRole.STAFF) {
-                return false;
-            }
+        return canBeChecker(permissionContext(user, assessment));
+    }
+    
+    /**
+     * Validate if the context's user can be assigned as checker (independence check)
+     */
+    public boolean canBeChecker(PermissionContext context) {
+        // Must be an academic
+        if (context.getUser().getBaseType() != UserBaseType.ACADEMIC) {
+            return false;
         }
         
-        // Cannot be a setter on this assessment
-        List<AssessmentRoleAssignment> assessmentRoles = assessmentRoleRepository.findByAssessmentAndUser(
-            assessment, user
-        );
-        
-        for (AssessmentRoleAssignment role : assessmentRoles) {
-            if (role.getRole() == AssessmentRole.SETTER) {
-                return false;
-            }
+        // Cannot be module staff (lead or staff)
+        if (context.isModuleLead() || context.isModuleStaff()) {
+            return false;
         }
         
-        return true;
+        // Cannot be a setter on this assessment
+        return !context.isSetter();
     }
     
     /**
@@ -122,12 +152,22 @@ public class TransitionService {
             return false;
         }
         
-        // Must be assigned to this module
-        boolean isAssigned = moduleExternalExaminerRepository.existsByModuleAndUser(
-            assessment.getModule(), user
-        );
+        return canSubmitExternalFeedback(permissionContext(user, assessment));
+    }
+    
+    /**
+     * Check if the context's user can submit external examiner feedback
+     */
+    public boolean canSubmitExternalFeedback(PermissionContext context) {
+        Assessment assessment = context.getAssessment();
+        
+        // Must be external examiner
+        if (context.getUser().getBaseType() != UserBaseType.EXTERNAL_EXAMINER) {
+            return false;
+        }
         
-        if (!isAssigned) {
+        // Must be assigned to this module
+        if (!context.isModuleExternalExaminer()) {
             return false;
         }
         
@@ -142,22 +182,24 @@ public class TransitionService {
         }
         
         // Cannot already have feedback
-        return !externalFeedbackRepository.existsByAssessment(assessment);
+        return !context.isExternalFeedbackSubmitted();
     }
     
     /**
      * Check if setter response can be submitted
      */
     public boolean canSubmitSetterResponse(User user, Assessment assessment) {
-        // Must be a setter
-        List<AssessmentRoleAssignment> roles = assessmentRoleRepository.findByAssessmentAndUser(
-            assessment, user
-        );
-        
-        boolean isSetter = roles.stream()
-            .anyMatch(r -> r.getRole() == AssessmentRole.SETTER);
+        return canSubmitSetterResponse(permissionContext(user, assessment));
+    }
+    
+    /**
+     * Check if the context's user can submit a setter response
+     */
+    public boolean canSubmitSetterResponse(PermissionContext context) {
+        Assessment assessment = context.getAssessment();
         
-        if (!isSetter) {
+        // Must be a setter
+        if (!context.isSetter()) {
             return false;
         }
         
@@ -172,12 +214,12 @@ public class TransitionService {
         }
         
         // Must have external feedback
-        if (!externalFeedbackRepository.existsByAssessment(assessment)) {
+        if (!context.isExternalFeedbackSubmitted()) {
             return false;
         }
         
         // Cannot already have response
-        return !setterResponseRepository.existsByAssessment(assessment);
+        return !context.isSetterResponseSubmitted();
     }
     
     // Private helper methods
@@ -187,93 +229,75 @@ public class TransitionService {
     }
     
     private boolean isValidTransition(AssessmentState from, AssessmentState to, AssessmentType type) {
-        List<AssessmentState> possible = getPossibleNextStates(from, type);
-        return possible.contains(to);
-    }
-    
-    private List<AssessmentState> getPossibleNextStates(AssessmentState current, AssessmentType type) {
-        List<AssessmentState> states = new ArrayList<>();
-        
-        switch (type) {
-            case CW:
-                states.addAll(getCourseworkNextStates(current));
-                break;
-            case TEST:
-                states.addAll(getTestNextStates(current));
-                break;
-            case EXAM:
-                states.addAll(getExamNextStates(current));
-                break;
-        }
-        
-        return states;
+        return getPossibleNextStates(from, type).contains(to);
     }
     
-    private List<AssessmentState> getCourseworkNextStates(AssessmentState current) {
-        return switch (current) {
-            case DRAFT -> List.of(AssessmentState.READY_FOR_CHECK);
-            case READY_FOR_CHECK -> List.of(AssessmentState.CHANGES_REQUIRED, AssessmentState.RELEASED, AssessmentState.DRAFT);
-            case CHANGES_REQUIRED -> List.of(AssessmentState.READY_FOR_CHECK);
-            case RELEASED -> List.of(AssessmentState.DEADLINE_PASSED);
-            case DEADLINE_PASSED -> List.of(AssessmentState.MARKING); // Standardisation happens during marking
-            case MARKING -> List.of(AssessmentState.MODERATED);
-            case MODERATED -> List.of(AssessmentState.FEEDBACK_RETURNED);
-            case FEEDBACK_RETURNED -> List.of(AssessmentState.APPROVED);
-            case APPROVED -> List.of(AssessmentState.PUBLISHED);
-            default -> Collections.emptyList();
-        };
+    private Set<AssessmentState> getPossibleNextStates(AssessmentState current, AssessmentType type) {
+        if (current == null || type == null) {
+            return Collections.emptySet();
+        }
+        return TRANSITIONS.get(type).getOrDefault(current, Collections.emptySet());
     }
     
-    private List<AssessmentState> getTestNextStates(AssessmentState current) {
-        return switch (current) {
-            case DRAFT -> List.of(AssessmentState.READY_FOR_CHECK);
-            case READY_FOR_CHECK -> List.of(AssessmentState.CHANGES_REQUIRED, AssessmentState.TEST_TAKEN, AssessmentState.DRAFT);
-            case CHANGES_REQUIRED -> List.of(AssessmentState.READY_FOR_CHECK);
-            case TEST_TAKEN -> List.of(AssessmentState.MARKING); // Standardisation happens during marking
-            case MARKING -> List.of(AssessmentState.MODERATED);
-            case MODERATED -> List.of(AssessmentState.RESULTS_RETURNED);
-            case RESULTS_RETURNED -> List.of(AssessmentState.APPROVED);
-            case APPROVED -> List.of(AssessmentState.PUBLISHED);
-            default -> Collections.emptyList();
-        };
+    private static Map<AssessmentType, Map<AssessmentState, Set<AssessmentState>>> buildTransitionTable() {
+        EnumMap<AssessmentType, Map<AssessmentState, Set<AssessmentState>>> table = new EnumMap<>(AssessmentType.class);
+        
+        EnumMap<AssessmentState, Set<AssessmentState>> coursework = new EnumMap<>(AssessmentState.class);
+        coursework.put(AssessmentState.DRAFT, EnumSet.of(AssessmentState.READY_FOR_CHECK));
+        coursework.put(AssessmentState.READY_FOR_CHECK, EnumSet.of(AssessmentState.CHANGES_REQUIRED, AssessmentState.RELEASED, AssessmentState.DRAFT));
+        coursework.put(AssessmentState.CHANGES_REQUIRED, EnumSet.of(AssessmentState.READY_FOR_CHECK));
+        coursework.put(AssessmentState.RELEASED, EnumSet.of(AssessmentState.DEADLINE_PASSED));
+        coursework.put(AssessmentState.DEADLINE_PASSED, EnumSet.of(AssessmentState.MARKING)); // Standardisation happens during marking
+        coursework.put(AssessmentState.MARKING, EnumSet.of(AssessmentState.MODERATED));
+        coursework.put(AssessmentState.MODERATED, EnumSet.of(AssessmentState.FEEDBACK_RETURNED));
+        coursework.put(AssessmentState.FEEDBACK_RETURNED, EnumSet.of(AssessmentState.APPROVED));
+        coursework.put(AssessmentState.APPROVED, EnumSet.of(AssessmentState.PUBLISHED));
+        table.put(AssessmentType.CW, freeze(coursework));
+        
+        EnumMap<AssessmentState, Set<AssessmentState>> test = new EnumMap<>(AssessmentState.class);
+        test.put(AssessmentState.DRAFT, EnumSet.of(AssessmentState.READY_FOR_CHECK));
+        test.put(AssessmentState.READY_FOR_CHECK, EnumSet.of(AssessmentState.CHANGES_REQUIRED, AssessmentState.TEST_TAKEN, AssessmentState.DRAFT));
+        test.put(AssessmentState.CHANGES_REQUIRED, EnumSet.of(AssessmentState.READY_FOR_CHECK));
+        test.put(AssessmentState.TEST_TAKEN, EnumSet.of(AssessmentState.MARKING)); // Standardisation happens during marking
+        test.put(AssessmentState.MARKING, EnumSet.of(AssessmentState.MODERATED));
+        test.put(AssessmentState.MODERATED, EnumSet.of(AssessmentState.RESULTS_RETURNED));
+        test.put(AssessmentState.RESULTS_RETURNED, EnumSet.of(AssessmentState.APPROVED));
+        test.put(AssessmentState.APPROVED, EnumSet.of(AssessmentState.PUBLISHED));
+        table.put(AssessmentType.TEST, freeze(test));
+        
+        EnumMap<AssessmentState, Set<AssessmentState>> exam = new EnumMap<>(AssessmentState.class);
+        exam.put(AssessmentState.DRAFT, EnumSet.of(AssessmentState.READY_FOR_CHECK));
+        exam.put(AssessmentState.READY_FOR_CHECK, EnumSet.of(AssessmentState.CHANGES_REQUIRED, AssessmentState.EXAM_OFFICER_CHECK, AssessmentState.DRAFT));
+        exam.put(AssessmentState.CHANGES_REQUIRED, EnumSet.of(AssessmentState.READY_FOR_CHECK));
+        exam.put(AssessmentState.EXAM_OFFICER_CHECK, EnumSet.of(AssessmentState.EXTERNAL_FEEDBACK, AssessmentState.EXAM_CHANGES_REQUIRED));
+        exam.put(AssessmentState.EXAM_CHANGES_REQUIRED, EnumSet.of(AssessmentState.EXAM_OFFICER_CHECK));
+        exam.put(AssessmentState.EXTERNAL_FEEDBACK, EnumSet.of(AssessmentState.SETTER_RESPONSE));
+        exam.put(AssessmentState.SETTER_RESPONSE, EnumSet.of(AssessmentState.FINAL_CHECK));
+        exam.put(AssessmentState.FINAL_CHECK, EnumSet.of(AssessmentState.SENT_TO_PRINTING, AssessmentState.EXAM_CHANGES_REQUIRED));
+        exam.put(AssessmentState.SENT_TO_PRINTING, EnumSet.of(AssessmentState.EXAM_TAKEN));
+        exam.put(AssessmentState.EXAM_TAKEN, EnumSet.of(AssessmentState.MARKING)); // Standardisation happens during marking
+        exam.put(AssessmentState.MARKING, EnumSet.of(AssessmentState.ADMIN_MARK_CHECK));
+        exam.put(AssessmentState.ADMIN_MARK_CHECK, EnumSet.of(AssessmentState.MODERATED));
+        exam.put(AssessmentState.MODERATED, EnumSet.of(AssessmentState.APPROVED));
+        exam.put(AssessmentState.APPROVED, EnumSet.of(AssessmentState.PUBLISHED));
+        table.put(AssessmentType.EXAM, freeze(exam));
+        
+        return Collections.unmodifiableMap(table);
     }
     
-    private List<AssessmentState> getExamNextStates(AssessmentState current) {
-        return switch (current) {
-            case DRAFT -> List.of(AssessmentState.READY_FOR_CHECK);
-            case READY_FOR_CHECK -> List.of(AssessmentState.CHANGES_REQUIRED, AssessmentState.EXAM_OFFICER_CHECK, AssessmentState.DRAFT);
-            case CHANGES_REQUIRED -> List.of(AssessmentState.READY_FOR_CHECK);
-            case EXAM_OFFICER_CHECK -> List.of(AssessmentState.EXTERNAL_FEEDBACK, AssessmentState.EXAM_CHANGES_REQUIRED);
-            case EXAM_CHANGES_REQUIRED -> List.of(AssessmentState.EXAM_OFFICER_CHECK);
-            case EXTERNAL_FEEDBACK -> List.of(AssessmentState.SETTER_RESPONSE);
-            case SETTER_RESPONSE -> List.of(AssessmentState.FINAL_CHECK);
-            case FINAL_CHECK -> List.of(AssessmentState.SENT_TO_PRINTING, AssessmentState.EXAM_CHANGES_REQUIRED);
-            case SENT_TO_PRINTING -> List.of(AssessmentState.EXAM_TAKEN);
-            case EXAM_TAKEN -> List.of(AssessmentState.MARKING); // Standardisation happens during marking
-            case MARKING -> List.of(AssessmentState.ADMIN_MARK_CHECK);
-            case ADMIN_MARK_CHECK -> List.of(AssessmentState.MODERATED);
-            case MODERATED -> List.of(AssessmentState.APPROVED);
-            case APPROVED -> List.of(AssessmentState.PUBLISHED);
-            default -> Collections.emptyList();
-        };
+    private static Map<AssessmentState, Set<AssessmentState>> freeze(EnumMap<AssessmentState, Set<AssessmentState>> states) {
+        states.replaceAll((state, targets) -> Collections.unmodifiableSet(targets));
+        return Collections.unmodifiableMap(states);
     }
     
-    private boolean hasPermissionForTransition(User user, Assessment assessment, 
+    private boolean hasPermissionForTransition(PermissionContext context,
                                                AssessmentState from, AssessmentState to) {
-        // Get user roles on this assessment
-        List<AssessmentRoleAssignment> roles = assessmentRoleRepository.findByAssessmentAndUser(
-            assessment, user
-        );
-        
-        boolean isSetter = roles.stream().anyMatch(r -> r.getRole() == AssessmentRole.SETTER);
-        boolean isChecker = roles.stream().anyMatch(r -> r.getRole() == AssessmentRole.CHECKER);
-        
-        // Get module roles
-        List<ModuleStaffRole> staffRoles = moduleStaffRoleRepository.findByModuleAndUser(
-            assessment.getModule(), user
-        );
-        boolean isModerator = staffRoles.stream().anyMatch(r -> r.getRole() == ModuleRole.MODERATOR);
-        boolean isModuleLead = staffRoles.stream().anyMatch(r -> r.getRole() == ModuleRole.MODULE_LEAD);
+        User user = context.getUser();
+        Assessment assessment = context.getAssessment();
+        boolean isSetter = context.isSetter();
+        boolean isChecker = context.isChecker();
+        boolean isModerator = context.isModerator();
+        boolean isModuleLead = context.isModuleLead();
         
         // Setter permissions - Create and submit for checking
         if (from == AssessmentState.DRAFT && to == AssessmentState.READY_FOR_CHECK) {
@@ -324,18 +348,18 @@ public class TransitionService {
         
         // External Examiner feedback (requires submission)
         if (from == AssessmentState.EXTERNAL_FEEDBACK && to == AssessmentState.SETTER_RESPONSE) {
-            return externalFeedbackRepository.existsByAssessment(assessment);
+            return context.isExternalFeedbackSubmitted();
         }
         
         // Setter response to external feedback
         if (from == AssessmentState.SETTER_RESPONSE && to == AssessmentState.FINAL_CHECK) {
-            return isSetter && setterResponseRepository.existsByAssessment(assessment);
+            return isSetter && context.isSetterResponseSubmitted();
         }
         
         // Marking team permissions - Progress marking
         if (from == AssessmentState.MARKING) {
             // Any staff member can progress marking for their assessments
-            return !staffRoles.isEmpty() || isChecker || isSetter;
+            return context.hasModuleRole() || isChecker || isSetter;
         }
         
         // Moderator permissions - Complete moderation
@@ -3,16 +3,22 @@ package uk.ac.sheffield.Assessment_management_tool.service;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import uk.ac.sheffield.Assessment_management_tool.cache.ReferenceDataCache;
 import uk.ac.sheffield.Assessment_management_tool.domain.entity.User;
 import uk.ac.sheffield.Assessment_management_tool.domain.enums.UserBaseType;
 import uk.ac.sheffield.Assessment_management_tool.dto.request.CreateUserRequest;
 import uk.ac.sheffield.Assessment_management_tool.dto.response.CreateUserResponse;
+import uk.ac.sheffield.Assessment_management_tool.dto.response.CursorPageDto;
 import uk.ac.sheffield.Assessment_management_tool.dto.response.UserDto;
+import uk.ac.sheffield.Assessment_management_tool.dto.response.UserSummaryDto;
 import uk.ac.sheffield.Assessment_management_tool.mapper.EntityMapper;
 import uk.ac.sheffield.Assessment_management_tool.repository.UserRepository;
 
+import java.nio.charset.StandardCharsets;
 import java.security.SecureRandom;
+import java.util.Base64;
 import java.util.List;
+import java.util.Locale;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -22,14 +28,18 @@ public class UserService {
     
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final ReferenceDataCache referenceDataCache;
     private static final String CHAR_LOWER = "abcdefghijklmnopqrstuvwxyz";
     private static final String CHAR_UPPER = CHAR_LOWER.toUpperCase();
     private static final String CHAR_DIGITS = "0123456789";
     private static final String CHAR_SPECIAL = "!@#$%&*";
+    private static final int MAX_DIRECTORY_PAGE_SIZE = 100;
     
-    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder,
+                       ReferenceDataCache referenceDataCache) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.referenceDataCache = referenceDataCache;
     }
     
     public CreateUserResponse createUser(CreateUserRequest request) {
@@ -51,7 +61,7 @@ public class UserService {
     }
     
     public UserDto getUserById(UUID id) {
-        return EntityMapper.toUserDto(userRepository.findById(id)
+        return EntityMapper.toUserDto(referenceDataCache.findUser(id)
                 .orElseThrow(() -> new IllegalArgumentException("User not found")));
     }
     
@@ -60,6 +70,34 @@ public class UserService {
                 .orElseThrow(() -> new IllegalArgumentException("User not found")));
     }
     
+    /**
+     * One page of the user directory, ordered by name without regard to case.
+     * {@code query} matches the start of the name or email. Pages are keyset-paginated,
+     * so a typeahead costs one short index range scan however many users there are.
+     */
+    @Transactional(readOnly = true)
+    public CursorPageDto<UserSummaryDto> getDirectoryPage(String query, UserBaseType baseType, Boolean examsOfficer,
+                                                         String cursor, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_DIRECTORY_PAGE_SIZE));
+        String prefix = query == null || query.isBlank() ? null : query.trim().toLowerCase(Locale.ROOT);
+        DirectoryCursor after = decodeCursor(cursor);
+        
+        // Fetch one extra row to learn whether there is a next page
+        List<Object[]> rows = userRepository.findDirectoryPage(prefix, baseType, examsOfficer,
+                after == null ? null : after.name(), after == null ? null : after.id(), pageSize + 1);
+        
+        String nextCursor = null;
+        if (rows.size() > pageSize) {
+            rows = rows.subList(0, pageSize);
+            Object[] last = rows.get(pageSize - 1);
+            nextCursor = encodeCursor((String) last[4], (UUID) last[0]);
+        }
+        
+        return new CursorPageDto<>(rows.stream()
+                .map(row -> new UserSummaryDto((UUID) row[0], (String) row[1], (String) row[2], (UserBaseType) row[3]))
+                .collect(Collectors.toList()), nextCursor);
+    }
+    
     public List<UserDto> getAllUsers() {
         return userRepository.findAll().stream()
                 .map(EntityMapper::toUserDto)
@@ -84,6 +122,7 @@ public class UserService {
         }
         
         user.setExamsOfficer(!user.isExamsOfficer());
+        referenceDataCache.evictUser(user);
         return EntityMapper.toUserDto(userRepository.save(user));
     }
     
@@ -92,6 +131,18 @@ public class UserService {
                 .orElseThrow(() -> new IllegalArgumentException("User not found"));
         user.setPasswordHash(passwordEncoder.encode(newPassword));
         userRepository.save(user);
+        referenceDataCache.evictUser(user);
+    }
+    
+    /**
+     * Replace a password hash with one already computed, e.g. the same password rehashed at a new BCrypt cost
+     */
+    public void updatePasswordHash(UUID userId, String passwordHash) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new IllegalArgumentException("User not found"));
+        user.setPasswordHash(passwordHash);
+        userRepository.save(user);
+        referenceDataCache.evictUser(user);
     }
     
     private void validateCanRemoveExamsOfficer(UUID id, UUID currentUserId) {
@@ -108,6 +159,24 @@ public class UserService {
         }
     }
     
+    private static String encodeCursor(String lowerName, UUID id) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((id + "|" + lowerName).getBytes(StandardCharsets.UTF_8));
+    }
+    
+    private static DirectoryCursor decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            // The id goes first: names may contain the separator, UUIDs cannot
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|", 2);
+            return new DirectoryCursor(parts[1], UUID.fromString(parts[0]));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+    
     private String generateTemporaryPassword() {
         SecureRandom random = new SecureRandom();
         String allChars = CHAR_LOWER + CHAR_UPPER + CHAR_DIGITS + CHAR_SPECIAL;
@@ -132,4 +201,6 @@ public class UserService {
         
         return new String(chars);
     }
+    
+    private record DirectoryCursor(String name, UUID id) {}
 }
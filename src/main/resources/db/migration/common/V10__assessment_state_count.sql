@@ -0,0 +1,16 @@
+-- Number of assessments per module, type and state, kept up to date as
+-- assessments are created and transitioned so dashboards need not count rows
+CREATE TABLE assessment_state_count (
+    module_id UUID NOT NULL REFERENCES module(id) ON DELETE CASCADE,
+    type VARCHAR(20) NOT NULL,
+    current_state VARCHAR(50) NOT NULL,
+    assessment_count BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (module_id, type, current_state)
+);
+
+INSERT INTO assessment_state_count (module_id, type, current_state, assessment_count)
+SELECT module_id, type, current_state, COUNT(*)
+FROM assessment
+GROUP BY module_id, type, current_state;
+
+INSERT INTO scheduled_job_lock (job_name) VALUES ('assessment-state-count-reconcile');
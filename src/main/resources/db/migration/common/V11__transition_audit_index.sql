@@ -0,0 +1,4 @@
+-- Audit listing walks transitions newest first, keyset-paginated on (at, id).
+-- The composite index serves that order and makes idx_transition_at redundant.
+CREATE INDEX idx_transition_at_id ON assessment_transition(at, id);
+DROP INDEX idx_transition_at;
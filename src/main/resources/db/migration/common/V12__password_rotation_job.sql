@@ -0,0 +1,21 @@
+-- Background bulk password resets, with progress like csv_import_job.
+-- The filter is kept for reporting; module_id has no foreign key so a job
+-- outlives the module it was run for.
+CREATE TABLE password_rotation_job (
+    id UUID PRIMARY KEY,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    requested_by UUID NULL,
+    status VARCHAR(20) NOT NULL,
+    base_type VARCHAR(50) NULL,
+    module_id UUID NULL,
+    email_count INT NULL,
+    shared_password BOOLEAN NOT NULL DEFAULT FALSE,
+    total_users INT NOT NULL DEFAULT 0,
+    processed_users INT NOT NULL DEFAULT 0,
+    updated_users INT NOT NULL DEFAULT 0,
+    message VARCHAR(1000) NULL,
+    started_at TIMESTAMP NULL,
+    finished_at TIMESTAMP NULL
+);
+
+CREATE INDEX idx_password_rotation_job_created ON password_rotation_job(created_at);
@@ -0,0 +1,3 @@
+-- Refreshed by the runner with every committed chunk, so a job left RUNNING by a
+-- node that died can be told apart from one that is still making progress
+ALTER TABLE csv_import_job ADD COLUMN heartbeat_at TIMESTAMP NULL;
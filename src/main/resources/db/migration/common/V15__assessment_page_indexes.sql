@@ -0,0 +1,13 @@
+-- Assessment lists are keyset-paginated newest first on (created_at, id).
+-- Rows that existed before this migration share its timestamp and fall back to id order.
+ALTER TABLE assessment ADD COLUMN created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP;
+
+-- Each index ends in the cursor columns, so a page filtered on its leading column is read
+-- in order and stops at the page size. They make the single-column indexes redundant.
+CREATE INDEX idx_assessment_created_id ON assessment(created_at, id);
+CREATE INDEX idx_assessment_state_created_id ON assessment(current_state, created_at, id);
+CREATE INDEX idx_assessment_type_created_id ON assessment(type, created_at, id);
+CREATE INDEX idx_assessment_module_created_id ON assessment(module_id, created_at, id);
+DROP INDEX idx_assessment_state;
+DROP INDEX idx_assessment_type;
+DROP INDEX idx_assessment_module;
@@ -0,0 +1,6 @@
+-- Track progress of background CSV import jobs
+ALTER TABLE csv_import_job ADD COLUMN processed_lines INT NOT NULL DEFAULT 0;
+ALTER TABLE csv_import_job ADD COLUMN module_count INT NOT NULL DEFAULT 0;
+ALTER TABLE csv_import_job ADD COLUMN assessment_count INT NOT NULL DEFAULT 0;
+ALTER TABLE csv_import_job ADD COLUMN started_at TIMESTAMP NULL;
+ALTER TABLE csv_import_job ADD COLUMN finished_at TIMESTAMP NULL;
@@ -0,0 +1,3 @@
+-- Checkpoint for resumable CSV import jobs
+ALTER TABLE csv_import_job ADD COLUMN error_count INT NOT NULL DEFAULT 0;
+ALTER TABLE csv_import_job ADD COLUMN checkpoint_offset BIGINT NOT NULL DEFAULT 0;
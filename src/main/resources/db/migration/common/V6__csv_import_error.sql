@@ -0,0 +1,12 @@
+-- Row-level errors for CSV import jobs, paged through instead of stored in csv_import_job.errors
+CREATE TABLE csv_import_error (
+    id UUID PRIMARY KEY,
+    job_id UUID NOT NULL REFERENCES csv_import_job(id) ON DELETE CASCADE,
+    line_number INT NOT NULL,
+    column_name VARCHAR(100) NULL,
+    code VARCHAR(40) NOT NULL,
+    message VARCHAR(1000) NOT NULL
+);
+
+CREATE INDEX idx_import_error_job_line ON csv_import_error(job_id, line_number);
+CREATE INDEX idx_import_error_job_code ON csv_import_error(job_id, code, line_number);
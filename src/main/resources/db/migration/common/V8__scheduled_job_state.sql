@@ -0,0 +1,9 @@
+-- Progress markers for scheduled jobs, so a missed run can catch up
+CREATE TABLE scheduled_job_state (
+    job_name VARCHAR(100) PRIMARY KEY,
+    watermark DATE NULL,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Exam auto-progress looks up pending exams by type, state and date range
+CREATE INDEX idx_assessment_type_state_exam_date ON assessment(type, current_state, exam_date);
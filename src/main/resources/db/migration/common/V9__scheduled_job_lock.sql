@@ -0,0 +1,13 @@
+-- One row per scheduled job; whichever node holds the lease runs the job.
+-- fencing_token goes up by one on every acquisition, so a node whose lease
+-- has lapsed can tell that another node has since taken over.
+CREATE TABLE scheduled_job_lock (
+    job_name VARCHAR(100) PRIMARY KEY,
+    owner VARCHAR(255) NULL,
+    fencing_token BIGINT NOT NULL DEFAULT 0,
+    acquired_at TIMESTAMP NULL,
+    heartbeat_at TIMESTAMP NULL,
+    lease_until TIMESTAMP NULL
+);
+
+INSERT INTO scheduled_job_lock (job_name) VALUES ('exam-auto-progress');
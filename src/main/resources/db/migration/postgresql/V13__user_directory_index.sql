@@ -0,0 +1,8 @@
+-- V13__user_directory_index.sql: Case-insensitive indexes for the user directory (PostgreSQL only)
+-- text_pattern_ops lets LOWER(...) LIKE 'prefix%' use the index whatever the database collation.
+-- (LOWER(name), id) serves the directory's keyset order when browsing without a prefix.
+-- H2 has no expression indexes and scans app_user instead, which is fine at development sizes.
+
+CREATE INDEX idx_user_name_lower_pattern ON app_user (LOWER(name) text_pattern_ops);
+CREATE INDEX idx_user_email_lower_pattern ON app_user (LOWER(email) text_pattern_ops);
+CREATE INDEX idx_user_name_lower_id ON app_user (LOWER(name), id);
@@ -0,0 +1,10 @@
+-- V7__module_search_trigram.sql: Trigram indexes for module search (PostgreSQL only)
+-- ILIKE '%...%' and similarity (%) on code and title are served by these GIN indexes.
+-- Flyway only scans this folder on PostgreSQL (classpath:db/migration/{vendor}); H2 runs the
+-- shared scripts in db/migration/common, skips version 7 and searches through an in-memory
+-- trigram index instead.
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX idx_module_code_trgm ON module USING gin (code gin_trgm_ops);
+CREATE INDEX idx_module_title_trgm ON module USING gin (title gin_trgm_ops);
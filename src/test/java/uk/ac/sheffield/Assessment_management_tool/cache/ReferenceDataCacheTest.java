@@ -0,0 +1,173 @@
+package uk.ac.sheffield.Assessment_management_tool.cache;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import uk.ac.sheffield.Assessment_management_tool.domain.entity.Assessment;
+import uk.ac.sheffield.Assessment_management_tool.domain.entity.Module;
+import uk.ac.sheffield.Assessment_management_tool.domain.entity.User;
+import uk.ac.sheffield.Assessment_management_tool.domain.enums.AssessmentType;
+import uk.ac.sheffield.Assessment_management_tool.domain.enums.UserBaseType;
+import uk.ac.sheffield.Assessment_management_tool.repository.AssessmentRepository;
+import uk.ac.sheffield.Assessment_management_tool.repository.ModuleRepository;
+import uk.ac.sheffield.Assessment_management_tool.repository.UserRepository;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ReferenceDataCacheTest {
+    
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final AssessmentRepository assessmentRepository = mock(AssessmentRepository.class);
+    private final ReferenceDataCache cache = new ReferenceDataCache(userRepository, mock(ModuleRepository.class),
+            assessmentRepository, 100, Duration.ofMinutes(10));
+    private final UUID userId = UUID.randomUUID();
+    
+    @Test
+    void roleFlagsAreCachedButWorkflowFlagsAreReadOnEveryCall() {
+        Assessment assessment = assessment(UUID.randomUUID());
+        when(assessmentRepository.findRoleFlags(assessment.getId(), userId))
+                .thenReturn(row(true, false, false, false, false, false));
+        // Feedback is recorded between the two checks
+        when(assessmentRepository.findWorkflowFlags(assessment.getId()))
+                .thenReturn(row(false, false), row(true, false));
+        
+        boolean[] before = cache.findPermissionFlags(assessment, userId);
+        boolean[] after = cache.findPermissionFlags(assessment, userId);
+        
+        assertArrayEquals(new boolean[] {true, false, false, false, false, false, false, false}, before);
+        assertArrayEquals(new boolean[] {true, false, false, false, false, false, true, false}, after);
+        verify(assessmentRepository, times(1)).findRoleFlags(assessment.getId(), userId);
+        verify(assessmentRepository, times(2)).findWorkflowFlags(assessment.getId());
+    }
+    
+    @Test
+    void missingAssessmentHasNoFlags() {
+        Assessment assessment = assessment(UUID.randomUUID());
+        when(assessmentRepository.findRoleFlags(any(), any())).thenReturn(List.of());
+        when(assessmentRepository.findWorkflowFlags(any())).thenReturn(List.of());
+        
+        assertArrayEquals(new boolean[8], cache.findPermissionFlags(assessment, userId));
+    }
+    
+    @Test
+    void callersCannotChangeTheCachedFlags() {
+        Assessment assessment = assessment(UUID.randomUUID());
+        when(assessmentRepository.findRoleFlags(any(), any())).thenReturn(row(false, false, false, false, false, false));
+        when(assessmentRepository.findWorkflowFlags(any())).thenReturn(row(false, false));
+        
+        cache.findPermissionFlags(assessment, userId)[0] = true;
+        
+        assertFalse(cache.findPermissionFlags(assessment, userId)[0]);
+    }
+    
+    @Test
+    void evictingAnAssessmentReloadsOnlyItsRoles() {
+        UUID moduleId = UUID.randomUUID();
+        Assessment evicted = assessment(moduleId);
+        Assessment kept = assessment(moduleId);
+        stubNoFlags();
+        cache.findPermissionFlags(evicted, userId);
+        cache.findPermissionFlags(kept, userId);
+        
+        cache.evictAssessmentRoles(evicted.getId());
+        cache.findPermissionFlags(evicted, userId);
+        cache.findPermissionFlags(kept, userId);
+        
+        verify(assessmentRepository, times(2)).findRoleFlags(evicted.getId(), userId);
+        verify(assessmentRepository, times(1)).findRoleFlags(kept.getId(), userId);
+    }
+    
+    @Test
+    void evictingAModuleReloadsRolesOnAllItsAssessments() {
+        UUID moduleId = UUID.randomUUID();
+        Assessment first = assessment(moduleId);
+        Assessment second = assessment(moduleId);
+        Assessment elsewhere = assessment(UUID.randomUUID());
+        stubNoFlags();
+        cache.findPermissionFlags(first, userId);
+        cache.findPermissionFlags(second, userId);
+        cache.findPermissionFlags(elsewhere, userId);
+        
+        cache.evictModule(moduleId);
+        cache.findPermissionFlags(first, userId);
+        cache.findPermissionFlags(second, userId);
+        cache.findPermissionFlags(elsewhere, userId);
+        
+        verify(assessmentRepository, times(2)).findRoleFlags(first.getId(), userId);
+        verify(assessmentRepository, times(2)).findRoleFlags(second.getId(), userId);
+        verify(assessmentRepository, times(1)).findRoleFlags(elsewhere.getId(), userId);
+    }
+    
+    @Test
+    void evictingAUserReloadsOnlyTheirRoles() {
+        Assessment assessment = assessment(UUID.randomUUID());
+        User user = new User("Lead A", "lead.a@sheffield.ac.uk", "hash", UserBaseType.ACADEMIC);
+        user.setId(userId);
+        UUID otherUserId = UUID.randomUUID();
+        stubNoFlags();
+        cache.findPermissionFlags(assessment, userId);
+        cache.findPermissionFlags(assessment, otherUserId);
+        
+        cache.evictUser(user);
+        cache.findPermissionFlags(assessment, userId);
+        cache.findPermissionFlags(assessment, otherUserId);
+        
+        verify(assessmentRepository, times(2)).findRoleFlags(assessment.getId(), userId);
+        verify(assessmentRepository, times(1)).findRoleFlags(assessment.getId(), otherUserId);
+    }
+    
+    @Test
+    void evictionRunsAgainAfterCommit() {
+        Assessment assessment = assessment(UUID.randomUUID());
+        stubNoFlags();
+        
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            cache.evictAssessmentRoles(assessment.getId());
+            // Another request re-caches the pre-commit roles before the writer commits
+            cache.findPermissionFlags(assessment, userId);
+            cache.findPermissionFlags(assessment, userId);
+            verify(assessmentRepository, times(1)).findRoleFlags(assessment.getId(), userId);
+            
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        
+        cache.findPermissionFlags(assessment, userId);
+        verify(assessmentRepository, times(2)).findRoleFlags(assessment.getId(), userId);
+        assertTrue(cache.stats().stream().anyMatch(stats -> stats.getInvalidations() > 0));
+    }
+    
+    private void stubNoFlags() {
+        when(assessmentRepository.findRoleFlags(any(), any())).thenAnswer(invocation ->
+                row(false, false, false, false, false, false));
+        when(assessmentRepository.findWorkflowFlags(any())).thenAnswer(invocation -> row(false, false));
+    }
+    
+    private static List<Object[]> row(Object... columns) {
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(columns);
+        return rows;
+    }
+    
+    private static Assessment assessment(UUID moduleId) {
+        Module module = new Module("COM1001", "Introduction to Software Engineering");
+        module.setId(moduleId);
+        Assessment assessment = new Assessment(module, "Final Exam", AssessmentType.EXAM);
+        assessment.setId(UUID.randomUUID());
+        return assessment;
+    }
+}
@@ -0,0 +1,121 @@
+package uk.ac.sheffield.Assessment_management_tool.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import uk.ac.sheffield.Assessment_management_tool.domain.entity.Assessment;
+import uk.ac.sheffield.Assessment_management_tool.domain.entity.Module;
+import uk.ac.sheffield.Assessment_management_tool.domain.enums.AssessmentState;
+import uk.ac.sheffield.Assessment_management_tool.domain.enums.AssessmentType;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Walks keyset pages against the application's H2 schema, as migrated by Flyway
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class AssessmentPageQueriesTest {
+    
+    private static final OffsetDateTime START = OffsetDateTime.parse("2026-01-05T09:00:00Z");
+    
+    @Autowired
+    private AssessmentRepository assessmentRepository;
+    
+    @Autowired
+    private TestEntityManager entityManager;
+    
+    private Module module;
+    
+    @BeforeEach
+    void setUp() {
+        module = entityManager.persist(new Module("PAGE101", "Paging"));
+        Module other = entityManager.persist(new Module("PAGE102", "Other"));
+        
+        // Three assessments share a timestamp, so the id has to break the tie across a page boundary
+        save(module, AssessmentType.EXAM, AssessmentState.DRAFT, START);
+        save(module, AssessmentType.CW, AssessmentState.DRAFT, START.plusHours(1));
+        save(module, AssessmentType.CW, AssessmentState.READY_FOR_CHECK, START.plusHours(1));
+        save(module, AssessmentType.EXAM, AssessmentState.DRAFT, START.plusHours(1));
+        save(module, AssessmentType.CW, AssessmentState.READY_FOR_CHECK, START.plusHours(2));
+        save(other, AssessmentType.CW, AssessmentState.DRAFT, START.plusHours(3));
+        entityManager.flush();
+        entityManager.clear();
+    }
+    
+    @Test
+    void walkingSmallPagesVisitsEveryRowOnceInPageOrder() {
+        List<Assessment> all = assessmentRepository.findPage(null, null, null, module.getId(),
+                null, null, null, null, 100);
+        
+        List<UUID> walked = walk(null, module.getId(), 2);
+        
+        assertEquals(5, all.size());
+        assertEquals(ids(all), walked);
+        assertEquals(5, new HashSet<>(walked).size());
+    }
+    
+    @Test
+    void pagesAreNewestFirst() {
+        List<Assessment> all = assessmentRepository.findPage(null, null, null, module.getId(),
+                null, null, null, null, 100);
+        
+        for (int i = 1; i < all.size(); i++) {
+            assertFalse(all.get(i).getCreatedAt().isAfter(all.get(i - 1).getCreatedAt()));
+        }
+    }
+    
+    @Test
+    void pageSizeOfOneStillCrossesTies() {
+        assertEquals(5, new HashSet<>(walk(null, module.getId(), 1)).size());
+    }
+    
+    @Test
+    void filteredWalkOnlyReturnsMatchingRows() {
+        List<UUID> walked = walk(AssessmentState.DRAFT, null, 1);
+        
+        List<Assessment> drafts = assessmentRepository.findPage(null, null, AssessmentState.DRAFT, null,
+                null, null, null, null, 100);
+        assertEquals(ids(drafts), walked);
+        drafts.forEach(assessment -> assertEquals(AssessmentState.DRAFT, assessment.getCurrentState()));
+    }
+    
+    private List<UUID> walk(AssessmentState state, UUID moduleId, int pageSize) {
+        List<UUID> walked = new ArrayList<>();
+        OffsetDateTime afterCreatedAt = null;
+        UUID afterId = null;
+        while (true) {
+            List<Assessment> page = assessmentRepository.findPage(null, null, state, moduleId,
+                    null, null, afterCreatedAt, afterId, pageSize);
+            walked.addAll(ids(page));
+            if (page.size() < pageSize) {
+                return walked;
+            }
+            Assessment last = page.get(page.size() - 1);
+            afterCreatedAt = last.getCreatedAt();
+            afterId = last.getId();
+        }
+    }
+    
+    private void save(Module module, AssessmentType type, AssessmentState state, OffsetDateTime createdAt) {
+        Assessment assessment = new Assessment(module, type + " " + createdAt, type);
+        assessment.setCurrentState(state);
+        assessment.setCreatedAt(createdAt);
+        entityManager.persist(assessment);
+    }
+    
+    private static List<UUID> ids(List<Assessment> rows) {
+        return rows.stream().map(Assessment::getId).collect(Collectors.toList());
+    }
+}
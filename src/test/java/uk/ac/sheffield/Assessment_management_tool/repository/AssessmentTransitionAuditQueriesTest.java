@@ -0,0 +1,146 @@
+package uk.ac.sheffield.Assessment_management_tool.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import uk.ac.sheffield.Assessment_management_tool.domain.entity.Assessment;
+import uk.ac.sheffield.Assessment_management_tool.domain.entity.AssessmentTransition;
+import uk.ac.sheffield.Assessment_management_tool.domain.entity.Module;
+import uk.ac.sheffield.Assessment_management_tool.domain.entity.User;
+import uk.ac.sheffield.Assessment_management_tool.domain.enums.AssessmentState;
+import uk.ac.sheffield.Assessment_management_tool.domain.enums.AssessmentType;
+import uk.ac.sheffield.Assessment_management_tool.domain.enums.UserBaseType;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Walks audit pages against the application's H2 schema, as migrated by Flyway
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class AssessmentTransitionAuditQueriesTest {
+    
+    private static final OffsetDateTime START = OffsetDateTime.parse("2026-03-02T10:00:00Z");
+    
+    @Autowired
+    private AssessmentTransitionRepository transitionRepository;
+    
+    @Autowired
+    private TestEntityManager entityManager;
+    
+    private Module module;
+    private User setter;
+    
+    @BeforeEach
+    void setUp() {
+        module = entityManager.persist(new Module("AUDIT101", "Auditing"));
+        Module other = entityManager.persist(new Module("AUDIT102", "Other"));
+        setter = entityManager.persist(new User("Setter", "setter@sheffield.ac.uk", "hash", UserBaseType.ACADEMIC));
+        User checker = entityManager.persist(new User("Checker", "checker@sheffield.ac.uk", "hash", UserBaseType.ACADEMIC));
+        Assessment exam = entityManager.persist(new Assessment(module, "Final Exam", AssessmentType.EXAM));
+        Assessment coursework = entityManager.persist(new Assessment(other, "Essay", AssessmentType.CW));
+        
+        // Three transitions share a timestamp, so the id has to break the tie across a page boundary
+        save(exam, setter, START);
+        save(exam, checker, START.plusMinutes(1));
+        save(exam, setter, START.plusMinutes(1));
+        save(exam, checker, START.plusMinutes(1));
+        save(exam, setter, START.plusMinutes(2));
+        save(coursework, setter, START.plusMinutes(3));
+        entityManager.flush();
+        entityManager.clear();
+    }
+    
+    @Test
+    void walkingSmallPagesVisitsEveryRowOnceInPageOrder() {
+        List<AssessmentTransition> all = page(null, null, null, null, null, 100);
+        
+        List<UUID> walked = walk(null, null, null, null, 2);
+        
+        assertEquals(6, all.size());
+        assertEquals(ids(all), walked);
+        assertEquals(6, new HashSet<>(walked).size());
+    }
+    
+    @Test
+    void pagesAreNewestFirst() {
+        List<AssessmentTransition> all = page(null, null, null, null, null, 100);
+        
+        for (int i = 1; i < all.size(); i++) {
+            assertFalse(all.get(i).getAt().isAfter(all.get(i - 1).getAt()));
+        }
+    }
+    
+    @Test
+    void pageSizeOfOneStillCrossesTies() {
+        assertEquals(6, new HashSet<>(walk(null, null, null, null, 1)).size());
+    }
+    
+    @Test
+    void filteredWalksOnlyReturnMatchingRows() {
+        assertEquals(ids(page(null, null, setter.getId(), null, null, 100)), walk(null, null, setter.getId(), null, 1));
+        assertEquals(4, walk(null, null, setter.getId(), null, 1).size());
+        
+        assertEquals(5, walk(null, null, null, module.getId(), 2).size());
+        
+        // Both ends of the range are inclusive
+        assertEquals(4, walk(START.plusMinutes(1), START.plusMinutes(2), null, null, 1).size());
+    }
+    
+    @Test
+    void exportStreamMatchesTheWalk() {
+        List<UUID> streamed;
+        try (Stream<AssessmentTransition> transitions = transitionRepository.streamAudit(null, null, null, null, 2)) {
+            streamed = transitions.map(AssessmentTransition::getId).collect(Collectors.toList());
+        }
+        
+        assertEquals(walk(null, null, null, null, 2), streamed);
+    }
+    
+    private List<AssessmentTransition> page(OffsetDateTime from, OffsetDateTime to, UUID userId, UUID moduleId,
+                                            AssessmentTransition after, int limit) {
+        return transitionRepository.findAuditPage(from, to, userId, moduleId,
+                after == null ? null : after.getAt(), after == null ? null : after.getId(), limit);
+    }
+    
+    private List<UUID> walk(OffsetDateTime from, OffsetDateTime to, UUID userId, UUID moduleId, int pageSize) {
+        List<UUID> walked = new ArrayList<>();
+        AssessmentTransition after = null;
+        while (true) {
+            List<AssessmentTransition> page = page(from, to, userId, moduleId, after, pageSize);
+            walked.addAll(ids(page));
+            if (page.size() < pageSize) {
+                return walked;
+            }
+            after = page.get(page.size() - 1);
+        }
+    }
+    
+    private void save(Assessment assessment, User user, OffsetDateTime at) {
+        AssessmentTransition transition = entityManager.persist(new AssessmentTransition(assessment,
+                AssessmentState.DRAFT, AssessmentState.READY_FOR_CHECK, user, user.getName()));
+        entityManager.flush();
+        // The entity stamps its own time on insert and the column is not updatable, so set it directly
+        entityManager.getEntityManager()
+                .createQuery("UPDATE AssessmentTransition t SET t.at = :at WHERE t.id = :id")
+                .setParameter("at", at)
+                .setParameter("id", transition.getId())
+                .executeUpdate();
+    }
+    
+    private static List<UUID> ids(List<AssessmentTransition> rows) {
+        return rows.stream().map(AssessmentTransition::getId).collect(Collectors.toList());
+    }
+}
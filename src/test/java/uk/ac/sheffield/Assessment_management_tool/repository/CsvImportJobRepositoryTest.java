@@ -0,0 +1,85 @@
+package uk.ac.sheffield.Assessment_management_tool.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import uk.ac.sheffield.Assessment_management_tool.domain.entity.CsvImportJob;
+import uk.ac.sheffield.Assessment_management_tool.domain.enums.ImportJobStatus;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Runs the claim updates against the application's H2 schema, as migrated by Flyway
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class CsvImportJobRepositoryTest {
+    
+    @Autowired
+    private CsvImportJobRepository importJobRepository;
+    
+    @Test
+    void resumeReclaimsARunningJobWhoseHeartbeatHasGoneStale() {
+        OffsetDateTime now = OffsetDateTime.now();
+        UUID id = saveJob(ImportJobStatus.RUNNING, now.minusMinutes(30));
+        
+        assertEquals(1, importJobRepository.claimForResume(id, now.minusMinutes(10)));
+        assertEquals(ImportJobStatus.PENDING, statusOf(id));
+        
+        // The reclaimed job can then be started again, once
+        assertEquals(1, importJobRepository.claimForRun(id, now));
+        assertEquals(0, importJobRepository.claimForRun(id, now));
+        CsvImportJob job = importJobRepository.findById(id).orElseThrow();
+        assertEquals(ImportJobStatus.RUNNING, job.getStatus());
+        assertNotNull(job.getHeartbeatAt());
+    }
+    
+    @Test
+    void resumeLeavesARunningJobWithARecentHeartbeatAlone() {
+        OffsetDateTime now = OffsetDateTime.now();
+        UUID id = saveJob(ImportJobStatus.RUNNING, now.minusMinutes(1));
+        
+        assertEquals(0, importJobRepository.claimForResume(id, now.minusMinutes(10)));
+        assertEquals(ImportJobStatus.RUNNING, statusOf(id));
+    }
+    
+    @Test
+    void resumeFallsBackToTheStartTimeForARunningJobWithoutAHeartbeat() {
+        OffsetDateTime now = OffsetDateTime.now();
+        CsvImportJob job = new CsvImportJob("modules.csv");
+        job.setStatus(ImportJobStatus.RUNNING);
+        job.setStartedAt(now.minusHours(1));
+        UUID id = importJobRepository.saveAndFlush(job).getId();
+        
+        assertEquals(1, importJobRepository.claimForResume(id, now.minusMinutes(10)));
+        assertEquals(ImportJobStatus.PENDING, statusOf(id));
+    }
+    
+    @Test
+    void resumeReclaimsAFailedJobAndNeverACompletedOne() {
+        OffsetDateTime now = OffsetDateTime.now();
+        UUID failed = saveJob(ImportJobStatus.FAILED, now);
+        UUID completed = saveJob(ImportJobStatus.COMPLETED, now.minusHours(1));
+        
+        assertEquals(1, importJobRepository.claimForResume(failed, now.minusMinutes(10)));
+        assertEquals(0, importJobRepository.claimForResume(completed, now.minusMinutes(10)));
+        assertEquals(ImportJobStatus.COMPLETED, statusOf(completed));
+    }
+    
+    private UUID saveJob(ImportJobStatus status, OffsetDateTime heartbeatAt) {
+        CsvImportJob job = new CsvImportJob("modules.csv");
+        job.setStatus(status);
+        job.setStartedAt(heartbeatAt);
+        job.setHeartbeatAt(heartbeatAt);
+        return importJobRepository.saveAndFlush(job).getId();
+    }
+    
+    private ImportJobStatus statusOf(UUID id) {
+        return importJobRepository.findById(id).orElseThrow().getStatus();
+    }
+}
@@ -0,0 +1,128 @@
+package uk.ac.sheffield.Assessment_management_tool.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import uk.ac.sheffield.Assessment_management_tool.domain.entity.User;
+import uk.ac.sheffield.Assessment_management_tool.domain.enums.UserBaseType;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Walks directory pages against the application's H2 schema, as migrated by Flyway
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class UserDirectoryQueriesTest {
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private TestEntityManager entityManager;
+    
+    private int seeded;
+    
+    @BeforeEach
+    void setUp() {
+        // Three users differ only in case, so the id has to break the tie across a page boundary
+        save("Alex Smith", "alex.smith@sheffield.ac.uk", UserBaseType.ACADEMIC, false);
+        save("alex smith", "a.smith@sheffield.ac.uk", UserBaseType.ACADEMIC, true);
+        save("ALEX SMITH", "smith.a@sheffield.ac.uk", UserBaseType.TEACHING_SUPPORT, false);
+        save("Beth Jones", "b.jones@sheffield.ac.uk", UserBaseType.ACADEMIC, false);
+        save("Carl_Ng", "carl@sheffield.ac.uk", UserBaseType.EXTERNAL_EXAMINER, false);
+        save("Carla Diaz", "c.diaz@sheffield.ac.uk", UserBaseType.ACADEMIC, false);
+        entityManager.flush();
+        entityManager.clear();
+        seeded = (int) userRepository.count();
+    }
+    
+    @Test
+    void walkingSmallPagesVisitsEveryRowOnceInPageOrder() {
+        List<Object[]> all = userRepository.findDirectoryPage(null, null, null, null, null, 100);
+        
+        List<UUID> walked = walk(null, null, null, 2);
+        
+        assertEquals(seeded, all.size());
+        assertEquals(ids(all), walked);
+        assertEquals(seeded, new HashSet<>(walked).size());
+    }
+    
+    @Test
+    void pagesAreOrderedByNameIgnoringCase() {
+        List<Object[]> all = userRepository.findDirectoryPage(null, null, null, null, null, 100);
+        
+        for (int i = 1; i < all.size(); i++) {
+            assertTrue(((String) all.get(i - 1)[4]).compareTo((String) all.get(i)[4]) <= 0);
+        }
+    }
+    
+    @Test
+    void pageSizeOfOneStillCrossesTies() {
+        List<UUID> walked = walk("alex", null, null, 1);
+        
+        assertEquals(3, walked.size());
+        assertEquals(3, new HashSet<>(walked).size());
+    }
+    
+    @Test
+    void prefixMatchesNameOrEmail() {
+        // "smith.a@" only matches by email
+        assertEquals(1, walk("smith.", null, null, 1).size());
+        assertEquals(3, walk("ALEX", null, null, 2).size());
+    }
+    
+    @Test
+    void likeWildcardsInThePrefixAreLiteral() {
+        List<Object[]> page = userRepository.findDirectoryPage("carl_", null, null, null, null, 100);
+        
+        assertEquals(1, page.size());
+        assertEquals("Carl_Ng", page.get(0)[1]);
+    }
+    
+    @Test
+    void filteredWalksOnlyReturnMatchingRows() {
+        List<Object[]> academics = userRepository.findDirectoryPage(null, UserBaseType.ACADEMIC, null, null, null, 100);
+        
+        assertEquals(ids(academics), walk(null, UserBaseType.ACADEMIC, null, 1));
+        academics.forEach(row -> assertEquals(UserBaseType.ACADEMIC, row[3]));
+        assertEquals(1, walk("alex", UserBaseType.ACADEMIC, true, 1).size());
+    }
+    
+    private List<UUID> walk(String prefix, UserBaseType baseType, Boolean examsOfficer, int pageSize) {
+        List<UUID> walked = new ArrayList<>();
+        String afterName = null;
+        UUID afterId = null;
+        while (true) {
+            List<Object[]> page = userRepository.findDirectoryPage(prefix == null ? null : prefix.toLowerCase(),
+                    baseType, examsOfficer, afterName, afterId, pageSize);
+            walked.addAll(ids(page));
+            if (page.size() < pageSize) {
+                return walked;
+            }
+            Object[] last = page.get(page.size() - 1);
+            afterName = (String) last[4];
+            afterId = (UUID) last[0];
+        }
+    }
+    
+    private void save(String name, String email, UserBaseType baseType, boolean examsOfficer) {
+        User user = new User(name, email, "hash", baseType);
+        user.setExamsOfficer(examsOfficer);
+        entityManager.persist(user);
+    }
+    
+    private static List<UUID> ids(List<Object[]> rows) {
+        return rows.stream().map(row -> (UUID) row[0]).collect(Collectors.toList());
+    }
+}
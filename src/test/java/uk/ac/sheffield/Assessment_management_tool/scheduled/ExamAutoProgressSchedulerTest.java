@@ -0,0 +1,186 @@
+package uk.ac.sheffield.Assessment_management_tool.scheduled;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import uk.ac.sheffield.Assessment_management_tool.domain.entity.Assessment;
+import uk.ac.sheffield.Assessment_management_tool.domain.entity.ScheduledJobState;
+import uk.ac.sheffield.Assessment_management_tool.domain.enums.AssessmentState;
+import uk.ac.sheffield.Assessment_management_tool.domain.enums.AssessmentType;
+import uk.ac.sheffield.Assessment_management_tool.repository.AssessmentRepository;
+import uk.ac.sheffield.Assessment_management_tool.repository.AssessmentTransitionRepository;
+import uk.ac.sheffield.Assessment_management_tool.repository.ScheduledJobStateRepository;
+import uk.ac.sheffield.Assessment_management_tool.service.AssessmentStateCounter;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ExamAutoProgressSchedulerTest {
+    
+    private static final LocalDate YESTERDAY = LocalDate.now(ZoneId.of("Europe/London")).minusDays(1);
+    
+    private final AssessmentRepository assessmentRepository = mock(AssessmentRepository.class);
+    private final ScheduledJobStateRepository jobStateRepository = mock(ScheduledJobStateRepository.class);
+    private final JobLockManager jobLockManager = mock(JobLockManager.class);
+    private final AssessmentStateCounter assessmentStateCounter = mock(AssessmentStateCounter.class);
+    private final JobLease lease = new JobLease(ExamAutoProgressScheduler.JOB_NAME, 1);
+    private final List<LocalDate> watermarks = new ArrayList<>();
+    private ScheduledJobState stored;
+    private ExamAutoProgressScheduler scheduler;
+    
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        scheduler = new ExamAutoProgressScheduler(assessmentRepository, mock(AssessmentTransitionRepository.class),
+                jobStateRepository, jobLockManager, assessmentStateCounter, transactionManager, 2);
+        
+        when(jobLockManager.runExclusively(eq(ExamAutoProgressScheduler.JOB_NAME), any())).thenAnswer(invocation -> {
+            invocation.<Consumer<JobLease>>getArgument(1).accept(lease);
+            return true;
+        });
+        when(jobStateRepository.findById(ExamAutoProgressScheduler.JOB_NAME))
+                .thenAnswer(invocation -> Optional.ofNullable(stored));
+        when(jobStateRepository.save(any(ScheduledJobState.class))).thenAnswer(invocation -> {
+            stored = invocation.getArgument(0);
+            watermarks.add(stored.getWatermark());
+            return stored;
+        });
+        when(assessmentRepository.getReferenceById(any())).thenReturn(new Assessment());
+        when(assessmentRepository.updateStates(any(), any(), any()))
+                .thenAnswer(invocation -> invocation.<Collection<UUID>>getArgument(0).size());
+        when(assessmentRepository.lockExamsInState(any(), any(), any(), anyInt())).thenReturn(List.of());
+    }
+    
+    @Test
+    void firstRunScansFromTheFloorDateAsARange() {
+        when(assessmentRepository.findExamDatesInState(any(), any(), any())).thenReturn(List.of());
+        
+        scheduler.autoProgressExams();
+        
+        verify(assessmentRepository).findExamDatesInState(AssessmentState.SENT_TO_PRINTING,
+                ExamAutoProgressScheduler.NO_WATERMARK, YESTERDAY);
+        assertEquals(List.of(YESTERDAY), watermarks);
+    }
+    
+    @Test
+    void catchesUpEveryMissedExamDateAndRecordsEachOne() {
+        LocalDate lastRun = YESTERDAY.minusDays(4);
+        storeWatermark(lastRun);
+        LocalDate first = YESTERDAY.minusDays(3);
+        LocalDate second = YESTERDAY.minusDays(1);
+        when(assessmentRepository.findExamDatesInState(AssessmentState.SENT_TO_PRINTING, lastRun, YESTERDAY))
+                .thenReturn(List.of(first, second));
+        
+        scheduler.autoProgressExams();
+        
+        verify(assessmentRepository).lockExamsInState("SENT_TO_PRINTING", first, first, 2);
+        verify(assessmentRepository).lockExamsInState("SENT_TO_PRINTING", second, second, 2);
+        assertEquals(List.of(first, second, YESTERDAY), watermarks);
+    }
+    
+    @Test
+    void runThatDiesPartWayKeepsTheLastDateItFinished() {
+        LocalDate lastRun = YESTERDAY.minusDays(4);
+        storeWatermark(lastRun);
+        LocalDate first = YESTERDAY.minusDays(3);
+        LocalDate second = YESTERDAY.minusDays(2);
+        when(assessmentRepository.findExamDatesInState(any(), any(), any())).thenReturn(List.of(first, second));
+        when(assessmentRepository.lockExamsInState(any(), eq(second), eq(second), anyInt()))
+                .thenThrow(new IllegalStateException("database went away"));
+        
+        assertThrows(IllegalStateException.class, () -> scheduler.autoProgressExams());
+        
+        assertEquals(List.of(first), watermarks);
+        assertEquals(first, stored.getWatermark());
+    }
+    
+    @Test
+    void watermarkNeverMovesBackwards() {
+        LocalDate ahead = YESTERDAY.plusDays(3);
+        storeWatermark(ahead);
+        when(assessmentRepository.findExamDatesInState(any(), any(), any())).thenReturn(List.of());
+        
+        scheduler.autoProgressExams();
+        
+        verify(jobStateRepository, never()).save(any());
+        assertEquals(ahead, stored.getWatermark());
+    }
+    
+    @Test
+    void progressesChunkByChunkUntilAShortChunk() {
+        LocalDate examDate = YESTERDAY;
+        UUID moduleId = UUID.randomUUID();
+        when(assessmentRepository.lockExamsInState("SENT_TO_PRINTING", examDate, examDate, 2))
+                .thenReturn(ids(2), ids(2), ids(1));
+        when(assessmentRepository.countByModule(any()))
+                .thenReturn(List.<Object[]>of(new Object[]{moduleId, 2L}), List.<Object[]>of(new Object[]{moduleId, 2L}),
+                        List.<Object[]>of(new Object[]{moduleId, 1L}));
+        
+        assertEquals(5, scheduler.progressExams(lease, examDate, examDate));
+        
+        verify(assessmentRepository, times(3)).updateStates(any(), eq(AssessmentState.SENT_TO_PRINTING),
+                eq(AssessmentState.EXAM_TAKEN));
+        verify(assessmentStateCounter, times(2)).moved(moduleId, AssessmentType.EXAM,
+                AssessmentState.SENT_TO_PRINTING, AssessmentState.EXAM_TAKEN, 2L);
+        verify(assessmentStateCounter).moved(moduleId, AssessmentType.EXAM,
+                AssessmentState.SENT_TO_PRINTING, AssessmentState.EXAM_TAKEN, 1L);
+        // Every chunk is fenced, so a node that lost the lease stops at the next one
+        verify(jobLockManager, times(3)).fence(lease);
+    }
+    
+    @Test
+    void exactMultipleOfTheChunkSizeStopsAtTheEmptyChunk() {
+        LocalDate examDate = YESTERDAY;
+        when(assessmentRepository.lockExamsInState("SENT_TO_PRINTING", examDate, examDate, 2))
+                .thenReturn(ids(2), ids(2), List.of());
+        
+        assertEquals(4, scheduler.progressExams(lease, examDate, examDate));
+        
+        verify(assessmentRepository, times(3)).lockExamsInState("SENT_TO_PRINTING", examDate, examDate, 2);
+        verify(assessmentRepository, times(2)).updateStates(any(), any(), any());
+    }
+    
+    @Test
+    void chunkWhoseUpdateMissesRowsIsRolledBack() {
+        LocalDate examDate = YESTERDAY;
+        when(assessmentRepository.lockExamsInState(any(), any(), any(), anyInt())).thenReturn(ids(2));
+        when(assessmentRepository.updateStates(any(), any(), any())).thenReturn(1);
+        
+        assertThrows(IllegalStateException.class, () -> scheduler.progressExams(lease, examDate, examDate));
+        verify(assessmentStateCounter, never()).moved(any(), any(), any(), any(), anyLong());
+    }
+    
+    private static List<UUID> ids(int count) {
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            ids.add(UUID.randomUUID());
+        }
+        return ids;
+    }
+    
+    private void storeWatermark(LocalDate watermark) {
+        stored = new ScheduledJobState(ExamAutoProgressScheduler.JOB_NAME);
+        stored.setWatermark(watermark);
+    }
+}
@@ -0,0 +1,97 @@
+package uk.ac.sheffield.Assessment_management_tool.scheduled;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import uk.ac.sheffield.Assessment_management_tool.domain.entity.ScheduledJobLock;
+import uk.ac.sheffield.Assessment_management_tool.repository.ScheduledJobLockRepository;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class JobLockManagerTest {
+    
+    private static final String JOB = "exam-auto-progress";
+    private static final long TOKEN = 7;
+    
+    private final ScheduledJobLockRepository lockRepository = mock(ScheduledJobLockRepository.class);
+    private JobLockManager lockManager;
+    
+    @BeforeEach
+    void setUp() {
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        lockManager = new JobLockManager(lockRepository, transactionManager, "node-a", Duration.ofMinutes(5));
+        
+        ScheduledJobLock lock = new ScheduledJobLock(JOB);
+        lock.setFencingToken(TOKEN);
+        when(lockRepository.existsById(JOB)).thenReturn(true);
+        when(lockRepository.findById(JOB)).thenReturn(Optional.of(lock));
+    }
+    
+    @AfterEach
+    void tearDown() {
+        lockManager.shutdown();
+    }
+    
+    @Test
+    void fencePassesWhileTheLeaseIsHeld() {
+        when(lockRepository.acquire(eq(JOB), eq("node-a"), any(), any())).thenReturn(1);
+        when(lockRepository.renew(eq(JOB), eq(TOKEN), any(), any())).thenReturn(1);
+        
+        boolean ran = lockManager.runExclusively(JOB, lease -> {
+            assertDoesNotThrow(() -> lockManager.fence(lease));
+            assertFalse(lease.isLost());
+        });
+        
+        assertTrue(ran);
+        verify(lockRepository).release(JOB, TOKEN);
+    }
+    
+    @Test
+    void fenceThrowsOnceTheLeaseHasBeenTaken() {
+        when(lockRepository.acquire(eq(JOB), eq("node-a"), any(), any())).thenReturn(1);
+        // Another node took the lease over, so the old token no longer matches
+        when(lockRepository.renew(eq(JOB), eq(TOKEN), any(), any())).thenReturn(0);
+        AtomicBoolean wroteAfterFence = new AtomicBoolean(false);
+        
+        boolean ran = lockManager.runExclusively(JOB, lease -> {
+            assertThrows(IllegalStateException.class, () -> {
+                lockManager.fence(lease);
+                wroteAfterFence.set(true);
+            });
+            assertTrue(lease.isLost());
+        });
+        
+        assertTrue(ran);
+        assertFalse(wroteAfterFence.get());
+        verify(lockRepository).release(JOB, TOKEN);
+    }
+    
+    @Test
+    void skipsTheJobWhenAnotherNodeHoldsTheLease() {
+        when(lockRepository.acquire(eq(JOB), eq("node-a"), any(), any())).thenReturn(0);
+        AtomicBoolean jobRan = new AtomicBoolean(false);
+        
+        boolean ran = lockManager.runExclusively(JOB, lease -> jobRan.set(true));
+        
+        assertFalse(ran);
+        assertFalse(jobRan.get());
+        verify(lockRepository, never()).release(any(), anyLong());
+    }
+}
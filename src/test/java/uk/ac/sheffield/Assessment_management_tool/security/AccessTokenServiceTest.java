@@ -0,0 +1,112 @@
+package uk.ac.sheffield.Assessment_management_tool.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.BadCredentialsException;
+import uk.ac.sheffield.Assessment_management_tool.domain.enums.UserBaseType;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AccessTokenServiceTest {
+    
+    private static final String SECRET = "test-secret-that-is-at-least-32-bytes";
+    
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final CustomUserDetails user = new CustomUserDetails(UUID.randomUUID(), "lead@sheffield.ac.uk",
+            "Module Lead", UserBaseType.ACADEMIC, true, null);
+    
+    private AccessTokenService service(String secret, Duration accessTtl) {
+        return new AccessTokenService(objectMapper, "token", secret, accessTtl, Duration.ofHours(8));
+    }
+    
+    @Test
+    void accessTokenRoundTripsThePrincipal() {
+        AccessTokenService tokens = service(SECRET, Duration.ofMinutes(15));
+        
+        CustomUserDetails verified = tokens.verifyAccessToken(tokens.issueAccessToken(user));
+        
+        assertEquals(user.getUserId(), verified.getUserId());
+        assertEquals(user.getUsername(), verified.getUsername());
+        assertEquals(user.getName(), verified.getName());
+        assertEquals(UserBaseType.ACADEMIC, verified.getBaseType());
+        assertTrue(verified.isExamsOfficer());
+    }
+    
+    @Test
+    void rejectsTokenSignedWithAnotherSecret() {
+        String forged = service("another-secret-that-is-also-32-bytes!", Duration.ofMinutes(15))
+                .issueAccessToken(user);
+        
+        assertThrows(BadCredentialsException.class,
+                () -> service(SECRET, Duration.ofMinutes(15)).verifyAccessToken(forged));
+    }
+    
+    @Test
+    void rejectsTokenWithTamperedClaims() {
+        AccessTokenService tokens = service(SECRET, Duration.ofMinutes(15));
+        String[] parts = tokens.issueAccessToken(user).split("\\.");
+        String claims = new String(Base64.getUrlDecoder().decode(parts[1]), StandardCharsets.UTF_8)
+                .replace("\"eo\":true", "\"eo\":false");
+        String tampered = parts[0] + "." + encode(claims) + "." + parts[2];
+        
+        assertThrows(BadCredentialsException.class, () -> tokens.verifyAccessToken(tampered));
+    }
+    
+    @Test
+    void rejectsExpiredToken() {
+        AccessTokenService tokens = service(SECRET, Duration.ofSeconds(-1));
+        String expired = tokens.issueAccessToken(user);
+        
+        BadCredentialsException e = assertThrows(BadCredentialsException.class,
+                () -> tokens.verifyAccessToken(expired));
+        assertEquals("Token expired", e.getMessage());
+    }
+    
+    @Test
+    void rejectsAccessTokenUsedAsRefreshToken() {
+        AccessTokenService tokens = service(SECRET, Duration.ofMinutes(15));
+        String access = tokens.issueAccessToken(user);
+        
+        BadCredentialsException e = assertThrows(BadCredentialsException.class,
+                () -> tokens.verifyRefreshToken(access));
+        assertEquals("Wrong token type", e.getMessage());
+    }
+    
+    @Test
+    void rejectsRefreshTokenUsedAsAccessToken() {
+        AccessTokenService tokens = service(SECRET, Duration.ofMinutes(15));
+        String refresh = tokens.issueRefreshToken(user);
+        
+        assertEquals(user.getUserId(), tokens.verifyRefreshToken(refresh));
+        assertThrows(BadCredentialsException.class, () -> tokens.verifyAccessToken(refresh));
+    }
+    
+    @Test
+    void rejectsMalformedHeader() {
+        AccessTokenService tokens = service(SECRET, Duration.ofMinutes(15));
+        String[] parts = tokens.issueAccessToken(user).split("\\.");
+        String unsigned = encode("{\"alg\":\"none\",\"typ\":\"JWT\"}") + "." + parts[1] + ".";
+        
+        assertThrows(BadCredentialsException.class, () -> tokens.verifyAccessToken(unsigned));
+        assertThrows(BadCredentialsException.class, () -> tokens.verifyAccessToken("not-a-token"));
+        assertThrows(BadCredentialsException.class, () -> tokens.verifyAccessToken(parts[0] + "." + parts[1]));
+        assertThrows(BadCredentialsException.class,
+                () -> tokens.verifyAccessToken(parts[0] + ".%%%." + parts[2]));
+    }
+    
+    @Test
+    void tokenModeRequiresALongEnoughSecret() {
+        assertThrows(IllegalStateException.class, () -> service("too-short", Duration.ofMinutes(15)));
+    }
+    
+    private static String encode(String json) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
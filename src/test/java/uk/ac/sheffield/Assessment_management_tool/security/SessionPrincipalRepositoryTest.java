@@ -0,0 +1,136 @@
+package uk.ac.sheffield.Assessment_management_tool.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import uk.ac.sheffield.Assessment_management_tool.cache.ReferenceDataCache;
+import uk.ac.sheffield.Assessment_management_tool.domain.entity.User;
+import uk.ac.sheffield.Assessment_management_tool.domain.enums.UserBaseType;
+import uk.ac.sheffield.Assessment_management_tool.repository.AssessmentRepository;
+import uk.ac.sheffield.Assessment_management_tool.repository.ModuleRepository;
+import uk.ac.sheffield.Assessment_management_tool.repository.UserRepository;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Sessions resolve their user through the principal cache, so these run against a
+ * real {@link ReferenceDataCache} over a mocked repository
+ */
+class SessionPrincipalRepositoryTest {
+    
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final ReferenceDataCache cache = new ReferenceDataCache(userRepository, mock(ModuleRepository.class),
+            mock(AssessmentRepository.class), 100, Duration.ofMinutes(10));
+    private final SessionPrincipalRepository repository = new SessionPrincipalRepository(cache);
+    private final User user = new User("Lead A", "lead.a@sheffield.ac.uk", "hash-1", UserBaseType.ACADEMIC);
+    private MockHttpSession session;
+    
+    @BeforeEach
+    void signIn() {
+        user.setId(UUID.randomUUID());
+        when(userRepository.findById(user.getId())).thenAnswer(invocation -> Optional.of(copyOf(user)));
+        
+        SecurityContext context = SecurityContextHolder.createEmptyContext();
+        CustomUserDetails principal = new CustomUserDetails(user);
+        context.setAuthentication(UsernamePasswordAuthenticationToken.authenticated(
+                principal, null, principal.getAuthorities()));
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        repository.saveContext(context, request, new MockHttpServletResponse());
+        session = (MockHttpSession) request.getSession(false);
+    }
+    
+    @Test
+    void sessionHoldsOnlyTheIdAndCredentialsVersion() {
+        Object stored = session.getAttribute(SessionPrincipalRepository.SESSION_ATTRIBUTE);
+        
+        assertEquals(new SessionPrincipalRepository.SessionPrincipal(user.getId(),
+                new CustomUserDetails(user).getCredentialsVersion()), stored);
+    }
+    
+    @Test
+    void principalIsCachedWithoutItsPasswordHash() {
+        CustomUserDetails first = principalOf(nextRequest());
+        CustomUserDetails second = principalOf(nextRequest());
+        
+        assertEquals(user.getId(), first.getUserId());
+        assertNull(first.getPassword());
+        assertSame(first, second);
+        verify(userRepository, times(1)).findById(user.getId());
+    }
+    
+    @Test
+    void roleChangeAppliesFromTheNextRequestOnceTheUserIsEvicted() {
+        assertEquals(Set.of("ROLE_ACADEMIC"), authoritiesOf(principalOf(nextRequest())));
+        
+        user.setExamsOfficer(true);
+        // Still cached until the writer evicts
+        assertEquals(Set.of("ROLE_ACADEMIC"), authoritiesOf(principalOf(nextRequest())));
+        cache.evictUser(user);
+        
+        assertEquals(Set.of("ROLE_ACADEMIC", "ROLE_EXAMS_OFFICER"), authoritiesOf(principalOf(nextRequest())));
+        assertFalse(session.isInvalid());
+    }
+    
+    @Test
+    void passwordChangeEndsTheSession() {
+        user.setPasswordHash("hash-2");
+        cache.evictUser(user);
+        
+        SecurityContext context = repository.loadDeferredContext(nextRequest()).get();
+        
+        assertNull(context.getAuthentication());
+        assertTrue(session.isInvalid());
+    }
+    
+    @Test
+    void deletedUserEndsTheSession() {
+        when(userRepository.findById(user.getId())).thenReturn(Optional.empty());
+        cache.evictUser(user);
+        
+        SecurityContext context = repository.loadDeferredContext(nextRequest()).get();
+        
+        assertNull(context.getAuthentication());
+        assertTrue(session.isInvalid());
+    }
+    
+    private MockHttpServletRequest nextRequest() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setSession(session);
+        return request;
+    }
+    
+    private CustomUserDetails principalOf(MockHttpServletRequest request) {
+        return (CustomUserDetails) repository.loadDeferredContext(request).get().getAuthentication().getPrincipal();
+    }
+    
+    private static Set<String> authoritiesOf(CustomUserDetails principal) {
+        return principal.getAuthorities().stream().map(GrantedAuthority::getAuthority).collect(Collectors.toSet());
+    }
+    
+    private static User copyOf(User user) {
+        User copy = new User(user.getName(), user.getEmail(), user.getPasswordHash(), user.getBaseType());
+        copy.setId(user.getId());
+        copy.setExamsOfficer(user.isExamsOfficer());
+        return copy;
+    }
+}
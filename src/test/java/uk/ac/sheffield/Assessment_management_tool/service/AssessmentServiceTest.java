@@ -0,0 +1,162 @@
+package uk.ac.sheffield.Assessment_management_tool.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import uk.ac.sheffield.Assessment_management_tool.cache.ReferenceDataCache;
+import uk.ac.sheffield.Assessment_management_tool.domain.entity.Assessment;
+import uk.ac.sheffield.Assessment_management_tool.domain.entity.Module;
+import uk.ac.sheffield.Assessment_management_tool.domain.entity.User;
+import uk.ac.sheffield.Assessment_management_tool.domain.enums.AssessmentType;
+import uk.ac.sheffield.Assessment_management_tool.domain.enums.UserBaseType;
+import uk.ac.sheffield.Assessment_management_tool.dto.request.AssessmentFilter;
+import uk.ac.sheffield.Assessment_management_tool.dto.response.AssessmentDto;
+import uk.ac.sheffield.Assessment_management_tool.dto.response.CursorPageDto;
+import uk.ac.sheffield.Assessment_management_tool.repository.AssessmentRepository;
+import uk.ac.sheffield.Assessment_management_tool.repository.AssessmentRoleRepository;
+import uk.ac.sheffield.Assessment_management_tool.repository.AssessmentTransitionRepository;
+import uk.ac.sheffield.Assessment_management_tool.repository.ModuleRepository;
+import uk.ac.sheffield.Assessment_management_tool.repository.ModuleStaffRoleRepository;
+import uk.ac.sheffield.Assessment_management_tool.repository.UserRepository;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AssessmentServiceTest {
+    
+    private static final OffsetDateTime START = OffsetDateTime.parse("2026-01-05T09:00:00Z");
+    
+    private final AssessmentRepository assessmentRepository = mock(AssessmentRepository.class);
+    private final ReferenceDataCache referenceDataCache = mock(ReferenceDataCache.class);
+    private final UUID userId = UUID.randomUUID();
+    private final Module module = new Module("COM1001", "Introduction to Software Engineering");
+    private AssessmentService service;
+    
+    @BeforeEach
+    void setUp() {
+        service = new AssessmentService(assessmentRepository, mock(ModuleRepository.class), mock(UserRepository.class),
+                mock(AssessmentTransitionRepository.class), mock(AssessmentRoleRepository.class),
+                mock(ModuleStaffRoleRepository.class), mock(TransitionService.class), referenceDataCache,
+                mock(AssessmentStateCounter.class));
+        module.setId(UUID.randomUUID());
+        givenUser(UserBaseType.ACADEMIC);
+    }
+    
+    @Test
+    void fullPageWithAnExtraRowLinksToTheNextPage() {
+        List<Assessment> rows = assessments(4);
+        whenPageRequested(rows);
+        
+        CursorPageDto<AssessmentDto> page = service.getAssessmentPageForUser(userId, new AssessmentFilter(), null, 3);
+        
+        // The extra row is only a look-ahead and is not returned
+        assertEquals(ids(rows.subList(0, 3)), page.getContent().stream().map(AssessmentDto::getId).collect(Collectors.toList()));
+        assertNotNull(page.getNextCursor());
+        verify(assessmentRepository).findPage(eq(userId), isNull(), isNull(), isNull(), isNull(), isNull(),
+                isNull(), isNull(), eq(4));
+    }
+    
+    @Test
+    void nextCursorResumesAfterTheLastRowReturned() {
+        List<Assessment> rows = assessments(4);
+        whenPageRequested(rows);
+        String cursor = service.getAssessmentPageForUser(userId, new AssessmentFilter(), null, 3).getNextCursor();
+        
+        service.getAssessmentPageForUser(userId, new AssessmentFilter(), cursor, 3);
+        
+        Assessment last = rows.get(2);
+        verify(assessmentRepository).findPage(eq(userId), isNull(), isNull(), isNull(), isNull(), isNull(),
+                eq(last.getCreatedAt()), eq(last.getId()), eq(4));
+    }
+    
+    @Test
+    void pageThatExactlyFillsTheLimitIsTheLast() {
+        whenPageRequested(assessments(3));
+        
+        CursorPageDto<AssessmentDto> page = service.getAssessmentPageForUser(userId, new AssessmentFilter(), null, 3);
+        
+        assertEquals(3, page.getContent().size());
+        assertNull(page.getNextCursor());
+    }
+    
+    @Test
+    void emptyPageHasNoCursor() {
+        whenPageRequested(List.of());
+        
+        CursorPageDto<AssessmentDto> page = service.getAssessmentPageForUser(userId, new AssessmentFilter(), null, 3);
+        
+        assertEquals(0, page.getContent().size());
+        assertNull(page.getNextCursor());
+    }
+    
+    @Test
+    void limitIsClampedToTheAllowedRange() {
+        whenPageRequested(List.of());
+        
+        service.getAssessmentPageForUser(userId, new AssessmentFilter(), null, 0);
+        service.getAssessmentPageForUser(userId, new AssessmentFilter(), null, 10_000);
+        
+        verify(assessmentRepository).findPage(any(), any(), any(), any(), any(), any(), any(), any(), eq(2));
+        verify(assessmentRepository).findPage(any(), any(), any(), any(), any(), any(), any(), any(), eq(201));
+    }
+    
+    @Test
+    void adminsPageThroughEveryAssessment() {
+        givenUser(UserBaseType.TEACHING_SUPPORT);
+        whenPageRequested(List.of());
+        
+        service.getAssessmentPageForUser(userId, new AssessmentFilter(), null, 3);
+        
+        verify(assessmentRepository).findPage(isNull(), any(), any(), any(), any(), any(), any(), any(), anyInt());
+    }
+    
+    @Test
+    void malformedCursorIsRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> service.getAssessmentPageForUser(userId, new AssessmentFilter(), "not-a-cursor", 3));
+    }
+    
+    private void givenUser(UserBaseType baseType) {
+        User user = new User("Phil McMinn", "p.mcminn@sheffield.ac.uk", "hash", baseType);
+        user.setId(userId);
+        when(referenceDataCache.findUser(userId)).thenReturn(Optional.of(user));
+    }
+    
+    private void whenPageRequested(List<Assessment> rows) {
+        when(assessmentRepository.findPage(any(), any(), any(), any(), any(), any(), any(), any(), anyInt()))
+                .thenReturn(new ArrayList<>(rows));
+    }
+    
+    /**
+     * Newest first, as the repository returns them
+     */
+    private List<Assessment> assessments(int count) {
+        List<Assessment> rows = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Assessment assessment = new Assessment(module, "Assessment " + i, AssessmentType.CW);
+            assessment.setId(UUID.randomUUID());
+            assessment.setCreatedAt(START.minusHours(i));
+            rows.add(assessment);
+        }
+        return rows;
+    }
+    
+    private static List<UUID> ids(List<Assessment> rows) {
+        return rows.stream().map(Assessment::getId).collect(Collectors.toList());
+    }
+}
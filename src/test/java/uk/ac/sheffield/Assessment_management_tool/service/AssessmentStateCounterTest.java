@@ -0,0 +1,132 @@
+package uk.ac.sheffield.Assessment_management_tool.service;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import uk.ac.sheffield.Assessment_management_tool.domain.entity.Assessment;
+import uk.ac.sheffield.Assessment_management_tool.domain.entity.Module;
+import uk.ac.sheffield.Assessment_management_tool.domain.enums.AssessmentState;
+import uk.ac.sheffield.Assessment_management_tool.domain.enums.AssessmentType;
+import uk.ac.sheffield.Assessment_management_tool.dto.response.AssessmentStatsDto;
+import uk.ac.sheffield.Assessment_management_tool.repository.AssessmentRepository;
+import uk.ac.sheffield.Assessment_management_tool.repository.AssessmentStateCountRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class AssessmentStateCounterTest {
+    
+    private final AssessmentStateCountRepository countRepository = mock(AssessmentStateCountRepository.class);
+    private final AssessmentRepository assessmentRepository = mock(AssessmentRepository.class);
+    private final AssessmentStateCounter counter = new AssessmentStateCounter(countRepository, assessmentRepository);
+    private final UUID moduleId = UUID.randomUUID();
+    
+    @Test
+    void movedUpdatesTheLowerStateFirstInEitherDirection() {
+        when(countRepository.addToCount(any(), any(), any(), anyLong())).thenReturn(1);
+        
+        counter.moved(assessment(AssessmentState.READY_FOR_CHECK), AssessmentState.DRAFT, AssessmentState.READY_FOR_CHECK);
+        counter.moved(assessment(AssessmentState.DRAFT), AssessmentState.READY_FOR_CHECK, AssessmentState.DRAFT);
+        
+        InOrder order = inOrder(countRepository);
+        order.verify(countRepository).addToCount(moduleId, AssessmentType.CW, AssessmentState.DRAFT, -1);
+        order.verify(countRepository).addToCount(moduleId, AssessmentType.CW, AssessmentState.READY_FOR_CHECK, 1);
+        order.verify(countRepository).addToCount(moduleId, AssessmentType.CW, AssessmentState.DRAFT, 1);
+        order.verify(countRepository).addToCount(moduleId, AssessmentType.CW, AssessmentState.READY_FOR_CHECK, -1);
+    }
+    
+    @Test
+    void movedToTheSameStateChangesNothing() {
+        counter.moved(assessment(AssessmentState.DRAFT), AssessmentState.DRAFT, AssessmentState.DRAFT);
+        
+        verifyNoInteractions(countRepository);
+    }
+    
+    @Test
+    void movedCreatesAMissingCounterRow() {
+        when(countRepository.addToCount(moduleId, AssessmentType.CW, AssessmentState.DRAFT, -1)).thenReturn(1);
+        when(countRepository.addToCount(moduleId, AssessmentType.CW, AssessmentState.READY_FOR_CHECK, 1)).thenReturn(0);
+        when(countRepository.insertCount(moduleId, "CW", "READY_FOR_CHECK", 1)).thenReturn(1);
+        
+        counter.moved(assessment(AssessmentState.READY_FOR_CHECK), AssessmentState.DRAFT, AssessmentState.READY_FOR_CHECK);
+        
+        verify(countRepository).insertCount(moduleId, "CW", "READY_FOR_CHECK", 1);
+        verify(countRepository, times(1)).addToCount(moduleId, AssessmentType.CW, AssessmentState.READY_FOR_CHECK, 1);
+        verify(countRepository, never()).insertCount(moduleId, "CW", "DRAFT", -1);
+    }
+    
+    @Test
+    void movedAddsToTheRowAnotherTransactionCreatedFirst() {
+        when(countRepository.addToCount(moduleId, AssessmentType.CW, AssessmentState.DRAFT, -1)).thenReturn(1);
+        when(countRepository.addToCount(moduleId, AssessmentType.CW, AssessmentState.READY_FOR_CHECK, 1))
+                .thenReturn(0, 1);
+        when(countRepository.insertCount(moduleId, "CW", "READY_FOR_CHECK", 1)).thenReturn(0);
+        
+        counter.moved(assessment(AssessmentState.READY_FOR_CHECK), AssessmentState.DRAFT, AssessmentState.READY_FOR_CHECK);
+        
+        verify(countRepository, times(2)).addToCount(moduleId, AssessmentType.CW, AssessmentState.READY_FOR_CHECK, 1);
+    }
+    
+    @Test
+    void reconcileReportsRepairedAndCreatedCounters() {
+        when(countRepository.repairCounts()).thenReturn(2);
+        when(countRepository.insertMissingCounts()).thenReturn(3);
+        
+        assertEquals(5, counter.reconcile());
+    }
+    
+    @Test
+    void statsAddDirectAssignmentsOutsideStaffModules() {
+        UUID userId = UUID.randomUUID();
+        when(countRepository.sumByTypeAndState(null, userId)).thenReturn(rows(
+                new Object[] {AssessmentType.EXAM, AssessmentState.DRAFT, 4L},
+                new Object[] {AssessmentType.CW, AssessmentState.RELEASED, 0L}));
+        when(assessmentRepository.countAssignedOutsideStaffModules(null, userId)).thenReturn(rows(
+                new Object[] {AssessmentType.EXAM, AssessmentState.DRAFT, 1L},
+                new Object[] {AssessmentType.CW, AssessmentState.READY_FOR_CHECK, 2L}));
+        
+        AssessmentStatsDto stats = counter.stats(null, userId);
+        
+        assertEquals(7, stats.getTotal());
+        assertEquals(5L, stats.getByState().get(AssessmentState.DRAFT));
+        assertEquals(5L, stats.getByType().get(AssessmentType.EXAM));
+        assertEquals(2L, stats.getByType().get(AssessmentType.CW));
+        assertEquals(5L, stats.getByTypeAndState().get(AssessmentType.EXAM).get(AssessmentState.DRAFT));
+        assertFalse(stats.getByState().containsKey(AssessmentState.RELEASED));
+    }
+    
+    @Test
+    void adminStatsReadOnlyTheCounters() {
+        when(countRepository.sumByTypeAndState(null, null)).thenReturn(rows(
+                new Object[] {AssessmentType.EXAM, AssessmentState.DRAFT, 4L}));
+        
+        assertEquals(4, counter.stats(null, null).getTotal());
+        verifyNoInteractions(assessmentRepository);
+    }
+    
+    private Assessment assessment(AssessmentState state) {
+        Module module = new Module("COM1001", "Software Engineering");
+        module.setId(moduleId);
+        Assessment assessment = new Assessment();
+        assessment.setModule(module);
+        assessment.setType(AssessmentType.CW);
+        assessment.setCurrentState(state);
+        return assessment;
+    }
+    
+    private static List<Object[]> rows(Object[]... rows) {
+        return new ArrayList<>(List.of(rows));
+    }
+}
@@ -0,0 +1,135 @@
+package uk.ac.sheffield.Assessment_management_tool.service;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import uk.ac.sheffield.Assessment_management_tool.cache.ReferenceDataCache;
+import uk.ac.sheffield.Assessment_management_tool.domain.entity.CsvImportJob;
+import uk.ac.sheffield.Assessment_management_tool.domain.entity.Module;
+import uk.ac.sheffield.Assessment_management_tool.domain.entity.User;
+import uk.ac.sheffield.Assessment_management_tool.domain.enums.ImportJobStatus;
+import uk.ac.sheffield.Assessment_management_tool.domain.enums.UserBaseType;
+import uk.ac.sheffield.Assessment_management_tool.repository.AssessmentRepository;
+import uk.ac.sheffield.Assessment_management_tool.repository.CsvImportErrorRepository;
+import uk.ac.sheffield.Assessment_management_tool.repository.CsvImportJobRepository;
+import uk.ac.sheffield.Assessment_management_tool.repository.ModuleRepository;
+import uk.ac.sheffield.Assessment_management_tool.repository.ModuleStaffRoleRepository;
+import uk.ac.sheffield.Assessment_management_tool.repository.UserRepository;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CsvImportJobRunnerTest {
+    
+    private static final String FIRST_LINE = "COM1001,Introduction to Software Engineering,Lead A\n";
+    
+    @TempDir
+    Path spoolDir;
+    
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final ModuleRepository moduleRepository = mock(ModuleRepository.class);
+    private final ModuleStaffRoleRepository moduleStaffRoleRepository = mock(ModuleStaffRoleRepository.class);
+    private final CsvImportJobRepository importJobRepository = mock(CsvImportJobRepository.class);
+    private final TaskExecutor importExecutor = mock(TaskExecutor.class);
+    private final UUID jobId = UUID.randomUUID();
+    private CsvImportJobRunner runner;
+    private Path spoolFile;
+    
+    @BeforeEach
+    void setUp() throws Exception {
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        runner = new CsvImportJobRunner(userRepository, moduleRepository, mock(AssessmentRepository.class),
+                moduleStaffRoleRepository, importJobRepository, mock(CsvImportErrorRepository.class),
+                mock(ModuleSearchIndex.class), mock(ReferenceDataCache.class), mock(AssessmentStateCounter.class),
+                importExecutor, transactionManager, 500, 50);
+        ReflectionTestUtils.setField(runner, "entityManager", mock(EntityManager.class));
+        
+        spoolFile = spoolDir.resolve(jobId + ".csv");
+        Files.writeString(spoolFile, FIRST_LINE +
+                "COM1002,Databases,Lead A\n" +
+                "COM1003,Theory of Computation,Lead A\n", StandardCharsets.UTF_8);
+        
+        User lead = new User("Lead A", "lead.a@sheffield.ac.uk", "hash", UserBaseType.ACADEMIC);
+        lead.setId(UUID.randomUUID());
+        when(userRepository.findByNameIn(any())).thenReturn(List.of(lead));
+        when(moduleRepository.save(any(Module.class))).thenAnswer(invocation -> {
+            Module module = invocation.getArgument(0);
+            if (module.getId() == null) {
+                module.setId(UUID.randomUUID());
+            }
+            return module;
+        });
+    }
+    
+    @Test
+    void resumedJobContinuesFromItsCheckpoint() {
+        // The first line was committed before the job stopped
+        CsvImportJob job = new CsvImportJob("modules.csv");
+        job.setId(jobId);
+        job.setStatus(ImportJobStatus.PENDING);
+        job.setProcessedLines(1);
+        job.setModuleCount(1);
+        job.setCheckpointOffset(FIRST_LINE.length());
+        when(importJobRepository.claimForRun(eq(jobId), any())).thenReturn(1);
+        when(importJobRepository.findById(jobId)).thenReturn(Optional.of(job));
+        
+        runner.run(jobId, spoolFile);
+        
+        verify(moduleRepository).findByCodeIn(List.of("COM1002", "COM1003"));
+        ArgumentCaptor<Module> saved = ArgumentCaptor.forClass(Module.class);
+        verify(moduleRepository, times(2)).save(saved.capture());
+        assertEquals(List.of("COM1002", "COM1003"),
+                saved.getAllValues().stream().map(Module::getCode).collect(Collectors.toList()));
+        
+        assertEquals(ImportJobStatus.COMPLETED, job.getStatus());
+        assertEquals(3, job.getProcessedLines());
+        assertEquals(3, job.getModuleCount());
+        assertNotNull(job.getHeartbeatAt());
+        assertFalse(Files.exists(spoolFile));
+    }
+    
+    @Test
+    void jobAlreadyStartedElsewhereIsSkipped() {
+        when(importJobRepository.claimForRun(eq(jobId), any())).thenReturn(0);
+        
+        runner.run(jobId, spoolFile);
+        
+        verify(importJobRepository, never()).findById(jobId);
+        verify(moduleRepository, never()).save(any(Module.class));
+        assertTrue(Files.exists(spoolFile));
+    }
+    
+    @Test
+    void submitRejectsAJobAlreadyQueuedOnThisNode() {
+        runner.submit(jobId, spoolFile);
+        
+        assertTrue(runner.isActive(jobId));
+        assertThrows(IllegalStateException.class, () -> runner.submit(jobId, spoolFile));
+        verify(importExecutor, times(1)).execute(any());
+    }
+}
@@ -0,0 +1,174 @@
+package uk.ac.sheffield.Assessment_management_tool.service;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import uk.ac.sheffield.Assessment_management_tool.cache.ReferenceDataCache;
+import uk.ac.sheffield.Assessment_management_tool.domain.entity.CsvImportJob;
+import uk.ac.sheffield.Assessment_management_tool.domain.entity.User;
+import uk.ac.sheffield.Assessment_management_tool.domain.enums.ImportJobStatus;
+import uk.ac.sheffield.Assessment_management_tool.repository.AssessmentRepository;
+import uk.ac.sheffield.Assessment_management_tool.repository.CsvImportErrorRepository;
+import uk.ac.sheffield.Assessment_management_tool.repository.CsvImportJobRepository;
+import uk.ac.sheffield.Assessment_management_tool.repository.ModuleRepository;
+import uk.ac.sheffield.Assessment_management_tool.repository.UserRepository;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class CsvImportServiceTest {
+    
+    @TempDir
+    Path spoolDir;
+    
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final CsvImportJobRepository importJobRepository = mock(CsvImportJobRepository.class);
+    private final PasswordEncoder passwordEncoder = mock(PasswordEncoder.class);
+    private final PasswordResetNotifier notifier = mock(PasswordResetNotifier.class);
+    private final CsvImportJobRunner jobRunner = mock(CsvImportJobRunner.class);
+    private final List<User> savedUsers = new ArrayList<>();
+    private CsvImportService service;
+    
+    @BeforeEach
+    void setUp() {
+        StaticListableBeanFactory beans = new StaticListableBeanFactory();
+        beans.addBean("notifier", notifier);
+        service = newService(beans);
+        
+        when(importJobRepository.save(any(CsvImportJob.class))).thenAnswer(invocation -> {
+            CsvImportJob job = invocation.getArgument(0);
+            if (job.getId() == null) {
+                job.setId(UUID.randomUUID());
+            }
+            return job;
+        });
+        when(passwordEncoder.encode(anyString())).thenAnswer(invocation -> "hash:" + invocation.getArgument(0));
+        when(userRepository.saveAll(any())).thenAnswer(invocation -> {
+            List<User> users = invocation.getArgument(0);
+            users.forEach(user -> user.setId(UUID.randomUUID()));
+            savedUsers.addAll(users);
+            return users;
+        });
+    }
+    
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+    
+    @Test
+    void importUsersSendsGeneratedPasswordsOnlyOnceTheImportCommits() {
+        TransactionSynchronizationManager.initSynchronization();
+        
+        CsvImportJob job = service.importUsers(usersCsv(
+                "Jane Smith,jane.smith@sheffield.ac.uk,ACADEMIC,false",
+                "Bob Johnson,bob.johnson@example.com,EXTERNAL_EXAMINER,false"));
+        
+        assertEquals(ImportJobStatus.COMPLETED, job.getStatus());
+        verifyNoInteractions(notifier);
+        
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        
+        assertEquals(2, savedUsers.size());
+        User jane = savedUsers.get(0);
+        ArgumentCaptor<String> password = ArgumentCaptor.forClass(String.class);
+        verify(notifier).passwordReset(eq(jane.getId()), eq("jane.smith@sheffield.ac.uk"), password.capture());
+        // The password sent is the one that was hashed and stored
+        assertEquals("hash:" + password.getValue(), jane.getPasswordHash());
+        verify(notifier, times(2)).passwordReset(any(), anyString(), anyString());
+    }
+    
+    @Test
+    void importUsersIsRejectedWhenPasswordsCannotBeDelivered() {
+        service = newService(new StaticListableBeanFactory());
+        
+        assertThrows(IllegalStateException.class, () -> service.importUsers(usersCsv(
+                "Jane Smith,jane.smith@sheffield.ac.uk,ACADEMIC,false")));
+        verify(importJobRepository, never()).save(any());
+        verify(userRepository, never()).saveAll(any());
+    }
+    
+    @Test
+    void resumeRequeuesARunningJobLeftBehindByADeadNode() throws Exception {
+        UUID id = UUID.randomUUID();
+        CsvImportJob job = new CsvImportJob("modules.csv");
+        job.setId(id);
+        job.setStatus(ImportJobStatus.RUNNING);
+        job.setHeartbeatAt(OffsetDateTime.now().minusHours(1));
+        Path spoolFile = Files.writeString(spoolDir.resolve(id + ".csv"), "COM1001,Intro,Lead A\n");
+        when(importJobRepository.findById(id)).thenReturn(Optional.of(job));
+        when(importJobRepository.claimForResume(eq(id), any())).thenReturn(1);
+        
+        OffsetDateTime before = OffsetDateTime.now();
+        service.resumeImportJob(id);
+        OffsetDateTime after = OffsetDateTime.now();
+        
+        // Only a job quiet for longer than stale-after may be taken over
+        ArgumentCaptor<OffsetDateTime> staleBefore = ArgumentCaptor.forClass(OffsetDateTime.class);
+        verify(importJobRepository).claimForResume(eq(id), staleBefore.capture());
+        assertFalse(staleBefore.getValue().isBefore(before.minusMinutes(10)));
+        assertFalse(staleBefore.getValue().isAfter(after.minusMinutes(10)));
+        verify(jobRunner).submit(id, spoolFile);
+    }
+    
+    @Test
+    void resumeRejectsAJobStillRunningOnThisNode() throws Exception {
+        UUID id = UUID.randomUUID();
+        CsvImportJob job = new CsvImportJob("modules.csv");
+        job.setId(id);
+        job.setStatus(ImportJobStatus.RUNNING);
+        Files.writeString(spoolDir.resolve(id + ".csv"), "COM1001,Intro,Lead A\n");
+        when(importJobRepository.findById(id)).thenReturn(Optional.of(job));
+        when(jobRunner.isActive(id)).thenReturn(true);
+        
+        assertThrows(IllegalStateException.class, () -> service.resumeImportJob(id));
+        verify(importJobRepository, never()).claimForResume(any(), any());
+        verify(jobRunner, never()).submit(any(), any());
+    }
+    
+    private CsvImportService newService(StaticListableBeanFactory beans) {
+        CsvImportService csvImportService = new CsvImportService(userRepository, mock(ModuleRepository.class),
+                mock(AssessmentRepository.class), importJobRepository, mock(CsvImportErrorRepository.class),
+                passwordEncoder, beans.getBeanProvider(PasswordResetNotifier.class), jobRunner,
+                mock(ModuleSearchIndex.class), mock(ReferenceDataCache.class), mock(AssessmentStateCounter.class),
+                Runnable::run, spoolDir.toString(), 500, Duration.ofMinutes(10));
+        ReflectionTestUtils.setField(csvImportService, "entityManager", mock(EntityManager.class));
+        return csvImportService;
+    }
+    
+    private static MockMultipartFile usersCsv(String... rows) {
+        String csv = "name,email,baseType,isExamsOfficer\n" + String.join("\n", rows) + "\n";
+        return new MockMultipartFile("file", "users.csv", "text/csv", csv.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,167 @@
+package uk.ac.sheffield.Assessment_management_tool.service;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import uk.ac.sheffield.Assessment_management_tool.cache.ReferenceDataCache;
+import uk.ac.sheffield.Assessment_management_tool.config.AsyncConfig;
+import uk.ac.sheffield.Assessment_management_tool.domain.entity.Assessment;
+import uk.ac.sheffield.Assessment_management_tool.domain.entity.CsvImportError;
+import uk.ac.sheffield.Assessment_management_tool.domain.entity.CsvImportJob;
+import uk.ac.sheffield.Assessment_management_tool.domain.entity.Module;
+import uk.ac.sheffield.Assessment_management_tool.domain.entity.User;
+import uk.ac.sheffield.Assessment_management_tool.domain.enums.UserBaseType;
+import uk.ac.sheffield.Assessment_management_tool.dto.response.ImportErrorDto;
+import uk.ac.sheffield.Assessment_management_tool.dto.response.ImportValidationDto;
+import uk.ac.sheffield.Assessment_management_tool.repository.AssessmentRepository;
+import uk.ac.sheffield.Assessment_management_tool.repository.CsvImportErrorRepository;
+import uk.ac.sheffield.Assessment_management_tool.repository.CsvImportJobRepository;
+import uk.ac.sheffield.Assessment_management_tool.repository.ModuleRepository;
+import uk.ac.sheffield.Assessment_management_tool.repository.ModuleStaffRoleRepository;
+import uk.ac.sheffield.Assessment_management_tool.repository.UserRepository;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Validate-only runs must report exactly the errors a real import would record
+ */
+class CsvImportValidatorTest {
+    
+    private static final String CSV = String.join("\n",
+            "COM1001,Introduction to Software Engineering,Lead A",
+            "COM1002,Databases,Nobody",
+            "COM1003",
+            ",No Code,Lead A",
+            "COM1005,Five,Lead A,\"Ghost, Lead A\",exam,Final Exam,quiz,Pop Quiz,cw,",
+            "COM1006,Six,Twin",
+            "COM1007,Seven,Lead A,Ghost,test,Lab Test",
+            "COM1008,Eight,Lead A,,,,cw,Essay") + "\n";
+    
+    @TempDir
+    Path spoolDir;
+    
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private ThreadPoolTaskExecutor validationExecutor;
+    
+    @BeforeEach
+    void setUp() {
+        when(userRepository.findByNameIn(any())).thenReturn(List.of(user("Lead A"), user("Twin"), user("Twin")));
+        // One thread with a short queue, so the uploading thread also checks chunks
+        validationExecutor = new AsyncConfig().csvValidationExecutor(1);
+    }
+    
+    @AfterEach
+    void tearDown() {
+        validationExecutor.shutdown();
+    }
+    
+    @Test
+    void validationReportsTheSameErrorsAsTheImport() throws Exception {
+        List<String> imported = importErrors();
+        
+        ImportValidationDto validation = new CsvImportValidator(userRepository, validationExecutor, 1)
+                .validateModulesWithAssessments(file());
+        
+        List<String> validated = validation.getSampleErrors().stream()
+                .map(CsvImportValidatorTest::describe)
+                .collect(Collectors.toList());
+        assertEquals(imported, validated);
+        assertEquals(imported.size(), validation.getErrorCount());
+        assertEquals(8, validation.getTotalLines());
+        assertEquals(6, validation.getInvalidLines());
+        assertFalse(validation.isValid());
+    }
+    
+    @Test
+    void chunkSizeDoesNotChangeTheResult() throws Exception {
+        ImportValidationDto oneChunk = new CsvImportValidator(userRepository, validationExecutor, 500)
+                .validateModulesWithAssessments(file());
+        ImportValidationDto manyChunks = new CsvImportValidator(userRepository, validationExecutor, 3)
+                .validateModulesWithAssessments(file());
+        
+        assertEquals(oneChunk.getErrorCount(), manyChunks.getErrorCount());
+        assertEquals(oneChunk.getInvalidLines(), manyChunks.getInvalidLines());
+        assertEquals(oneChunk.getErrorsByCode(), manyChunks.getErrorsByCode());
+        assertEquals(oneChunk.getSampleErrors().stream().map(CsvImportValidatorTest::describe).collect(Collectors.toList()),
+                manyChunks.getSampleErrors().stream().map(CsvImportValidatorTest::describe).collect(Collectors.toList()));
+    }
+    
+    /**
+     * Run the file through the real import runner and collect the errors it records, in line order
+     */
+    private List<String> importErrors() throws Exception {
+        ModuleRepository moduleRepository = mock(ModuleRepository.class);
+        CsvImportJobRepository importJobRepository = mock(CsvImportJobRepository.class);
+        AssessmentRepository assessmentRepository = mock(AssessmentRepository.class);
+        CsvImportErrorRepository importErrorRepository = mock(CsvImportErrorRepository.class);
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        
+        UUID jobId = UUID.randomUUID();
+        CsvImportJob job = new CsvImportJob("modules.csv");
+        job.setId(jobId);
+        when(importJobRepository.claimForRun(eq(jobId), any())).thenReturn(1);
+        when(importJobRepository.findById(jobId)).thenReturn(Optional.of(job));
+        when(moduleRepository.save(any(Module.class))).thenAnswer(invocation -> {
+            Module module = invocation.getArgument(0);
+            module.setId(UUID.randomUUID());
+            return module;
+        });
+        when(assessmentRepository.save(any(Assessment.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        List<String> recorded = new ArrayList<>();
+        when(importErrorRepository.saveAll(any())).thenAnswer(invocation -> {
+            for (CsvImportError error : invocation.<List<CsvImportError>>getArgument(0)) {
+                recorded.add(error.getLineNumber() + ":" + error.getColumnName() + ":" + error.getCode());
+            }
+            return List.of();
+        });
+        
+        CsvImportJobRunner runner = new CsvImportJobRunner(userRepository, moduleRepository,
+                assessmentRepository, mock(ModuleStaffRoleRepository.class), importJobRepository,
+                importErrorRepository, mock(ModuleSearchIndex.class), mock(ReferenceDataCache.class),
+                mock(AssessmentStateCounter.class), mock(TaskExecutor.class), transactionManager, 500, 50);
+        ReflectionTestUtils.setField(runner, "entityManager", mock(EntityManager.class));
+        
+        Path spoolFile = Files.writeString(spoolDir.resolve(jobId + ".csv"), CSV, StandardCharsets.UTF_8);
+        runner.run(jobId, spoolFile);
+        
+        assertEquals(recorded.size(), job.getErrorCount());
+        return recorded;
+    }
+    
+    private static String describe(ImportErrorDto error) {
+        return error.getLineNumber() + ":" + error.getColumn() + ":" + error.getCode();
+    }
+    
+    private static MockMultipartFile file() {
+        return new MockMultipartFile("file", "modules.csv", "text/csv", CSV.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    private static User user(String name) {
+        User user = new User(name, UUID.randomUUID() + "@sheffield.ac.uk", "hash", UserBaseType.ACADEMIC);
+        user.setId(UUID.randomUUID());
+        return user;
+    }
+}
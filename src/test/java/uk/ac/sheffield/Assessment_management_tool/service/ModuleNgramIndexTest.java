@@ -0,0 +1,80 @@
+package uk.ac.sheffield.Assessment_management_tool.service;
+
+import org.junit.jupiter.api.Test;
+import uk.ac.sheffield.Assessment_management_tool.domain.entity.Module;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ModuleNgramIndexTest {
+    
+    @Test
+    void exactCodeRanksAbovePrefixAboveOtherMatches() {
+        Module mentioned = module("COM3001", "Follow-on from COM1001");
+        Module prefix = module("COM1001X", "Software Engineering Extension");
+        Module exact = module("COM1001", "Introduction to Software Engineering");
+        ModuleNgramIndex index = new ModuleNgramIndex(List.of(mentioned, prefix, exact));
+        
+        assertEquals(List.of(exact.getId(), prefix.getId(), mentioned.getId()), index.rank("com1001"));
+    }
+    
+    @Test
+    void matchesCodeAndTitleSubstringsCaseInsensitively() {
+        Module software = module("COM1001", "Introduction to Software Engineering");
+        Module databases = module("COM2004", "Databases");
+        ModuleNgramIndex index = new ModuleNgramIndex(List.of(software, databases));
+        
+        assertEquals(List.of(software.getId()), index.rank("SOFTWARE"));
+        assertEquals(List.of(databases.getId()), index.rank("2004"));
+    }
+    
+    @Test
+    void similarTitlesMatchWithoutASubstring() {
+        Module software = module("COM1001", "Software Engineering");
+        ModuleNgramIndex index = new ModuleNgramIndex(List.of(software, module("COM2004", "Databases")));
+        
+        assertEquals(List.of(software.getId()), index.rank("softwre engineering"));
+    }
+    
+    @Test
+    void similarityBelowThresholdIsNotAMatch() {
+        // "enginx" shares five trigrams with both titles, but only the short one is similar enough
+        Module shortTitle = module("COM1001", "Engineering");
+        Module longTitle = module("COM2001", "Engineering Design and Professional Practice");
+        ModuleNgramIndex index = new ModuleNgramIndex(List.of(shortTitle, longTitle));
+        
+        assertEquals(List.of(shortTitle.getId()), index.rank("enginx"));
+    }
+    
+    @Test
+    void unrelatedQueryMatchesNothing() {
+        ModuleNgramIndex index = new ModuleNgramIndex(List.of(module("COM1001", "Software Engineering")));
+        
+        assertTrue(index.rank("databases").isEmpty());
+    }
+    
+    @Test
+    void shortQueriesScanForSubstrings() {
+        Module software = module("COM1001", "Software Engineering");
+        Module theory = module("COM2002", "Theory of Computation");
+        ModuleNgramIndex index = new ModuleNgramIndex(List.of(software, theory));
+        
+        assertEquals(List.of(theory.getId()), index.rank("ry"));
+    }
+    
+    @Test
+    void trigramsArePaddedPerWordLikePgTrgm() {
+        assertEquals(Set.of("  c", " ca", "cat", "at "), ModuleNgramIndex.trigrams("Cat"));
+        assertEquals(ModuleNgramIndex.trigrams("a-b"), ModuleNgramIndex.trigrams("A B"));
+    }
+    
+    private static Module module(String code, String title) {
+        Module module = new Module(code, title);
+        module.setId(UUID.randomUUID());
+        return module;
+    }
+}
@@ -0,0 +1,86 @@
+package uk.ac.sheffield.Assessment_management_tool.service;
+
+import org.junit.jupiter.api.Test;
+import uk.ac.sheffield.Assessment_management_tool.domain.entity.Module;
+import uk.ac.sheffield.Assessment_management_tool.repository.ModuleRepository;
+import uk.ac.sheffield.Assessment_management_tool.repository.ModuleSearchQueries.RankedPage;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ModuleSearchIndexTest {
+    
+    private final ModuleRepository moduleRepository = mock(ModuleRepository.class);
+    
+    @Test
+    void postgresRunsSearchScopeAndPagingInOneQuery() throws Exception {
+        UUID userId = UUID.randomUUID();
+        LocalDate yearStart = LocalDate.of(2024, 9, 1);
+        RankedPage expected = new RankedPage(List.of(UUID.randomUUID()), 41);
+        when(moduleRepository.searchRanked("com1", userId, yearStart, yearStart.plusYears(1), 30, 30))
+                .thenReturn(expected);
+        ModuleSearchIndex index = new ModuleSearchIndex(moduleRepository, dataSource("PostgreSQL"));
+        
+        assertSame(expected, index.search("  com1 ", userId, yearStart, yearStart.plusYears(1), 30, 30));
+        verify(moduleRepository, never()).findAll();
+        verify(moduleRepository, never()).findIdsInScope(any(), any(), any());
+    }
+    
+    @Test
+    void inMemoryFallbackPagesTheRankedMatches() throws Exception {
+        Module first = module("COM1001", "Introduction to Software Engineering");
+        Module second = module("COM1002", "Foundations of Computer Science");
+        Module third = module("COM1003", "Java Programming");
+        when(moduleRepository.findAll()).thenReturn(List.of(third, second, first));
+        ModuleSearchIndex index = new ModuleSearchIndex(moduleRepository, dataSource("H2"));
+        
+        RankedPage page = index.search("com100", null, null, null, 2, 2);
+        
+        assertEquals(List.of(third.getId()), page.ids());
+        assertEquals(3, page.total());
+        assertEquals(List.of(), index.search("com100", null, null, null, 4, 2).ids());
+    }
+    
+    @Test
+    void inMemoryFallbackOnlyCountsModulesInScope() throws Exception {
+        UUID userId = UUID.randomUUID();
+        Module mine = module("COM1001", "Introduction to Software Engineering");
+        Module other = module("COM1002", "Foundations of Computer Science");
+        when(moduleRepository.findAll()).thenReturn(List.of(mine, other));
+        when(moduleRepository.findIdsInScope(userId, null, null)).thenReturn(List.of(mine.getId()));
+        ModuleSearchIndex index = new ModuleSearchIndex(moduleRepository, dataSource("H2"));
+        
+        RankedPage page = index.search("com100", userId, null, null, 0, 30);
+        
+        assertEquals(List.of(mine.getId()), page.ids());
+        assertEquals(1, page.total());
+    }
+    
+    private static DataSource dataSource(String productName) throws Exception {
+        DatabaseMetaData metaData = mock(DatabaseMetaData.class);
+        when(metaData.getDatabaseProductName()).thenReturn(productName);
+        Connection connection = mock(Connection.class);
+        when(connection.getMetaData()).thenReturn(metaData);
+        DataSource dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        return dataSource;
+    }
+    
+    private static Module module(String code, String title) {
+        Module module = new Module(code, title);
+        module.setId(UUID.randomUUID());
+        return module;
+    }
+}
@@ -0,0 +1,161 @@
+package uk.ac.sheffield.Assessment_management_tool.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import uk.ac.sheffield.Assessment_management_tool.domain.entity.Assessment;
+import uk.ac.sheffield.Assessment_management_tool.domain.entity.AssessmentTransition;
+import uk.ac.sheffield.Assessment_management_tool.domain.entity.Module;
+import uk.ac.sheffield.Assessment_management_tool.domain.enums.AssessmentState;
+import uk.ac.sheffield.Assessment_management_tool.domain.enums.AssessmentType;
+import uk.ac.sheffield.Assessment_management_tool.dto.request.TransitionAuditFilter;
+import uk.ac.sheffield.Assessment_management_tool.dto.response.CursorPageDto;
+import uk.ac.sheffield.Assessment_management_tool.dto.response.TransitionDto;
+import uk.ac.sheffield.Assessment_management_tool.repository.AssessmentTransitionRepository;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class TransitionAuditServiceTest {
+    
+    private static final OffsetDateTime START = OffsetDateTime.parse("2026-03-02T10:00:00Z");
+    
+    private final AssessmentTransitionRepository transitionRepository = mock(AssessmentTransitionRepository.class);
+    private final TransitionAuditService service =
+            new TransitionAuditService(transitionRepository, new ObjectMapper(), 500);
+    private final Assessment assessment = new Assessment(new Module("COM1001", "Introduction to Software Engineering"),
+            "Final Exam", AssessmentType.EXAM);
+    
+    @BeforeEach
+    void setUp() {
+        assessment.setId(UUID.randomUUID());
+    }
+    
+    @Test
+    void fullPageWithAnExtraRowLinksToTheNextPage() {
+        List<AssessmentTransition> rows = transitions(4);
+        whenPageRequested(rows);
+        
+        CursorPageDto<TransitionDto> page = service.getTransitionPage(new TransitionAuditFilter(), null, 3);
+        
+        // The extra row is only a look-ahead and is not returned
+        assertEquals(ids(rows.subList(0, 3)), page.getContent().stream().map(TransitionDto::getId).collect(Collectors.toList()));
+        assertNotNull(page.getNextCursor());
+        verify(transitionRepository).findAuditPage(isNull(), isNull(), isNull(), isNull(), isNull(), isNull(), eq(4));
+    }
+    
+    @Test
+    void nextCursorResumesAfterTheLastRowReturned() {
+        List<AssessmentTransition> rows = transitions(4);
+        whenPageRequested(rows);
+        String cursor = service.getTransitionPage(new TransitionAuditFilter(), null, 3).getNextCursor();
+        
+        service.getTransitionPage(new TransitionAuditFilter(), cursor, 3);
+        
+        AssessmentTransition last = rows.get(2);
+        verify(transitionRepository).findAuditPage(isNull(), isNull(), isNull(), isNull(),
+                eq(last.getAt()), eq(last.getId()), eq(4));
+    }
+    
+    @Test
+    void nextPageKeepsTheFilters() {
+        whenPageRequested(transitions(2));
+        TransitionAuditFilter filter = new TransitionAuditFilter();
+        filter.setFrom(START.minusDays(1));
+        filter.setTo(START);
+        String cursor = service.getTransitionPage(filter, null, 1).getNextCursor();
+        
+        service.getTransitionPage(filter, cursor, 1);
+        
+        verify(transitionRepository).findAuditPage(eq(START.minusDays(1)), eq(START), isNull(), isNull(),
+                eq(START), any(), eq(2));
+    }
+    
+    @Test
+    void pageThatExactlyFillsTheLimitIsTheLast() {
+        whenPageRequested(transitions(3));
+        
+        CursorPageDto<TransitionDto> page = service.getTransitionPage(new TransitionAuditFilter(), null, 3);
+        
+        assertEquals(3, page.getContent().size());
+        assertNull(page.getNextCursor());
+    }
+    
+    @Test
+    void emptyPageHasNoCursor() {
+        whenPageRequested(List.of());
+        
+        CursorPageDto<TransitionDto> page = service.getTransitionPage(new TransitionAuditFilter(), null, 3);
+        
+        assertEquals(0, page.getContent().size());
+        assertNull(page.getNextCursor());
+    }
+    
+    @Test
+    void limitIsClampedToTheAllowedRange() {
+        whenPageRequested(List.of());
+        
+        service.getTransitionPage(new TransitionAuditFilter(), null, 0);
+        service.getTransitionPage(new TransitionAuditFilter(), null, 10_000);
+        
+        verify(transitionRepository).findAuditPage(any(), any(), any(), any(), any(), any(), eq(2));
+        verify(transitionRepository).findAuditPage(any(), any(), any(), any(), any(), any(), eq(201));
+    }
+    
+    @Test
+    void malformedCursorIsRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> service.getTransitionPage(new TransitionAuditFilter(), "not-a-cursor", 3));
+        verifyNoInteractions(transitionRepository);
+    }
+    
+    @Test
+    void invertedRangeIsRejected() {
+        TransitionAuditFilter filter = new TransitionAuditFilter();
+        filter.setFrom(START);
+        filter.setTo(START.minusSeconds(1));
+        
+        assertThrows(IllegalArgumentException.class, () -> service.getTransitionPage(filter, null, 3));
+        verifyNoInteractions(transitionRepository);
+    }
+    
+    private void whenPageRequested(List<AssessmentTransition> rows) {
+        when(transitionRepository.findAuditPage(any(), any(), any(), any(), any(), any(), anyInt()))
+                .thenReturn(new ArrayList<>(rows));
+    }
+    
+    /**
+     * Newest first, as the repository returns them. The first two share a timestamp.
+     */
+    private List<AssessmentTransition> transitions(int count) {
+        List<AssessmentTransition> rows = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            AssessmentTransition transition = new AssessmentTransition(assessment, AssessmentState.DRAFT,
+                    AssessmentState.READY_FOR_CHECK, null, "Setter");
+            transition.setId(UUID.randomUUID());
+            transition.setAt(START.minusMinutes(Math.max(0, i - 1)));
+            rows.add(transition);
+        }
+        return rows;
+    }
+    
+    private static List<UUID> ids(List<AssessmentTransition> rows) {
+        return rows.stream().map(AssessmentTransition::getId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,291 @@
+package uk.ac.sheffield.Assessment_management_tool.service;
+
+import org.junit.jupiter.api.Test;
+import uk.ac.sheffield.Assessment_management_tool.cache.ReferenceDataCache;
+import uk.ac.sheffield.Assessment_management_tool.domain.entity.Assessment;
+import uk.ac.sheffield.Assessment_management_tool.domain.entity.Module;
+import uk.ac.sheffield.Assessment_management_tool.domain.entity.User;
+import uk.ac.sheffield.Assessment_management_tool.domain.enums.AssessmentState;
+import uk.ac.sheffield.Assessment_management_tool.domain.enums.AssessmentType;
+import uk.ac.sheffield.Assessment_management_tool.domain.enums.UserBaseType;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class TransitionServiceTest {
+    
+    private final ReferenceDataCache referenceDataCache = mock(ReferenceDataCache.class);
+    private final TransitionService transitionService = new TransitionService(referenceDataCache);
+    
+    @Test
+    void transitionTableMatchesTheWorkflowItReplaced() {
+        User admin = user(UserBaseType.TEACHING_SUPPORT, false);
+        
+        for (AssessmentType type : AssessmentType.values()) {
+            for (AssessmentState current : AssessmentState.values()) {
+                Assessment assessment = assessment(type, current);
+                List<AssessmentState> expected = baselineNextStates(current, type);
+                
+                // Admins may take any valid transition, so their targets are the table row itself
+                assertEquals(new HashSet<>(expected), new HashSet<>(transitionService.allowedTargets(admin, assessment)),
+                        type + " from " + current);
+                // Holding every role must still not open a transition the workflow lacks
+                PermissionContext everyRole = new PermissionContext(user(UserBaseType.ACADEMIC, false), assessment, allFlags());
+                for (AssessmentState target : AssessmentState.values()) {
+                    if (!expected.contains(target)) {
+                        assertFalse(transitionService.canProgress(everyRole, target), type + " " + current + " -> " + target);
+                    }
+                }
+            }
+        }
+        verifyNoInteractions(referenceDataCache);
+    }
+    
+    @Test
+    void terminalStatesHaveNoTargets() {
+        User admin = user(UserBaseType.TEACHING_SUPPORT, false);
+        
+        for (AssessmentType type : AssessmentType.values()) {
+            assertTrue(transitionService.allowedTargets(admin, assessment(type, AssessmentState.PUBLISHED)).isEmpty());
+        }
+        assertFalse(transitionService.canProgress(new PermissionContext(user(UserBaseType.ACADEMIC, false),
+                assessment(AssessmentType.CW, null), allFlags()), AssessmentState.DRAFT));
+    }
+    
+    @Test
+    void permissionsFromFlagsMatchThePerRepositoryChecks() {
+        List<User> users = List.of(user(UserBaseType.ACADEMIC, false), user(UserBaseType.EXTERNAL_EXAMINER, false));
+        
+        // Every combination of the eight flags, for every user, type, state and target
+        for (int bits = 0; bits < 1 << 8; bits++) {
+            boolean[] flags = new boolean[8];
+            for (int i = 0; i < flags.length; i++) {
+                flags[i] = (bits & 1 << i) != 0;
+            }
+            Baseline baseline = new Baseline(flags);
+            for (User user : users) {
+                for (AssessmentType type : AssessmentType.values()) {
+                    for (AssessmentState current : AssessmentState.values()) {
+                        Assessment assessment = assessment(type, current);
+                        PermissionContext context = new PermissionContext(user, assessment, flags);
+                        String where = user.getBaseType() + " " + type + " " + current + " " + Arrays.toString(flags);
+                        
+                        for (AssessmentState target : AssessmentState.values()) {
+                            assertEquals(baseline.canProgress(user, assessment, target),
+                                    transitionService.canProgress(context, target), where + " -> " + target);
+                        }
+                        assertEquals(baseline.canBeChecker(user), transitionService.canBeChecker(context), where);
+                        assertEquals(baseline.canSubmitExternalFeedback(user, assessment),
+                                transitionService.canSubmitExternalFeedback(context), where);
+                        assertEquals(baseline.canSubmitSetterResponse(assessment),
+                                transitionService.canSubmitSetterResponse(context), where);
+                    }
+                }
+            }
+        }
+    }
+    
+    @Test
+    void allowedTargetsLoadsPermissionsOnce() {
+        User setter = user(UserBaseType.ACADEMIC, false);
+        Assessment assessment = assessment(AssessmentType.EXAM, AssessmentState.READY_FOR_CHECK);
+        boolean[] flags = new boolean[8];
+        flags[0] = true;
+        when(referenceDataCache.findPermissionFlags(assessment, setter.getId())).thenReturn(flags);
+        
+        assertEquals(List.of(AssessmentState.DRAFT), transitionService.allowedTargets(setter, assessment));
+        verify(referenceDataCache, times(1)).findPermissionFlags(assessment, setter.getId());
+    }
+    
+    /**
+     * Permission rules as they were before PermissionContext, with each repository
+     * lookup replaced by the flag that now carries its answer
+     */
+    private record Baseline(boolean[] flags) {
+        
+        boolean isSetter() { return flags[0]; }
+        boolean isChecker() { return flags[1]; }
+        boolean isModuleLead() { return flags[2]; }
+        boolean isModuleStaff() { return flags[3]; }
+        boolean isModerator() { return flags[4]; }
+        boolean isModuleExternalExaminer() { return flags[5]; }
+        boolean feedbackExists() { return flags[6]; }
+        boolean responseExists() { return flags[7]; }
+        
+        // findByModuleAndUser returned lead, staff and moderator rows alike
+        boolean hasStaffRoles() {
+            return isModuleLead() || isModuleStaff() || isModerator();
+        }
+        
+        boolean canProgress(User user, Assessment assessment, AssessmentState target) {
+            if (user.getBaseType() == UserBaseType.TEACHING_SUPPORT || user.isExamsOfficer()) {
+                return true;
+            }
+            AssessmentState from = assessment.getCurrentState();
+            if (from == null || !baselineNextStates(from, assessment.getType()).contains(target)) {
+                return false;
+            }
+            return hasPermission(user, assessment, from, target);
+        }
+        
+        private boolean hasPermission(User user, Assessment assessment, AssessmentState from, AssessmentState to) {
+            if (from == AssessmentState.DRAFT && to == AssessmentState.READY_FOR_CHECK) {
+                return isSetter();
+            }
+            if (from == AssessmentState.CHANGES_REQUIRED && to == AssessmentState.READY_FOR_CHECK) {
+                return isSetter();
+            }
+            if (from == AssessmentState.EXAM_CHANGES_REQUIRED && to == AssessmentState.EXAM_OFFICER_CHECK) {
+                return isSetter();
+            }
+            if (from == AssessmentState.READY_FOR_CHECK && to == AssessmentState.DRAFT) {
+                return isSetter();
+            }
+            if (from == AssessmentState.READY_FOR_CHECK) {
+                if (to == AssessmentState.CHANGES_REQUIRED || to == AssessmentState.RELEASED ||
+                    to == AssessmentState.TEST_TAKEN || to == AssessmentState.EXAM_OFFICER_CHECK) {
+                    return isChecker();
+                }
+            }
+            if (isModuleLead()) {
+                if (to == AssessmentState.DEADLINE_PASSED || to == AssessmentState.TEST_TAKEN ||
+                    to == AssessmentState.EXAM_TAKEN) {
+                    return true;
+                }
+            }
+            if (user.isExamsOfficer() && assessment.getType() == AssessmentType.EXAM) {
+                if (from == AssessmentState.EXAM_OFFICER_CHECK) {
+                    return to == AssessmentState.EXTERNAL_FEEDBACK || to == AssessmentState.EXAM_CHANGES_REQUIRED;
+                }
+                if (from == AssessmentState.FINAL_CHECK) {
+                    return to == AssessmentState.SENT_TO_PRINTING || to == AssessmentState.EXAM_CHANGES_REQUIRED;
+                }
+                if (from == AssessmentState.SENT_TO_PRINTING || from == AssessmentState.ADMIN_MARK_CHECK) {
+                    return true;
+                }
+            }
+            if (from == AssessmentState.EXTERNAL_FEEDBACK && to == AssessmentState.SETTER_RESPONSE) {
+                return feedbackExists();
+            }
+            if (from == AssessmentState.SETTER_RESPONSE && to == AssessmentState.FINAL_CHECK) {
+                return isSetter() && responseExists();
+            }
+            if (from == AssessmentState.MARKING) {
+                return hasStaffRoles() || isChecker() || isSetter();
+            }
+            if (from == AssessmentState.MODERATED) {
+                return isModerator();
+            }
+            if (from == AssessmentState.FEEDBACK_RETURNED || from == AssessmentState.RESULTS_RETURNED) {
+                return isModuleLead();
+            }
+            if (from == AssessmentState.APPROVED && to == AssessmentState.PUBLISHED) {
+                return user.getBaseType() == UserBaseType.TEACHING_SUPPORT;
+            }
+            return false;
+        }
+        
+        boolean canBeChecker(User user) {
+            return user.getBaseType() == UserBaseType.ACADEMIC
+                    && !isModuleLead() && !isModuleStaff() && !isSetter();
+        }
+        
+        boolean canSubmitExternalFeedback(User user, Assessment assessment) {
+            return user.getBaseType() == UserBaseType.EXTERNAL_EXAMINER
+                    && isModuleExternalExaminer()
+                    && assessment.getType() == AssessmentType.EXAM
+                    && assessment.getCurrentState() == AssessmentState.EXTERNAL_FEEDBACK
+                    && !feedbackExists();
+        }
+        
+        boolean canSubmitSetterResponse(Assessment assessment) {
+            return isSetter()
+                    && assessment.getType() == AssessmentType.EXAM
+                    && assessment.getCurrentState() == AssessmentState.SETTER_RESPONSE
+                    && feedbackExists()
+                    && !responseExists();
+        }
+    }
+    
+    /**
+     * Workflow graph as it was before the table, one switch per assessment type
+     */
+    private static List<AssessmentState> baselineNextStates(AssessmentState current, AssessmentType type) {
+        return switch (type) {
+            case CW -> switch (current) {
+                case DRAFT -> List.of(AssessmentState.READY_FOR_CHECK);
+                case READY_FOR_CHECK -> List.of(AssessmentState.CHANGES_REQUIRED, AssessmentState.RELEASED, AssessmentState.DRAFT);
+                case CHANGES_REQUIRED -> List.of(AssessmentState.READY_FOR_CHECK);
+                case RELEASED -> List.of(AssessmentState.DEADLINE_PASSED);
+                case DEADLINE_PASSED -> List.of(AssessmentState.MARKING);
+                case MARKING -> List.of(AssessmentState.MODERATED);
+                case MODERATED -> List.of(AssessmentState.FEEDBACK_RETURNED);
+                case FEEDBACK_RETURNED -> List.of(AssessmentState.APPROVED);
+                case APPROVED -> List.of(AssessmentState.PUBLISHED);
+                default -> Collections.emptyList();
+            };
+            case TEST -> switch (current) {
+                case DRAFT -> List.of(AssessmentState.READY_FOR_CHECK);
+                case READY_FOR_CHECK -> List.of(AssessmentState.CHANGES_REQUIRED, AssessmentState.TEST_TAKEN, AssessmentState.DRAFT);
+                case CHANGES_REQUIRED -> List.of(AssessmentState.READY_FOR_CHECK);
+                case TEST_TAKEN -> List.of(AssessmentState.MARKING);
+                case MARKING -> List.of(AssessmentState.MODERATED);
+                case MODERATED -> List.of(AssessmentState.RESULTS_RETURNED);
+                case RESULTS_RETURNED -> List.of(AssessmentState.APPROVED);
+                case APPROVED -> List.of(AssessmentState.PUBLISHED);
+                default -> Collections.emptyList();
+            };
+            case EXAM -> switch (current) {
+                case DRAFT -> List.of(AssessmentState.READY_FOR_CHECK);
+                case READY_FOR_CHECK -> List.of(AssessmentState.CHANGES_REQUIRED, AssessmentState.EXAM_OFFICER_CHECK, AssessmentState.DRAFT);
+                case CHANGES_REQUIRED -> List.of(AssessmentState.READY_FOR_CHECK);
+                case EXAM_OFFICER_CHECK -> List.of(AssessmentState.EXTERNAL_FEEDBACK, AssessmentState.EXAM_CHANGES_REQUIRED);
+                case EXAM_CHANGES_REQUIRED -> List.of(AssessmentState.EXAM_OFFICER_CHECK);
+                case EXTERNAL_FEEDBACK -> List.of(AssessmentState.SETTER_RESPONSE);
+                case SETTER_RESPONSE -> List.of(AssessmentState.FINAL_CHECK);
+                case FINAL_CHECK -> List.of(AssessmentState.SENT_TO_PRINTING, AssessmentState.EXAM_CHANGES_REQUIRED);
+                case SENT_TO_PRINTING -> List.of(AssessmentState.EXAM_TAKEN);
+                case EXAM_TAKEN -> List.of(AssessmentState.MARKING);
+                case MARKING -> List.of(AssessmentState.ADMIN_MARK_CHECK);
+                case ADMIN_MARK_CHECK -> List.of(AssessmentState.MODERATED);
+                case MODERATED -> List.of(AssessmentState.APPROVED);
+                case APPROVED -> List.of(AssessmentState.PUBLISHED);
+                default -> Collections.emptyList();
+            };
+        };
+    }
+    
+    private static boolean[] allFlags() {
+        boolean[] flags = new boolean[8];
+        Arrays.fill(flags, true);
+        return flags;
+    }
+    
+    private static Assessment assessment(AssessmentType type, AssessmentState state) {
+        Module module = new Module("COM1001", "Introduction to Software Engineering");
+        module.setId(UUID.randomUUID());
+        Assessment assessment = new Assessment(module, "Assessment", type);
+        assessment.setId(UUID.randomUUID());
+        assessment.setCurrentState(state);
+        return assessment;
+    }
+    
+    private static User user(UserBaseType baseType, boolean examsOfficer) {
+        User user = new User("Staff", "staff@sheffield.ac.uk", "hash", baseType);
+        user.setId(UUID.randomUUID());
+        user.setExamsOfficer(examsOfficer);
+        return user;
+    }
+}
@@ -0,0 +1,139 @@
+package uk.ac.sheffield.Assessment_management_tool.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import uk.ac.sheffield.Assessment_management_tool.cache.ReferenceDataCache;
+import uk.ac.sheffield.Assessment_management_tool.domain.enums.UserBaseType;
+import uk.ac.sheffield.Assessment_management_tool.dto.response.CursorPageDto;
+import uk.ac.sheffield.Assessment_management_tool.dto.response.UserSummaryDto;
+import uk.ac.sheffield.Assessment_management_tool.repository.UserRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class UserServiceTest {
+    
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final UserService service = new UserService(userRepository, mock(PasswordEncoder.class),
+            mock(ReferenceDataCache.class));
+    
+    @Test
+    void fullPageWithAnExtraRowLinksToTheNextPage() {
+        List<Object[]> rows = rows("Ada", "Bea", "Cal", "Dee");
+        whenPageRequested(rows);
+        
+        CursorPageDto<UserSummaryDto> page = service.getDirectoryPage(null, null, null, null, 3);
+        
+        // The extra row is only a look-ahead and is not returned
+        assertEquals(List.of("Ada", "Bea", "Cal"), names(page));
+        assertNotNull(page.getNextCursor());
+        verify(userRepository).findDirectoryPage(isNull(), isNull(), isNull(), isNull(), isNull(), eq(4));
+    }
+    
+    @Test
+    void nextCursorResumesAfterTheLastRowReturned() {
+        // A name containing the cursor separator must survive the round trip
+        List<Object[]> rows = rows("Ada", "Bea | Jones", "Cal");
+        whenPageRequested(rows);
+        String cursor = service.getDirectoryPage(null, null, null, null, 2).getNextCursor();
+        
+        service.getDirectoryPage(null, null, null, cursor, 2);
+        
+        verify(userRepository).findDirectoryPage(isNull(), isNull(), isNull(), eq("bea | jones"),
+                eq((UUID) rows.get(1)[0]), eq(3));
+    }
+    
+    @Test
+    void nextPageKeepsTheFilters() {
+        whenPageRequested(rows("Ada", "Abe"));
+        String cursor = service.getDirectoryPage("  AD ", UserBaseType.ACADEMIC, true, null, 1).getNextCursor();
+        
+        service.getDirectoryPage("  AD ", UserBaseType.ACADEMIC, true, cursor, 1);
+        
+        verify(userRepository).findDirectoryPage(eq("ad"), eq(UserBaseType.ACADEMIC), eq(true), isNull(), isNull(), eq(2));
+        verify(userRepository).findDirectoryPage(eq("ad"), eq(UserBaseType.ACADEMIC), eq(true), eq("ada"), any(), eq(2));
+    }
+    
+    @Test
+    void blankQueryMatchesEveryone() {
+        whenPageRequested(List.of());
+        
+        service.getDirectoryPage("   ", null, null, null, 3);
+        
+        verify(userRepository).findDirectoryPage(isNull(), isNull(), isNull(), isNull(), isNull(), eq(4));
+    }
+    
+    @Test
+    void pageThatExactlyFillsTheLimitIsTheLast() {
+        whenPageRequested(rows("Ada", "Bea", "Cal"));
+        
+        CursorPageDto<UserSummaryDto> page = service.getDirectoryPage(null, null, null, null, 3);
+        
+        assertEquals(3, page.getContent().size());
+        assertNull(page.getNextCursor());
+    }
+    
+    @Test
+    void emptyPageHasNoCursor() {
+        whenPageRequested(List.of());
+        
+        CursorPageDto<UserSummaryDto> page = service.getDirectoryPage("zz", null, null, null, 3);
+        
+        assertEquals(0, page.getContent().size());
+        assertNull(page.getNextCursor());
+    }
+    
+    @Test
+    void limitIsClampedToTheAllowedRange() {
+        whenPageRequested(List.of());
+        
+        service.getDirectoryPage(null, null, null, null, 0);
+        service.getDirectoryPage(null, null, null, null, 10_000);
+        
+        verify(userRepository).findDirectoryPage(any(), any(), any(), any(), any(), eq(2));
+        verify(userRepository).findDirectoryPage(any(), any(), any(), any(), any(), eq(101));
+    }
+    
+    @Test
+    void malformedCursorIsRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> service.getDirectoryPage(null, null, null, "not-a-cursor", 3));
+        verifyNoInteractions(userRepository);
+    }
+    
+    private void whenPageRequested(List<Object[]> rows) {
+        when(userRepository.findDirectoryPage(any(), any(), any(), any(), any(), anyInt()))
+                .thenReturn(new ArrayList<>(rows));
+    }
+    
+    /**
+     * Directory rows as the repository returns them: id, name, email, base type, lower-cased name
+     */
+    private static List<Object[]> rows(String... names) {
+        List<Object[]> rows = new ArrayList<>();
+        for (String name : names) {
+            rows.add(new Object[] {UUID.randomUUID(), name, name.toLowerCase() + "@sheffield.ac.uk",
+                    UserBaseType.ACADEMIC, name.toLowerCase()});
+        }
+        return rows;
+    }
+    
+    private static List<String> names(CursorPageDto<UserSummaryDto> page) {
+        return page.getContent().stream().map(UserSummaryDto::getName).collect(Collectors.toList());
+    }
+}
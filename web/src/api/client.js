@@ -8,10 +8,56 @@ const api = axios.create({
   },
 });
 
+// Bearer tokens, present only when the server runs in token mode
+const TOKEN_KEY = 'auth.tokens';
+
+const readTokens = () => JSON.parse(sessionStorage.getItem(TOKEN_KEY) || 'null');
+
+const storeTokens = (data) => {
+  if (data && data.accessToken) {
+    sessionStorage.setItem(TOKEN_KEY, JSON.stringify({
+      accessToken: data.accessToken,
+      refreshToken: data.refreshToken,
+    }));
+  }
+  return data;
+};
+
+api.interceptors.request.use((config) => {
+  const tokens = readTokens();
+  if (tokens) {
+    config.headers.Authorization = `Bearer ${tokens.accessToken}`;
+  }
+  return config;
+});
+
+// An expired access token is refreshed once, then the request is retried
+let refreshing = null;
+api.interceptors.response.use(undefined, async (error) => {
+  const { config, response } = error;
+  const tokens = readTokens();
+  if (!tokens || !response || response.status !== 401 || config._retried || config.url === '/auth/refresh') {
+    return Promise.reject(error);
+  }
+  try {
+    refreshing = refreshing || api.post('/auth/refresh', { refreshToken: tokens.refreshToken })
+      .then(res => storeTokens(res.data))
+      .finally(() => { refreshing = null; });
+    await refreshing;
+  } catch (refreshError) {
+    sessionStorage.removeItem(TOKEN_KEY);
+    return Promise.reject(error);
+  }
+  config._retried = true;
+  return api(config);
+});
+
 // Auth API
 export const authApi = {
-  login: (credentials) => api.post('/auth/login', credentials).then(res => res.data),
-  logout: () => api.post('/auth/logout').then(res => res.data),
+  login: (credentials) => api.post('/auth/login', credentials).then(res => storeTokens(res.data)),
+  logout: () => api.post('/auth/logout')
+    .finally(() => sessionStorage.removeItem(TOKEN_KEY))
+    .then(res => res.data),
   getCurrentUser: () => api.get('/auth/me').then(res => res.data),
 };
 
@@ -20,6 +66,8 @@ export const userApi = {
   getAll: () => api.get('/admin/users').then(res => res.data),
   getAllUsers: () => api.get('/admin/users').then(res => res.data),
   getUserById: (id) => api.get(`/admin/users/${id}`).then(res => res.data),
+  // One page of { id, name, email, baseType }; q matches the start of name or email
+  searchDirectory: (params) => api.get('/admin/users/directory', { params }).then(res => res.data),
   create: (data) => api.post('/admin/users', data).then(res => res.data),
   createUser: (data) => api.post('/admin/users', data).then(res => res.data),
   toggleActive: (id) => api.patch(`/admin/users/${id}/toggle-active`).then(res => res.data),
@@ -28,7 +76,7 @@ export const userApi = {
 
 // Module API
 export const moduleApi = {
-  getAll: () => api.get('/modules').then(res => res.data),
+  // One page: { content, page, size, totalElements, totalPages }; params are search, year, mine, page, size
   getModules: (params) => api.get('/modules', { params }).then(res => res.data),
   getById: (id) => api.get(`/modules/${id}`).then(res => res.data),
   getModuleById: (id) => api.get(`/modules/${id}`).then(res => res.data),
@@ -45,7 +93,10 @@ export const moduleApi = {
 
 // Assessment API
 export const assessmentApi = {
-  getAll: () => api.get('/assessments').then(res => res.data),
+  // One keyset page: { content, nextCursor }; pass nextCursor back as cursor for the next one
+  getPage: (params) => api.get('/assessments', { params }).then(res => res.data),
+  // Counts per state and type, optionally for one module
+  getStats: (moduleId) => api.get('/assessments/stats', { params: { moduleId } }).then(res => res.data),
   getAssessmentById: (id) => api.get(`/assessments/${id}`).then(res => res.data),
   getById: (id) => api.get(`/assessments/${id}`).then(res => res.data),
   getByModule: (moduleId) => api.get(`/modules/${moduleId}/assessments`).then(res => res.data),
@@ -28,7 +28,7 @@ const STATE_COLORS = {
   ON_HOLD: 'danger',
 };
 
-const STATE_LABELS = {
+export const STATE_LABELS = {
   DRAFT: 'Draft',
   READY_FOR_CHECK: 'Ready for Check',
   CHANGES_REQUIRED: 'Changes Required',
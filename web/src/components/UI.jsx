@@ -134,3 +134,21 @@ export const Modal = ({ isOpen, onClose, title, children }) => {
     </div>
   );
 };
+
+export const Pagination = ({ page, totalPages, onPageChange }) => {
+  if (!totalPages || totalPages <= 1) return null;
+
+  return (
+    <div className="flex items-center justify-center gap-4">
+      <Button variant="secondary" size="sm" onClick={() => onPageChange(page - 1)} disabled={page === 0}>
+        Previous
+      </Button>
+      <span className="text-sm text-gray-600">
+        Page {page + 1} of {totalPages}
+      </span>
+      <Button variant="secondary" size="sm" onClick={() => onPageChange(page + 1)} disabled={page + 1 >= totalPages}>
+        Next
+      </Button>
+    </div>
+  );
+};
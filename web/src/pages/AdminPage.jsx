@@ -1,7 +1,7 @@
 import { useState } from 'react';
-import { useQuery, useMutation, useQueryClient } from '@tanstack/react-query';
+import { useQuery, useMutation, useQueryClient, keepPreviousData } from '@tanstack/react-query';
 import { userApi, moduleApi } from '../api/client';
-import { Card, Button, Input, Select, Badge, Modal } from '../components/UI';
+import { Card, Button, Input, Select, Badge, Modal, Pagination } from '../components/UI';
 import { useAuth } from '../context/AuthContext';
 
 const AdminPage = () => {
@@ -29,17 +29,28 @@ const AdminPage = () => {
   const [showExternalExaminerModal, setShowExternalExaminerModal] = useState(false);
   const [selectedModuleForEE, setSelectedModuleForEE] = useState(null);
   const [selectedExternalExaminerId, setSelectedExternalExaminerId] = useState('');
+  const [moduleSearch, setModuleSearch] = useState('');
+  const [modulePageNumber, setModulePageNumber] = useState(0);
 
   const { data: users = [] } = useQuery({
     queryKey: ['users'],
     queryFn: userApi.getAll,
   });
 
-  const { data: modules = [] } = useQuery({
-    queryKey: ['modules'],
-    queryFn: moduleApi.getAll,
+  // One page of the module listing at a time, only while the Modules tab is open
+  const { data: modulePage } = useQuery({
+    queryKey: ['modules', 'admin', moduleSearch, modulePageNumber],
+    queryFn: () => moduleApi.getModules({
+      search: moduleSearch.trim() || undefined,
+      page: modulePageNumber,
+      size: 30,
+    }),
+    enabled: activeTab === 'modules',
+    placeholderData: keepPreviousData,
   });
 
+  const modules = modulePage?.content ?? [];
+
   const createUserMutation = useMutation({
     mutationFn: userApi.create,
     onSuccess: () => {
@@ -239,8 +250,28 @@ const AdminPage = () => {
       });
 
       if (response.ok) {
-        const result = await response.json();
-        setUploadMessage(`Success!\n${result.errors || 'Imported successfully'}`);
+        // Import runs in the background - poll the job until it finishes
+        let job = await response.json();
+        while (job.status === 'PENDING' || job.status === 'RUNNING') {
+          setUploadMessage(`Importing... ${job.processedLines || 0} lines processed`);
+          await new Promise((resolve) => setTimeout(resolve, 1000));
+          const jobResponse = await fetch(`/api/admin/import/jobs/${job.id}`, { credentials: 'include' });
+          job = await jobResponse.json();
+        }
+        if (job.status === 'COMPLETED') {
+          setUploadMessage(`Success!\n${job.errors || 'Imported successfully'}`);
+        } else if (job.errorCount > 0) {
+          // Show the first page of row errors; the full list is paged on the server
+          const errorsResponse = await fetch(`/api/admin/import/jobs/${job.id}/errors?size=20`, { credentials: 'include' });
+          const errorPage = await errorsResponse.json();
+          const lines = errorPage.content.map((err) => `Line ${err.lineNumber}: ${err.message}`);
+          if (errorPage.totalElements > lines.length) {
+            lines.push(`...and ${errorPage.totalElements - lines.length} more`);
+          }
+          setUploadMessage(`Error: ${job.errors}\n${lines.join('\n')}`);
+        } else {
+          setUploadMessage(`Error: ${job.errors || 'Import failed'}`);
+        }
         // Refresh data
         queryClient.invalidateQueries(['modules']);
       } else {
@@ -377,6 +408,15 @@ const AdminPage = () => {
             <Button onClick={() => setShowModuleModal(true)}>Create Module</Button>
           </div>
 
+          <Input
+            placeholder="Search modules by code or name..."
+            value={moduleSearch}
+            onChange={(e) => {
+              setModuleSearch(e.target.value);
+              setModulePageNumber(0);
+            }}
+          />
+
           <div className="grid grid-cols-1 md:grid-cols-2 lg:grid-cols-3 gap-4">
             {modules.map((module) => (
               <Card key={module.id}>
@@ -424,6 +464,8 @@ const AdminPage = () => {
               </Card>
             ))}
           </div>
+
+          <Pagination page={modulePageNumber} totalPages={modulePage?.totalPages} onPageChange={setModulePageNumber} />
         </div>
       )}
 
@@ -1,26 +1,47 @@
-import { useQuery } from '@tanstack/react-query';
+import { useQuery, useInfiniteQuery } from '@tanstack/react-query';
 import { Link } from 'react-router-dom';
 import { moduleApi, assessmentApi } from '../api/client';
 import { useAuth } from '../context/AuthContext';
-import { Card, Badge } from '../components/UI';
+import { Card, Badge, Button } from '../components/UI';
 import AssessmentStateBadge from '../components/AssessmentStateBadge';
 
 const DashboardPage = () => {
   const { user } = useAuth();
 
-  const { data: modules = [] } = useQuery({
+  // Only the modules where the user holds a staff role, whatever their base type
+  const { data: userModulePage } = useQuery({
     queryKey: ['modules', 'user-modules'],
-    queryFn: moduleApi.getAll,
+    queryFn: () => moduleApi.getModules({ mine: true, size: 60 }),
   });
 
-  // Filter to only show modules where user has a role (userRole is set by backend)
-  const userModules = modules.filter(module => module.userRole);
+  const userModules = userModulePage?.content ?? [];
 
-  const { data: assessments = [] } = useQuery({
-    queryKey: ['assessments'],
-    queryFn: assessmentApi.getAll,
+  // One page at a time; older pages are only fetched when asked for
+  const {
+    data: assessmentPages,
+    fetchNextPage,
+    hasNextPage,
+    isFetchingNextPage,
+  } = useInfiniteQuery({
+    queryKey: ['assessments', 'dashboard'],
+    queryFn: ({ pageParam }) => assessmentApi.getPage({ cursor: pageParam, limit: 50 }),
+    initialPageParam: undefined,
+    getNextPageParam: (lastPage) => lastPage.nextCursor || undefined,
   });
 
+  const assessments = assessmentPages?.pages.flatMap((page) => page.content) ?? [];
+
+  // Counts come from the server-side counters, not from the pages loaded below
+  const { data: stats } = useQuery({
+    queryKey: ['assessments', 'stats'],
+    queryFn: () => assessmentApi.getStats(),
+  });
+
+  const byState = stats?.byState || {};
+  const byType = stats?.byType || {};
+  const completedCount = ['RELEASED', 'FINALISED', 'PUBLISHED', 'ARCHIVED']
+    .reduce((sum, state) => sum + (byState[state] || 0), 0);
+
   // Filter assessments needing action from the current user
   const actionableAssessments = assessments.filter((assessment) => {
     const state = assessment.currentState;
@@ -129,6 +150,13 @@ const DashboardPage = () => {
             ))}
           </div>
         )}
+        {hasNextPage && (
+          <div className="mt-4 text-center">
+            <Button variant="secondary" size="sm" onClick={() => fetchNextPage()} disabled={isFetchingNextPage}>
+              {isFetchingNextPage ? 'Loading...' : 'Check more assessments'}
+            </Button>
+          </div>
+        )}
       </Card>
 
       {/* My Modules */}
@@ -166,25 +194,69 @@ const DashboardPage = () => {
       <div className="grid grid-cols-1 md:grid-cols-3 gap-4">
         <Card>
           <div className="text-center">
-            <p className="text-3xl font-bold text-primary-600">{userModules.length}</p>
+            <p className="text-3xl font-bold text-primary-600">{userModulePage?.totalElements ?? 0}</p>
             <p className="text-gray-600 mt-1">My Modules</p>
           </div>
         </Card>
         <Card>
           <div className="text-center">
-            <p className="text-3xl font-bold text-yellow-600">{actionableAssessments.length}</p>
+            <p className="text-3xl font-bold text-yellow-600">
+              {actionableAssessments.length}{hasNextPage ? '+' : ''}
+            </p>
             <p className="text-gray-600 mt-1">Action Required</p>
           </div>
         </Card>
         <Card>
           <div className="text-center">
             <p className="text-3xl font-bold text-green-600">
-              {assessments.filter((a) => a.currentState === 'RELEASED' || a.currentState === 'PUBLISHED').length}
+              {(byState.RELEASED || 0) + (byState.PUBLISHED || 0)}
             </p>
             <p className="text-gray-600 mt-1">Released/Published</p>
           </div>
         </Card>
       </div>
+
+      {/* Assessment Stats */}
+      <div className="grid grid-cols-1 md:grid-cols-4 gap-4">
+        <Card>
+          <div className="text-center">
+            <p className="text-3xl font-bold text-primary-600">{stats?.total || 0}</p>
+            <p className="text-gray-600 mt-1">Total Assessments</p>
+          </div>
+        </Card>
+        <Card>
+          <div className="text-center">
+            <p className="text-3xl font-bold text-blue-600">{byType.EXAM || 0}</p>
+            <p className="text-gray-600 mt-1">Exams</p>
+          </div>
+        </Card>
+        <Card>
+          <div className="text-center">
+            <p className="text-3xl font-bold text-purple-600">{(byType.CW || 0) + (byType.TEST || 0)}</p>
+            <p className="text-gray-600 mt-1">Coursework/Tests</p>
+          </div>
+        </Card>
+        <Card>
+          <div className="text-center">
+            <p className="text-3xl font-bold text-yellow-600">{(stats?.total || 0) - completedCount}</p>
+            <p className="text-gray-600 mt-1">In Progress</p>
+          </div>
+        </Card>
+      </div>
+
+      {Object.keys(byState).length > 0 && (
+        <Card>
+          <h2 className="text-xl font-semibold mb-4">Assessments by State</h2>
+          <div className="flex flex-wrap gap-3">
+            {Object.entries(byState).map(([state, count]) => (
+              <div key={state} className="flex items-center gap-2">
+                <AssessmentStateBadge state={state} />
+                <span className="text-sm font-semibold text-gray-700">{count}</span>
+              </div>
+            ))}
+          </div>
+        </Card>
+      )}
     </div>
   );
 };
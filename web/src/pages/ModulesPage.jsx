@@ -1,14 +1,20 @@
-import { useState } from 'react';
-import { useQuery, useMutation, useQueryClient } from '@tanstack/react-query';
+import { useState, useEffect } from 'react';
+import { useQuery, useMutation, useQueryClient, keepPreviousData } from '@tanstack/react-query';
 import { Link } from 'react-router-dom';
 import { moduleApi, userApi } from '../api/client';
 import { useAuth } from '../context/AuthContext';
-import { Card, Input, Badge, Button, Modal, Select } from '../components/UI';
+import { Card, Input, Badge, Button, Modal, Select, Pagination } from '../components/UI';
+
+const PAGE_SIZE = 30;
+const ACADEMIC_YEAR = /^\d{4}([/-]\d{2}(\d{2})?)?$/;
 
 const ModulesPage = () => {
   const { hasRole, user, viewMode, isTeachingSupport } = useAuth();
   const queryClient = useQueryClient();
   const [searchTerm, setSearchTerm] = useState('');
+  const [search, setSearch] = useState('');
+  const [year, setYear] = useState('');
+  const [page, setPage] = useState(0);
   const [showCreateModal, setShowCreateModal] = useState(false);
   const [newModule, setNewModule] = useState({
     code: '',
@@ -22,11 +28,31 @@ const ModulesPage = () => {
   // In standard view, show only user's modules (handled by backend)
   const showAllModules = viewMode === 'admin' || isTeachingSupport;
   
-  const { data: modules = [], isLoading } = useQuery({
-    queryKey: ['modules', showAllModules],
-    queryFn: moduleApi.getAll,
+  // Search once typing pauses, and start again from the first page
+  useEffect(() => {
+    const timer = setTimeout(() => {
+      setSearch(searchTerm.trim());
+      setPage(0);
+    }, 300);
+    return () => clearTimeout(timer);
+  }, [searchTerm]);
+
+  // Only a complete academic year (e.g. 2024/25) is sent as a filter
+  const yearFilter = ACADEMIC_YEAR.test(year.trim()) ? year.trim() : undefined;
+
+  const { data: modulePage, isLoading } = useQuery({
+    queryKey: ['modules', showAllModules, search, yearFilter, page],
+    queryFn: () => moduleApi.getModules({
+      search: search || undefined,
+      year: yearFilter,
+      page,
+      size: PAGE_SIZE,
+    }),
+    placeholderData: keepPreviousData,
   });
 
+  const modules = modulePage?.content ?? [];
+
   const { data: users = [] } = useQuery({
     queryKey: ['users'],
     queryFn: userApi.getAll,
@@ -78,14 +104,6 @@ const ModulesPage = () => {
     (user) => user.baseType === 'ACADEMIC' || user.baseType === 'TEACHING_SUPPORT'
   );
 
-  const filteredModules = modules
-    .filter(
-      (module) =>
-        module.code.toLowerCase().includes(searchTerm.toLowerCase()) ||
-        module.title.toLowerCase().includes(searchTerm.toLowerCase())
-    )
-    .sort((a, b) => a.code.localeCompare(b.code));
-
   if (isLoading) {
     return <div className="text-center py-12">Loading modules...</div>;
   }
@@ -102,20 +120,32 @@ const ModulesPage = () => {
       </div>
 
       <Card>
-        <Input
-          placeholder="Search modules by code or name..."
-          value={searchTerm}
-          onChange={(e) => setSearchTerm(e.target.value)}
-        />
+        <div className="grid grid-cols-1 md:grid-cols-3 gap-4">
+          <div className="md:col-span-2">
+            <Input
+              placeholder="Search modules by code or name..."
+              value={searchTerm}
+              onChange={(e) => setSearchTerm(e.target.value)}
+            />
+          </div>
+          <Input
+            placeholder="Academic year, e.g. 2024/25"
+            value={year}
+            onChange={(e) => {
+              setYear(e.target.value);
+              setPage(0);
+            }}
+          />
+        </div>
       </Card>
 
-      {filteredModules.length === 0 ? (
+      {modules.length === 0 ? (
         <Card>
           <p className="text-center text-gray-500">No modules found.</p>
         </Card>
       ) : (
         <div className="grid grid-cols-1 md:grid-cols-2 lg:grid-cols-3 gap-6">
-          {filteredModules.map((module) => (
+          {modules.map((module) => (
             <Link key={module.id} to={`/modules/${module.id}`}>
               <Card className="h-full hover:shadow-lg transition-shadow cursor-pointer">
                 <div className="flex flex-col h-full">
@@ -141,6 +171,8 @@ const ModulesPage = () => {
         </div>
       )}
 
+      <Pagination page={page} totalPages={modulePage?.totalPages} onPageChange={setPage} />
+
       {/* Create Module Modal */}
       <Modal
         isOpen={showCreateModal}
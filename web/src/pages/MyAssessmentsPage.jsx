@@ -1,18 +1,51 @@
-import { useQuery } from '@tanstack/react-query';
+import { useState } from 'react';
+import { useInfiniteQuery } from '@tanstack/react-query';
 import { Link } from 'react-router-dom';
 import { assessmentApi } from '../api/client';
-import { Card, Badge } from '../components/UI';
-import AssessmentStateBadge from '../components/AssessmentStateBadge';
+import { Card, Badge, Button, Select } from '../components/UI';
+import AssessmentStateBadge, { STATE_LABELS } from '../components/AssessmentStateBadge';
 import { useAuth } from '../context/AuthContext';
 
+const PAGE_SIZE = 50;
+
+const TYPE_OPTIONS = [
+  { value: '', label: 'All types' },
+  { value: 'EXAM', label: 'Exam' },
+  { value: 'CW', label: 'Coursework' },
+  { value: 'TEST', label: 'Test' },
+];
+
+const STATE_OPTIONS = [
+  { value: '', label: 'All states' },
+  ...Object.entries(STATE_LABELS).map(([value, label]) => ({ value, label })),
+];
+
 const MyAssessmentsPage = () => {
   const { user } = useAuth();
+  const [type, setType] = useState('');
+  const [currentState, setCurrentState] = useState('');
 
-  const { data: assessments = [], isLoading } = useQuery({
-    queryKey: ['assessments', 'my-assessments'],
-    queryFn: assessmentApi.getAll,
+  // One filtered page at a time; further pages are fetched on demand
+  const {
+    data,
+    isLoading,
+    fetchNextPage,
+    hasNextPage,
+    isFetchingNextPage,
+  } = useInfiniteQuery({
+    queryKey: ['assessments', 'my-assessments', type, currentState],
+    queryFn: ({ pageParam }) => assessmentApi.getPage({
+      type: type || undefined,
+      currentState: currentState || undefined,
+      cursor: pageParam,
+      limit: PAGE_SIZE,
+    }),
+    initialPageParam: undefined,
+    getNextPageParam: (lastPage) => lastPage.nextCursor || undefined,
   });
 
+  const assessments = data?.pages.flatMap((page) => page.content) ?? [];
+
   // Group assessments by role
   const groupedAssessments = assessments.reduce((acc, assessment) => {
     const roles = assessment.roles || [];
@@ -77,6 +110,21 @@ const MyAssessmentsPage = () => {
         </p>
       </div>
 
+      <div className="grid grid-cols-1 md:grid-cols-2 gap-4 max-w-xl">
+        <Select
+          label="Type"
+          value={type}
+          onChange={(e) => setType(e.target.value)}
+          options={TYPE_OPTIONS}
+        />
+        <Select
+          label="State"
+          value={currentState}
+          onChange={(e) => setCurrentState(e.target.value)}
+          options={STATE_OPTIONS}
+        />
+      </div>
+
       {/* Setter Assessments */}
       {groupedAssessments.setter.length > 0 && (
         <Card>
@@ -165,12 +213,22 @@ const MyAssessmentsPage = () => {
         </Card>
       )}
 
+      {hasNextPage && (
+        <div className="text-center">
+          <Button variant="secondary" onClick={() => fetchNextPage()} disabled={isFetchingNextPage}>
+            {isFetchingNextPage ? 'Loading...' : 'Load more'}
+          </Button>
+        </div>
+      )}
+
       {/* Summary Stats */}
       {assessments.length > 0 && (
         <div className="grid grid-cols-1 md:grid-cols-4 gap-4">
           <Card>
             <div className="text-center">
-              <p className="text-3xl font-bold text-primary-600">{assessments.length}</p>
+              <p className="text-3xl font-bold text-primary-600">
+                {assessments.length}{hasNextPage ? '+' : ''}
+              </p>
               <p className="text-gray-600 mt-1">Total Assessments</p>
             </div>
           </Card>